@@ -0,0 +1,131 @@
+package com.pumaprintables.platform.config;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.Cache;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import com.pumaprintables.platform.domain.model.Product;
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.service.CacheInvalidation;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+/**
+ * Second-level cache for rarely changing reference data. Hibernate keeps the regions consistent for changes made
+ * through the persistence context; bulk or native updates to these tables must declare the affected entity so only
+ * its region is invalidated. Changes made on other instances arrive as {@link CacheInvalidation} events.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "puma.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EntityCacheConfig {
+
+    static final List<String> REGIONS = List.of(
+        User.CACHE_REGION,
+        User.USERNAME_CACHE_REGION,
+        Product.CACHE_REGION,
+        Product.SKU_CACHE_REGION
+    );
+
+    @Bean(destroyMethod = "close")
+    CacheManager entityCacheManager(EntityCacheProperties properties) {
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder()
+            .withCache(User.CACHE_REGION, region(properties.getUsers()))
+            .withCache(User.USERNAME_CACHE_REGION, region(properties.getUsers()))
+            .withCache(Product.CACHE_REGION, region(properties.getProducts()))
+            .withCache(Product.SKU_CACHE_REGION, region(properties.getProducts()));
+
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        // JCache providers share managers by URI, so give each application context its own to keep test contexts apart.
+        CacheManager cacheManager = provider.getCacheManager(URI.create("puma-entity-cache-" + UUID.randomUUID()), configuration.build());
+        REGIONS.forEach(region -> cacheManager.enableStatistics(region, true));
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer entityCacheHibernateProperties(CacheManager entityCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    @Bean
+    MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return registry -> REGIONS.forEach(region ->
+            JCacheMetrics.monitor(registry, entityCacheManager.getCache(region), Tags.of("cache.manager", "hibernate")));
+    }
+
+    @Bean
+    EntityCacheInvalidator entityCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+        return new EntityCacheInvalidator(entityManagerFactory);
+    }
+
+    private static CacheConfiguration<Object, Object> region(EntityCacheProperties.Region settings) {
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(settings.getMaxEntries()))
+            .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(settings.getTimeToLive()))
+            .build();
+    }
+
+    static class EntityCacheInvalidator {
+
+        private final EntityManagerFactory entityManagerFactory;
+
+        EntityCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+            this.entityManagerFactory = entityManagerFactory;
+        }
+
+        @EventListener
+        void onInvalidation(CacheInvalidation invalidation) {
+            Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+            // Natural id lookups are keyed by SKU or username, which the event does not carry, so drop the whole region.
+            switch (invalidation.target()) {
+                case PRODUCT -> {
+                    cache.evictEntityData(Product.class, UUID.fromString(invalidation.key()));
+                    cache.evictNaturalIdData(Product.class);
+                }
+                case PRODUCTS -> {
+                    cache.evictEntityData(Product.class);
+                    cache.evictNaturalIdData(Product.class);
+                }
+                case USER -> {
+                    cache.evictEntityData(User.class, UUID.fromString(invalidation.key()));
+                    cache.evictNaturalIdData(User.class);
+                }
+                case ALL -> {
+                    cache.evictEntityData(Product.class);
+                    cache.evictNaturalIdData(Product.class);
+                    cache.evictEntityData(User.class);
+                    cache.evictNaturalIdData(User.class);
+                }
+                case APPROVERS, TOKEN_REVOCATION -> {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.pumaprintables.platform.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.cache")
+public class EntityCacheProperties {
+
+    /**
+     * Enables the Hibernate second-level cache for reference data (users and products).
+     */
+    private boolean enabled = true;
+
+    /**
+     * Sizing for the {@code User} entity and username lookups.
+     */
+    private final Region users = new Region(2_000, Duration.ofMinutes(30));
+
+    /**
+     * Sizing for the {@code Product} entity and SKU lookups.
+     */
+    private final Region products = new Region(5_000, Duration.ofHours(1));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Region getUsers() {
+        return users;
+    }
+
+    public Region getProducts() {
+        return products;
+    }
+
+    public static class Region {
+
+        /**
+         * Maximum number of entries held on heap; least recently used entries are evicted beyond this.
+         */
+        private long maxEntries;
+
+        /**
+         * Upper bound on how long an entry is served from the cache before it is reloaded.
+         */
+        private Duration timeToLive;
+
+        public Region() {
+        }
+
+        Region(long maxEntries, Duration timeToLive) {
+            this.maxEntries = maxEntries;
+            this.timeToLive = timeToLive;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+}
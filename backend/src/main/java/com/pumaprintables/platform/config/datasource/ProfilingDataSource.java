@@ -0,0 +1,104 @@
+package com.pumaprintables.platform.config.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Wraps connections so every executed statement is timed and reported to a {@link StatementRecorder}. Covers JPA,
+ * {@code JdbcTemplate} and Liquibase alike, unlike a Hibernate {@code StatementInspector}, which never sees plain JDBC.
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    private final StatementRecorder recorder;
+
+    public ProfilingDataSource(DataSource targetDataSource, StatementRecorder recorder) {
+        super(targetDataSource);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+            new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                    : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type},
+                    new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private String sql;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                // Plain statements name their SQL per batch entry; the first one labels the batch.
+                if (sql == null && name.equals("addBatch") && args != null && args[0] instanceof String s) {
+                    sql = s;
+                }
+                return ProfilingDataSource.invoke(target, method, args);
+            }
+            String executed = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            long start = System.nanoTime();
+            try {
+                return ProfilingDataSource.invoke(target, method, args);
+            } finally {
+                recorder.record(executed, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.pumaprintables.platform.config.datasource;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Replaces the auto-configured pool with a primary pool, a replica pool and a routing layer between them.
+ * JPA, Liquibase and everything else inject the {@code @Primary} lazy proxy, so only transactions marked
+ * {@code readOnly = true} ever reach the replica.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "puma.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    HikariDataSource replicaDataSource(DataSourceProperties primaryProperties, ReplicaDataSourceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(primaryProperties.determineDriverClassName());
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername() != null ? properties.getUsername() : primaryProperties.determineUsername());
+        dataSource.setPassword(properties.getPassword() != null ? properties.getPassword() : primaryProperties.determinePassword());
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        dataSource.setReadOnly(true);
+        // Start even if the replica is down; requests fall back to the primary until it is reachable.
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    ReadReplicaRoutingDataSource readReplicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                              @Qualifier("replicaDataSource") DataSource replica,
+                                                              ReplicaDataSourceProperties properties) {
+        return new ReadReplicaRoutingDataSource(primary, replica, properties);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReadReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    ReplicaMonitor replicaMonitor(ReadReplicaRoutingDataSource routingDataSource) {
+        return new ReplicaMonitor(routingDataSource);
+    }
+
+    static class ReplicaMonitor {
+
+        private final ReadReplicaRoutingDataSource routingDataSource;
+
+        ReplicaMonitor(ReadReplicaRoutingDataSource routingDataSource) {
+            this.routingDataSource = routingDataSource;
+        }
+
+        @Scheduled(fixedDelayString = "${puma.datasource.replica.lag-check-interval:PT10S}")
+        void probe() {
+            routingDataSource.probeReplica();
+            routingDataSource.purgeWriteMarkers();
+        }
+    }
+}
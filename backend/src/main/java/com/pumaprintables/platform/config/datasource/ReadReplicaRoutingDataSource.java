@@ -0,0 +1,176 @@
+package com.pumaprintables.platform.config.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out replica connections for read-only transactions and primary connections for everything else.
+ * <p>
+ * The replica is skipped when it cannot be reached (for {@code failureBackoff}), when its replay lag exceeds
+ * {@code maxLag}, and for users who committed a write within the read-your-writes window. The routing decision
+ * relies on the transaction's read-only flag, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that defers connection acquisition
+ * until the transaction has been set up.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    // Lag is only meaningful while the standby is still replaying WAL; an idle but caught-up replica reports zero.
+    static final String LAG_QUERY = """
+        SELECT CASE
+                 WHEN pg_last_wal_receive_lsn() IS NULL OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+               END
+        """;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaDataSourceProperties properties;
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    private volatile long replicaUnavailableUntilNanos;
+    private volatile boolean replicaUnavailable;
+    private volatile long replicaLagNanos;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaDataSourceProperties properties) {
+        this.primary = primary;
+        this.replica = replica;
+        this.properties = properties;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (shouldUseReplica()) {
+            try {
+                Connection connection = replica.getConnection();
+                markReplicaAvailable();
+                return connection;
+            } catch (SQLException ex) {
+                markReplicaUnavailable(ex);
+            }
+        } else {
+            trackWriteIfReadWrite();
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Measures replay lag on the replica. Reads go to the primary while the lag is above {@code maxLag} or the probe
+     * fails, and the read-your-writes window stretches to cover the measured lag.
+     */
+    public void probeReplica() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            long lagMillis = resultSet.next() ? Math.round(resultSet.getDouble(1)) : 0;
+            recordReplicaLag(lagMillis * 1_000_000L);
+            markReplicaAvailable();
+        } catch (SQLException ex) {
+            markReplicaUnavailable(ex);
+        }
+    }
+
+    /**
+     * Drops write markers that are older than any window still in use.
+     */
+    public void purgeWriteMarkers() {
+        long cutoff = System.nanoTime() - readYourWritesWindowNanos();
+        lastWriteNanos.values().removeIf(writtenAt -> writtenAt - cutoff < 0);
+    }
+
+    void recordReplicaLag(long lagNanos) {
+        boolean wasLagging = replicaLagNanos > properties.getMaxLag().toNanos();
+        replicaLagNanos = lagNanos;
+        boolean lagging = lagNanos > properties.getMaxLag().toNanos();
+        if (lagging != wasLagging) {
+            if (lagging) {
+                log.warn("Read replica lag {} ms exceeds {}; routing reads to primary", lagNanos / 1_000_000, properties.getMaxLag());
+            } else {
+                log.info("Read replica lag back to {} ms; resuming read routing", lagNanos / 1_000_000);
+            }
+        }
+    }
+
+    private boolean shouldUseReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        if (replicaUnavailable && System.nanoTime() - replicaUnavailableUntilNanos < 0) {
+            return false;
+        }
+        if (replicaLagNanos > properties.getMaxLag().toNanos()) {
+            return false;
+        }
+        String username = currentUsername();
+        if (username == null) {
+            return true;
+        }
+        Long writtenAt = lastWriteNanos.get(username);
+        return writtenAt == null || System.nanoTime() - writtenAt >= readYourWritesWindowNanos();
+    }
+
+    private void trackWriteIfReadWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+            || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        String username = currentUsername();
+        if (username == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteNanos.put(username, System.nanoTime());
+            }
+        });
+    }
+
+    private void markReplicaUnavailable(SQLException ex) {
+        replicaUnavailableUntilNanos = System.nanoTime() + properties.getFailureBackoff().toNanos();
+        if (!replicaUnavailable) {
+            log.warn("Read replica unavailable, routing reads to primary for {}: {}", properties.getFailureBackoff(), ex.getMessage());
+        }
+        replicaUnavailable = true;
+    }
+
+    private void markReplicaAvailable() {
+        if (replicaUnavailable) {
+            replicaUnavailable = false;
+            log.info("Read replica reachable again; resuming read routing");
+        }
+    }
+
+    private long readYourWritesWindowNanos() {
+        return Math.max(properties.getReadYourWritesWindow().toNanos(), replicaLagNanos);
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
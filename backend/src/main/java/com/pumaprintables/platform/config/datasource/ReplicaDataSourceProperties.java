@@ -0,0 +1,136 @@
+package com.pumaprintables.platform.config.datasource;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * Routes {@code @Transactional(readOnly = true)} work to the replica below; everything else stays on the primary.
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC URL of the read replica.
+     */
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /**
+     * Maximum connections held open against the replica.
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * How long to wait for a replica connection before falling back to the primary.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    /**
+     * After a failed replica connection, reads stay on the primary for this long before the replica is retried.
+     */
+    private Duration failureBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Minimum time a user's reads stay on the primary after they commit a write, so they see their own changes.
+     * Extended automatically while the measured replica lag is longer.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Replication lag above which all reads are sent to the primary.
+     */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    /**
+     * Interval between replica lag probes.
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public Duration getFailureBackoff() {
+        return failureBackoff;
+    }
+
+    public void setFailureBackoff(Duration failureBackoff) {
+        this.failureBackoff = failureBackoff;
+    }
+
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+}
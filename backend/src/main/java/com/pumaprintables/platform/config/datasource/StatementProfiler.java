@@ -0,0 +1,252 @@
+package com.pumaprintables.platform.config.datasource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aggregates JDBC statement counts and timings per endpoint and per normalised query.
+ * <p>
+ * Statements are attributed to the request running on the current thread between {@link #startRequest()} and
+ * {@link #endRequest(String)}; statements outside a request (scheduled jobs, startup) only count towards the query
+ * figures. All shared counters are adders or atomic arrays, so recording never takes a lock.
+ */
+public class StatementProfiler implements StatementRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementProfiler.class);
+
+    // Statements per request: 0, 1, 2-3, 4-7, ..., 256-511, 512+.
+    private static final int HISTOGRAM_BUCKETS = 11;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final StatementProfilerProperties properties;
+    private final ThreadLocal<RequestProfile> currentRequest = new ThreadLocal<>();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, QueryStats> queries = new ConcurrentHashMap<>();
+    private final Map<String, String> normalised = new ConcurrentHashMap<>();
+
+    public StatementProfiler(StatementProfilerProperties properties) {
+        this.properties = properties;
+    }
+
+    public void startRequest() {
+        currentRequest.set(new RequestProfile());
+    }
+
+    /**
+     * Closes the current thread's request and adds it to the endpoint's figures.
+     *
+     * @param endpoint the method and matched path pattern, for example {@code GET /api/v1/orders/{orderId}}
+     */
+    public void endRequest(String endpoint) {
+        RequestProfile request = currentRequest.get();
+        if (request == null) {
+            return;
+        }
+        currentRequest.remove();
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+        stats.record(request);
+        int budget = properties.getStatementBudget();
+        if (budget > 0 && request.statements > budget) {
+            stats.overBudget.increment();
+            Map.Entry<String, Integer> repeated = request.mostRepeated();
+            log.warn("{} ran {} SQL statements in {} ms, over the budget of {}; most repeated ({}x): {}", endpoint,
+                request.statements, request.nanos / 1_000_000, budget, repeated.getValue(), repeated.getKey());
+        }
+    }
+
+    /**
+     * Records one executed statement; batches count once.
+     */
+    @Override
+    public void record(String sql, long nanos) {
+        String query = normalise(sql);
+        RequestProfile request = currentRequest.get();
+        if (request != null) {
+            request.record(query, nanos);
+        }
+        QueryStats stats = queries.get(query);
+        if (stats == null) {
+            if (queries.size() >= properties.getMaxTrackedQueries()) {
+                return;
+            }
+            stats = queries.computeIfAbsent(query, key -> new QueryStats());
+        }
+        stats.record(nanos);
+    }
+
+    public Snapshot snapshot() {
+        List<EndpointProfile> endpointProfiles = new ArrayList<>(endpoints.size());
+        endpoints.forEach((endpoint, stats) -> endpointProfiles.add(stats.profile(endpoint)));
+        endpointProfiles.sort(Comparator.comparingDouble(EndpointProfile::jdbcMillis).reversed());
+
+        List<QueryProfile> queryProfiles = new ArrayList<>(queries.size());
+        queries.forEach((sql, stats) -> queryProfiles.add(stats.profile(sql)));
+        // A rare query taking seconds never makes the total-time list, so the slowest single runs are listed too.
+        return new Snapshot(properties.getStatementBudget(), endpointProfiles,
+            top(queryProfiles, Comparator.comparingDouble(QueryProfile::maxMillis)
+                .thenComparingDouble(QueryProfile::averageMillis)),
+            top(queryProfiles, Comparator.comparingDouble(QueryProfile::totalMillis)));
+    }
+
+    private List<QueryProfile> top(List<QueryProfile> queryProfiles, Comparator<QueryProfile> order) {
+        return queryProfiles.stream()
+            .sorted(order.reversed())
+            .limit(Math.max(properties.getTopQueries(), 0))
+            .toList();
+    }
+
+    public void reset() {
+        endpoints.clear();
+        queries.clear();
+    }
+
+    /**
+     * Replaces literals with {@code ?} and collapses parameter lists and whitespace, so statements that differ only in
+     * their values are counted together.
+     */
+    String normalise(String sql) {
+        if (sql == null) {
+            return "<unknown>";
+        }
+        String cached = normalised.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String query = STRING_LITERAL.matcher(sql).replaceAll("?");
+        query = NUMBER_LITERAL.matcher(query).replaceAll("?");
+        query = PARAMETER_LIST.matcher(query).replaceAll("(?...)");
+        query = WHITESPACE.matcher(query).replaceAll(" ").trim();
+        // Statements built with inlined values never repeat, so stop caching once the cache is full.
+        if (normalised.size() < properties.getMaxTrackedQueries() * 4) {
+            normalised.put(sql, query);
+        }
+        return query;
+    }
+
+    static int bucket(int statements) {
+        return statements == 0 ? 0 : Math.min(32 - Integer.numberOfLeadingZeros(statements), HISTOGRAM_BUCKETS - 1);
+    }
+
+    static String bucketLabel(int bucket) {
+        if (bucket <= 1) {
+            return Integer.toString(bucket);
+        }
+        int low = 1 << (bucket - 1);
+        return bucket == HISTOGRAM_BUCKETS - 1 ? low + "+" : low + "-" + ((low << 1) - 1);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Only touched by the thread serving the request.
+     */
+    private static final class RequestProfile {
+
+        private final Map<String, Integer> executions = new HashMap<>();
+        private int statements;
+        private long nanos;
+
+        void record(String query, long statementNanos) {
+            statements++;
+            nanos += statementNanos;
+            executions.merge(query, 1, Integer::sum);
+        }
+
+        Map.Entry<String, Integer> mostRepeated() {
+            return executions.entrySet().stream().max(Map.Entry.comparingByValue()).orElseThrow();
+        }
+    }
+
+    private static final class EndpointStats {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder overBudget = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+        void record(RequestProfile request) {
+            requests.increment();
+            statements.add(request.statements);
+            nanos.add(request.nanos);
+            maxStatements.accumulate(request.statements);
+            histogram.incrementAndGet(bucket(request.statements));
+        }
+
+        EndpointProfile profile(String endpoint) {
+            long requestCount = requests.sum();
+            long statementCount = statements.sum();
+            long totalNanos = nanos.sum();
+            Map<String, Long> statementsPerRequest = new LinkedHashMap<>();
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                long count = histogram.get(i);
+                if (count > 0) {
+                    statementsPerRequest.put(bucketLabel(i), count);
+                }
+            }
+            return new EndpointProfile(endpoint, requestCount, statementCount,
+                requestCount == 0 ? 0 : (double) statementCount / requestCount, maxStatements.get(),
+                millis(totalNanos), requestCount == 0 ? 0 : millis(totalNanos) / requestCount, overBudget.sum(),
+                statementsPerRequest);
+        }
+    }
+
+    private static final class QueryStats {
+
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long statementNanos) {
+            executions.increment();
+            nanos.add(statementNanos);
+            maxNanos.accumulate(statementNanos);
+        }
+
+        QueryProfile profile(String sql) {
+            long count = executions.sum();
+            long totalNanos = nanos.sum();
+            return new QueryProfile(sql, count, millis(totalNanos), count == 0 ? 0 : millis(totalNanos) / count,
+                millis(maxNanos.get()));
+        }
+    }
+
+    /**
+     * @param slowestQueries the queries with the slowest single execution
+     * @param topQueries     the queries with the most JDBC time in total
+     */
+    public record Snapshot(int statementBudget, List<EndpointProfile> endpoints, List<QueryProfile> slowestQueries,
+                           List<QueryProfile> topQueries) {
+
+    }
+
+    public record EndpointProfile(String endpoint, long requests, long statements, double averageStatements,
+                                  long maxStatements, double jdbcMillis, double averageJdbcMillis,
+                                  long requestsOverBudget, Map<String, Long> statementsPerRequest) {
+
+    }
+
+    public record QueryProfile(String sql, long executions, double totalMillis, double averageMillis,
+                               double maxMillis) {
+
+    }
+}
@@ -0,0 +1,79 @@
+package com.pumaprintables.platform.config.datasource;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Opt-in statement profiling in place of {@code org.hibernate.SQL} debug logging: wraps the application's
+ * {@code dataSource} bean, tracks statements per request and serves the figures on {@code /actuator/sqlprofile}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "puma.datasource.profiler", name = "enabled", havingValue = "true")
+public class StatementProfilerConfig {
+
+    static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    StatementProfiler statementProfiler(StatementProfilerProperties properties) {
+        return new StatementProfiler(properties);
+    }
+
+    @Bean
+    static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<StatementProfiler> profiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // With a replica configured this is the routing proxy, so both pools are covered once.
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                    && !(bean instanceof ProfilingDataSource)) {
+                    return new ProfilingDataSource(dataSource, profiler.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<StatementProfilerFilter> statementProfilerFilter(StatementProfiler profiler) {
+        FilterRegistrationBean<StatementProfilerFilter> registration =
+            new FilterRegistrationBean<>(new StatementProfilerFilter(profiler));
+        // Ahead of the security chain, whose user lookups count towards the request.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    StatementProfileEndpoint statementProfileEndpoint(StatementProfiler profiler) {
+        return new StatementProfileEndpoint(profiler);
+    }
+
+    @Endpoint(id = "sqlprofile")
+    static class StatementProfileEndpoint {
+
+        private final StatementProfiler profiler;
+
+        StatementProfileEndpoint(StatementProfiler profiler) {
+            this.profiler = profiler;
+        }
+
+        @ReadOperation
+        public StatementProfiler.Snapshot profile() {
+            return profiler.snapshot();
+        }
+
+        @DeleteOperation
+        public void reset() {
+            profiler.reset();
+        }
+    }
+}
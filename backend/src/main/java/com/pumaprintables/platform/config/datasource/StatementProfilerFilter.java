@@ -0,0 +1,43 @@
+package com.pumaprintables.platform.config.datasource;
+
+import java.io.IOException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Attributes the statements run while serving a request, including those of the security filters, to the matched
+ * endpoint.
+ */
+public class StatementProfilerFilter extends OncePerRequestFilter {
+
+    static final String UNMAPPED = "UNMAPPED";
+
+    private final StatementProfiler profiler;
+
+    public StatementProfilerFilter(StatementProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        profiler.startRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            profiler.endRequest(endpoint(request));
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        // Keyed by the path pattern rather than the raw path, so ids in URLs do not create endpoints without bound.
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : UNMAPPED);
+    }
+}
@@ -0,0 +1,64 @@
+package com.pumaprintables.platform.config.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.datasource.profiler")
+public class StatementProfilerProperties {
+
+    /**
+     * Times every JDBC statement and aggregates the figures per endpoint and per normalised query, readable on
+     * {@code /actuator/sqlprofile}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Requests running more statements than this are logged with their most repeated statement, which usually points
+     * at an N+1 query.
+     */
+    private int statementBudget = 30;
+
+    /**
+     * Number of normalised queries listed on the actuator endpoint in each ranking, by slowest execution and by total
+     * JDBC time.
+     */
+    private int topQueries = 20;
+
+    /**
+     * Distinct normalised queries tracked; statements beyond this are still counted per endpoint but not listed.
+     */
+    private int maxTrackedQueries = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getStatementBudget() {
+        return statementBudget;
+    }
+
+    public void setStatementBudget(int statementBudget) {
+        this.statementBudget = statementBudget;
+    }
+
+    public int getTopQueries() {
+        return topQueries;
+    }
+
+    public void setTopQueries(int topQueries) {
+        this.topQueries = topQueries;
+    }
+
+    public int getMaxTrackedQueries() {
+        return maxTrackedQueries;
+    }
+
+    public void setMaxTrackedQueries(int maxTrackedQueries) {
+        this.maxTrackedQueries = maxTrackedQueries;
+    }
+}
@@ -0,0 +1,14 @@
+package com.pumaprintables.platform.config.datasource;
+
+/**
+ * Receives every statement executed through a {@link ProfilingDataSource}.
+ */
+@FunctionalInterface
+public interface StatementRecorder {
+
+    /**
+     * @param sql   the statement text, or {@code null} if the driver call did not carry it
+     * @param nanos time spent executing the statement
+     */
+    void record(String sql, long nanos);
+}
@@ -0,0 +1,5 @@
+/**
+ * DataSource wiring that sends read-only transactions to a streaming replica when one is configured, and the opt-in
+ * JDBC statement profiler.
+ */
+package com.pumaprintables.platform.config.datasource;
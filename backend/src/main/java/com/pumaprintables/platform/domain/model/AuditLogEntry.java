@@ -2,13 +2,12 @@ package com.pumaprintables.platform.domain.model;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.pumaprintables.platform.domain.model.enums.AuditAction;
+import com.pumaprintables.platform.domain.model.id.UuidV7Generator;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -22,6 +21,7 @@ import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
 import org.hibernate.type.SqlTypes;
 
 import java.time.OffsetDateTime;
@@ -39,7 +39,7 @@ import java.util.UUID;
 public class AuditLogEntry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     @EqualsAndHashCode.Include
     private UUID id;
 
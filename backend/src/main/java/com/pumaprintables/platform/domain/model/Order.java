@@ -1,14 +1,13 @@
 package com.pumaprintables.platform.domain.model;
 
 import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+import com.pumaprintables.platform.domain.model.id.UuidV7Generator;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -23,6 +22,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.OffsetDateTime;
 import java.util.HashSet;
@@ -41,7 +41,7 @@ import java.util.UUID;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     @EqualsAndHashCode.Include
     private UUID id;
 
@@ -68,6 +68,23 @@ public class Order {
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
+    /**
+     * Fulfillment agent holding the queue lease; written only by the fulfillment queue's SQL.
+     */
+    @Column(name = "claimed_by", insertable = false, updatable = false)
+    private UUID claimedBy;
+
+    @Column(name = "claim_expires_at", insertable = false, updatable = false)
+    private OffsetDateTime claimExpiresAt;
+
+    /**
+     * Incremented by the statements that change anything shown in an order response, the status transitions and the
+     * {@link com.pumaprintables.platform.service.OrderRefreshService} refreshes; backs the order ETags.
+     * {@code null} for orders rebuilt from the archive, which have no version.
+     */
+    @Column(name = "version", insertable = false, updatable = false)
+    private Long version;
+
     @Builder.Default
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @ToString.Exclude
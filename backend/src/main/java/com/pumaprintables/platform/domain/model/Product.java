@@ -14,8 +14,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.type.SqlTypes;
 
 import java.time.OffsetDateTime;
@@ -30,13 +34,19 @@ import java.util.UUID;
 @ToString
 @Entity
 @Table(name = "products")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
+@NaturalIdCache(region = Product.SKU_CACHE_REGION)
 public class Product {
 
+    public static final String CACHE_REGION = "products";
+    public static final String SKU_CACHE_REGION = "products-by-sku";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @EqualsAndHashCode.Include
     private UUID id;
 
+    @NaturalId(mutable = true)
     @Column(name = "sku", nullable = false, unique = true, length = 50)
     private String sku;
 
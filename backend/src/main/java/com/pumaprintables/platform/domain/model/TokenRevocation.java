@@ -0,0 +1,63 @@
+package com.pumaprintables.platform.domain.model;
+
+import com.pumaprintables.platform.domain.model.id.UuidV7Generator;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Revokes either a single access token ({@code tokenId} set) or every token issued to {@code subject} with a
+ * generation below {@code tokenGeneration}. Rows are only needed until {@code expiresAt}, after which the tokens they
+ * cover have expired anyway.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+@Entity
+@Table(name = "token_revocations")
+public class TokenRevocation {
+
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @EqualsAndHashCode.Include
+    private UUID id;
+
+    @Column(name = "token_id", length = 64)
+    private String tokenId;
+
+    @Column(name = "subject", nullable = false, length = 50)
+    private String subject;
+
+    @Column(name = "token_generation")
+    private Long tokenGeneration;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
+}
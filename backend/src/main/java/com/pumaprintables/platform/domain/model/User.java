@@ -18,6 +18,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -31,13 +35,19 @@ import java.util.UUID;
 @ToString
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.USERNAME_CACHE_REGION)
 public class User {
 
+    public static final String CACHE_REGION = "users";
+    public static final String USERNAME_CACHE_REGION = "users-by-username";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @EqualsAndHashCode.Include
     private UUID id;
 
+    @NaturalId(mutable = true)
     @Column(name = "username", nullable = false, unique = true, length = 50)
     private String username;
 
@@ -65,13 +75,14 @@ public class User {
     @Column(name = "avatar_url", length = 255)
     private String avatarUrl;
 
-    @Column(name = "first_login_at")
+    // Login stats are written in batches by LoginStatsRecorder; JPA only sets them on insert.
+    @Column(name = "first_login_at", updatable = false)
     private OffsetDateTime firstLoginAt;
 
-    @Column(name = "last_login_at")
+    @Column(name = "last_login_at", updatable = false)
     private OffsetDateTime lastLoginAt;
 
-    @Column(name = "login_count", nullable = false)
+    @Column(name = "login_count", nullable = false, updatable = false)
     @Default
     private Integer loginCount = 0;
 }
@@ -0,0 +1,9 @@
+package com.pumaprintables.platform.domain.model.enums;
+
+public enum OrderEvent {
+    APPROVE,
+    REJECT,
+    ACCEPT,
+    DISPATCH,
+    FULFILL
+}
@@ -0,0 +1,23 @@
+package com.pumaprintables.platform.domain.repository;
+
+final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    /**
+     * Escapes {@code %}, {@code _} and the escape character itself so user input matches literally in a
+     * {@code LIKE}/{@code ILIKE} pattern using Postgres' default backslash escape.
+     */
+    static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -2,17 +2,52 @@ package com.pumaprintables.platform.domain.repository;
 
 import com.pumaprintables.platform.domain.model.Order;
 import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderSearch {
 
     List<Order> findByStatus(OrderStatus status);
 
-    @Query("select o from Order o where o.user.id = :userId")
-    List<Order> findByUserId(@Param("userId") UUID userId);
+    @EntityGraph(attributePaths = {"user", "items", "items.product", "approval", "approval.approver", "courierInfo"})
+    @Query("select o from Order o where o.user.username = :username")
+    List<Order> findWithDetailsByUsername(@Param("username") String username);
+
+    @EntityGraph(attributePaths = {"user", "items", "items.product", "approval", "approval.approver", "courierInfo"})
+    List<Order> findWithDetailsByIdIn(Collection<UUID> ids);
+
+    @EntityGraph(attributePaths = {"user", "items", "items.product", "approval", "approval.approver", "courierInfo"})
+    List<Order> findWithDetailsByStatusIn(Collection<OrderStatus> statuses);
+
+    @EntityGraph(attributePaths = {"user", "items", "items.product", "approval", "approval.approver", "courierInfo"})
+    @Query("select o from Order o")
+    List<Order> findAllWithDetails();
+
+    @Query("select o.version from Order o where o.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    @Query("select o.id as id, o.status as status, o.version as version from Order o")
+    List<OrderVersion> findAllVersions();
+
+    @Query("select o.id as id, o.status as status, o.version as version from Order o where o.status in :statuses")
+    List<OrderVersion> findVersionsByStatusIn(@Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query("select o.id as id, o.status as status, o.version as version from Order o where o.user.username = :username")
+    List<OrderVersion> findVersionsByUsername(@Param("username") String username);
+
+    interface OrderVersion {
+
+        UUID getId();
+
+        OrderStatus getStatus();
+
+        long getVersion();
+    }
 }
@@ -0,0 +1,22 @@
+package com.pumaprintables.platform.domain.repository;
+
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ranked text search over orders, backed by the {@code search_vector} and {@code search_text} columns that the
+ * database keeps in sync with the order's store user, addresses, GST, tracking number and product names.
+ */
+public interface OrderSearch {
+
+    /**
+     * Returns ids of matching orders, best match first.
+     *
+     * @param statuses restricts results to these statuses, or {@code null} for any status
+     * @param userId   restricts results to orders placed by this user, or {@code null} for any user
+     */
+    List<UUID> searchIds(String query, Collection<OrderStatus> statuses, UUID userId, long offset, int limit);
+}
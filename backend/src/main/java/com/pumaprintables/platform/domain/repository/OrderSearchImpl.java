@@ -0,0 +1,97 @@
+package com.pumaprintables.platform.domain.repository;
+
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Transactional(readOnly = true)
+class OrderSearchImpl implements OrderSearch {
+
+    static final int MAX_TERMS = 8;
+
+    static final int MAX_CANDIDATES = 500;
+
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Either index can satisfy the match: the tsvector one for whole words and prefixes, the trigram one for
+    // fragments such as part of a tracking number. Ranking reads every row it scores, so only the first
+    // MAX_CANDIDATES matches the scan returns are ranked; a broader query pages through those and should be narrowed.
+    private static final String MATCH = """
+        WITH candidates AS (
+            SELECT o.id, o.created_at, o.search_vector, o.search_text
+              FROM orders o
+             WHERE (o.search_vector @@ to_tsquery('simple', :tsquery) OR o.search_text ILIKE :pattern)
+        """;
+
+    private static final String RANK = """
+             LIMIT :candidates
+        )
+        SELECT c.id
+          FROM candidates c
+         ORDER BY ts_rank_cd(c.search_vector, to_tsquery('simple', :tsquery))
+                    + word_similarity(:term, c.search_text) DESC,
+                  c.created_at DESC
+         LIMIT :limit OFFSET :offset
+        """;
+
+    private final EntityManager entityManager;
+
+    OrderSearchImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UUID> searchIds(String query, Collection<OrderStatus> statuses, UUID userId, long offset, int limit) {
+        StringBuilder sql = new StringBuilder(MATCH);
+        if (statuses != null) {
+            sql.append("               AND o.status IN (:statuses)\n");
+        }
+        if (userId != null) {
+            sql.append("               AND o.user_id = :userId\n");
+        }
+        sql.append(RANK);
+
+        String term = query.strip();
+        Query nativeQuery = entityManager.createNativeQuery(sql.toString())
+            .setParameter("tsquery", prefixQuery(term))
+            .setParameter("pattern", containsPattern(term))
+            .setParameter("term", term)
+            .setParameter("candidates", MAX_CANDIDATES)
+            .setParameter("limit", limit)
+            .setParameter("offset", offset);
+        if (statuses != null) {
+            nativeQuery.setParameter("statuses", statuses.stream().map(OrderStatus::name).toList());
+        }
+        if (userId != null) {
+            nativeQuery.setParameter("userId", userId);
+        }
+        return nativeQuery.getResultList();
+    }
+
+    /**
+     * Turns free text into a tsquery that requires every word as a prefix, e.g. {@code "bake str"} becomes
+     * {@code "bake:* & str:*"}. Only letters and digits survive, so user input can never change the query syntax.
+     */
+    static String prefixQuery(String query) {
+        return Arrays.stream(TERM_SEPARATOR.split(query.toLowerCase(Locale.ROOT)))
+            .filter(term -> !term.isEmpty())
+            .distinct()
+            .limit(MAX_TERMS)
+            .map(term -> term + ":*")
+            .collect(Collectors.joining(" & "));
+    }
+
+    static String containsPattern(String query) {
+        return '%' + LikePatterns.escape(query) + '%';
+    }
+}
@@ -0,0 +1,18 @@
+package com.pumaprintables.platform.domain.repository;
+
+import com.pumaprintables.platform.domain.model.Product;
+
+import java.util.List;
+
+/**
+ * Filters the catalog by {@link ProductFilter} in the database so callers only receive the page they show.
+ */
+public interface ProductCatalogFilter {
+
+    /**
+     * Returns matching products ordered by name.
+     */
+    List<Product> filter(ProductFilter filter, long offset, int limit);
+
+    long countMatching(ProductFilter filter);
+}
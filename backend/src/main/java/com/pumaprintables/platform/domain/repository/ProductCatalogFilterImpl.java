@@ -0,0 +1,85 @@
+package com.pumaprintables.platform.domain.repository;
+
+import com.pumaprintables.platform.domain.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Transactional(readOnly = true)
+class ProductCatalogFilterImpl implements ProductCatalogFilter {
+
+    private final EntityManager entityManager;
+
+    ProductCatalogFilterImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Product> filter(ProductFilter filter, long offset, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = "SELECT p.* FROM products p" + where(filter, parameters)
+            + " ORDER BY lower(p.name), p.id LIMIT :limit OFFSET :offset";
+        parameters.put("limit", limit);
+        parameters.put("offset", offset);
+        return bind(entityManager.createNativeQuery(sql, Product.class), parameters).getResultList();
+    }
+
+    @Override
+    public long countMatching(ProductFilter filter) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = "SELECT count(*) FROM products p" + where(filter, parameters);
+        return ((Number) bind(entityManager.createNativeQuery(sql), parameters).getSingleResult()).longValue();
+    }
+
+    /**
+     * Builds the WHERE clause. Keys and values are always bound as parameters; only the clause shape depends on
+     * which criteria are present.
+     */
+    static String where(ProductFilter filter, Map<String, Object> parameters) {
+        StringBuilder where = new StringBuilder(" WHERE TRUE");
+        if (filter.contains() != null && !filter.contains().isEmpty()) {
+            // Served by idx_products_specifications (jsonb_path_ops); the other criteria narrow its matches.
+            where.append(" AND p.specifications @> CAST(:contains AS jsonb)");
+            parameters.put("contains", filter.contains().toString());
+        }
+        for (int i = 0; i < filter.keys().size(); i++) {
+            // '->' yields SQL NULL only for a missing key, so explicit JSON nulls still count as present.
+            where.append(" AND p.specifications -> :key").append(i).append(" IS NOT NULL");
+            parameters.put("key" + i, filter.keys().get(i));
+        }
+        for (int i = 0; i < filter.ranges().size(); i++) {
+            ProductFilter.Range range = filter.ranges().get(i);
+            String value = "CASE WHEN jsonb_typeof(p.specifications -> :rangeKey" + i + ") = 'number'"
+                + " THEN CAST(p.specifications ->> :rangeKey" + i + " AS numeric) END";
+            parameters.put("rangeKey" + i, range.key());
+            if (range.min() != null) {
+                where.append(" AND ").append(value).append(" >= :rangeMin").append(i);
+                parameters.put("rangeMin" + i, range.min());
+            }
+            if (range.max() != null) {
+                where.append(" AND ").append(value).append(" <= :rangeMax").append(i);
+                parameters.put("rangeMax" + i, range.max());
+            }
+        }
+        if (filter.active() != null) {
+            where.append(" AND p.is_active = :active");
+            parameters.put("active", filter.active());
+        }
+        if (filter.namePrefix() != null && !filter.namePrefix().isBlank()) {
+            where.append(" AND lower(p.name) LIKE :namePrefix");
+            parameters.put("namePrefix", LikePatterns.escape(filter.namePrefix().strip().toLowerCase(Locale.ROOT)) + '%');
+        }
+        return where.toString();
+    }
+
+    private static Query bind(Query query, Map<String, Object> parameters) {
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -0,0 +1,31 @@
+package com.pumaprintables.platform.domain.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Catalog filter over {@code products.specifications} and a few plain columns. Every criterion is optional and
+ * all given criteria must match.
+ *
+ * @param contains   a JSON object the specifications must contain ({@code @>}), served by the GIN index
+ * @param keys       specification keys that must be present
+ * @param ranges     numeric bounds on specification values; non-numeric values never match
+ * @param active     the required active flag, or {@code null} for both
+ * @param namePrefix a case-insensitive product name prefix
+ */
+public record ProductFilter(JsonNode contains, List<String> keys, List<Range> ranges, Boolean active,
+                            String namePrefix) {
+
+    public ProductFilter {
+        keys = keys != null ? List.copyOf(keys) : List.of();
+        ranges = ranges != null ? List.copyOf(ranges) : List.of();
+    }
+
+    /**
+     * Inclusive bounds on a numeric specification value; either bound may be {@code null}.
+     */
+    public record Range(String key, BigDecimal min, BigDecimal max) {
+    }
+}
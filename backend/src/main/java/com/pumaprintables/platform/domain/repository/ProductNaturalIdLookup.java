@@ -0,0 +1,13 @@
+package com.pumaprintables.platform.domain.repository;
+
+import com.pumaprintables.platform.domain.model.Product;
+
+import java.util.Optional;
+
+/**
+ * Resolves {@link Product} by its natural id through Hibernate's natural-id cache instead of a query.
+ */
+public interface ProductNaturalIdLookup {
+
+    Optional<Product> findBySku(String sku);
+}
@@ -0,0 +1,23 @@
+package com.pumaprintables.platform.domain.repository;
+
+import com.pumaprintables.platform.domain.model.Product;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+class ProductNaturalIdLookupImpl implements ProductNaturalIdLookup {
+
+    private final EntityManager entityManager;
+
+    ProductNaturalIdLookupImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<Product> findBySku(String sku) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Product.class).loadOptional(sku);
+    }
+}
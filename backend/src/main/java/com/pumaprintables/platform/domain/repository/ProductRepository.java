@@ -3,10 +3,7 @@ package com.pumaprintables.platform.domain.repository;
 import com.pumaprintables.platform.domain.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
 import java.util.UUID;
 
-public interface ProductRepository extends JpaRepository<Product, UUID> {
-
-    Optional<Product> findBySku(String sku);
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductNaturalIdLookup, ProductCatalogFilter {
 }
@@ -0,0 +1,22 @@
+package com.pumaprintables.platform.domain.repository;
+
+import com.pumaprintables.platform.domain.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, UUID> {
+
+    List<TokenRevocation> findByExpiresAtAfter(OffsetDateTime now);
+
+    List<TokenRevocation> findByCreatedAtAfterAndExpiresAtAfter(OffsetDateTime createdAfter, OffsetDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,13 @@
+package com.pumaprintables.platform.domain.repository;
+
+import com.pumaprintables.platform.domain.model.User;
+
+import java.util.Optional;
+
+/**
+ * Resolves {@link User} by its natural id through Hibernate's natural-id cache instead of a query.
+ */
+public interface UserNaturalIdLookup {
+
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,23 @@
+package com.pumaprintables.platform.domain.repository;
+
+import com.pumaprintables.platform.domain.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+class UserNaturalIdLookupImpl implements UserNaturalIdLookup {
+
+    private final EntityManager entityManager;
+
+    UserNaturalIdLookupImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+}
@@ -10,9 +10,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface UserRepository extends JpaRepository<User, UUID> {
-
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, UUID>, UserNaturalIdLookup {
 
     Optional<User> findByEmail(String email);
 
@@ -0,0 +1,77 @@
+package com.pumaprintables.platform.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. {@link #mightContain} never returns a false negative; false positives
+ * occur at roughly the rate the filter was sized for while it holds no more than its expected number of entries.
+ * Safe for concurrent adds and lookups.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final int expectedEntries;
+
+    BloomFilter(int expectedEntries, double falsePositiveRate) {
+        this.expectedEntries = Math.max(expectedEntries, 1);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-this.expectedEntries * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int wordCount = (int) Math.max(1, (bits + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.expectedEntries * ln2));
+    }
+
+    int expectedEntries() {
+        return expectedEntries;
+    }
+
+    void add(String value) {
+        long hash = hash64(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(first + i * second) % bitCount;
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = words.get(index);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(index, word, word | mask));
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash64(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(first + i * second) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over the UTF-8 bytes followed by a 64-bit finalizer, split into two 32-bit hashes by the callers.
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
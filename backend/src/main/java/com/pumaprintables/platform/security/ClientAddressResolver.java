@@ -0,0 +1,75 @@
+package com.pumaprintables.platform.security;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+/**
+ * Works out the address of the client behind the load balancer for rate limiting.
+ * <p>
+ * {@code X-Forwarded-For} is only read when the connection comes from one of the configured trusted proxies, and is
+ * walked from the right: every proxy appends the address it received the request from, so the first entry not
+ * itself a trusted proxy is the client. Entries further left were written by the client and are ignored, so a
+ * forged header cannot pick someone else's bucket. Without trusted proxies the connection address is used as is.
+ */
+final class ClientAddressResolver {
+
+    static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final IpAddressMatcher[] trustedProxies;
+
+    ClientAddressResolver(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+            .map(String::trim)
+            .filter(proxy -> !proxy.isEmpty())
+            .map(IpAddressMatcher::new)
+            .toArray(IpAddressMatcher[]::new);
+    }
+
+    String resolve(HttpServletRequest request) {
+        String remoteAddress = request.getRemoteAddr();
+        if (trustedProxies.length == 0 || !isTrusted(remoteAddress)) {
+            return remoteAddress;
+        }
+        String client = remoteAddress;
+        Enumeration<String> forwarded = request.getHeaders(FORWARDED_FOR);
+        // Repeated headers form one list in order; collect it so the walk can start from the right.
+        List<String> hops = new ArrayList<>();
+        while (forwarded.hasMoreElements()) {
+            for (String hop : forwarded.nextElement().split(",")) {
+                hops.add(hop.trim());
+            }
+        }
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            String hop = hops.get(i);
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        if (address == null) {
+            return false;
+        }
+        try {
+            for (IpAddressMatcher proxy : trustedProxies) {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            // Not an IP address (e.g. "unknown" or host:port); never a trusted proxy.
+        }
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package com.pumaprintables.platform.security;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Supplies the JSON Web Key Set used to check Google ID-token signatures. The default fetches Google's published
+ * keys over HTTPS; pointing {@code puma.security.google.jwks-uri} at a {@code file:} or {@code classpath:} location
+ * (or defining another bean of this type) lets the sign-in flow run offline, e.g. for load tests with locally
+ * signed tokens.
+ */
+public interface GoogleKeySetSource {
+
+    KeySetDocument fetch() throws IOException;
+
+    /**
+     * @param json   the JWKS document
+     * @param maxAge how long the publisher allows the keys to be cached, or {@code null} when it did not say
+     */
+    record KeySetDocument(String json, Duration maxAge) {
+    }
+}
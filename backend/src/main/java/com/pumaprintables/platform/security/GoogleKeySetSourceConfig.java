@@ -0,0 +1,22 @@
+package com.pumaprintables.platform.security;
+
+import java.net.URI;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+@Configuration
+public class GoogleKeySetSourceConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    GoogleKeySetSource googleKeySetSource(GoogleOAuthProperties properties, ResourceLoader resourceLoader) {
+        String location = properties.getJwksUri();
+        if (location.startsWith("http://") || location.startsWith("https://")) {
+            return new HttpGoogleKeySetSource(URI.create(location), properties.getKeyFetchTimeout());
+        }
+        return new ResourceGoogleKeySetSource(resourceLoader, location);
+    }
+}
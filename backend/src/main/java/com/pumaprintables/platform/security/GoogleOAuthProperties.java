@@ -1,5 +1,6 @@
 package com.pumaprintables.platform.security;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,6 +26,37 @@ public class GoogleOAuthProperties {
      */
     private String hostedDomain;
 
+    /**
+     * Where ID-token signing keys are loaded from: Google's JWKS endpoint, or a {@code file:}/{@code classpath:}
+     * JWKS document for offline use.
+     */
+    private String jwksUri = "https://www.googleapis.com/oauth2/v3/certs";
+
+    /**
+     * How long fetched keys are trusted when the source does not send a {@code Cache-Control: max-age}.
+     */
+    private Duration keyRefreshInterval = Duration.ofHours(1);
+
+    /**
+     * How long before the keys expire the background refresh starts.
+     */
+    private Duration keyRefreshAhead = Duration.ofMinutes(5);
+
+    /**
+     * How often the background refresh checks whether the keys are due.
+     */
+    private Duration keyRefreshCheckInterval = Duration.ofMinutes(1);
+
+    /**
+     * How long expired keys keep being used while refreshes fail, before Google sign-in reports 503.
+     */
+    private Duration keyMaxStale = Duration.ofHours(24);
+
+    /**
+     * Connect and read timeout for fetching the keys.
+     */
+    private Duration keyFetchTimeout = Duration.ofSeconds(5);
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -48,4 +80,52 @@ public class GoogleOAuthProperties {
     public void setHostedDomain(String hostedDomain) {
         this.hostedDomain = hostedDomain;
     }
+
+    public String getJwksUri() {
+        return jwksUri;
+    }
+
+    public void setJwksUri(String jwksUri) {
+        this.jwksUri = jwksUri;
+    }
+
+    public Duration getKeyRefreshInterval() {
+        return keyRefreshInterval;
+    }
+
+    public void setKeyRefreshInterval(Duration keyRefreshInterval) {
+        this.keyRefreshInterval = keyRefreshInterval;
+    }
+
+    public Duration getKeyRefreshAhead() {
+        return keyRefreshAhead;
+    }
+
+    public void setKeyRefreshAhead(Duration keyRefreshAhead) {
+        this.keyRefreshAhead = keyRefreshAhead;
+    }
+
+    public Duration getKeyRefreshCheckInterval() {
+        return keyRefreshCheckInterval;
+    }
+
+    public void setKeyRefreshCheckInterval(Duration keyRefreshCheckInterval) {
+        this.keyRefreshCheckInterval = keyRefreshCheckInterval;
+    }
+
+    public Duration getKeyMaxStale() {
+        return keyMaxStale;
+    }
+
+    public void setKeyMaxStale(Duration keyMaxStale) {
+        this.keyMaxStale = keyMaxStale;
+    }
+
+    public Duration getKeyFetchTimeout() {
+        return keyFetchTimeout;
+    }
+
+    public void setKeyFetchTimeout(Duration keyFetchTimeout) {
+        this.keyFetchTimeout = keyFetchTimeout;
+    }
 }
@@ -0,0 +1,162 @@
+package com.pumaprintables.platform.security;
+
+import java.security.PublicKey;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.pumaprintables.platform.service.exception.GoogleOAuthUnavailableException;
+
+/**
+ * Holds Google's ID-token signing keys in memory so that verifying a token never waits on the network.
+ * <p>
+ * Keys are refreshed on a background thread: ahead of their expiry by a scheduled check, and whenever a token
+ * names a key id the cache does not know (Google rotates keys by publishing the new one first). Expired keys keep
+ * being served while a refresh is in flight or failing, for up to {@code key-max-stale}; only past that, or
+ * before the first successful fetch, is sign-in reported as unavailable.
+ */
+@Component
+public class GoogleSigningKeyCache {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleSigningKeyCache.class);
+
+    // Floor between refreshes triggered by unknown key ids or failures, so bad tokens cannot hammer the source.
+    private static final Duration MIN_REFRESH_SPACING = Duration.ofSeconds(30);
+
+    private final GoogleKeySetSource source;
+    private final GoogleOAuthProperties properties;
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "google-jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile KeySnapshot snapshot = KeySnapshot.EMPTY;
+    private volatile Instant lastAttempt = Instant.EPOCH;
+
+    public GoogleSigningKeyCache(GoogleKeySetSource source, GoogleOAuthProperties properties) {
+        this.source = source;
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the key with the given id, or {@code null} when the current key set does not contain it.
+     *
+     * @throws GoogleOAuthUnavailableException when no key set fresh enough to trust has been loaded
+     */
+    public PublicKey find(String keyId) {
+        KeySnapshot current = snapshot;
+        Instant now = Instant.now();
+        if (!now.isBefore(current.expiresAt())) {
+            requestRefresh(false);
+        }
+        if (!now.isBefore(current.expiresAt().plus(properties.getKeyMaxStale()))) {
+            throw new GoogleOAuthUnavailableException("Google sign-in keys are not available yet; please retry shortly");
+        }
+        PublicKey key = keyId == null ? null : current.keys().get(keyId);
+        if (key == null) {
+            requestRefresh(false);
+        }
+        return key;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (properties.isEnabled()) {
+            requestRefresh(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${puma.security.google.key-refresh-check-interval:PT1M}")
+    public void refreshIfDue() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!Instant.now().plus(properties.getKeyRefreshAhead()).isBefore(snapshot.expiresAt())) {
+            requestRefresh(true);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Starts a background refresh unless one is running or, for opportunistic requests, one was attempted recently.
+     */
+    Future<?> requestRefresh(boolean due) {
+        if (!due && Instant.now().isBefore(lastAttempt.plus(MIN_REFRESH_SPACING))) {
+            return null;
+        }
+        if (!refreshing.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            return refresher.submit(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException ex) {
+            refreshing.set(false);
+            throw ex;
+        }
+    }
+
+    void refresh() {
+        lastAttempt = Instant.now();
+        try {
+            GoogleKeySetSource.KeySetDocument document = source.fetch();
+            Map<String, PublicKey> keys = parse(document.json());
+            if (keys.isEmpty()) {
+                throw new IllegalStateException("Key set contains no RSA signing keys");
+            }
+            Duration ttl = document.maxAge() != null ? document.maxAge() : properties.getKeyRefreshInterval();
+            Instant now = Instant.now();
+            snapshot = new KeySnapshot(Map.copyOf(keys), now.plus(ttl));
+            log.debug("Loaded {} Google signing keys, valid for {}", keys.size(), ttl);
+        } catch (Exception ex) {
+            log.warn("Unable to refresh Google signing keys; keeping {} cached keys: {}", snapshot.keys().size(), ex.getMessage());
+        }
+    }
+
+    private static Map<String, PublicKey> parse(String json) throws ParseException, JOSEException {
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (JWK jwk : JWKSet.parse(json).getKeys()) {
+            if (jwk instanceof RSAKey rsaKey && jwk.getKeyID() != null
+                && (jwk.getKeyUse() == null || KeyUse.SIGNATURE.equals(jwk.getKeyUse()))) {
+                keys.put(jwk.getKeyID(), rsaKey.toRSAPublicKey());
+            }
+        }
+        return keys;
+    }
+
+    private record KeySnapshot(Map<String, PublicKey> keys, Instant expiresAt) {
+
+        static final KeySnapshot EMPTY = new KeySnapshot(Map.of(), Instant.EPOCH);
+    }
+}
@@ -0,0 +1,59 @@
+package com.pumaprintables.platform.security;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fetches the key set over HTTP and honours the {@code Cache-Control: max-age} Google sends with it.
+ */
+public class HttpGoogleKeySetSource implements GoogleKeySetSource {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final URI uri;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public HttpGoogleKeySetSource(URI uri, Duration timeout) {
+        this.uri = uri;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(timeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    @Override
+    public KeySetDocument fetch() throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .timeout(timeout)
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + uri, ex);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Fetching " + uri + " returned HTTP " + response.statusCode());
+        }
+        return new KeySetDocument(response.body(), maxAge(response.headers().firstValue("Cache-Control").orElse(null)));
+    }
+
+    static Duration maxAge(String cacheControl) {
+        if (cacheControl == null) {
+            return null;
+        }
+        Matcher matcher = MAX_AGE.matcher(cacheControl);
+        return matcher.find() ? Duration.ofSeconds(Long.parseLong(matcher.group(1))) : null;
+    }
+}
@@ -1,11 +1,14 @@
 package com.pumaprintables.platform.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -17,10 +20,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final ApplicationUserDetailsService userDetailsService;
+    private final TokenDenylist tokenDenylist;
 
-    public JwtAuthenticationFilter(JwtService jwtService, ApplicationUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, ApplicationUserDetailsService userDetailsService,
+                                   TokenDenylist tokenDenylist) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenDenylist = tokenDenylist;
     }
 
     @Override
@@ -36,10 +42,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
             try {
-                String username = jwtService.extractUsername(token);
+                Claims claims = jwtService.parseClaims(token);
+                String username = claims.getSubject();
+                Long generation = claims.get(JwtService.GENERATION_CLAIM, Long.class);
 
-                if (username != null && jwtService.isTokenValid(token, username)) {
-                    var userDetails = userDetailsService.loadUserByUsername(username);
+                if (username != null
+                    && !tokenDenylist.isRevoked(claims.getId(), username, generation != null ? generation : 0)) {
+                    UserDetails userDetails = userDetailsFrom(claims);
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -52,4 +61,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // The role claim is trusted because role changes revoke the user's earlier tokens; only tokens without one
+    // fall back to the database.
+    private UserDetails userDetailsFrom(Claims claims) {
+        String role = claims.get("role", String.class);
+        if (role == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        return User.withUsername(claims.getSubject())
+            .password("")
+            .roles(role)
+            .build();
+    }
 }
@@ -13,11 +13,17 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtService {
 
+    /**
+     * The subject's token generation when the token was issued; see {@link TokenDenylist}.
+     */
+    public static final String GENERATION_CLAIM = "gen";
+
     private final JwtProperties properties;
     private final Key signingKey;
 
@@ -32,6 +38,7 @@ public class JwtService {
 
         return Jwts.builder()
             .setClaims(claims)
+            .setId(UUID.randomUUID().toString())
             .setSubject(subject)
             .setIssuedAt(Date.from(now))
             .setExpiration(Date.from(expiry))
@@ -52,6 +59,13 @@ public class JwtService {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Verifies the signature and expiry of {@code token} and returns its claims.
+     */
+    public Claims parseClaims(String token) {
+        return parseToken(token);
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
         Claims claims = parseToken(token);
         return resolver.apply(claims);
@@ -0,0 +1,123 @@
+package com.pumaprintables.platform.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.stereotype.Component;
+
+import com.pumaprintables.platform.service.exception.PasswordHashingBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs password hashing on a small CPU-sized pool so that a burst of logins cannot occupy every request thread.
+ * Admission is bounded twice: a full queue rejects immediately, and a request that waited longer than
+ * {@code maxQueueWait} for a thread is rejected instead of hashed, since its client has likely given up.
+ * Both cases surface as {@link PasswordHashingBusyException} (429).
+ * <p>
+ * Publishes {@code puma.password.hash.queue.wait} and {@code puma.password.hash.duration} timers, a
+ * {@code puma.password.hash.rejected} counter and gauges for queue depth and busy threads.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueWaitNanos;
+    private final Timer queueWait;
+    private final Timer hashDuration;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(properties.getQueueCapacity(), 1)), new HashingThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.maxQueueWaitNanos = properties.getMaxQueueWait().toNanos();
+        this.queueWait = Timer.builder("puma.password.hash.queue.wait")
+            .description("Time hash requests spent waiting for a hashing thread")
+            .register(meterRegistry);
+        this.hashDuration = Timer.builder("puma.password.hash.duration")
+            .description("Time spent computing password hashes")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("puma.password.hash.rejected")
+            .description("Hash requests turned away because the hashing pool was saturated")
+            .register(meterRegistry);
+        Gauge.builder("puma.password.hash.queue.size", executor, pool -> pool.getQueue().size())
+            .register(meterRegistry);
+        Gauge.builder("puma.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code hash} on the hashing pool and waits for its result on the calling thread.
+     */
+    public <T> T execute(Supplier<T> hash) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long waited = System.nanoTime() - submittedAt;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueWaitNanos) {
+                    throw busy();
+                }
+                return hashDuration.record(hash);
+            });
+        } catch (RejectedExecutionException ex) {
+            throw busy();
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        } catch (CancellationException ex) {
+            throw busy();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private PasswordHashingBusyException busy() {
+        rejected.increment();
+        return new PasswordHashingBusyException("Too many sign-in requests right now; please retry shortly");
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.pumaprintables.platform.security;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.security.password")
+public class PasswordHashingProperties {
+
+    /**
+     * BCrypt cost factor for new hashes. Stored hashes with a lower cost are re-hashed on the next successful login.
+     */
+    private int bcryptStrength = 10;
+
+    /**
+     * Threads dedicated to hashing; zero or less means one per available processor.
+     */
+    private int threads = 0;
+
+    /**
+     * Hash requests allowed to wait for a thread; further requests are rejected with 429 straight away.
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * Longest a queued request may wait for a thread before it is rejected with 429 instead of hashed.
+     */
+    private Duration maxQueueWait = Duration.ofSeconds(2);
+
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+
+    public void setBcryptStrength(int bcryptStrength) {
+        this.bcryptStrength = bcryptStrength;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getMaxQueueWait() {
+        return maxQueueWait;
+    }
+
+    public void setMaxQueueWait(Duration maxQueueWait) {
+        this.maxQueueWait = maxQueueWait;
+    }
+}
@@ -0,0 +1,214 @@
+package com.pumaprintables.platform.security;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+
+@Component
+@ConfigurationProperties(prefix = "puma.security.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Master switch for request throttling.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Buckets per rule, rounded up to a power of two. Clients whose keys hash to the same bucket share a budget.
+     */
+    private int stripes = 16384;
+
+    /**
+     * Addresses or CIDR ranges of the load balancers and reverse proxies in front of the application. Only requests
+     * arriving from one of them have their client address taken from {@code X-Forwarded-For}; empty means the
+     * connection address is the client.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /**
+     * Instances sharing the traffic. Buckets are per instance, so each enforces this share of every limit and the
+     * configured limits apply to the deployment as a whole, assuming the load balancer spreads clients evenly.
+     */
+    private int instances = 1;
+
+    /**
+     * Throttled routes. A request is checked against every rule whose method and path match it exactly.
+     */
+    private List<Rule> rules = defaultRules();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public List<String> getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public int getInstances() {
+        return instances;
+    }
+
+    public void setInstances(int instances) {
+        this.instances = instances;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    private static List<Rule> defaultRules() {
+        List<Rule> rules = new ArrayList<>();
+        rules.add(new Rule("login", "POST", "/api/v1/auth/login", KeyType.IP, 10, Duration.ofSeconds(6)));
+        rules.add(new Rule("login-google", "POST", "/api/v1/auth/login/google", KeyType.IP, 10, Duration.ofSeconds(6)));
+        rules.add(new Rule("register", "POST", "/api/v1/auth/register", KeyType.IP, 5, Duration.ofMinutes(1)));
+        Rule createOrder = new Rule("create-order", "POST", "/api/v1/orders", KeyType.USER, 20, Duration.ofSeconds(3));
+        createOrder.getRoles().put(UserRole.ADMIN, new Limit(60, Duration.ofSeconds(1)));
+        rules.add(createOrder);
+        return rules;
+    }
+
+    public enum KeyType {
+        /**
+         * One budget per client address.
+         */
+        IP,
+        /**
+         * One budget per authenticated user, falling back to the client address for anonymous requests.
+         */
+        USER
+    }
+
+    public static class Limit {
+
+        /**
+         * Requests that may be made in a burst.
+         */
+        private int capacity;
+
+        /**
+         * Time in which one request of the burst is regained.
+         */
+        private Duration refillPeriod;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getRefillPeriod() {
+            return refillPeriod;
+        }
+
+        public void setRefillPeriod(Duration refillPeriod) {
+            this.refillPeriod = refillPeriod;
+        }
+    }
+
+    public static class Rule extends Limit {
+
+        /**
+         * Name used in logs and the {@code rule} metric tag.
+         */
+        private String name;
+
+        private String method = "POST";
+
+        private String path;
+
+        private KeyType key = KeyType.IP;
+
+        /**
+         * Limits that replace the rule's own for authenticated users with the given role.
+         */
+        private Map<UserRole, Limit> roles = new EnumMap<>(UserRole.class);
+
+        public Rule() {
+        }
+
+        public Rule(String name, String method, String path, KeyType key, int capacity, Duration refillPeriod) {
+            super(capacity, refillPeriod);
+            this.name = name;
+            this.method = method;
+            this.path = path;
+            this.key = key;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public KeyType getKey() {
+            return key;
+        }
+
+        public void setKey(KeyType key) {
+            this.key = key;
+        }
+
+        public Map<UserRole, Limit> getRoles() {
+            return roles;
+        }
+
+        public void setRoles(Map<UserRole, Limit> roles) {
+            this.roles = roles;
+        }
+    }
+}
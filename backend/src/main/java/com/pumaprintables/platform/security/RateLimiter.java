@@ -0,0 +1,169 @@
+package com.pumaprintables.platform.security;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-process request throttling for the routes configured in {@link RateLimitProperties}.
+ * <p>
+ * Each rule keeps a fixed array of buckets indexed by a hash of the client key (address or username). Addresses are
+ * resolved by {@link ClientAddressResolver}, which honours {@code X-Forwarded-For} from trusted proxies. A bucket is
+ * a single {@code long} holding the theoretical arrival time of the generic cell rate algorithm, which behaves
+ * exactly like a token bucket of {@code capacity} tokens refilled one per {@code refillPeriod}, but is updated
+ * with one compare-and-set and no lock. Nothing is allocated per request, apart from parsing forwarded headers: keys
+ * are hashed in place, role limits are looked up by the authority string, and meters are registered up front.
+ * <p>
+ * Buckets live in each instance. With {@link RateLimitProperties#getInstances()} set to the number of instances
+ * behind the load balancer, every instance enforces its share of each limit, so the limits hold for the whole
+ * deployment rather than once per instance.
+ */
+@Component
+public class RateLimiter {
+
+    private final boolean enabled;
+    private final ClientAddressResolver clientAddressResolver;
+    private final CompiledRule[] rules;
+    // Offset so that elapsed times are positive and zero can mean "bucket never used".
+    private final long epochNanos = System.nanoTime() - 1;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.clientAddressResolver = new ClientAddressResolver(properties.getTrustedProxies());
+        int instances = Math.max(properties.getInstances(), 1);
+        int stripes = Integer.highestOneBit(Math.max(properties.getStripes() - 1, 1)) << 1;
+        List<RateLimitProperties.Rule> configured = properties.getRules();
+        this.rules = new CompiledRule[configured.size()];
+        for (int i = 0; i < rules.length; i++) {
+            rules[i] = new CompiledRule(configured.get(i), stripes, instances, meterRegistry);
+        }
+    }
+
+    /**
+     * Charges the request against every matching rule.
+     *
+     * @return {@code 0} when the request may proceed, otherwise the nanoseconds until it would be allowed
+     */
+    public long tryAcquire(HttpServletRequest request) {
+        if (!enabled) {
+            return 0;
+        }
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        for (CompiledRule rule : rules) {
+            if (rule.method.equals(method) && rule.path.equals(path)) {
+                long waitNanos = rule.tryAcquire(request, clientAddressResolver, System.nanoTime() - epochNanos);
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static final class CompiledRule {
+
+        private final String method;
+        private final String path;
+        private final boolean keyByUser;
+        private final Rate defaultRate;
+        private final Map<String, Rate> roleRates = new HashMap<>();
+        private final AtomicLongArray buckets;
+        private final int mask;
+        private final int seed;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        CompiledRule(RateLimitProperties.Rule rule, int stripes, int instances, MeterRegistry meterRegistry) {
+            this.method = rule.getMethod();
+            this.path = rule.getPath();
+            this.keyByUser = rule.getKey() == RateLimitProperties.KeyType.USER;
+            this.defaultRate = Rate.of(rule, instances);
+            rule.getRoles().forEach((role, limit) -> roleRates.put("ROLE_" + role.name(), Rate.of(limit, instances)));
+            this.buckets = new AtomicLongArray(stripes);
+            this.mask = stripes - 1;
+            this.seed = rule.getName().hashCode() * 0x9E3779B9;
+            this.allowed = Counter.builder("puma.rate.limit.requests")
+                .tag("rule", rule.getName())
+                .tag("outcome", "allowed")
+                .register(meterRegistry);
+            this.rejected = Counter.builder("puma.rate.limit.requests")
+                .tag("rule", rule.getName())
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        }
+
+        long tryAcquire(HttpServletRequest request, ClientAddressResolver clientAddressResolver, long now) {
+            String key = null;
+            Rate rate = defaultRate;
+            if (keyByUser) {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                    key = authentication.getName();
+                    for (GrantedAuthority authority : authentication.getAuthorities()) {
+                        Rate roleRate = roleRates.get(authority.getAuthority());
+                        if (roleRate != null) {
+                            rate = roleRate;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (key == null) {
+                key = clientAddressResolver.resolve(request);
+            }
+            int index = spread(key == null ? 0 : key.hashCode() ^ seed) & mask;
+
+            while (true) {
+                long theoreticalArrival = buckets.get(index);
+                long next = Math.max(theoreticalArrival, now) + rate.intervalNanos();
+                long waitNanos = next - now - rate.burstNanos();
+                if (waitNanos > 0) {
+                    rejected.increment();
+                    return waitNanos;
+                }
+                if (buckets.compareAndSet(index, theoreticalArrival, next)) {
+                    allowed.increment();
+                    return 0;
+                }
+            }
+        }
+
+        private static int spread(int hash) {
+            hash ^= hash >>> 16;
+            hash *= 0x85EBCA6B;
+            hash ^= hash >>> 13;
+            return hash;
+        }
+    }
+
+    /**
+     * @param intervalNanos time to regain one request
+     * @param burstNanos    {@code capacity * intervalNanos}: how far ahead of real time a bucket may run
+     */
+    private record Rate(long intervalNanos, long burstNanos) {
+
+        /**
+         * One instance's share of {@code limit}: the burst is split between the instances (at least one request
+         * each) and each regains a request {@code instances} times more slowly.
+         */
+        static Rate of(RateLimitProperties.Limit limit, int instances) {
+            long interval = Math.max(limit.getRefillPeriod().toNanos(), 1) * instances;
+            int capacity = Math.max((Math.max(limit.getCapacity(), 1) + instances - 1) / instances, 1);
+            return new Rate(interval, interval * capacity);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.pumaprintables.platform.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+/**
+ * Reads the key set from a local resource such as {@code file:/etc/puma/google-jwks.json}.
+ */
+public class ResourceGoogleKeySetSource implements GoogleKeySetSource {
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+
+    public ResourceGoogleKeySetSource(ResourceLoader resourceLoader, String location) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+    }
+
+    @Override
+    public KeySetDocument fetch() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream input = resource.getInputStream()) {
+            return new KeySetDocument(new String(input.readAllBytes(), StandardCharsets.UTF_8), null);
+        }
+    }
+}
@@ -25,10 +25,20 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final ApplicationUserDetailsService userDetailsService;
+    private final PasswordHashingProperties passwordHashingProperties;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RateLimiter rateLimiter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, ApplicationUserDetailsService userDetailsService) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                          ApplicationUserDetailsService userDetailsService,
+                          PasswordHashingProperties passwordHashingProperties,
+                          PasswordHashingExecutor passwordHashingExecutor,
+                          RateLimiter rateLimiter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.userDetailsService = userDetailsService;
+        this.passwordHashingProperties = passwordHashingProperties;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.rateLimiter = rateLimiter;
     }
 
     @Bean
@@ -40,14 +50,16 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/", "/index.html", "/favicon.ico", "/assets/**", "/static/**", "/catalog/**").permitAll()
                 .requestMatchers("/api/v1/auth/login", "/api/v1/auth/login/google", "/api/v1/auth/register", "/actuator/health", "/actuator/info").permitAll()
-                .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                .requestMatchers("/api/v1/admin/**", "/actuator/sqlprofile/**").hasRole("ADMIN")
                 .requestMatchers("/api/v1/products/**").hasAnyRole("STORE_USER", "APPROVER", "FULFILLMENT_AGENT", "ADMIN")
                 .requestMatchers("/api/v1/orders/pending", "/api/v1/orders/*/approve", "/api/v1/orders/*/reject").hasAnyRole("APPROVER", "ADMIN")
                 .requestMatchers("/api/v1/orders/*/courier", "/api/v1/orders/*/accept").hasAnyRole("APPROVER", "FULFILLMENT_AGENT", "ADMIN")
                 .requestMatchers("/api/v1/orders/**").hasAnyRole("STORE_USER", "APPROVER", "FULFILLMENT_AGENT", "ADMIN")
                 .anyRequest().authenticated())
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Not a bean, so it is not also registered as a plain servlet filter outside the security chain.
+            .addFilterAfter(new RateLimitFilter(rateLimiter), JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -58,12 +70,15 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder());
+        // Re-hashes stored passwords whose BCrypt cost is below the configured strength after a successful login.
+        provider.setUserDetailsPasswordService(userDetailsService);
         return provider;
     }
 
     @Bean
     PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new PooledPasswordEncoder(
+            new BCryptPasswordEncoder(passwordHashingProperties.getBcryptStrength()), passwordHashingExecutor);
     }
 
     @Bean
@@ -76,7 +91,9 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("http://localhost:5173"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With", "Idempotency-Key",
+            "If-None-Match"));
+        configuration.setExposedHeaders(List.of("Idempotent-Replayed", "Retry-After", "ETag"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,82 @@
+package com.pumaprintables.platform.security;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory view of revoked access tokens, consulted by {@link JwtAuthenticationFilter} on every request without
+ * touching the database.
+ * <p>
+ * Revoked token ids sit behind a Bloom filter, so the common case (a token that was never revoked) is answered
+ * from a few bit probes; only filter hits are confirmed against the exact set. Per-user cutoffs reject every token
+ * for that user stamped with an earlier token generation, which is how role changes and "sign out everywhere" take
+ * effect; generations come from the database, so no instance's clock decides which tokens a cutoff covers. Entries
+ * are dropped once the tokens they cover would have expired anyway.
+ */
+@Component
+public class TokenDenylist {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Cutoff> cutoffs = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = new BloomFilter(INITIAL_CAPACITY, FALSE_POSITIVE_RATE);
+
+    /**
+     * @param tokenGeneration the generation the token was issued with; tokens from before generations existed count
+     *                        as generation {@code 0}
+     */
+    public boolean isRevoked(String tokenId, String subject, long tokenGeneration) {
+        if (tokenId != null && filter.mightContain(tokenId) && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        Cutoff cutoff = subject == null ? null : cutoffs.get(subject);
+        return cutoff != null && tokenGeneration < cutoff.minGeneration();
+    }
+
+    // Writes are rare and serialised so that a filter rebuild cannot miss a concurrently revoked id.
+    public synchronized void revokeToken(String tokenId, Instant expiresAt) {
+        if (revokedTokens.put(tokenId, expiresAt) == null) {
+            filter.add(tokenId);
+            if (revokedTokens.size() > filter.expectedEntries()) {
+                rebuildFilter();
+            }
+        }
+    }
+
+    /**
+     * Rejects the subject's tokens issued with a generation below {@code minGeneration}.
+     */
+    public void revokeSubject(String subject, long minGeneration, Instant expiresAt) {
+        cutoffs.merge(subject, new Cutoff(minGeneration, expiresAt),
+            (existing, added) -> existing.minGeneration() > added.minGeneration() ? existing : added);
+    }
+
+    /**
+     * Forgets entries whose tokens have expired and re-sizes the Bloom filter to what is left.
+     */
+    public synchronized void purgeExpired(Instant now) {
+        boolean removed = revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        cutoffs.values().removeIf(cutoff -> cutoff.expiresAt().isBefore(now));
+        if (removed) {
+            rebuildFilter();
+        }
+    }
+
+    public int size() {
+        return revokedTokens.size() + cutoffs.size();
+    }
+
+    private void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(INITIAL_CAPACITY, revokedTokens.size() * 2), FALSE_POSITIVE_RATE);
+        revokedTokens.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    private record Cutoff(long minGeneration, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.pumaprintables.platform.security;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.security.revocation")
+public class TokenRevocationProperties {
+
+    /**
+     * How often each instance loads revocations recorded by other instances; the longest a revoked token can
+     * still be accepted elsewhere.
+     */
+    private Duration syncInterval = Duration.ofSeconds(5);
+
+    /**
+     * How often expired revocations are deleted.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    public Duration getSyncInterval() {
+        return syncInterval;
+    }
+
+    public void setSyncInterval(Duration syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+}
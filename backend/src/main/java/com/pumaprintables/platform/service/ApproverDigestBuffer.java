@@ -0,0 +1,68 @@
+package com.pumaprintables.platform.service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds new-order summaries until the next approver digest is sent. Every approver receives the same digest,
+ * so a single shared buffer is enough; entries are immutable snapshots taken while the order is still attached.
+ */
+@Component
+public class ApproverDigestBuffer {
+
+    private final Object lock = new Object();
+    private List<Entry> pending = new ArrayList<>();
+
+    /**
+     * Queues an entry and returns the number of entries now waiting.
+     */
+    public int add(Entry entry) {
+        synchronized (lock) {
+            pending.add(entry);
+            return pending.size();
+        }
+    }
+
+    public List<Entry> drain() {
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return List.of();
+            }
+            List<Entry> drained = pending;
+            pending = new ArrayList<>();
+            return drained;
+        }
+    }
+
+    /**
+     * Puts entries back ahead of those queued since they were drained, for a flush that could not send them.
+     */
+    public void requeue(List<Entry> entries) {
+        synchronized (lock) {
+            List<Entry> restored = new ArrayList<>(entries.size() + pending.size());
+            restored.addAll(entries);
+            restored.addAll(pending);
+            pending = restored;
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public record Entry(
+        UUID orderId,
+        String placedBy,
+        String shippingAddress,
+        int itemCount,
+        int totalQuantity,
+        OffsetDateTime createdAt
+    ) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.pumaprintables.platform.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+
+/**
+ * Caches the email addresses of every approver so order notifications do not query the users table each time.
+ * Call {@link #invalidate()} whenever a user's role changes or an approver is created; other instances are told
+ * through the {@link CacheInvalidationBus}.
+ */
+@Component
+public class ApproverDirectory {
+
+    private final UserRepository userRepository;
+    private final NotificationProperties properties;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private volatile Snapshot snapshot;
+
+    public ApproverDirectory(UserRepository userRepository, NotificationProperties properties,
+                             CacheInvalidationBus cacheInvalidationBus) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    public List<String> approverEmails() {
+        Snapshot current = snapshot;
+        long now = System.nanoTime();
+        if (current != null && !current.isExpired(now, properties.getApproverCacheTtl())) {
+            return current.emails();
+        }
+
+        List<String> emails = userRepository.findByRole(UserRole.APPROVER).stream()
+            .map(User::getEmail)
+            .filter(email -> email != null && !email.isBlank())
+            .toList();
+        snapshot = new Snapshot(emails, now);
+        return emails;
+    }
+
+    public void invalidate() {
+        snapshot = null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A concurrent reader may reload the old roles before this transaction commits, so clear again afterwards.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshot = null;
+                }
+            });
+        }
+        cacheInvalidationBus.publish(CacheInvalidation.approvers());
+    }
+
+    @EventListener
+    void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.affects(CacheInvalidation.Target.APPROVERS)) {
+            snapshot = null;
+        }
+    }
+
+    private record Snapshot(List<String> emails, long loadedAtNanos) {
+
+        boolean isExpired(long now, Duration ttl) {
+            return ttl == null || now - loadedAtNanos >= ttl.toNanos();
+        }
+    }
+}
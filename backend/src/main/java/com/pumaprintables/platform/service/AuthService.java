@@ -3,9 +3,11 @@ package com.pumaprintables.platform.service;
 import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -20,9 +22,12 @@ import com.pumaprintables.platform.domain.repository.UserRepository;
 import com.pumaprintables.platform.security.JwtService;
 import com.pumaprintables.platform.service.GoogleOAuthService;
 import com.pumaprintables.platform.service.GoogleOAuthService.GoogleProfile;
+import com.pumaprintables.platform.service.exception.PasswordHashingBusyException;
 import com.pumaprintables.platform.service.exception.UserAlreadyExistsException;
 import com.pumaprintables.platform.service.exception.UserNotFoundException;
 
+import io.jsonwebtoken.Claims;
+
 @Service
 public class AuthService {
 
@@ -31,23 +36,44 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final GoogleOAuthService googleOAuthService;
+    private final ApproverDirectory approverDirectory;
+    private final LoginStatsRecorder loginStatsRecorder;
+    private final TokenRevocationService tokenRevocationService;
+    private final OrderRefreshService orderRefreshService;
 
     public AuthService(AuthenticationManager authenticationManager,
                        JwtService jwtService,
                        UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
-                       GoogleOAuthService googleOAuthService) {
+                       GoogleOAuthService googleOAuthService,
+                       ApproverDirectory approverDirectory,
+                       LoginStatsRecorder loginStatsRecorder,
+                       TokenRevocationService tokenRevocationService,
+                       OrderRefreshService orderRefreshService) {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.googleOAuthService = googleOAuthService;
+        this.approverDirectory = approverDirectory;
+        this.loginStatsRecorder = loginStatsRecorder;
+        this.tokenRevocationService = tokenRevocationService;
+        this.orderRefreshService = orderRefreshService;
     }
 
     @Transactional
     public String authenticate(String username, String rawPassword) {
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(username, rawPassword));
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(username, rawPassword));
+        } catch (InternalAuthenticationServiceException ex) {
+            // Unknown usernames still hash a dummy password, and a saturated pool must stay a 429 on that path too.
+            if (ex.getCause() instanceof PasswordHashingBusyException busy) {
+                throw busy;
+            }
+            throw ex;
+        }
 
         User user = userRepository.findByUsername(authentication.getName())
             .orElseThrow(() -> new IllegalStateException("Authenticated user no longer exists"));
@@ -80,7 +106,24 @@ public class AuthService {
             .fullName(StringUtils.hasText(fullName) ? fullName : null)
             .loginCount(0)
             .build();
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (role == UserRole.APPROVER) {
+            approverDirectory.invalidate();
+        }
+        return saved;
+    }
+
+    /**
+     * Revokes the given access token. Tokens issued before token ids were introduced have none, so for those every
+     * token of the user is revoked instead.
+     */
+    public void logout(String token) {
+        Claims claims = jwtService.parseClaims(token);
+        if (claims.getId() != null) {
+            tokenRevocationService.revokeToken(claims.getId(), claims.getSubject(), claims.getExpiration().toInstant());
+        } else {
+            tokenRevocationService.revokeAllTokens(claims.getSubject());
+        }
     }
 
     @Transactional(readOnly = true)
@@ -101,18 +144,12 @@ public class AuthService {
         if (user.getAuthProvider() != null) {
             claims.put("provider", user.getAuthProvider().name());
         }
+        claims.put(JwtService.GENERATION_CLAIM, tokenRevocationService.currentGeneration(user.getUsername()));
         return jwtService.generateToken(user.getUsername(), claims);
     }
 
     private void recordSuccessfulLogin(User user) {
-        OffsetDateTime now = OffsetDateTime.now();
-        if (user.getFirstLoginAt() == null) {
-            user.setFirstLoginAt(now);
-        }
-        user.setLastLoginAt(now);
-        Integer currentCount = user.getLoginCount() == null ? 0 : user.getLoginCount();
-        user.setLoginCount(currentCount + 1);
-        userRepository.save(user);
+        loginStatsRecorder.recordLogin(user.getId(), OffsetDateTime.now());
     }
 
     private User resolveGoogleUser(GoogleProfile profile) {
@@ -124,6 +161,8 @@ public class AuthService {
     }
 
     private User updateExistingUserWithGoogleProfile(User user, GoogleProfile profile) {
+        String previousUsername = user.getUsername();
+        String previousFullName = user.getFullName();
         user.setAuthProvider(AuthProvider.GOOGLE);
         user.setProviderSubject(profile.subject());
         user.setEmail(profile.email());
@@ -139,7 +178,17 @@ public class AuthService {
         if (user.getLoginCount() == null) {
             user.setLoginCount(0);
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (!Objects.equals(previousUsername, saved.getUsername())
+            || !Objects.equals(previousFullName, saved.getFullName())) {
+            // Flushed first, so the refresh request the rename records is there to be dropped.
+            userRepository.flush();
+            orderRefreshService.refreshRenamedStore(saved.getId());
+        }
+        if (saved.getRole() == UserRole.APPROVER) {
+            approverDirectory.invalidate();
+        }
+        return saved;
     }
 
     private User createGoogleUser(GoogleProfile profile) {
@@ -0,0 +1,54 @@
+package com.pumaprintables.platform.service;
+
+import java.util.UUID;
+
+/**
+ * Tells every instance that cached data changed. Published to other instances through {@link CacheInvalidationBus}
+ * and delivered to local caches as an application event.
+ *
+ * @param target what changed
+ * @param key    the id of the changed entity for {@link Target#PRODUCT} and {@link Target#USER}, of the new row for
+ *               {@link Target#TOKEN_REVOCATION}, otherwise {@code null}
+ */
+public record CacheInvalidation(Target target, String key) {
+
+    public static CacheInvalidation product(UUID productId) {
+        return new CacheInvalidation(Target.PRODUCT, productId.toString());
+    }
+
+    public static CacheInvalidation products() {
+        return new CacheInvalidation(Target.PRODUCTS, null);
+    }
+
+    public static CacheInvalidation user(UUID userId) {
+        return new CacheInvalidation(Target.USER, userId.toString());
+    }
+
+    public static CacheInvalidation tokenRevocation(UUID revocationId) {
+        return new CacheInvalidation(Target.TOKEN_REVOCATION, revocationId.toString());
+    }
+
+    public static CacheInvalidation approvers() {
+        return new CacheInvalidation(Target.APPROVERS, null);
+    }
+
+    /**
+     * Sent locally when invalidations may have been missed; every cache must drop everything it holds.
+     */
+    public static CacheInvalidation all() {
+        return new CacheInvalidation(Target.ALL, null);
+    }
+
+    public boolean affects(Target cached) {
+        return target == Target.ALL || target == cached;
+    }
+
+    public enum Target {
+        PRODUCT,
+        PRODUCTS,
+        USER,
+        APPROVERS,
+        TOKEN_REVOCATION,
+        ALL
+    }
+}
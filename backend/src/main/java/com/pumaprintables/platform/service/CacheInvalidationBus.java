@@ -0,0 +1,254 @@
+package com.pumaprintables.platform.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PreDestroy;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Carries {@link CacheInvalidation}s between instances over Postgres {@code LISTEN/NOTIFY}, so in-process caches stay
+ * correct behind a load balancer without a separate message broker.
+ * <p>
+ * Invalidations are sent once the changing transaction commits, each stamped with this instance's id and a sequence
+ * number. A dedicated connection outside the pool listens for them and republishes the ones from other instances as
+ * application events. Whenever notifications may have been lost (the listener reconnected, or a sender's sequence
+ * skipped a number because its send failed) a {@link CacheInvalidation#all()} event is published instead, so every
+ * cache starts over rather than serving stale entries.
+ */
+@Service
+public class CacheInvalidationBus {
+
+    static final String CHANNEL = "puma_cache_invalidation";
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<JdbcConnectionDetails> connectionDetails;
+    private final DataSourceProperties dataSourceProperties;
+    private final CacheInvalidationProperties properties;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    // Sends are serialised so notifications leave in sequence order and receivers only see gaps for lost sends.
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private long sequence;
+
+    // Only touched by the listener thread.
+    private final Map<String, Long> lastSequences = new HashMap<>();
+
+    private volatile boolean running;
+    private volatile Thread listener;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                ObjectProvider<JdbcConnectionDetails> connectionDetails,
+                                DataSourceProperties dataSourceProperties, CacheInvalidationProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.connectionDetails = connectionDetails;
+        this.dataSourceProperties = dataSourceProperties;
+        this.properties = properties;
+    }
+
+    /**
+     * Tells the other instances to drop the cached data; within a transaction, only once it commits. Callers still
+     * invalidate their own instance's caches themselves.
+     */
+    public void publish(CacheInvalidation invalidation) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(invalidation);
+                }
+            });
+        } else {
+            send(invalidation);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::listen, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        listener = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void send(CacheInvalidation invalidation) {
+        sendLock.lock();
+        try {
+            // Consumed even if the send fails, so receivers notice the gap and resynchronise.
+            long next = ++sequence;
+            String payload = new Message(nodeId, next, invalidation).format();
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.query(NOTIFY, (ResultSetExtractor<Void>) rs -> null, CHANNEL, payload));
+        } catch (RuntimeException ex) {
+            log.warn("Unable to send cache invalidation {}; other instances resynchronise on the next one",
+                invalidation, ex);
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * Handles one notification payload; package-private for tests.
+     */
+    void receive(String payload) {
+        Message message = Message.parse(payload);
+        if (message == null) {
+            log.warn("Ignoring malformed cache invalidation '{}'", payload);
+            return;
+        }
+        if (message.sender().equals(nodeId)) {
+            return;
+        }
+        Long previous = lastSequences.put(message.sender(), message.sequence());
+        if (previous != null && message.sequence() != previous + 1) {
+            log.info("Missed cache invalidations from instance {}; clearing all caches", message.sender());
+            eventPublisher.publishEvent(CacheInvalidation.all());
+            return;
+        }
+        eventPublisher.publishEvent(message.invalidation());
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = openConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Anything sent while this instance was not listening is lost, so start from empty caches.
+                lastSequences.clear();
+                eventPublisher.publishEvent(CacheInvalidation.all());
+                log.info("Listening for cache invalidations as instance {}", nodeId);
+                poll(connection);
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection; reconnecting in {}",
+                    properties.getReconnectDelay(), ex);
+                try {
+                    Thread.sleep(properties.getReconnectDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void poll(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        int timeoutMillis = (int) Math.max(properties.getHealthCheckInterval().toMillis(), 1);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(timeoutMillis);
+            if (notifications == null || notifications.length == 0) {
+                // A silently dropped connection would otherwise leave the listener waiting forever.
+                if (!connection.isValid(5)) {
+                    throw new SQLException("Cache invalidation connection is no longer valid");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                if (CHANNEL.equals(notification.getName())) {
+                    receive(notification.getParameter());
+                }
+            }
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        Properties info = new Properties();
+        String url;
+        if (details != null) {
+            url = details.getJdbcUrl();
+            putIfPresent(info, "user", details.getUsername());
+            putIfPresent(info, "password", details.getPassword());
+        } else {
+            url = dataSourceProperties.determineUrl();
+            putIfPresent(info, "user", dataSourceProperties.determineUsername());
+            putIfPresent(info, "password", dataSourceProperties.determinePassword());
+        }
+        info.setProperty("ApplicationName", "puma-cache-invalidation");
+        info.setProperty("tcpKeepAlive", "true");
+        return DriverManager.getConnection(url, info);
+    }
+
+    private static void putIfPresent(Properties info, String key, String value) {
+        if (value != null) {
+            info.setProperty(key, value);
+        }
+    }
+
+    private record Message(String sender, long sequence, CacheInvalidation invalidation) {
+
+        String format() {
+            String key = invalidation.key() != null ? invalidation.key() : "";
+            return String.join(":", sender, Long.toString(sequence), invalidation.target().name(), key);
+        }
+
+        static Message parse(String payload) {
+            String[] parts = payload.split(":", 4);
+            if (parts.length != 4) {
+                return null;
+            }
+            try {
+                CacheInvalidation invalidation = new CacheInvalidation(CacheInvalidation.Target.valueOf(parts[2]),
+                    parts[3].isEmpty() ? null : parts[3]);
+                return new Message(parts[0], Long.parseLong(parts[1]), invalidation);
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.pumaprintables.platform.service;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.cache.invalidation")
+public class CacheInvalidationProperties {
+
+    /**
+     * Sends and listens for cache invalidations between instances; only a single instance can run without it.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long the listener waits before reconnecting after losing its database connection.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    /**
+     * How long the listener waits for notifications before checking that its connection is still alive.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getReconnectDelay() {
+        return reconnectDelay;
+    }
+
+    public void setReconnectDelay(Duration reconnectDelay) {
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public void setHealthCheckInterval(Duration healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+}
@@ -0,0 +1,50 @@
+package com.pumaprintables.platform.service;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.fulfillment.queue")
+public class FulfillmentQueueProperties {
+
+    /**
+     * How long a claimed order stays reserved for its agent; claiming again renews the agent's leases.
+     */
+    private Duration claimLease = Duration.ofMinutes(15);
+
+    /**
+     * Most orders one agent can hold at a time.
+     */
+    private int maxClaims = 20;
+
+    /**
+     * How often the queue depth and age gauges are recomputed.
+     */
+    private Duration statsRefreshInterval = Duration.ofSeconds(30);
+
+    public Duration getClaimLease() {
+        return claimLease;
+    }
+
+    public void setClaimLease(Duration claimLease) {
+        this.claimLease = claimLease;
+    }
+
+    public int getMaxClaims() {
+        return maxClaims;
+    }
+
+    public void setMaxClaims(int maxClaims) {
+        this.maxClaims = maxClaims;
+    }
+
+    public Duration getStatsRefreshInterval() {
+        return statsRefreshInterval;
+    }
+
+    public void setStatsRefreshInterval(Duration statsRefreshInterval) {
+        this.statsRefreshInterval = statsRefreshInterval;
+    }
+}
@@ -0,0 +1,197 @@
+package com.pumaprintables.platform.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pumaprintables.platform.domain.model.Order;
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.repository.OrderRepository;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+import com.pumaprintables.platform.service.exception.InvalidOrderStateException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Hands approved orders to fulfillment agents as short leases, oldest first. Claiming locks candidate rows with
+ * {@code SKIP LOCKED}, so agents claiming at the same time get disjoint orders without waiting on each other, and an
+ * agent that walks away loses its orders back to the queue when the lease runs out.
+ */
+@Service
+public class FulfillmentQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(FulfillmentQueueService.class);
+
+    // Keeps the oldest held leases up to the requested number and hands any beyond it, left from a larger earlier
+    // claim, back to the queue; released rows return a null id.
+    private static final String RENEW_HELD = """
+        WITH held AS (
+            SELECT o.id, o.created_at
+              FROM orders o
+             WHERE o.claimed_by = ?
+               AND o.status = 'APPROVED'
+               AND o.claim_expires_at > now()
+               FOR UPDATE
+        ),
+        kept AS (
+            SELECT held.id
+              FROM held
+             ORDER BY held.created_at
+             LIMIT ?
+        )
+        UPDATE orders o
+           SET claimed_by = CASE WHEN kept.id IS NULL THEN NULL ELSE o.claimed_by END,
+               claim_expires_at = CASE WHEN kept.id IS NULL THEN NULL ELSE now() + make_interval(secs => ?) END
+          FROM held
+          LEFT JOIN kept ON kept.id = held.id
+         WHERE o.id = held.id
+        RETURNING kept.id
+        """;
+
+    private static final String CLAIM_NEXT = """
+        WITH next AS (
+            SELECT o.id
+              FROM orders o
+             WHERE o.status = 'APPROVED'
+               AND (o.claim_expires_at IS NULL OR o.claim_expires_at <= now())
+             ORDER BY o.created_at
+             LIMIT ?
+               FOR UPDATE SKIP LOCKED
+        )
+        UPDATE orders o
+           SET claimed_by = ?, claim_expires_at = now() + make_interval(secs => ?)
+          FROM next
+         WHERE o.id = next.id
+        RETURNING o.id
+        """;
+
+    private static final String RELEASE = """
+        UPDATE orders
+           SET claimed_by = NULL, claim_expires_at = NULL
+         WHERE id = ?
+           AND status = 'APPROVED'
+           AND claim_expires_at > now()
+        """;
+
+    private static final String STATS = """
+        SELECT count(*) AS depth,
+               count(*) FILTER (WHERE o.claim_expires_at > now()) AS claimed,
+               min(COALESCE(a.approval_date, o.created_at)) AS oldest_approved_at
+          FROM orders o
+          LEFT JOIN approvals a ON a.order_id = o.id
+         WHERE o.status = 'APPROVED'
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final FulfillmentQueueProperties properties;
+    private volatile QueueStats lastStats = new QueueStats(0, 0, null);
+
+    public FulfillmentQueueService(JdbcTemplate jdbcTemplate, OrderRepository orderRepository,
+                                   UserRepository userRepository, FulfillmentQueueProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.properties = properties;
+        Gauge.builder("puma.fulfillment.queue.depth", () -> lastStats.depth())
+            .description("Approved orders waiting to be accepted")
+            .register(meterRegistry);
+        Gauge.builder("puma.fulfillment.queue.claimed", () -> lastStats.claimed())
+            .description("Approved orders currently leased to an agent")
+            .register(meterRegistry);
+        TimeGauge.builder("puma.fulfillment.queue.oldest.age",
+                () -> lastStats.oldestAge(OffsetDateTime.now()).toMillis(), TimeUnit.MILLISECONDS)
+            .description("Time since the oldest waiting order was approved")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Renews the agent's current leases and tops them up with the oldest unclaimed approved orders, up to
+     * {@code limit} in total (capped at {@link FulfillmentQueueProperties#getMaxClaims()}). Leases the agent holds
+     * beyond that, newest first, go back to the queue.
+     *
+     * @return every order the agent now holds, oldest first
+     */
+    @Transactional
+    public List<Order> claimNext(String agentUsername, int limit) {
+        UUID agentId = getUserByUsername(agentUsername).getId();
+        int wanted = Math.min(Math.max(limit, 1), Math.max(properties.getMaxClaims(), 1));
+        double leaseSeconds = properties.getClaimLease().toMillis() / 1000.0;
+
+        List<UUID> ids = jdbcTemplate.queryForList(RENEW_HELD, UUID.class, agentId, wanted, leaseSeconds).stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(ArrayList::new));
+        if (ids.size() < wanted) {
+            ids.addAll(jdbcTemplate.queryForList(CLAIM_NEXT, UUID.class, wanted - ids.size(), agentId, leaseSeconds));
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return orderRepository.findWithDetailsByIdIn(ids).stream()
+            .sorted(Comparator.comparing(Order::getCreatedAt))
+            .toList();
+    }
+
+    /**
+     * Returns a leased order to the queue. Agents can only release their own leases; admins can release any.
+     */
+    @Transactional
+    public void release(UUID orderId, String username, boolean anyAgent) {
+        int released = anyAgent
+            ? jdbcTemplate.update(RELEASE, orderId)
+            : jdbcTemplate.update(RELEASE + "   AND claimed_by = ?\n", orderId, getUserByUsername(username).getId());
+        if (released == 0) {
+            throw new InvalidOrderStateException("Order is not claimed by this agent");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public QueueStats getStats() {
+        QueueStats stats = jdbcTemplate.queryForObject(STATS, (rs, rowNum) -> new QueueStats(
+            rs.getLong("depth"),
+            rs.getLong("claimed"),
+            rs.getObject("oldest_approved_at", OffsetDateTime.class)));
+        lastStats = stats;
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${puma.fulfillment.queue.stats-refresh-interval:PT30S}")
+    public void refreshStats() {
+        try {
+            getStats();
+        } catch (RuntimeException ex) {
+            log.warn("Unable to refresh fulfillment queue stats", ex);
+        }
+    }
+
+    private User getUserByUsername(String username) {
+        return userRepository.findByUsername(username)
+            .orElseThrow(() -> new IllegalStateException("User not found: " + username));
+    }
+
+    public record QueueStats(long depth, long claimed, OffsetDateTime oldestApprovedAt) {
+
+        public Duration oldestAge(OffsetDateTime now) {
+            return oldestApprovedAt == null || oldestApprovedAt.isAfter(now)
+                ? Duration.ZERO
+                : Duration.between(oldestApprovedAt, now);
+        }
+    }
+}
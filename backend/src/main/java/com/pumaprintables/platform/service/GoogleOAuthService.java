@@ -2,6 +2,7 @@ package com.pumaprintables.platform.service;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.security.PublicKey;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
@@ -16,10 +17,10 @@ import org.springframework.util.StringUtils;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken.Payload;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.pumaprintables.platform.security.GoogleOAuthProperties;
+import com.pumaprintables.platform.security.GoogleSigningKeyCache;
 import com.pumaprintables.platform.service.exception.GoogleOAuthDisabledException;
 import com.pumaprintables.platform.service.exception.GoogleOAuthTokenInvalidException;
 
@@ -27,33 +28,57 @@ import com.pumaprintables.platform.service.exception.GoogleOAuthTokenInvalidExce
 public class GoogleOAuthService {
 
     private static final Logger log = LoggerFactory.getLogger(GoogleOAuthService.class);
+    private static final JsonFactory JSON_FACTORY = JacksonFactory.getDefaultInstance();
+    private static final String SIGNATURE_ALGORITHM = "RS256";
+
+    // Google documents both forms of the issuer claim.
+    private static final List<String> ISSUERS = List.of("https://accounts.google.com", "accounts.google.com");
+    private static final long ALLOWED_CLOCK_SKEW_SECONDS = 300;
 
     private final GoogleOAuthProperties properties;
-    private final GoogleIdTokenVerifier verifier;
+    private final GoogleSigningKeyCache signingKeys;
+    private final List<String> clientIds;
 
-    public GoogleOAuthService(GoogleOAuthProperties properties) {
+    public GoogleOAuthService(GoogleOAuthProperties properties, GoogleSigningKeyCache signingKeys) {
         this.properties = properties;
-        this.verifier = buildVerifier(properties.getClientIds());
+        this.signingKeys = signingKeys;
+        this.clientIds = sanitizeClientIds(properties.getClientIds());
     }
 
+    /**
+     * Verifies a Google ID token against the cached signing keys; this never fetches keys on the calling thread.
+     */
     public GoogleProfile verifyCredential(String credential) {
         if (!properties.isEnabled()) {
             throw new GoogleOAuthDisabledException();
         }
         try {
-            GoogleIdToken idToken = verifier.verify(credential);
-            if (idToken == null) {
+            GoogleIdToken idToken = GoogleIdToken.parse(JSON_FACTORY, credential);
+            verifySignature(idToken);
+            if (!idToken.verifyIssuer(ISSUERS)
+                || !idToken.verifyAudience(clientIds)
+                || !idToken.verifyTime(System.currentTimeMillis(), ALLOWED_CLOCK_SKEW_SECONDS)) {
                 throw new GoogleOAuthTokenInvalidException("Unable to verify Google credential");
             }
             Payload payload = idToken.getPayload();
             validateHostedDomain(payload);
             return toProfile(payload);
-        } catch (GeneralSecurityException | IOException ex) {
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException ex) {
             log.warn("Failed to validate Google token", ex);
             throw new GoogleOAuthTokenInvalidException("Google credential could not be verified", ex);
         }
     }
 
+    private void verifySignature(GoogleIdToken idToken) throws GeneralSecurityException {
+        if (!SIGNATURE_ALGORITHM.equals(idToken.getHeader().getAlgorithm())) {
+            throw new GoogleOAuthTokenInvalidException("Unable to verify Google credential");
+        }
+        PublicKey key = signingKeys.find(idToken.getHeader().getKeyId());
+        if (key == null || !idToken.verifySignature(key)) {
+            throw new GoogleOAuthTokenInvalidException("Unable to verify Google credential");
+        }
+    }
+
     private void validateHostedDomain(Payload payload) {
         String requiredHd = properties.getHostedDomain();
         if (!StringUtils.hasText(requiredHd)) {
@@ -86,17 +111,14 @@ public class GoogleOAuthService {
         return new GoogleProfile(subject, email, fullName, picture, locale, givenName, familyName, authTime);
     }
 
-    private GoogleIdTokenVerifier buildVerifier(List<String> clientIds) {
+    private static List<String> sanitizeClientIds(List<String> clientIds) {
         List<String> sanitizedIds = clientIds == null ? List.of() : clientIds.stream()
             .filter(StringUtils::hasText)
             .collect(Collectors.toList());
         if (sanitizedIds.isEmpty()) {
             log.warn("Google OAuth enabled but no client IDs configured; login attempts will fail");
         }
-        return new GoogleIdTokenVerifier.Builder(new NetHttpTransport(), JacksonFactory.getDefaultInstance())
-            .setAudience(sanitizedIds)
-            .setIssuer("https://accounts.google.com")
-            .build();
+        return sanitizedIds;
     }
 
     public record GoogleProfile(
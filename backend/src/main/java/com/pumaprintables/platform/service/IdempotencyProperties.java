@@ -0,0 +1,37 @@
+package com.pumaprintables.platform.service;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a completed response is replayed for retries carrying the same {@code Idempotency-Key}.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a duplicate request waits for the original to finish before it is answered with 409.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    public void setWaitTimeout(Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+    }
+}
@@ -0,0 +1,191 @@
+package com.pumaprintables.platform.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pumaprintables.platform.service.exception.IdempotencyKeyMismatchException;
+import com.pumaprintables.platform.service.exception.IdempotentRequestInProgressException;
+import com.pumaprintables.platform.service.exception.InvalidIdempotencyKeyException;
+
+/**
+ * Remembers the outcome of requests sent with an {@code Idempotency-Key} so client retries replay the original
+ * response instead of repeating the side effects. Keys are scoped per caller and bound to a fingerprint of the
+ * request body.
+ * <p>
+ * Keys live in {@code idempotency_keys}, so every instance sees them. A request claims its key with an insert in the
+ * same transaction as its side effects: a concurrent duplicate, on any instance, blocks on the uncommitted row and
+ * then replays the stored response, and a failed request rolls its claim back so it can be retried with the same key.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final int PURGE_BATCH_SIZE = 1_000;
+
+    // set_config(..., true) is SET LOCAL: the timeout ends with the request's transaction.
+    private static final String LIMIT_LOCK_WAIT = "SELECT set_config('lock_timeout', ?, true)";
+
+    // Takes over a key whose response has expired but not been purged yet.
+    private static final String CLAIM = """
+        INSERT INTO idempotency_keys (scope, idempotency_key, fingerprint, expires_at)
+        VALUES (?, ?, ?, now() + make_interval(secs => ?))
+        ON CONFLICT (scope, idempotency_key) DO UPDATE
+           SET fingerprint = EXCLUDED.fingerprint,
+               response = NULL,
+               created_at = now(),
+               expires_at = EXCLUDED.expires_at
+         WHERE idempotency_keys.expires_at <= now()
+        """;
+
+    private static final String STORE_RESPONSE = """
+        UPDATE idempotency_keys
+           SET response = CAST(? AS jsonb)
+         WHERE scope = ? AND idempotency_key = ?
+        """;
+
+    private static final String FIND_RESPONSE = """
+        SELECT fingerprint, response::text AS response
+          FROM idempotency_keys
+         WHERE scope = ? AND idempotency_key = ?
+        """;
+
+    private static final String PURGE_EXPIRED = """
+        DELETE FROM idempotency_keys
+         WHERE (scope, idempotency_key) IN (
+               SELECT scope, idempotency_key
+                 FROM idempotency_keys
+                WHERE expires_at <= now()
+                LIMIT ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+
+    public IdempotencyService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper, IdempotencyProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Runs {@code action} once per {@code scope}/{@code key} pair and returns its result, or the stored result when
+     * the key has been seen before with the same request. {@code action} joins the transaction that claims the key.
+     */
+    public <T> Outcome<T> execute(String scope, String key, Object request, Class<T> resultType, Supplier<T> action) {
+        validateKey(key);
+        String fingerprint = fingerprint(request);
+        return transactionTemplate.execute(status -> {
+            while (true) {
+                if (claim(scope, key, fingerprint)) {
+                    T result = action.get();
+                    jdbcTemplate.update(STORE_RESPONSE, serialize(result), scope, key);
+                    return new Outcome<>(result, false);
+                }
+                List<StoredResponse> stored = jdbcTemplate.query(FIND_RESPONSE,
+                    (rs, rowNum) -> new StoredResponse(rs.getString("fingerprint"), rs.getString("response")),
+                    scope, key);
+                if (stored.isEmpty()) {
+                    // Purged between the claim and the read; claim it again.
+                    continue;
+                }
+                if (!stored.get(0).fingerprint().equals(fingerprint)) {
+                    throw new IdempotencyKeyMismatchException(key);
+                }
+                return new Outcome<>(deserialize(stored.get(0).response(), resultType), true);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${puma.idempotency.purge-interval:PT1M}")
+    public void purgeExpired() {
+        int purged;
+        int total = 0;
+        do {
+            purged = jdbcTemplate.update(PURGE_EXPIRED, PURGE_BATCH_SIZE);
+            total += purged;
+        } while (purged == PURGE_BATCH_SIZE);
+        if (total > 0) {
+            log.debug("Purged {} expired idempotency keys", total);
+        }
+    }
+
+    /**
+     * Inserts the key, waiting at most {@link IdempotencyProperties#getWaitTimeout()} for a transaction that holds it
+     * uncommitted.
+     *
+     * @return {@code false} if the key is already taken by a committed, unexpired request
+     */
+    private boolean claim(String scope, String key, String fingerprint) {
+        jdbcTemplate.queryForObject(LIMIT_LOCK_WAIT, String.class, properties.getWaitTimeout().toMillis() + "ms");
+        try {
+            return jdbcTemplate.update(CLAIM, scope, key, fingerprint, properties.getTtl().toSeconds()) > 0;
+        } catch (CannotAcquireLockException ex) {
+            throw new IdempotentRequestInProgressException(key);
+        }
+    }
+
+    private String serialize(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to store response for idempotent replay", ex);
+        }
+    }
+
+    private <T> T deserialize(String response, Class<T> resultType) {
+        try {
+            return objectMapper.readValue(response, resultType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to read stored response for idempotent replay", ex);
+        }
+    }
+
+    private static void validateKey(String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                "Idempotency-Key must be between 1 and %d characters".formatted(MAX_KEY_LENGTH));
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x21 || c > 0x7E) {
+                throw new InvalidIdempotencyKeyException("Idempotency-Key must contain printable ASCII characters only");
+            }
+        }
+    }
+
+    String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Unable to fingerprint request for idempotency check", ex);
+        }
+    }
+
+    public record Outcome<T>(T value, boolean replayed) {
+    }
+
+    private record StoredResponse(String fingerprint, String response) {
+    }
+}
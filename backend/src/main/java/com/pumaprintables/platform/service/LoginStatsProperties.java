@@ -0,0 +1,38 @@
+package com.pumaprintables.platform.service;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.login-stats")
+public class LoginStatsProperties {
+
+    /**
+     * How often buffered login counters are written to {@code users}; also the longest a login can be missing
+     * from reads served by another instance.
+     */
+    private Duration flushInterval = Duration.ofSeconds(10);
+
+    /**
+     * Users updated per {@code UPDATE ... FROM (VALUES ...)} statement.
+     */
+    private int batchSize = 500;
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
@@ -0,0 +1,168 @@
+package com.pumaprintables.platform.service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pumaprintables.platform.domain.model.User;
+
+/**
+ * Accumulates successful logins in memory and writes them to {@code users} in batches, so a burst of logins does
+ * not turn into one row update per login. Counts are added and timestamps merged in SQL, so flushes from several
+ * instances combine correctly. Readers that need exact figures call {@link #flush()} before their transaction starts
+ * and read from the primary, not a replica.
+ * <p>
+ * The login columns are not updatable through JPA; this class is their only writer after insert.
+ */
+@Service
+public class LoginStatsRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginStatsRecorder.class);
+
+    private static final String UPDATE_PREFIX = """
+        UPDATE users u
+           SET login_count = u.login_count + v.logins,
+               first_login_at = COALESCE(u.first_login_at, v.first_login_at),
+               last_login_at = GREATEST(u.last_login_at, v.last_login_at)
+          FROM (VALUES
+        """;
+    private static final String UPDATE_ROW = "(CAST(? AS uuid), CAST(? AS integer), CAST(? AS timestamptz), CAST(? AS timestamptz))";
+    private static final String UPDATE_SUFFIX = """
+        ) AS v(id, logins, first_login_at, last_login_at)
+         WHERE u.id = v.id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final LoginStatsProperties properties;
+    private final Map<UUID, PendingLogins> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public LoginStatsRecorder(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              EntityManagerFactory entityManagerFactory, LoginStatsProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.entityManagerFactory = entityManagerFactory;
+        this.properties = properties;
+    }
+
+    /**
+     * Buffers one login. Inside a transaction the login is only buffered once it commits, so a flush cannot run
+     * ahead of the insert of a user created by the same sign-in.
+     */
+    public void recordLogin(UUID userId, OffsetDateTime at) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    buffer(userId, at);
+                }
+            });
+        } else {
+            buffer(userId, at);
+        }
+    }
+
+    public int pendingUsers() {
+        return pending.size();
+    }
+
+    /**
+     * Writes everything recorded so far. Waits for a flush already in progress, so callers see its writes too.
+     */
+    @Scheduled(fixedDelayString = "${puma.login-stats.flush-interval:PT10S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<UUID, PendingLogins> drained = drain();
+            if (drained.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(drained));
+            } catch (RuntimeException ex) {
+                drained.forEach((userId, logins) -> pending.merge(userId, logins, PendingLogins::plus));
+                log.warn("Unable to write login stats for {} users; retrying on next flush", drained.size(), ex);
+                return;
+            }
+            // Cached User entities still hold the old counters.
+            drained.keySet().forEach(userId -> entityManagerFactory.getCache().evict(User.class, userId));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int users = pending.size();
+        flush();
+        if (users > 0) {
+            log.info("Flushed login stats for {} users on shutdown", users);
+        }
+    }
+
+    private void buffer(UUID userId, OffsetDateTime at) {
+        pending.merge(userId, new PendingLogins(1, at, at), PendingLogins::plus);
+    }
+
+    private Map<UUID, PendingLogins> drain() {
+        Map<UUID, PendingLogins> drained = new HashMap<>();
+        for (UUID userId : pending.keySet()) {
+            PendingLogins logins = pending.remove(userId);
+            if (logins != null) {
+                drained.put(userId, logins);
+            }
+        }
+        return drained;
+    }
+
+    private void write(Map<UUID, PendingLogins> drained) {
+        List<Map.Entry<UUID, PendingLogins>> entries = new ArrayList<>(drained.entrySet());
+        int batchSize = Math.max(properties.getBatchSize(), 1);
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<UUID, PendingLogins>> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            String sql = UPDATE_PREFIX + String.join(",\n", Collections.nCopies(batch.size(), UPDATE_ROW)) + UPDATE_SUFFIX;
+            Object[] args = new Object[batch.size() * 4];
+            int i = 0;
+            for (Map.Entry<UUID, PendingLogins> entry : batch) {
+                args[i++] = entry.getKey();
+                args[i++] = entry.getValue().logins();
+                args[i++] = entry.getValue().firstAt();
+                args[i++] = entry.getValue().lastAt();
+            }
+            jdbcTemplate.update(sql, args);
+        }
+    }
+
+    record PendingLogins(int logins, OffsetDateTime firstAt, OffsetDateTime lastAt) {
+
+        PendingLogins plus(PendingLogins other) {
+            return new PendingLogins(
+                logins + other.logins,
+                firstAt.isBefore(other.firstAt) ? firstAt : other.firstAt,
+                lastAt.isAfter(other.lastAt) ? lastAt : other.lastAt);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.pumaprintables.platform.service;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -22,6 +24,21 @@ public class NotificationProperties {
      */
     private boolean copyApproversOnCreation = true;
 
+    /**
+     * How long the resolved approver recipient list is reused before it is reloaded from the database.
+     */
+    private Duration approverCacheTtl = Duration.ofMinutes(5);
+
+    /**
+     * Batches new-order notifications for approvers into periodic summary emails.
+     */
+    private final ApproverDigest approverDigest = new ApproverDigest();
+
+    /**
+     * Template loading options.
+     */
+    private final Templates templates = new Templates();
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -45,4 +62,79 @@ public class NotificationProperties {
     public void setCopyApproversOnCreation(boolean copyApproversOnCreation) {
         this.copyApproversOnCreation = copyApproversOnCreation;
     }
+
+    public Duration getApproverCacheTtl() {
+        return approverCacheTtl;
+    }
+
+    public void setApproverCacheTtl(Duration approverCacheTtl) {
+        this.approverCacheTtl = approverCacheTtl;
+    }
+
+    public ApproverDigest getApproverDigest() {
+        return approverDigest;
+    }
+
+    public Templates getTemplates() {
+        return templates;
+    }
+
+    public static class ApproverDigest {
+
+        /**
+         * When enabled, approvers receive one summary email per flush instead of one email per order.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Interval between scheduled digest flushes.
+         */
+        private Duration flushInterval = Duration.ofMinutes(15);
+
+        /**
+         * Number of pending orders that triggers an early flush before the interval elapses.
+         */
+        private int maxOrders = 50;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getMaxOrders() {
+            return maxOrders;
+        }
+
+        public void setMaxOrders(int maxOrders) {
+            this.maxOrders = maxOrders;
+        }
+    }
+
+    public static class Templates {
+
+        /**
+         * Optional resource location (e.g. {@code file:/etc/puma/templates/}) checked before the bundled templates,
+         * allowing individual event templates to be replaced without a rebuild.
+         */
+        private String overrideLocation;
+
+        public String getOverrideLocation() {
+            return overrideLocation;
+        }
+
+        public void setOverrideLocation(String overrideLocation) {
+            this.overrideLocation = overrideLocation;
+        }
+    }
 }
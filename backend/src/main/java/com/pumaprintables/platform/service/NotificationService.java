@@ -4,165 +4,269 @@ import com.pumaprintables.platform.domain.model.NotificationLog;
 import com.pumaprintables.platform.domain.model.Order;
 import com.pumaprintables.platform.domain.model.OrderItem;
 import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
 import com.pumaprintables.platform.domain.model.enums.UserRole;
 import com.pumaprintables.platform.domain.repository.NotificationLogRepository;
 import com.pumaprintables.platform.domain.repository.UserRepository;
+import com.pumaprintables.platform.service.template.NotificationTemplates;
+import com.pumaprintables.platform.service.template.OrderNotificationType;
+import com.pumaprintables.platform.service.template.RenderedNotification;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class NotificationService {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm xxx", Locale.ENGLISH);
 
     private final JavaMailSender mailSender;
     private final NotificationProperties properties;
-    private final UserRepository userRepository;
     private final NotificationLogRepository notificationLogRepository;
+    private final ApproverDirectory approverDirectory;
+    private final UserRepository userRepository;
+    private final ApproverDigestBuffer approverDigestBuffer;
+    private final NotificationTemplates templates;
+    private final TaskScheduler taskScheduler;
+    private final AtomicBoolean earlyDigestFlushScheduled = new AtomicBoolean();
 
     public NotificationService(JavaMailSender mailSender,
                                NotificationProperties properties,
+                               NotificationLogRepository notificationLogRepository,
+                               ApproverDirectory approverDirectory,
                                UserRepository userRepository,
-                               NotificationLogRepository notificationLogRepository) {
+                               ApproverDigestBuffer approverDigestBuffer,
+                               NotificationTemplates templates,
+                               TaskScheduler taskScheduler) {
         this.mailSender = mailSender;
         this.properties = properties;
-        this.userRepository = userRepository;
         this.notificationLogRepository = notificationLogRepository;
+        this.approverDirectory = approverDirectory;
+        this.userRepository = userRepository;
+        this.approverDigestBuffer = approverDigestBuffer;
+        this.templates = templates;
+        this.taskScheduler = taskScheduler;
     }
 
     public void notifyOrderCreated(Order order) {
         List<String> recipients = new ArrayList<>();
         addIfPresent(recipients, order.getUser());
 
-        if (properties.isCopyApproversOnCreation()) {
-            userRepository.findByRole(UserRole.APPROVER).stream()
-                .map(User::getEmail)
-                .filter(email -> email != null && !email.isBlank())
-                .forEach(recipients::add);
+        boolean digestApprovers = properties.isCopyApproversOnCreation() && properties.getApproverDigest().isEnabled();
+        if (properties.isCopyApproversOnCreation() && !digestApprovers) {
+            recipients.addAll(approverDirectory.approverEmails());
+        }
+
+        dispatch(recipients, templates.renderOrder(OrderNotificationType.CREATED, order));
+
+        if (digestApprovers) {
+            ApproverDigestBuffer.Entry entry = toDigestEntry(order);
+            // Only committed orders belong in a digest.
+            afterCommit(() -> addToApproverDigest(entry));
+        }
+    }
+
+    /**
+     * Sends every buffered new-order summary to the approvers as one email. If that fails, the summaries go back
+     * into the buffer for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${puma.notifications.approver-digest.flush-interval:PT15M}",
+        initialDelayString = "${puma.notifications.approver-digest.flush-interval:PT15M}")
+    public void flushApproverDigest() {
+        earlyDigestFlushScheduled.set(false);
+        List<ApproverDigestBuffer.Entry> entries = approverDigestBuffer.drain();
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            dispatch(new ArrayList<>(approverDirectory.approverEmails()), templates.renderApproverDigest(entries));
+        } catch (RuntimeException ex) {
+            approverDigestBuffer.requeue(entries);
+            throw ex;
+        }
+    }
+
+    private void addToApproverDigest(ApproverDigestBuffer.Entry entry) {
+        int pending = approverDigestBuffer.add(entry);
+        if (pending >= properties.getApproverDigest().getMaxOrders()
+            && earlyDigestFlushScheduled.compareAndSet(false, true)) {
+            // The full digest goes out on the scheduler, not on the request thread that filled it.
+            taskScheduler.schedule(this::flushApproverDigest, Instant.now());
         }
+    }
 
-        String subject = "Order " + order.getId() + " is pending approval";
-        String body = buildOrderSummary("A new order has been placed and awaits approval.", order);
-        dispatch(recipients, subject, body);
+    @PreDestroy
+    void flushPendingDigestOnShutdown() {
+        try {
+            flushApproverDigest();
+        } catch (RuntimeException ex) {
+            log.warn("Unable to flush approver digest during shutdown: {}", ex.getMessage());
+            log.debug("Digest flush failure", ex);
+        }
     }
 
     public void notifyOrderApproved(Order order) {
-        sendToUser(order.getUser(),
-            "Order " + order.getId() + " approved",
-            buildOrderSummary("Good news! Your order has been approved.", order));
+        sendToUser(order.getUser(), templates.renderOrder(OrderNotificationType.APPROVED, order));
     }
 
     public void notifyOrderAccepted(Order order) {
-        sendToUser(order.getUser(),
-            "Order " + order.getId() + " accepted",
-            buildOrderSummary("Your order has been accepted for fulfilment.", order));
+        sendToUser(order.getUser(), templates.renderOrder(OrderNotificationType.ACCEPTED, order));
     }
 
     public void notifyOrderRejected(Order order) {
-        sendToUser(order.getUser(),
-            "Order " + order.getId() + " rejected",
-            buildOrderSummary("Unfortunately the order was rejected.", order));
+        sendToUser(order.getUser(), templates.renderOrder(OrderNotificationType.REJECTED, order));
     }
 
     public void notifyCourierUpdated(Order order) {
-        sendToUser(order.getUser(),
-            "Order " + order.getId() + " dispatched",
-            buildOrderSummary("Your order is on the move. Courier details are included below.", order));
+        sendToUser(order.getUser(), templates.renderOrder(OrderNotificationType.DISPATCHED, order));
+    }
+
+    public void notifyOrderFulfilled(Order order) {
+        sendToUser(order.getUser(), templates.renderOrder(OrderNotificationType.FULFILLED, order));
+    }
+
+    /**
+     * Resolves who hears about orders that outstay their service level in {@code status}: the
+     * {@code escalationRecipients}, plus whoever has to act next, the approvers while an order awaits approval, the
+     * fulfilment agents once it is approved and the admins while it is in transit. An empty list means nobody would
+     * be told, so the orders should not be marked as escalated.
+     */
+    public List<String> overdueRecipients(OrderStatus status, List<String> escalationRecipients) {
+        Set<String> recipients = new LinkedHashSet<>();
+        escalationRecipients.stream().filter(email -> !email.isBlank()).map(String::trim).forEach(recipients::add);
+        switch (status) {
+            case PENDING_APPROVAL -> recipients.addAll(approverDirectory.approverEmails());
+            case APPROVED -> addRole(recipients, UserRole.FULFILLMENT_AGENT);
+            case IN_TRANSIT -> addRole(recipients, UserRole.ADMIN);
+            default -> {
+            }
+        }
+        return List.copyOf(recipients);
+    }
+
+    /**
+     * Escalates an order that has outstayed its service level to the {@link #overdueRecipients recipients} resolved
+     * for its status, copying the store that placed it once it is in transit.
+     */
+    public void notifyOrderOverdue(Order order, List<String> recipients) {
+        Set<String> to = new LinkedHashSet<>(recipients);
+        if (order.getStatus() == OrderStatus.IN_TRANSIT) {
+            addIfPresent(to, order.getUser());
+        }
+        dispatch(new ArrayList<>(to), templates.renderOrder(OrderNotificationType.OVERDUE, order));
+    }
+
+    private void addRole(Set<String> recipients, UserRole role) {
+        userRepository.findByRole(role).stream()
+            .map(User::getEmail)
+            .filter(email -> email != null && !email.isBlank())
+            .forEach(recipients::add);
     }
 
-    private void sendToUser(User user, String subject, String body) {
+    private void sendToUser(User user, RenderedNotification notification) {
         List<String> recipients = new ArrayList<>();
         addIfPresent(recipients, user);
-        dispatch(recipients, subject, body);
+        dispatch(recipients, notification);
     }
 
-    private void addIfPresent(List<String> recipients, User user) {
-        Optional.ofNullable(user)
-            .map(User::getEmail)
-            .filter(email -> !email.isBlank())
-            .ifPresent(recipients::add);
+    private void addIfPresent(Collection<String> recipients, User user) {
+        if (user != null && user.getEmail() != null && !user.getEmail().isBlank()) {
+            recipients.add(user.getEmail());
+        }
     }
 
-    private void dispatch(List<String> recipients, String subject, String body) {
+    private void dispatch(List<String> recipients, RenderedNotification notification) {
         if (recipients.isEmpty()) {
-            log.debug("Skipping email '{}' because no recipients were resolved", subject);
+            log.debug("Skipping email '{}' because no recipients were resolved", notification.subject());
             return;
         }
 
         NotificationLog logEntry = NotificationLog.builder()
-            .subject(subject)
+            .subject(notification.subject())
             .recipients(String.join(", ", recipients))
-            .body(body)
+            .body(notification.text())
             .build();
         notificationLogRepository.save(logEntry);
 
         if (!properties.isEnabled()) {
-            log.debug("Email notifications disabled. Captured log entry for '{}'", subject);
+            log.debug("Email notifications disabled. Captured log entry for '{}'", notification.subject());
             return;
         }
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(properties.getFromAddress());
-            message.setTo(recipients.toArray(String[]::new));
-            message.setSubject(subject);
-            message.setText(body);
-            mailSender.send(message);
-        } catch (MailException ex) {
-            log.warn("Unable to send notification email '{}': {}", subject, ex.getMessage());
-            log.debug("Email failure", ex);
-        }
+        String[] to = recipients.toArray(String[]::new);
+        // Keep SMTP round-trips out of the request transaction and skip mail for rolled-back changes.
+        afterCommit(() -> send(to, notification));
     }
 
-    private String buildOrderSummary(String intro, Order order) {
-        StringBuilder builder = new StringBuilder(intro)
-            .append("\n\nOrder ID: ").append(order.getId())
-            .append("\nStatus: ").append(order.getStatus());
-
-        if (order.getApproval() != null && order.getApproval().getApprover() != null) {
-            builder.append("\nApprover: ").append(order.getApproval().getApprover().getUsername());
-        }
-
-        builder.append("\nPlaced By: ").append(Optional.ofNullable(order.getUser()).map(User::getUsername).orElse("Unknown"))
-            .append("\nShipping Address: ").append(Optional.ofNullable(order.getShippingAddress()).orElse("Not provided"));
-
-        if (order.getDeliveryAddress() != null && !order.getDeliveryAddress().isBlank()) {
-            builder.append("\nDelivery Address: ").append(order.getDeliveryAddress());
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
+    }
 
-        if (order.getCourierInfo() != null) {
-            builder.append("\nCourier: ").append(order.getCourierInfo().getCourierName())
-                .append("\nTracking #: ").append(order.getCourierInfo().getTrackingNumber());
-            if (order.getCourierInfo().getDispatchDate() != null) {
-                builder.append("\nDispatch Date: ").append(DATE_FORMATTER.format(order.getCourierInfo().getDispatchDate()));
+    private void send(String[] recipients, RenderedNotification notification) {
+        try {
+            if (notification.hasHtml()) {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
+                helper.setFrom(properties.getFromAddress());
+                helper.setTo(recipients);
+                helper.setSubject(notification.subject());
+                helper.setText(notification.text(), notification.html());
+                mailSender.send(message);
+            } else {
+                SimpleMailMessage message = new SimpleMailMessage();
+                message.setFrom(properties.getFromAddress());
+                message.setTo(recipients);
+                message.setSubject(notification.subject());
+                message.setText(notification.text());
+                mailSender.send(message);
             }
+        } catch (MailException | MessagingException ex) {
+            log.warn("Unable to send notification email '{}': {}", notification.subject(), ex.getMessage());
+            log.debug("Email failure", ex);
         }
-
-        builder.append("\n\nItems:\n")
-            .append(order.getItems().stream()
-                .map(this::formatItem)
-                .collect(Collectors.joining("\n")));
-
-        if (order.getApproval() != null && order.getApproval().getComments() != null && !order.getApproval().getComments().isBlank()) {
-            builder.append("\nApprover Comments: ").append(order.getApproval().getComments());
-        }
-
-        return builder.toString();
     }
 
-    private String formatItem(OrderItem item) {
-        return "- " + item.getProduct().getName() + " x" + item.getQuantity();
+    private ApproverDigestBuffer.Entry toDigestEntry(Order order) {
+        int totalQuantity = 0;
+        for (OrderItem item : order.getItems()) {
+            totalQuantity += item.getQuantity() != null ? item.getQuantity() : 0;
+        }
+        return new ApproverDigestBuffer.Entry(
+            order.getId(),
+            order.getUser() != null ? order.getUser().getUsername() : "Unknown",
+            order.getShippingAddress(),
+            order.getItems().size(),
+            totalQuantity,
+            order.getCreatedAt()
+        );
     }
 }
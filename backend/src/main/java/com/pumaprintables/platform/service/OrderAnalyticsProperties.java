@@ -0,0 +1,37 @@
+package com.pumaprintables.platform.service;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.analytics")
+public class OrderAnalyticsProperties {
+
+    /**
+     * How often days touched by order changes are rebuilt in the rollup tables; also how stale analytics can be.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    /**
+     * Change markers consumed per refresh transaction.
+     */
+    private int changeBatchSize = 10_000;
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public int getChangeBatchSize() {
+        return changeBatchSize;
+    }
+
+    public void setChangeBatchSize(int changeBatchSize) {
+        this.changeBatchSize = changeBatchSize;
+    }
+}
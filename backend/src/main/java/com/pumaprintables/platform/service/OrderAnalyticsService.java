@@ -0,0 +1,254 @@
+package com.pumaprintables.platform.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+
+/**
+ * Order reporting served from daily rollup tables instead of scans over {@code orders} and {@code order_items}.
+ * <p>
+ * Triggers append the UTC day of every order insert, status change and approval decision to
+ * {@code analytics_changes}. {@link #refresh()} consumes those markers and rebuilds the rollups of just the affected
+ * days from the live and archive tables together, so archiving never changes the figures. Markers of transactions
+ * still in flight are invisible to the refresh and stay for the next one, so no change is lost.
+ */
+@Service
+public class OrderAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderAnalyticsService.class);
+
+    // Transaction-scoped advisory lock so only one instance rebuilds at a time; others skip their run.
+    private static final long REFRESH_LOCK_KEY = 0x6F72646572737473L;
+
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_xact_lock(?)";
+
+    private static final String CLAIM_CHANGES = """
+        DELETE FROM analytics_changes
+         WHERE id IN (SELECT id FROM analytics_changes ORDER BY id LIMIT ?)
+        RETURNING day
+        """;
+
+    private static final String ALL_ORDERS = """
+        (SELECT id, user_id, status, created_at FROM orders
+         UNION ALL
+         SELECT id, user_id, status, created_at FROM orders_archive)
+        """;
+
+    private static final String IN_DAY = """
+        o.created_at >= d.day::timestamp AT TIME ZONE 'UTC' AND o.created_at < (d.day + 1)::timestamp AT TIME ZONE 'UTC'
+        """;
+
+    private static final List<String> REBUILD_STATEMENTS = List.of(
+        "DELETE FROM order_daily_stats WHERE day = ANY(?)",
+        """
+        INSERT INTO order_daily_stats (day, user_id, status, orders)
+        SELECT d.day, o.user_id, o.status, count(*)
+          FROM unnest(?) AS d(day)
+          JOIN %s o ON %s
+         GROUP BY d.day, o.user_id, o.status
+        """.formatted(ALL_ORDERS, IN_DAY),
+        "DELETE FROM order_daily_product_stats WHERE day = ANY(?)",
+        """
+        INSERT INTO order_daily_product_stats (day, product_id, orders, quantity)
+        SELECT d.day, i.product_id, count(*), sum(i.quantity)
+          FROM unnest(?) AS d(day)
+          JOIN %s o ON %s
+          JOIN (SELECT order_id, product_id, quantity FROM order_items
+                UNION ALL
+                SELECT order_id, product_id, quantity FROM order_items_archive) i ON i.order_id = o.id
+         GROUP BY d.day, i.product_id
+        """.formatted(ALL_ORDERS, IN_DAY),
+        "DELETE FROM approval_daily_stats WHERE day = ANY(?)",
+        """
+        INSERT INTO approval_daily_stats (day, status, decisions, turnaround_seconds_sum, turnaround_seconds_max)
+        SELECT d.day, a.status, count(*),
+               sum(EXTRACT(EPOCH FROM a.approval_date - o.created_at)),
+               max(EXTRACT(EPOCH FROM a.approval_date - o.created_at))
+          FROM unnest(?) AS d(day)
+          JOIN (SELECT order_id, status, approval_date FROM approvals
+                UNION ALL
+                SELECT order_id, status, approval_date FROM approvals_archive) a
+            ON a.approval_date >= d.day::timestamp AT TIME ZONE 'UTC'
+           AND a.approval_date < (d.day + 1)::timestamp AT TIME ZONE 'UTC'
+          JOIN %s o ON o.id = a.order_id
+         WHERE a.status IN ('APPROVED', 'REJECTED')
+         GROUP BY d.day, a.status
+        """.formatted(ALL_ORDERS));
+
+    private static final String DAILY_ORDERS = """
+        SELECT day, status, sum(orders) AS orders
+          FROM order_daily_stats
+         WHERE day BETWEEN ? AND ?
+         GROUP BY day, status
+         ORDER BY day
+        """;
+
+    private static final String STORE_ORDERS = """
+        SELECT s.user_id, u.username, u.full_name, sum(s.orders) AS orders
+          FROM order_daily_stats s
+          JOIN users u ON u.id = s.user_id
+         WHERE s.day BETWEEN ? AND ?
+         GROUP BY s.user_id, u.username, u.full_name
+         ORDER BY orders DESC, u.username
+        """;
+
+    private static final String PRODUCT_ORDERS = """
+        SELECT s.product_id, p.sku, p.name, sum(s.orders) AS orders, sum(s.quantity) AS quantity
+          FROM order_daily_product_stats s
+          JOIN products p ON p.id = s.product_id
+         WHERE s.day BETWEEN ? AND ?
+         GROUP BY s.product_id, p.sku, p.name
+         ORDER BY quantity DESC, p.name
+        """;
+
+    private static final String DAILY_APPROVALS = """
+        SELECT day,
+               coalesce(sum(decisions) FILTER (WHERE status = 'APPROVED'), 0) AS approved,
+               coalesce(sum(decisions) FILTER (WHERE status = 'REJECTED'), 0) AS rejected,
+               sum(turnaround_seconds_sum) / sum(decisions) AS average_turnaround_seconds,
+               max(turnaround_seconds_max) AS max_turnaround_seconds
+          FROM approval_daily_stats
+         WHERE day BETWEEN ? AND ?
+         GROUP BY day
+         ORDER BY day
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderAnalyticsProperties properties;
+
+    public OrderAnalyticsService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 OrderAnalyticsProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${puma.analytics.refresh-interval:PT1M}")
+    public void refreshOnSchedule() {
+        try {
+            int days = refresh();
+            if (days > 0) {
+                log.debug("Rebuilt order analytics for {} days", days);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Unable to refresh order analytics; pending changes are kept for the next run", ex);
+        }
+    }
+
+    /**
+     * Rebuilds the rollups of every day with pending changes, one batch of change markers per transaction.
+     *
+     * @return the number of day rebuilds, or {@code 0} if another instance is refreshing
+     */
+    public int refresh() {
+        int batchSize = Math.max(properties.getChangeBatchSize(), 1);
+        int days = 0;
+        while (true) {
+            RefreshBatch batch = transactionTemplate.execute(status -> refreshBatch(batchSize));
+            if (batch == null) {
+                return days;
+            }
+            days += batch.days();
+            if (batch.changes() < batchSize) {
+                return days;
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyOrders> getDailyOrders(LocalDate from, LocalDate to) {
+        Map<LocalDate, Map<OrderStatus, Long>> byDay = new LinkedHashMap<>();
+        jdbcTemplate.query(DAILY_ORDERS, rs -> {
+            byDay.computeIfAbsent(rs.getObject("day", LocalDate.class), day -> new EnumMap<>(OrderStatus.class))
+                .put(OrderStatus.valueOf(rs.getString("status")), rs.getLong("orders"));
+        }, from, to);
+        List<DailyOrders> result = new ArrayList<>(byDay.size());
+        byDay.forEach((day, counts) -> result.add(new DailyOrders(day,
+            counts.values().stream().mapToLong(Long::longValue).sum(), counts)));
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public List<StoreOrders> getStoreOrders(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(STORE_ORDERS, (rs, rowNum) -> new StoreOrders(
+            rs.getObject("user_id", UUID.class),
+            rs.getString("username"),
+            rs.getString("full_name"),
+            rs.getLong("orders")), from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductOrders> getProductOrders(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(PRODUCT_ORDERS, (rs, rowNum) -> new ProductOrders(
+            rs.getObject("product_id", UUID.class),
+            rs.getString("sku"),
+            rs.getString("name"),
+            rs.getLong("orders"),
+            rs.getLong("quantity")), from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyApprovals> getDailyApprovals(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(DAILY_APPROVALS, (rs, rowNum) -> new DailyApprovals(
+            rs.getObject("day", LocalDate.class),
+            rs.getLong("approved"),
+            rs.getLong("rejected"),
+            rs.getDouble("average_turnaround_seconds"),
+            rs.getDouble("max_turnaround_seconds")), from, to);
+    }
+
+    RefreshBatch refreshBatch(int batchSize) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class, REFRESH_LOCK_KEY))) {
+            return new RefreshBatch(0, 0);
+        }
+        List<LocalDate> changed = jdbcTemplate.queryForList(CLAIM_CHANGES, LocalDate.class, batchSize);
+        if (changed.isEmpty()) {
+            return new RefreshBatch(0, 0);
+        }
+        Object[] days = changed.stream().distinct().sorted().map(Date::valueOf).toArray();
+        for (String sql : REBUILD_STATEMENTS) {
+            jdbcTemplate.update(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("date", days)));
+        }
+        return new RefreshBatch(changed.size(), days.length);
+    }
+
+    record RefreshBatch(int changes, int days) {
+
+    }
+
+    public record DailyOrders(LocalDate day, long total, Map<OrderStatus, Long> byStatus) {
+
+    }
+
+    public record StoreOrders(UUID userId, String username, String fullName, long orders) {
+
+    }
+
+    public record ProductOrders(UUID productId, String sku, String productName, long orders, long quantity) {
+
+    }
+
+    public record DailyApprovals(LocalDate day, long approved, long rejected, double averageTurnaroundSeconds,
+                                 double maxTurnaroundSeconds) {
+
+    }
+}
@@ -0,0 +1,78 @@
+package com.pumaprintables.platform.service;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.orders.archive")
+public class OrderArchiveProperties {
+
+    /**
+     * Whether the scheduled archiver moves orders; archived orders stay readable either way.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a fulfilled or rejected order must have been idle (since creation, approval or dispatch, whichever is
+     * latest) before it leaves the live tables.
+     */
+    private Duration minAge = Duration.ofDays(90);
+
+    /**
+     * Orders moved per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Pause between archiver runs.
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * Time after which a run stops starting new batches, so a large backlog does not hold the scheduler thread;
+     * the next run continues where it stopped.
+     */
+    private Duration maxRunTime = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Duration minAge) {
+        this.minAge = minAge;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public Duration getMaxRunTime() {
+        return maxRunTime;
+    }
+
+    public void setMaxRunTime(Duration maxRunTime) {
+        this.maxRunTime = maxRunTime;
+    }
+}
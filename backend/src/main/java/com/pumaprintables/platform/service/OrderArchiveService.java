@@ -0,0 +1,227 @@
+package com.pumaprintables.platform.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pumaprintables.platform.domain.model.Approval;
+import com.pumaprintables.platform.domain.model.CourierInfo;
+import com.pumaprintables.platform.domain.model.Order;
+import com.pumaprintables.platform.domain.model.OrderItem;
+import com.pumaprintables.platform.domain.model.enums.ApprovalStatus;
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+import com.pumaprintables.platform.domain.repository.ProductRepository;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+
+/**
+ * Moves fulfilled and rejected orders that have been idle since their last transition for
+ * {@link OrderArchiveProperties#getMinAge()} from
+ * {@code orders}, {@code order_items}, {@code approvals} and {@code courier_info} into their {@code *_archive}
+ * twins, so the live tables and their indexes grow with open work rather than with history.
+ * <p>
+ * Each batch is copied and deleted in its own transaction, and candidates are claimed with {@code SKIP LOCKED}, so a
+ * run can stop at any point, several instances can archive at once, and an order is never in both places or in
+ * neither. {@link #findArchivedOrder(UUID)} rebuilds an archived order for read-only use.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    // The status and created_at predicates match the partial index. An order is idle from its last transition, which
+    // restarts sla_started_at, or its dispatch date if that is later; approval_date covers orders whose clock the
+    // SLA backfill started at creation.
+    private static final String CLAIM_BATCH = """
+        SELECT o.id
+          FROM orders o
+          LEFT JOIN approvals a ON a.order_id = o.id
+          LEFT JOIN courier_info ci ON ci.order_id = o.id
+         WHERE o.status IN ('FULFILLED', 'REJECTED')
+           AND o.created_at < ?
+           AND GREATEST(o.sla_started_at, a.approval_date, ci.dispatch_date) < ?
+         ORDER BY o.created_at
+         LIMIT ?
+           FOR UPDATE OF o SKIP LOCKED
+        """;
+
+    private static final List<String> COPY_STATEMENTS = List.of(
+        """
+        INSERT INTO orders_archive (id, user_id, status, customer_gst, shipping_address, delivery_address, created_at)
+        SELECT id, user_id, status, customer_gst, shipping_address, delivery_address, created_at
+          FROM orders WHERE id = ANY(?)
+        ON CONFLICT (id) DO NOTHING
+        """,
+        """
+        INSERT INTO order_items_archive (order_id, product_id, quantity)
+        SELECT order_id, product_id, quantity
+          FROM order_items WHERE order_id = ANY(?)
+        ON CONFLICT DO NOTHING
+        """,
+        """
+        INSERT INTO approvals_archive (id, order_id, approver_id, status, comments, approval_date)
+        SELECT id, order_id, approver_id, status, comments, approval_date
+          FROM approvals WHERE order_id = ANY(?)
+        ON CONFLICT DO NOTHING
+        """,
+        """
+        INSERT INTO courier_info_archive (order_id, courier_name, tracking_number, dispatch_date)
+        SELECT order_id, courier_name, tracking_number, dispatch_date
+          FROM courier_info WHERE order_id = ANY(?)
+        ON CONFLICT DO NOTHING
+        """);
+
+    // order_items, approvals and courier_info rows go with their order through ON DELETE CASCADE.
+    private static final String DELETE_LIVE = "DELETE FROM orders WHERE id = ANY(?)";
+
+    private static final String SELECT_ORDER = """
+        SELECT user_id, status, customer_gst, shipping_address, delivery_address, created_at
+          FROM orders_archive WHERE id = ?
+        """;
+    private static final String SELECT_ITEMS = "SELECT product_id, quantity FROM order_items_archive WHERE order_id = ?";
+    private static final String SELECT_APPROVAL = """
+        SELECT id, approver_id, status, comments, approval_date FROM approvals_archive WHERE order_id = ?
+        """;
+    private static final String SELECT_COURIER_INFO = """
+        SELECT courier_name, tracking_number, dispatch_date FROM courier_info_archive WHERE order_id = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final OrderArchiveProperties properties;
+    private volatile boolean stopping;
+
+    public OrderArchiveService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               UserRepository userRepository, ProductRepository productRepository,
+                               OrderArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${puma.orders.archive.interval:PT1H}",
+        initialDelayString = "${puma.orders.archive.interval:PT1H}")
+    public void archiveOnSchedule() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            int archived = archiveIdleOrders();
+            if (archived > 0) {
+                log.info("Archived {} terminal orders", archived);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Order archiving stopped early; the next run resumes from the remaining orders", ex);
+        }
+    }
+
+    /**
+     * Archives eligible orders batch by batch until none are left, the run exceeds
+     * {@link OrderArchiveProperties#getMaxRunTime()} or the application shuts down.
+     *
+     * @return the number of orders moved
+     */
+    public int archiveIdleOrders() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(properties.getMinAge());
+        int batchSize = Math.max(properties.getBatchSize(), 1);
+        long deadline = System.nanoTime() + properties.getMaxRunTime().toNanos();
+        int total = 0;
+        while (!stopping) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff, batchSize));
+            int count = moved == null ? 0 : moved;
+            total += count;
+            if (count < batchSize || System.nanoTime() - deadline > 0) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Reads an archived order with its items, approval and courier details. The returned order is not managed and
+     * must not be saved; its user and products are lazy references resolved within the caller's transaction.
+     */
+    public Optional<Order> findArchivedOrder(UUID orderId) {
+        List<Order> orders = jdbcTemplate.query(SELECT_ORDER, (rs, rowNum) -> mapOrder(orderId, rs), orderId);
+        if (orders.isEmpty()) {
+            return Optional.empty();
+        }
+        Order order = orders.get(0);
+        jdbcTemplate.query(SELECT_ITEMS, rs -> {
+            order.addItem(OrderItem.of(order, productRepository.getReferenceById(rs.getObject("product_id", UUID.class)),
+                rs.getInt("quantity")));
+        }, orderId);
+        jdbcTemplate.query(SELECT_APPROVAL, rs -> {
+            order.setApproval(Approval.builder()
+                .id(rs.getObject("id", UUID.class))
+                .order(order)
+                .approver(userRepository.getReferenceById(rs.getObject("approver_id", UUID.class)))
+                .status(ApprovalStatus.valueOf(rs.getString("status")))
+                .comments(rs.getString("comments"))
+                .approvalDate(rs.getObject("approval_date", OffsetDateTime.class))
+                .build());
+        }, orderId);
+        jdbcTemplate.query(SELECT_COURIER_INFO, rs -> {
+            order.setCourierInfo(CourierInfo.builder()
+                .orderId(orderId)
+                .order(order)
+                .courierName(rs.getString("courier_name"))
+                .trackingNumber(rs.getString("tracking_number"))
+                .dispatchDate(rs.getObject("dispatch_date", OffsetDateTime.class))
+                .build());
+        }, orderId);
+        return Optional.of(order);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+
+    int archiveBatch(OffsetDateTime cutoff, int batchSize) {
+        List<UUID> ids = jdbcTemplate.queryForList(CLAIM_BATCH, UUID.class, cutoff, cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Object[] idArray = ids.toArray();
+        for (String copy : COPY_STATEMENTS) {
+            updateWithIds(copy, idArray);
+        }
+        updateWithIds(DELETE_LIVE, idArray);
+        return ids.size();
+    }
+
+    private void updateWithIds(String sql, Object[] ids) {
+        jdbcTemplate.update(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids)));
+    }
+
+    private Order mapOrder(UUID orderId, ResultSet rs) throws SQLException {
+        return Order.builder()
+            .id(orderId)
+            .user(userRepository.getReferenceById(rs.getObject("user_id", UUID.class)))
+            .status(OrderStatus.valueOf(rs.getString("status")))
+            .customerGst(rs.getString("customer_gst"))
+            .shippingAddress(rs.getString("shipping_address"))
+            .deliveryAddress(rs.getString("delivery_address"))
+            .createdAt(rs.getObject("created_at", OffsetDateTime.class))
+            .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.pumaprintables.platform.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pumaprintables.platform.service.exception.InvalidOrderExportRequestException;
+
+/**
+ * Bulk export of orders and their items for finance, read through a forward-only cursor and written out row by row.
+ * Archived orders are included so past periods export the same as when they were live.
+ */
+@Service
+public class OrderExportService {
+
+    // Rows are pulled from a server-side cursor in chunks of this size while the export is written.
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final String EXPORT = """
+        SELECT o.id, o.created_at, o.status, u.username, o.customer_gst, o.shipping_address, o.delivery_address,
+               c.courier_name, c.tracking_number, p.sku, p.name, i.quantity
+          FROM (SELECT id, user_id, status, customer_gst, shipping_address, delivery_address, created_at
+                  FROM orders
+                 WHERE created_at >= ? AND created_at < ?
+                UNION ALL
+                SELECT id, user_id, status, customer_gst, shipping_address, delivery_address, created_at
+                  FROM orders_archive
+                 WHERE created_at >= ? AND created_at < ?) o
+          JOIN users u ON u.id = o.user_id
+          JOIN (SELECT order_id, product_id, quantity FROM order_items
+                UNION ALL
+                SELECT order_id, product_id, quantity FROM order_items_archive) i ON i.order_id = o.id
+          JOIN products p ON p.id = i.product_id
+          LEFT JOIN (SELECT order_id, courier_name, tracking_number FROM courier_info
+                     UNION ALL
+                     SELECT order_id, courier_name, tracking_number FROM courier_info_archive) c ON c.order_id = o.id
+         ORDER BY o.created_at, o.id
+        """;
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public OrderExportService(DataSource dataSource) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+    }
+
+    /**
+     * Streams one line per order item for orders created on the UTC days {@code from} to {@code to}, inclusive.
+     * Must run in a transaction so the driver can use a cursor instead of buffering the whole result.
+     */
+    @Transactional(readOnly = true)
+    public void writeExport(LocalDate from, LocalDate to, ExportFormat format, OutputStream outputStream)
+        throws IOException {
+        if (from.isAfter(to)) {
+            throw new InvalidOrderExportRequestException("from must not be after to");
+        }
+        OffsetDateTime start = from.atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime end = to.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        try (OrderExportWriter writer = OrderExportWriter.create(format, outputStream)) {
+            streamingJdbcTemplate.query(EXPORT, rs -> {
+                try {
+                    writer.write(new ExportLine(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("created_at", OffsetDateTime.class),
+                        rs.getString("status"),
+                        rs.getString("username"),
+                        rs.getString("customer_gst"),
+                        rs.getString("shipping_address"),
+                        rs.getString("delivery_address"),
+                        rs.getString("courier_name"),
+                        rs.getString("tracking_number"),
+                        rs.getString("sku"),
+                        rs.getString("name"),
+                        rs.getInt("quantity")));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, start, end, start, end);
+            writer.finish();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    public enum ExportFormat {
+        CSV,
+        XLSX
+    }
+
+    public record ExportLine(UUID orderId, OffsetDateTime createdAt, String status, String store, String customerGst,
+                             String shippingAddress, String deliveryAddress, String courierName,
+                             String trackingNumber, String sku, String productName, int quantity) {
+
+    }
+}
@@ -0,0 +1,47 @@
+package com.pumaprintables.platform.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes export lines as the cursor yields them, so the export size never shows up on the heap.
+ */
+final class OrderExportWriter implements AutoCloseable {
+
+    static final List<String> HEADERS = List.of("Order ID", "Created At", "Status", "Store", "Customer GST",
+        "Shipping Address", "Delivery Address", "Courier", "Tracking Number", "SKU", "Product", "Quantity");
+
+    private final TabularWriter writer;
+
+    private OrderExportWriter(TabularWriter writer) {
+        this.writer = writer;
+    }
+
+    static OrderExportWriter create(OrderExportService.ExportFormat format, OutputStream outputStream)
+        throws IOException {
+        return new OrderExportWriter(switch (format) {
+            case CSV -> TabularWriter.csv(outputStream, HEADERS);
+            case XLSX -> TabularWriter.xlsx(outputStream, "Orders", HEADERS);
+        });
+    }
+
+    void write(OrderExportService.ExportLine line) throws IOException {
+        writer.writeRow(Arrays.asList(line.orderId().toString(), line.createdAt().toString(), line.status(),
+            line.store(), line.customerGst(), line.shippingAddress(), line.deliveryAddress(), line.courierName(),
+            line.trackingNumber(), line.sku(), line.productName(), line.quantity()));
+    }
+
+    /**
+     * Completes the document on the output stream; the stream itself is left open.
+     */
+    void finish() throws IOException {
+        writer.finish();
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+}
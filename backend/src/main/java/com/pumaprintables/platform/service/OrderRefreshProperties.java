@@ -0,0 +1,79 @@
+package com.pumaprintables.platform.service;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.orders.refresh")
+public class OrderRefreshProperties {
+
+    /**
+     * Whether renamed stores and products are worked off on a schedule.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Pause between runs that bring orders up to date with renamed stores and products; also how long search can
+     * lag behind a rename.
+     */
+    private Duration interval = Duration.ofSeconds(30);
+
+    /**
+     * Orders refreshed per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Time after which a run stops starting new batches; the next run continues where it stopped.
+     */
+    private Duration maxRunTime = Duration.ofSeconds(30);
+
+    /**
+     * Renamed stores and products with at most this many orders have them refreshed in the renaming transaction, so
+     * their ETags change as soon as it commits; larger ones wait for the scheduled runs. {@code 0} leaves every rename
+     * to the schedule.
+     */
+    private int inlineLimit = 200;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getMaxRunTime() {
+        return maxRunTime;
+    }
+
+    public void setMaxRunTime(Duration maxRunTime) {
+        this.maxRunTime = maxRunTime;
+    }
+
+    public int getInlineLimit() {
+        return inlineLimit;
+    }
+
+    public void setInlineLimit(int inlineLimit) {
+        this.inlineLimit = inlineLimit;
+    }
+}
@@ -0,0 +1,214 @@
+package com.pumaprintables.platform.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@code orders.search_text} and {@code orders.version} in step with the rows they are built from.
+ * <p>
+ * Changes to an order's own columns rebuild it in a trigger on {@code orders}. Items and courier details are written
+ * by {@link OrderService#createOrder} and the {@code DISPATCH} transition, which call {@link #refresh(UUID)} once
+ * after writing them, rather than every child row rewriting its order. Renaming a store user or product only records
+ * an {@code order_refresh_requests} row; {@link #refreshRenamed()} then works through the affected orders in id
+ * order, a batch per transaction, so a rename never rewrites thousands of orders in the renaming transaction.
+ * <p>
+ * Every refresh also bumps the order's version, in the same statement, so the order ETags change with the items,
+ * courier details, store and product names they describe. Renames made through the product and Google sign-in
+ * paths refresh a store's or product's orders right away, in the renaming transaction, when there are at most
+ * {@link OrderRefreshProperties#getInlineLimit()} of them. Larger renames, product imports and the startup image
+ * catalog only show in conditional requests once {@link #refreshRenamed()} reaches their orders, one refresh interval
+ * later or more for very large ones.
+ */
+@Service
+public class OrderRefreshService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderRefreshService.class);
+
+    // Transaction-scoped advisory lock so only one instance works off rename requests at a time.
+    private static final long REFRESH_LOCK_KEY = 0x6F72646572726673L;
+
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_xact_lock(?)";
+
+    private static final String REFRESH_ORDER = """
+        UPDATE orders o
+           SET search_text = order_search_text(o.id, o.user_id, o.shipping_address, o.delivery_address, o.customer_gst),
+               version = o.version + 1
+         WHERE o.id = ?
+        """;
+
+    private static final String NEXT_REQUEST = """
+        SELECT id, user_id, product_id, last_order_id
+          FROM order_refresh_requests
+         ORDER BY id
+         LIMIT 1
+        """;
+
+    private static final String REFRESH_BATCH = """
+        WITH batch AS (
+            %s
+        ),
+        refreshed AS (
+            UPDATE orders o
+               SET search_text = order_search_text(o.id, o.user_id, o.shipping_address, o.delivery_address,
+                                                   o.customer_gst),
+                   version = o.version + 1
+              FROM batch
+             WHERE o.id = batch.id
+            RETURNING o.id
+        )
+        SELECT count(*) AS orders, (SELECT id FROM batch ORDER BY id DESC LIMIT 1) AS last_order_id
+          FROM batch
+        """;
+
+    private static final String STORE_ORDERS = REFRESH_BATCH.formatted("""
+        SELECT id FROM orders WHERE user_id = ? AND id > ? ORDER BY id LIMIT ?""");
+
+    private static final String PRODUCT_ORDERS = REFRESH_BATCH.formatted("""
+        SELECT DISTINCT order_id AS id FROM order_items WHERE product_id = ? AND order_id > ? ORDER BY order_id LIMIT ?""");
+
+    private static final String COUNT_STORE_ORDERS = """
+        SELECT count(*) FROM (SELECT 1 FROM orders WHERE user_id = ? LIMIT ?) o""";
+
+    private static final String COUNT_PRODUCT_ITEMS = """
+        SELECT count(*) FROM (SELECT 1 FROM order_items WHERE product_id = ? LIMIT ?) i""";
+
+    private static final String DROP_STORE_REQUESTS = "DELETE FROM order_refresh_requests WHERE user_id = ?";
+
+    private static final String DROP_PRODUCT_REQUESTS = "DELETE FROM order_refresh_requests WHERE product_id = ?";
+
+    private static final UUID FIRST_ORDER = new UUID(0, 0);
+
+    private static final String ADVANCE_REQUEST = "UPDATE order_refresh_requests SET last_order_id = ? WHERE id = ?";
+
+    private static final String FINISH_REQUEST = "DELETE FROM order_refresh_requests WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderRefreshProperties properties;
+
+    public OrderRefreshService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               OrderRefreshProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+    }
+
+    /**
+     * Rebuilds one order's search text in the caller's transaction, after its items or courier details were written.
+     */
+    public void refresh(UUID orderId) {
+        jdbcTemplate.update(REFRESH_ORDER, orderId);
+    }
+
+    /**
+     * Refreshes a renamed store's orders in the caller's transaction if it has at most
+     * {@link OrderRefreshProperties#getInlineLimit()}, and drops its refresh requests; otherwise leaves them to
+     * {@link #refreshRenamed()}. Call once the rename has been flushed, so the request it recorded is dropped too.
+     */
+    public void refreshRenamedStore(UUID userId) {
+        refreshInline(COUNT_STORE_ORDERS, STORE_ORDERS, DROP_STORE_REQUESTS, userId);
+    }
+
+    /**
+     * Like {@link #refreshRenamedStore(UUID)}, for the orders of a product whose name or image changed.
+     */
+    public void refreshRenamedProduct(UUID productId) {
+        refreshInline(COUNT_PRODUCT_ITEMS, PRODUCT_ORDERS, DROP_PRODUCT_REQUESTS, productId);
+    }
+
+    private void refreshInline(String count, String refresh, String drop, UUID id) {
+        int limit = properties.getInlineLimit();
+        if (limit <= 0) {
+            return;
+        }
+        // Counts rows rather than orders for products, which can only overestimate and so leave more to the schedule.
+        Integer rows = jdbcTemplate.queryForObject(count, Integer.class, id, limit + 1);
+        if (rows == null || rows > limit) {
+            return;
+        }
+        if (rows > 0) {
+            jdbcTemplate.queryForMap(refresh, id, FIRST_ORDER, limit);
+        }
+        jdbcTemplate.update(drop, id);
+    }
+
+    @Scheduled(fixedDelayString = "${puma.orders.refresh.interval:PT30S}",
+        initialDelayString = "${puma.orders.refresh.interval:PT30S}")
+    public void refreshRenamedOnSchedule() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            int refreshed = refreshRenamed();
+            if (refreshed > 0) {
+                log.debug("Refreshed {} orders of renamed stores and products", refreshed);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Order refresh stopped early; the next run resumes from the remaining orders", ex);
+        }
+    }
+
+    /**
+     * Refreshes the orders of renamed stores and products until none are left or the run exceeds
+     * {@link OrderRefreshProperties#getMaxRunTime()}.
+     *
+     * @return the number of orders refreshed, or {@code 0} if another instance is refreshing
+     */
+    public int refreshRenamed() {
+        int batchSize = Math.max(properties.getBatchSize(), 1);
+        long deadline = System.nanoTime() + properties.getMaxRunTime().toNanos();
+        int total = 0;
+        while (true) {
+            Batch batch = transactionTemplate.execute(status -> refreshBatch(batchSize));
+            if (batch == null || batch.idle()) {
+                return total;
+            }
+            total += batch.orders();
+            if (System.nanoTime() - deadline > 0) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Refreshes up to {@code batchSize} orders of the oldest rename request and records how far it got, removing
+     * the request once all its orders are done.
+     */
+    Batch refreshBatch(int batchSize) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class, REFRESH_LOCK_KEY))) {
+            return Batch.IDLE;
+        }
+        List<Map<String, Object>> requests = jdbcTemplate.queryForList(NEXT_REQUEST);
+        if (requests.isEmpty()) {
+            return Batch.IDLE;
+        }
+        Map<String, Object> request = requests.get(0);
+        Object requestId = request.get("id");
+        UUID userId = (UUID) request.get("user_id");
+        Map<String, Object> result = jdbcTemplate.queryForMap(userId != null ? STORE_ORDERS : PRODUCT_ORDERS,
+            userId != null ? userId : request.get("product_id"), request.get("last_order_id"), batchSize);
+        int orders = ((Number) result.get("orders")).intValue();
+        if (orders < batchSize) {
+            jdbcTemplate.update(FINISH_REQUEST, requestId);
+        } else {
+            jdbcTemplate.update(ADVANCE_REQUEST, result.get("last_order_id"), requestId);
+        }
+        return new Batch(orders, false);
+    }
+
+    record Batch(int orders, boolean idle) {
+
+        static final Batch IDLE = new Batch(0, true);
+    }
+}
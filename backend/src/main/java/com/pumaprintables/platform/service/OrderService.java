@@ -1,48 +1,51 @@
 package com.pumaprintables.platform.service;
 
-import com.pumaprintables.platform.domain.model.Approval;
-import com.pumaprintables.platform.domain.model.CourierInfo;
 import com.pumaprintables.platform.domain.model.Order;
 import com.pumaprintables.platform.domain.model.OrderItem;
 import com.pumaprintables.platform.domain.model.Product;
 import com.pumaprintables.platform.domain.model.User;
-import com.pumaprintables.platform.domain.model.enums.ApprovalStatus;
 import com.pumaprintables.platform.domain.model.enums.OrderStatus;
-import com.pumaprintables.platform.domain.repository.ApprovalRepository;
-import com.pumaprintables.platform.domain.repository.CourierInfoRepository;
 import com.pumaprintables.platform.domain.repository.OrderRepository;
 import com.pumaprintables.platform.domain.repository.ProductRepository;
 import com.pumaprintables.platform.domain.repository.UserRepository;
 import com.pumaprintables.platform.service.exception.InvalidOrderStateException;
+import com.pumaprintables.platform.service.exception.InvalidSearchQueryException;
 import com.pumaprintables.platform.service.exception.OrderNotFoundException;
 import com.pumaprintables.platform.service.exception.ProductNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
 
-import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    static final int MIN_SEARCH_CHARACTERS = 3;
+    static final int MAX_SEARCH_LENGTH = 100;
+
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final ApprovalRepository approvalRepository;
-    private final CourierInfoRepository courierInfoRepository;
     private final NotificationService notificationService;
+    private final OrderArchiveService orderArchiveService;
+    private final OrderRefreshService orderRefreshService;
 
     public OrderService(OrderRepository orderRepository, ProductRepository productRepository,
-                        UserRepository userRepository, ApprovalRepository approvalRepository,
-                        CourierInfoRepository courierInfoRepository, NotificationService notificationService) {
+                        UserRepository userRepository, NotificationService notificationService,
+                        OrderArchiveService orderArchiveService, OrderRefreshService orderRefreshService) {
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
-        this.approvalRepository = approvalRepository;
-        this.courierInfoRepository = courierInfoRepository;
         this.notificationService = notificationService;
+        this.orderArchiveService = orderArchiveService;
+        this.orderRefreshService = orderRefreshService;
     }
 
     @Transactional
@@ -70,158 +73,118 @@ public class OrderService {
             order.addItem(orderItem);
         });
 
-        Order saved = orderRepository.save(order);
+        // Items are inserted after the order row, so its search text is rebuilt once they are all written.
+        Order saved = orderRepository.saveAndFlush(order);
+        orderRefreshService.refresh(saved.getId());
         hydrateOrder(saved);
         notificationService.notifyOrderCreated(saved);
         return saved;
     }
 
+    /**
+     * @param statuses      restricts results to these statuses, or {@code null} for any status
+     * @param ownerUsername restricts results to this store user's orders, or {@code null} for all orders
+     */
     @Transactional(readOnly = true)
-    public List<Order> getOrdersForUser(String username) {
-        User user = getUserByUsername(username);
-        List<Order> orders = orderRepository.findByUserId(user.getId());
+    public List<Order> getOrders(Collection<OrderStatus> statuses, String ownerUsername) {
+        if (statuses != null && statuses.isEmpty()) {
+            return List.of();
+        }
+        List<Order> orders;
+        if (ownerUsername != null) {
+            orders = orderRepository.findWithDetailsByUsername(ownerUsername);
+            if (statuses != null) {
+                orders = orders.stream().filter(order -> statuses.contains(order.getStatus())).toList();
+            }
+        } else {
+            orders = statuses == null
+                ? orderRepository.findAllWithDetails()
+                : orderRepository.findWithDetailsByStatusIn(statuses);
+        }
         orders.forEach(this::hydrateOrder);
         return orders;
     }
 
+    /**
+     * Ids and versions of the orders {@link #getOrders(Collection, String)} returns, without loading them.
+     */
     @Transactional(readOnly = true)
-    public List<Order> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
-        orders.forEach(this::hydrateOrder);
-        return orders;
+    public List<OrderRepository.OrderVersion> getOrderVersions(Collection<OrderStatus> statuses,
+                                                               String ownerUsername) {
+        if (statuses != null && statuses.isEmpty()) {
+            return List.of();
+        }
+        if (ownerUsername != null) {
+            return orderRepository.findVersionsByUsername(ownerUsername).stream()
+                .filter(version -> statuses == null || statuses.contains(version.getStatus()))
+                .toList();
+        }
+        return statuses == null ? orderRepository.findAllVersions() : orderRepository.findVersionsByStatusIn(statuses);
     }
 
+    /**
+     * @return the order's version, or empty if it does not exist or is archived
+     */
     @Transactional(readOnly = true)
-    public List<Order> getOrdersByStatus(OrderStatus status) {
-        List<Order> orders = orderRepository.findByStatus(status);
-        orders.forEach(this::hydrateOrder);
-        return orders;
+    public Optional<Long> getOrderVersion(UUID orderId) {
+        return orderRepository.findVersionById(orderId);
     }
 
-    @Transactional
-    public Order approveOrder(UUID orderId, String approverUsername, String comments) {
-        Order order = getOrder(orderId);
-
-        if (order.getStatus() != OrderStatus.PENDING_APPROVAL) {
-            throw new InvalidOrderStateException("Only pending orders can be approved");
+    /**
+     * Ranked search over store user, addresses, GST, tracking number and product names. Fetches one extra id to
+     * tell whether another page exists, so no count over the full match set is needed.
+     *
+     * @param statuses      restricts results to these statuses, or {@code null} for any status
+     * @param ownerUsername restricts results to this store user's orders, or {@code null} for all orders
+     */
+    @Transactional(readOnly = true)
+    public SearchPage searchOrders(String query, Collection<OrderStatus> statuses, String ownerUsername,
+                                   int page, int size) {
+        String normalized = query == null ? "" : query.strip();
+        if (normalized.length() > MAX_SEARCH_LENGTH) {
+            throw new InvalidSearchQueryException(
+                "Search query must be at most %d characters".formatted(MAX_SEARCH_LENGTH));
         }
-
-        User approver = getUserByUsername(approverUsername);
-
-        order.setStatus(OrderStatus.APPROVED);
-        Approval approval = order.getApproval();
-        if (approval == null) {
-            approval = new Approval();
-            approval.setOrder(order);
+        if (normalized.codePoints().filter(Character::isLetterOrDigit).count() < MIN_SEARCH_CHARACTERS) {
+            throw new InvalidSearchQueryException(
+                "Search query must contain at least %d letters or digits".formatted(MIN_SEARCH_CHARACTERS));
         }
-        approval.setApprover(approver);
-        approval.setStatus(ApprovalStatus.APPROVED);
-        approval.setComments(comments);
-        approval.setApprovalDate(OffsetDateTime.now());
-        order.setApproval(approval);
-
-        approvalRepository.save(approval);
-        Order saved = orderRepository.save(order);
-        hydrateOrder(saved);
-        notificationService.notifyOrderApproved(saved);
-        return saved;
-    }
-
-    @Transactional
-    public Order rejectOrder(UUID orderId, String approverUsername, String comments) {
-        Order order = getOrder(orderId);
-
-        if (order.getStatus() != OrderStatus.PENDING_APPROVAL) {
-            throw new InvalidOrderStateException("Only pending orders can be rejected");
+        if (statuses != null && statuses.isEmpty()) {
+            return new SearchPage(List.of(), false);
         }
 
-        User approver = getUserByUsername(approverUsername);
-
-        order.setStatus(OrderStatus.REJECTED);
-        Approval approval = order.getApproval();
-        if (approval == null) {
-            approval = new Approval();
-            approval.setOrder(order);
+        UUID userId = ownerUsername != null ? getUserByUsername(ownerUsername).getId() : null;
+        List<UUID> ids = orderRepository.searchIds(normalized, statuses, userId, (long) page * size, size + 1);
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
         }
-        approval.setApprover(approver);
-        approval.setStatus(ApprovalStatus.REJECTED);
-        approval.setComments(comments);
-        approval.setApprovalDate(OffsetDateTime.now());
-        order.setApproval(approval);
-
-        approvalRepository.save(approval);
-        Order saved = orderRepository.save(order);
-        hydrateOrder(saved);
-        notificationService.notifyOrderRejected(saved);
-        return saved;
+        if (ids.isEmpty()) {
+            return new SearchPage(List.of(), false);
+        }
+
+        Map<UUID, Order> ordersById = orderRepository.findWithDetailsByIdIn(ids).stream()
+            .collect(Collectors.toMap(Order::getId, Function.identity()));
+        List<Order> orders = ids.stream()
+            .map(ordersById::get)
+            .filter(Objects::nonNull)
+            .toList();
+        return new SearchPage(orders, hasNext);
     }
 
+    /**
+     * Looks the order up in the live tables first and then in the archive. Archived orders are fulfilled or
+     * rejected, so {@link OrderTransitionService} rejects every transition on them.
+     */
     @Transactional(readOnly = true)
     public Order getOrder(UUID orderId) {
         Order order = orderRepository.findById(orderId)
+            .or(() -> orderArchiveService.findArchivedOrder(orderId))
             .orElseThrow(() -> new OrderNotFoundException(orderId.toString()));
         hydrateOrder(order);
         return order;
     }
 
-    @Transactional
-    public Order acceptOrder(UUID orderId, String agentUsername, String deliveryAddress) {
-        Order order = getOrder(orderId);
-
-        if (order.getStatus() != OrderStatus.APPROVED) {
-            throw new InvalidOrderStateException("Only approved orders can be accepted");
-        }
-
-        getUserByUsername(agentUsername);
-
-        String normalizedAddress = StringUtils.hasText(deliveryAddress)
-            ? deliveryAddress.trim()
-            : order.getDeliveryAddress();
-        if (!StringUtils.hasText(normalizedAddress)) {
-            normalizedAddress = order.getShippingAddress();
-        }
-
-        order.setStatus(OrderStatus.ACCEPTED);
-        order.setDeliveryAddress(normalizedAddress);
-
-            Order saved = orderRepository.save(order);
-            hydrateOrder(saved);
-            notificationService.notifyOrderAccepted(saved);
-        return saved;
-    }
-
-    @Transactional
-    public Order addCourierInfo(UUID orderId, String courierName, String trackingNumber, OffsetDateTime dispatchDate) {
-        Order order = getOrder(orderId);
-
-        if (order.getStatus() != OrderStatus.ACCEPTED && order.getStatus() != OrderStatus.IN_TRANSIT) {
-            throw new InvalidOrderStateException("Courier details can only be added after the order is marked for fulfilment");
-        }
-
-        CourierInfo courierInfo = order.getCourierInfo();
-        if (courierInfo == null) {
-            courierInfo = CourierInfo.builder()
-                .order(order)
-                .build();
-        }
-
-        courierInfo.setCourierName(courierName);
-        courierInfo.setTrackingNumber(trackingNumber);
-        courierInfo.setDispatchDate(dispatchDate);
-
-        order.setCourierInfo(courierInfo);
-        courierInfoRepository.save(courierInfo);
-
-        if (order.getStatus() == OrderStatus.ACCEPTED) {
-            order.setStatus(OrderStatus.IN_TRANSIT);
-        }
-
-        Order saved = orderRepository.save(order);
-        hydrateOrder(saved);
-        notificationService.notifyCourierUpdated(saved);
-        return saved;
-    }
-
     private User getUserByUsername(String username) {
         return userRepository.findByUsername(username)
             .orElseThrow(() -> new IllegalStateException("User not found: " + username));
@@ -250,4 +213,8 @@ public class OrderService {
     public record ItemPayload(UUID productId, int quantity) {
 
     }
+
+    public record SearchPage(List<Order> orders, boolean hasNext) {
+
+    }
 }
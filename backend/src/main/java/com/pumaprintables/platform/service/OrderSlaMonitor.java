@@ -0,0 +1,189 @@
+package com.pumaprintables.platform.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+import com.pumaprintables.platform.domain.repository.OrderRepository;
+
+/**
+ * Escalates orders that have stayed in {@code PENDING_APPROVAL}, {@code APPROVED} or {@code IN_TRANSIT} longer than
+ * their {@link OrderSlaProperties service level}. Every {@link OrderTransitionService} transition restarts the order's
+ * {@code sla_started_at} clock, at the courier's dispatch date once it is in transit, and each order is escalated once
+ * per status through {@code sla_escalated_status}. Escalations go to the configured recipients and whoever has to act
+ * next, as resolved by {@link NotificationService#overdueRecipients}; orders of a status nobody would hear about are
+ * left unmarked, and escalated once someone can be told.
+ * <p>
+ * Overdue orders are found with range scans of {@code idx_orders_sla_due}, which holds only open orders not yet
+ * escalated, in batches that are marked and notified in their own transaction.
+ */
+@Service
+public class OrderSlaMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSlaMonitor.class);
+
+    // Session-level rather than transaction-scoped like the analytics lock, because it has to span the sweep's
+    // batch transactions. It is held on a connection of its own and released when that connection's session ends.
+    static final long SWEEP_LOCK_KEY = 0x6F72646572736C61L;
+
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_lock(?)";
+
+    private static final String UNLOCK = "SELECT pg_advisory_unlock(?)";
+
+    // The status is inlined rather than bound so the planner can match the partial index predicate. The UPDATE
+    // checks the status and clock again: an order that moved on or was dispatched again after the scan, in a
+    // transaction that committed before this one locked the row, is re-read by the UPDATE and must not be escalated.
+    private static final String ESCALATE_BATCH = """
+        WITH due AS (
+            SELECT o.id
+              FROM orders o
+             WHERE o.status = '%1$s'
+               AND o.sla_started_at < ?
+               AND o.sla_escalated_status IS DISTINCT FROM o.status
+             ORDER BY o.sla_started_at
+             LIMIT ?
+        )
+        UPDATE orders o
+           SET sla_escalated_status = o.status
+          FROM due
+         WHERE o.id = due.id
+           AND o.status = '%1$s'
+           AND o.sla_started_at < ?
+        RETURNING o.id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderRepository orderRepository;
+    private final NotificationService notificationService;
+    private final OrderSlaProperties properties;
+    private final Map<OrderStatus, String> statements = new EnumMap<>(OrderStatus.class);
+
+    public OrderSlaMonitor(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           OrderRepository orderRepository, NotificationService notificationService,
+                           OrderSlaProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.orderRepository = orderRepository;
+        this.notificationService = notificationService;
+        this.properties = properties;
+        for (OrderStatus status : List.of(OrderStatus.PENDING_APPROVAL, OrderStatus.APPROVED, OrderStatus.IN_TRANSIT)) {
+            statements.put(status, ESCALATE_BATCH.formatted(status.name()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${puma.orders.sla.interval:PT5M}",
+        initialDelayString = "${puma.orders.sla.interval:PT5M}")
+    public void sweepOnSchedule() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            int escalated = sweep();
+            if (escalated > 0) {
+                log.info("Escalated {} overdue orders", escalated);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Order SLA sweep stopped early; the next sweep resumes from the remaining orders", ex);
+        }
+    }
+
+    /**
+     * Escalates overdue orders until none are left or the sweep exceeds {@link OrderSlaProperties#getMaxRunTime()}.
+     *
+     * @return the number of orders escalated, or {@code 0} if another instance is sweeping
+     */
+    public int sweep() {
+        Integer escalated = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            if (!advisoryLock(connection, TRY_LOCK)) {
+                log.debug("Skipping order SLA sweep; another instance is running one");
+                return 0;
+            }
+            try {
+                return escalateOverdue();
+            } finally {
+                advisoryLock(connection, UNLOCK);
+            }
+        });
+        return escalated == null ? 0 : escalated;
+    }
+
+    private int escalateOverdue() {
+        OffsetDateTime now = OffsetDateTime.now();
+        int batchSize = Math.max(properties.getBatchSize(), 1);
+        long deadline = System.nanoTime() + properties.getMaxRunTime().toNanos();
+        int total = 0;
+        for (Map.Entry<OrderStatus, Duration> limit : limits().entrySet()) {
+            List<String> recipients = notificationService.overdueRecipients(limit.getKey(),
+                properties.getEscalationRecipients());
+            if (recipients.isEmpty()) {
+                log.warn("Not escalating overdue {} orders; there is no one to notify", limit.getKey());
+                continue;
+            }
+            OffsetDateTime cutoff = now.minus(limit.getValue());
+            while (true) {
+                Integer batch = transactionTemplate.execute(status ->
+                    escalateBatch(limit.getKey(), cutoff, batchSize, recipients));
+                int count = batch == null ? 0 : batch;
+                total += count;
+                if (System.nanoTime() - deadline > 0) {
+                    return total;
+                }
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Marks up to {@code batchSize} orders in {@code status} whose clock started before {@code cutoff} as escalated
+     * and notifies {@code recipients} about them; the notifications are sent once the caller's transaction commits.
+     */
+    private int escalateBatch(OrderStatus status, OffsetDateTime cutoff, int batchSize, List<String> recipients) {
+        List<UUID> ids = jdbcTemplate.queryForList(statements.get(status), UUID.class, cutoff, batchSize, cutoff);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        orderRepository.findWithDetailsByIdIn(ids).forEach(order ->
+            notificationService.notifyOrderOverdue(order, recipients));
+        return ids.size();
+    }
+
+    private Map<OrderStatus, Duration> limits() {
+        Map<OrderStatus, Duration> limits = new EnumMap<>(OrderStatus.class);
+        limits.put(OrderStatus.PENDING_APPROVAL, properties.getApproval());
+        limits.put(OrderStatus.APPROVED, properties.getAcceptance());
+        limits.put(OrderStatus.IN_TRANSIT, properties.getDelivery());
+        return limits;
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, SWEEP_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.pumaprintables.platform.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "puma.orders.sla")
+public class OrderSlaProperties {
+
+    /**
+     * Whether the scheduled sweep escalates overdue orders.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Pause between sweeps.
+     */
+    private Duration interval = Duration.ofMinutes(5);
+
+    /**
+     * How long an order may wait for approval.
+     */
+    private Duration approval = Duration.ofHours(24);
+
+    /**
+     * How long an approved order may wait for a fulfillment agent to accept it.
+     */
+    private Duration acceptance = Duration.ofHours(24);
+
+    /**
+     * How long an order may be in transit, counted from the courier's dispatch date.
+     */
+    private Duration delivery = Duration.ofDays(5);
+
+    /**
+     * Orders escalated per transaction.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Time after which a sweep stops starting new batches; the next sweep continues with the remaining orders.
+     */
+    private Duration maxRunTime = Duration.ofSeconds(30);
+
+    /**
+     * Addresses that receive every escalation, on top of the approvers, fulfilment agents or admins and store copied
+     * for the order's status.
+     */
+    private List<String> escalationRecipients = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public Duration getApproval() {
+        return approval;
+    }
+
+    public void setApproval(Duration approval) {
+        this.approval = approval;
+    }
+
+    public Duration getAcceptance() {
+        return acceptance;
+    }
+
+    public void setAcceptance(Duration acceptance) {
+        this.acceptance = acceptance;
+    }
+
+    public Duration getDelivery() {
+        return delivery;
+    }
+
+    public void setDelivery(Duration delivery) {
+        this.delivery = delivery;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getMaxRunTime() {
+        return maxRunTime;
+    }
+
+    public void setMaxRunTime(Duration maxRunTime) {
+        this.maxRunTime = maxRunTime;
+    }
+
+    public List<String> getEscalationRecipients() {
+        return escalationRecipients;
+    }
+
+    public void setEscalationRecipients(List<String> escalationRecipients) {
+        this.escalationRecipients = escalationRecipients;
+    }
+}
@@ -0,0 +1,203 @@
+package com.pumaprintables.platform.service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import com.pumaprintables.platform.domain.model.Order;
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.OrderEvent;
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+
+/**
+ * The order lifecycle as an immutable table: for every {@link OrderEvent}, the statuses it may leave, the status it
+ * enters, who may fire it, what it needs and what happens once it has. {@link OrderTransitionService} applies it.
+ */
+public final class OrderStateMachine {
+
+    private final Map<OrderEvent, Transition> transitions;
+    private final Map<OrderStatus, Set<OrderEvent>> eventsByStatus;
+
+    public OrderStateMachine(Collection<Transition> transitions) {
+        Map<OrderEvent, Transition> byEvent = new EnumMap<>(OrderEvent.class);
+        Map<OrderStatus, Set<OrderEvent>> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, EnumSet.noneOf(OrderEvent.class));
+        }
+        for (Transition transition : transitions) {
+            if (byEvent.putIfAbsent(transition.event(), transition) != null) {
+                throw new IllegalArgumentException("More than one transition for " + transition.event());
+            }
+            transition.from().forEach(status -> byStatus.get(status).add(transition.event()));
+        }
+        Set<OrderEvent> missing = EnumSet.complementOf(EnumSet.copyOf(byEvent.keySet()));
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("No transition for " + missing);
+        }
+        byStatus.replaceAll((status, events) -> Collections.unmodifiableSet(events));
+        this.transitions = Collections.unmodifiableMap(byEvent);
+        this.eventsByStatus = Collections.unmodifiableMap(byStatus);
+    }
+
+    public Transition transition(OrderEvent event) {
+        return transitions.get(event);
+    }
+
+    public Collection<Transition> transitions() {
+        return transitions.values();
+    }
+
+    /**
+     * @return the events an order in {@code status} accepts; empty for final statuses
+     */
+    public Set<OrderEvent> eventsFrom(OrderStatus status) {
+        return eventsByStatus.get(status);
+    }
+
+    public static Builder on(OrderEvent event) {
+        return new Builder(event);
+    }
+
+    /**
+     * @param leaseGuarded    whether a fulfillment queue lease held by another agent blocks the transition
+     * @param setsDelivery    whether the transition records the delivery address from its details
+     * @param slaFromDispatch whether the order's SLA clock starts at the dispatch date in the details rather than now
+     * @param rejection       message for an order whose status does not allow the event
+     * @param guards          checks on the details, run before anything is written
+     * @param effects         writes made in the same transaction once the status has changed
+     * @param notification    sent with the reloaded order once the effects have run
+     */
+    public record Transition(OrderEvent event, Set<OrderStatus> from, OrderStatus to, Set<UserRole> roles,
+                             boolean leaseGuarded, boolean setsDelivery, boolean slaFromDispatch,
+                             String rejection, List<TransitionGuard> guards, List<TransitionEffect> effects,
+                             Consumer<Order> notification) {
+
+        public Transition {
+            from = Collections.unmodifiableSet(EnumSet.copyOf(from));
+            roles = Collections.unmodifiableSet(EnumSet.copyOf(roles));
+            guards = List.copyOf(guards);
+            effects = List.copyOf(effects);
+        }
+
+        public boolean allows(OrderStatus status) {
+            return from.contains(status);
+        }
+    }
+
+    /**
+     * Rejects details a transition cannot be applied with by throwing.
+     */
+    @FunctionalInterface
+    public interface TransitionGuard {
+
+        void check(TransitionDetails details);
+    }
+
+    @FunctionalInterface
+    public interface TransitionEffect {
+
+        void apply(AppliedTransition transition);
+    }
+
+    /**
+     * What the caller supplies with an event; each transition reads only the fields it needs.
+     */
+    public record TransitionDetails(String comments, String deliveryAddress, String courierName,
+                                    String trackingNumber, OffsetDateTime dispatchDate) {
+
+        public static final TransitionDetails NONE = new TransitionDetails(null, null, null, null, null);
+    }
+
+    public record AppliedTransition(UUID orderId, OrderEvent event, OrderStatus from, OrderStatus to, User actor,
+                                    TransitionDetails details) {
+    }
+
+    public static final class Builder {
+
+        private final OrderEvent event;
+        private final Set<OrderStatus> from = EnumSet.noneOf(OrderStatus.class);
+        private final Set<UserRole> roles = EnumSet.noneOf(UserRole.class);
+        private final List<TransitionGuard> guards = new ArrayList<>();
+        private final List<TransitionEffect> effects = new ArrayList<>();
+        private OrderStatus to;
+        private boolean leaseGuarded;
+        private boolean setsDelivery;
+        private boolean slaFromDispatch;
+        private String rejection;
+        private Consumer<Order> notification = order -> { };
+
+        private Builder(OrderEvent event) {
+            this.event = event;
+        }
+
+        public Builder from(OrderStatus first, OrderStatus... rest) {
+            from.add(first);
+            from.addAll(List.of(rest));
+            return this;
+        }
+
+        public Builder to(OrderStatus status) {
+            this.to = status;
+            return this;
+        }
+
+        public Builder by(UserRole first, UserRole... rest) {
+            roles.add(first);
+            roles.addAll(List.of(rest));
+            return this;
+        }
+
+        public Builder rejecting(String message) {
+            this.rejection = message;
+            return this;
+        }
+
+        public Builder leaseGuarded() {
+            this.leaseGuarded = true;
+            return this;
+        }
+
+        public Builder setsDelivery() {
+            this.setsDelivery = true;
+            return this;
+        }
+
+        public Builder slaFromDispatch() {
+            this.slaFromDispatch = true;
+            return this;
+        }
+
+        public Builder guard(TransitionGuard guard) {
+            guards.add(guard);
+            return this;
+        }
+
+        public Builder effect(TransitionEffect effect) {
+            effects.add(effect);
+            return this;
+        }
+
+        public Builder notifying(Consumer<Order> notification) {
+            this.notification = notification;
+            return this;
+        }
+
+        public Transition build() {
+            if (from.isEmpty() || to == null || roles.isEmpty() || rejection == null) {
+                throw new IllegalStateException("Transition " + event + " needs source and target statuses, roles "
+                    + "and a rejection message");
+            }
+            return new Transition(event, from, to, roles, leaseGuarded, setsDelivery, slaFromDispatch, rejection,
+                guards, effects, notification);
+        }
+    }
+}
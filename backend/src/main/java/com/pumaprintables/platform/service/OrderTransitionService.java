@@ -0,0 +1,273 @@
+package com.pumaprintables.platform.service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import com.pumaprintables.platform.domain.model.Order;
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.ApprovalStatus;
+import com.pumaprintables.platform.domain.model.enums.OrderEvent;
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+import com.pumaprintables.platform.domain.model.id.UuidV7Generator;
+import com.pumaprintables.platform.domain.repository.OrderRepository;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+import com.pumaprintables.platform.service.OrderStateMachine.AppliedTransition;
+import com.pumaprintables.platform.service.OrderStateMachine.Transition;
+import com.pumaprintables.platform.service.OrderStateMachine.TransitionDetails;
+import com.pumaprintables.platform.service.OrderStateMachine.TransitionEffect;
+import com.pumaprintables.platform.service.OrderStateMachine.TransitionGuard;
+import com.pumaprintables.platform.service.exception.InvalidOrderStateException;
+import com.pumaprintables.platform.service.exception.InvalidOrderTransitionException;
+import com.pumaprintables.platform.service.exception.OrderClaimedException;
+import com.pumaprintables.platform.service.exception.OrderNotFoundException;
+
+/**
+ * Moves orders through {@link #stateMachine()}. The status check, lease check and status change are one conditional
+ * {@code UPDATE}, so concurrent transitions of the same order serialise on its row lock and every loser sees the
+ * winner's status; the order is only read again, with all its details in one query, for the response.
+ */
+@Service
+public class OrderTransitionService {
+
+    // Every transition starts a new SLA clock, not yet escalated, so OrderSlaMonitor times the order afresh in the
+    // status it moves to, or from the courier's dispatch date once it is in transit.
+    private static final String APPLY = """
+        WITH current AS (
+            SELECT o.id, o.status
+              FROM orders o
+             WHERE o.id = ?
+               AND o.status IN (%s)%s
+               FOR UPDATE
+        )
+        UPDATE orders o
+           SET status = ?,
+               version = o.version + 1,
+               sla_started_at = %s,
+               sla_escalated_status = NULL%s
+          FROM current
+         WHERE o.id = current.id
+        RETURNING current.status
+        """;
+
+    private static final String LEASE_FREE = "\n       AND (o.claimed_by IS NULL OR o.claimed_by = ?"
+        + " OR o.claim_expires_at IS NULL OR o.claim_expires_at <= now())";
+
+    private static final String SET_DELIVERY = ",\n       delivery_address = COALESCE(?,"
+        + " CASE WHEN btrim(o.delivery_address) <> '' THEN o.delivery_address END, o.shipping_address)";
+
+    private static final String RECORD_DECISION = """
+        INSERT INTO approvals (id, order_id, approver_id, status, comments, approval_date)
+        VALUES (?, ?, ?, ?, ?, now())
+        ON CONFLICT (order_id) DO UPDATE
+           SET approver_id = EXCLUDED.approver_id,
+               status = EXCLUDED.status,
+               comments = EXCLUDED.comments,
+               approval_date = EXCLUDED.approval_date
+        """;
+
+    private static final String RECORD_COURIER = """
+        INSERT INTO courier_info (order_id, courier_name, tracking_number, dispatch_date)
+        VALUES (?, ?, ?, ?)
+        ON CONFLICT (order_id) DO UPDATE
+           SET courier_name = EXCLUDED.courier_name,
+               tracking_number = EXCLUDED.tracking_number,
+               dispatch_date = EXCLUDED.dispatch_date
+        """;
+
+    private static final String AUDIT = """
+        INSERT INTO audit_log (id, entity_name, entity_id, action, old_value, new_value, user_id, timestamp)
+        VALUES (?, 'orders', ?, 'UPDATE', ?::jsonb, ?::jsonb, ?, now())
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final OrderArchiveService orderArchiveService;
+    private final OrderRefreshService orderRefreshService;
+    private final OrderStateMachine stateMachine;
+    private final Map<OrderEvent, String> statements = new EnumMap<>(OrderEvent.class);
+
+    public OrderTransitionService(JdbcTemplate jdbcTemplate, OrderRepository orderRepository,
+                                  UserRepository userRepository, OrderArchiveService orderArchiveService,
+                                  OrderRefreshService orderRefreshService, NotificationService notificationService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.orderArchiveService = orderArchiveService;
+        this.orderRefreshService = orderRefreshService;
+        this.stateMachine = new OrderStateMachine(List.of(
+            OrderStateMachine.on(OrderEvent.APPROVE)
+                .from(OrderStatus.PENDING_APPROVAL)
+                .to(OrderStatus.APPROVED)
+                .by(UserRole.APPROVER, UserRole.ADMIN)
+                .rejecting("Only pending orders can be approved")
+                .guard(required(TransitionDetails::comments, "Comments are required"))
+                .effect(recordDecision(ApprovalStatus.APPROVED))
+                .effect(this::audit)
+                .notifying(notificationService::notifyOrderApproved)
+                .build(),
+            OrderStateMachine.on(OrderEvent.REJECT)
+                .from(OrderStatus.PENDING_APPROVAL)
+                .to(OrderStatus.REJECTED)
+                .by(UserRole.APPROVER, UserRole.ADMIN)
+                .rejecting("Only pending orders can be rejected")
+                .guard(required(TransitionDetails::comments, "Comments are required"))
+                .effect(recordDecision(ApprovalStatus.REJECTED))
+                .effect(this::audit)
+                .notifying(notificationService::notifyOrderRejected)
+                .build(),
+            OrderStateMachine.on(OrderEvent.ACCEPT)
+                .from(OrderStatus.APPROVED)
+                .to(OrderStatus.ACCEPTED)
+                .by(UserRole.FULFILLMENT_AGENT, UserRole.ADMIN)
+                .rejecting("Only approved orders can be accepted")
+                .leaseGuarded()
+                .setsDelivery()
+                .effect(this::audit)
+                .notifying(notificationService::notifyOrderAccepted)
+                .build(),
+            OrderStateMachine.on(OrderEvent.DISPATCH)
+                .from(OrderStatus.ACCEPTED, OrderStatus.IN_TRANSIT)
+                .to(OrderStatus.IN_TRANSIT)
+                .by(UserRole.FULFILLMENT_AGENT, UserRole.ADMIN)
+                .rejecting("Courier details can only be added after the order is marked for fulfilment")
+                .guard(required(TransitionDetails::courierName, "Courier name is required"))
+                .guard(required(TransitionDetails::trackingNumber, "Tracking number is required"))
+                .guard(required(TransitionDetails::dispatchDate, "Dispatch date is required"))
+                .slaFromDispatch()
+                .effect(this::recordCourier)
+                .effect(this::audit)
+                .notifying(notificationService::notifyCourierUpdated)
+                .build(),
+            OrderStateMachine.on(OrderEvent.FULFILL)
+                .from(OrderStatus.IN_TRANSIT)
+                .to(OrderStatus.FULFILLED)
+                .by(UserRole.FULFILLMENT_AGENT, UserRole.ADMIN)
+                .rejecting("Only orders in transit can be marked fulfilled")
+                .effect(this::audit)
+                .notifying(notificationService::notifyOrderFulfilled)
+                .build()
+        ));
+        stateMachine.transitions().forEach(transition -> statements.put(transition.event(), statement(transition)));
+    }
+
+    public OrderStateMachine stateMachine() {
+        return stateMachine;
+    }
+
+    /**
+     * Fires {@code event} on the order as {@code actorUsername}.
+     *
+     * @return the order after the transition, with the details an order response shows
+     * @throws AccessDeniedException           if the actor's role may not fire the event
+     * @throws InvalidOrderTransitionException if the details lack something the transition needs
+     * @throws InvalidOrderStateException      if the order's status does not accept the event
+     * @throws OrderClaimedException           if another fulfillment agent holds the order's queue lease
+     */
+    @Transactional
+    public Order apply(UUID orderId, OrderEvent event, String actorUsername, TransitionDetails details) {
+        Transition transition = stateMachine.transition(event);
+        User actor = userRepository.findByUsername(actorUsername)
+            .orElseThrow(() -> new IllegalStateException("User not found: " + actorUsername));
+        if (!transition.roles().contains(actor.getRole())) {
+            throw new AccessDeniedException("Role %s cannot %s orders".formatted(actor.getRole(), event));
+        }
+        transition.guards().forEach(guard -> guard.check(details));
+
+        List<String> previous = jdbcTemplate.queryForList(statements.get(event), String.class,
+            parameters(transition, orderId, actor, details));
+        if (previous.isEmpty()) {
+            throw rejection(transition, orderId, actor);
+        }
+
+        AppliedTransition applied = new AppliedTransition(orderId, event, OrderStatus.valueOf(previous.get(0)),
+            transition.to(), actor, details);
+        transition.effects().forEach(effect -> effect.apply(applied));
+
+        Order order = orderRepository.findWithDetailsByIdIn(List.of(orderId)).get(0);
+        transition.notification().accept(order);
+        return order;
+    }
+
+    private static String statement(Transition transition) {
+        String from = transition.from().stream()
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", "));
+        return APPLY.formatted(from, transition.leaseGuarded() ? LEASE_FREE : "",
+            transition.slaFromDispatch() ? "?" : "now()", transition.setsDelivery() ? SET_DELIVERY : "");
+    }
+
+    private static Object[] parameters(Transition transition, UUID orderId, User actor, TransitionDetails details) {
+        List<Object> parameters = new ArrayList<>(5);
+        parameters.add(orderId);
+        if (transition.leaseGuarded()) {
+            parameters.add(actor.getId());
+        }
+        parameters.add(transition.to().name());
+        if (transition.slaFromDispatch()) {
+            parameters.add(details.dispatchDate());
+        }
+        if (transition.setsDelivery()) {
+            parameters.add(StringUtils.hasText(details.deliveryAddress()) ? details.deliveryAddress().trim() : null);
+        }
+        return parameters.toArray();
+    }
+
+    /**
+     * Works out why the conditional update matched nothing, reading the order as it is now.
+     */
+    private RuntimeException rejection(Transition transition, UUID orderId, User actor) {
+        Order order = orderRepository.findById(orderId)
+            .or(() -> orderArchiveService.findArchivedOrder(orderId))
+            .orElseThrow(() -> new OrderNotFoundException(orderId.toString()));
+        if (!transition.allows(order.getStatus())) {
+            return new InvalidOrderStateException(transition.rejection());
+        }
+        if (transition.leaseGuarded() && order.getClaimedBy() != null && !order.getClaimedBy().equals(actor.getId())
+            && order.getClaimExpiresAt() != null && order.getClaimExpiresAt().isAfter(OffsetDateTime.now())) {
+            return new OrderClaimedException(orderId.toString());
+        }
+        return new InvalidOrderStateException("Order changed while it was being updated, please retry");
+    }
+
+    private static TransitionGuard required(Function<TransitionDetails, Object> field, String message) {
+        return details -> {
+            Object value = field.apply(details);
+            if (value == null || value instanceof String text && !StringUtils.hasText(text)) {
+                throw new InvalidOrderTransitionException(message);
+            }
+        };
+    }
+
+    private TransitionEffect recordDecision(ApprovalStatus status) {
+        return transition -> jdbcTemplate.update(RECORD_DECISION, UuidV7Generator.next(), transition.orderId(),
+            transition.actor().getId(), status.name(), transition.details().comments());
+    }
+
+    private void recordCourier(AppliedTransition transition) {
+        TransitionDetails details = transition.details();
+        jdbcTemplate.update(RECORD_COURIER, transition.orderId(), details.courierName(), details.trackingNumber(),
+            details.dispatchDate());
+        orderRefreshService.refresh(transition.orderId());
+    }
+
+    private void audit(AppliedTransition transition) {
+        jdbcTemplate.update(AUDIT, UuidV7Generator.next(), transition.orderId(),
+            "{\"status\":\"%s\"}".formatted(transition.from()),
+            "{\"status\":\"%s\",\"event\":\"%s\"}".formatted(transition.to(), transition.event()),
+            transition.actor().getId());
+    }
+}
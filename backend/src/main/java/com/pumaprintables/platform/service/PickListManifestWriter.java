@@ -0,0 +1,45 @@
+package com.pumaprintables.platform.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes manifest lines as they arrive, keeping only a small window of rows in memory whatever the manifest size.
+ */
+final class PickListManifestWriter implements AutoCloseable {
+
+    static final List<String> HEADERS = List.of("SKU", "Product", "Delivery Address", "Quantity", "Orders");
+
+    private final TabularWriter writer;
+
+    private PickListManifestWriter(TabularWriter writer) {
+        this.writer = writer;
+    }
+
+    static PickListManifestWriter create(PickListService.ManifestFormat format, OutputStream outputStream)
+        throws IOException {
+        return new PickListManifestWriter(switch (format) {
+            case CSV -> TabularWriter.csv(outputStream, HEADERS);
+            case XLSX -> TabularWriter.xlsx(outputStream, "Manifest", HEADERS);
+        });
+    }
+
+    void write(PickListService.ManifestLine line) throws IOException {
+        writer.writeRow(Arrays.asList(line.sku(), line.productName(), line.deliveryAddress(), line.quantity(),
+            line.orderCount()));
+    }
+
+    /**
+     * Completes the document on the output stream; the stream itself is left open.
+     */
+    void finish() throws IOException {
+        writer.finish();
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+}
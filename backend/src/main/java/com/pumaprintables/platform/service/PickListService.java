@@ -0,0 +1,146 @@
+package com.pumaprintables.platform.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pumaprintables.platform.service.exception.InvalidPickListRequestException;
+
+/**
+ * Totals what fulfillment has to pick across accepted orders, computed in the database instead of by loading every
+ * order with its items and products.
+ */
+@Service
+public class PickListService {
+
+    static final int MAX_SELECTED_ORDERS = 1000;
+
+    // Rows are pulled from a server-side cursor in chunks of this size while the manifest is written.
+    private static final int MANIFEST_FETCH_SIZE = 1000;
+
+    private static final String PICK_LIST = """
+        SELECT p.id, p.sku, p.name, p.image_url,
+               sum(oi.quantity) AS total_quantity,
+               count(*) AS order_count
+          FROM order_items oi
+          JOIN orders o ON o.id = oi.order_id
+          JOIN products p ON p.id = oi.product_id
+         WHERE o.status = 'ACCEPTED'
+        %s
+         GROUP BY p.id, p.sku, p.name, p.image_url
+         ORDER BY p.name, p.sku
+        """;
+
+    private static final String MANIFEST = """
+        SELECT p.sku, p.name,
+               COALESCE(o.delivery_address, o.shipping_address) AS delivery_address,
+               sum(oi.quantity) AS quantity,
+               count(*) AS order_count
+          FROM order_items oi
+          JOIN orders o ON o.id = oi.order_id
+          JOIN products p ON p.id = oi.product_id
+         WHERE o.status = 'ACCEPTED'
+        %s
+         GROUP BY p.id, p.sku, p.name, COALESCE(o.delivery_address, o.shipping_address)
+         ORDER BY p.name, p.sku, delivery_address
+        """;
+
+    private static final String SELECTED_ORDERS = "   AND o.id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public PickListService(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(MANIFEST_FETCH_SIZE);
+    }
+
+    /**
+     * Total quantity per product across accepted orders.
+     *
+     * @param orderIds restricts the list to these orders, or {@code null}/empty for every accepted order
+     */
+    @Transactional(readOnly = true)
+    public List<PickListLine> getPickList(Collection<UUID> orderIds) {
+        return jdbcTemplate.query(withSelection(PICK_LIST, orderIds), selection(orderIds), (rs, rowNum) ->
+            new PickListLine(
+                rs.getObject("id", UUID.class),
+                rs.getString("sku"),
+                rs.getString("name"),
+                rs.getString("image_url"),
+                rs.getLong("total_quantity"),
+                rs.getLong("order_count")));
+    }
+
+    /**
+     * Streams the print-batch manifest, one line per product and delivery address, to {@code outputStream}.
+     * Must run in a transaction so the driver can use a cursor instead of buffering the whole result.
+     */
+    @Transactional(readOnly = true)
+    public void writeManifest(Collection<UUID> orderIds, ManifestFormat format, OutputStream outputStream)
+        throws IOException {
+        try (PickListManifestWriter writer = PickListManifestWriter.create(format, outputStream)) {
+            streamingJdbcTemplate.query(withSelection(MANIFEST, orderIds), selection(orderIds), rs -> {
+                try {
+                    writer.write(new ManifestLine(
+                        rs.getString("sku"),
+                        rs.getString("name"),
+                        rs.getString("delivery_address"),
+                        rs.getLong("quantity"),
+                        rs.getLong("order_count")));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            writer.finish();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static String withSelection(String sql, Collection<UUID> orderIds) {
+        return sql.formatted(isSelection(orderIds) ? SELECTED_ORDERS : "");
+    }
+
+    private static PreparedStatementSetter selection(Collection<UUID> orderIds) {
+        if (!isSelection(orderIds)) {
+            return ps -> { };
+        }
+        if (orderIds.size() > MAX_SELECTED_ORDERS) {
+            throw new InvalidPickListRequestException(
+                "At most %d orders can be selected for a pick list".formatted(MAX_SELECTED_ORDERS));
+        }
+        Object[] ids = orderIds.toArray();
+        return ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids));
+    }
+
+    private static boolean isSelection(Collection<UUID> orderIds) {
+        return orderIds != null && !orderIds.isEmpty();
+    }
+
+    public enum ManifestFormat {
+        CSV,
+        XLSX
+    }
+
+    public record PickListLine(UUID productId, String sku, String productName, String imageUrl,
+                               long totalQuantity, long orderCount) {
+
+    }
+
+    public record ManifestLine(String sku, String productName, String deliveryAddress, long quantity,
+                               long orderCount) {
+
+    }
+}
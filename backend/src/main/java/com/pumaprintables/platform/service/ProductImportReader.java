@@ -0,0 +1,185 @@
+package com.pumaprintables.platform.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.pumaprintables.platform.service.exception.InvalidProductImportException;
+
+/**
+ * Reads an import file row by row and hands each row to a callback as soon as it is parsed, so neither the file nor
+ * the workbook is ever held in memory.
+ */
+abstract class ProductImportReader {
+
+    @FunctionalInterface
+    interface RowHandler {
+
+        /**
+         * @param rowNumber the 1-based row number as a spreadsheet shows it, the header being row 1
+         * @param values    cell values by column index; missing trailing cells are absent
+         */
+        void row(int rowNumber, List<String> values);
+    }
+
+    abstract void read(InputStream inputStream, RowHandler handler) throws IOException;
+
+    static ProductImportReader create(ProductImportService.ImportFormat format) {
+        return switch (format) {
+            case CSV -> new Csv();
+            case XLSX -> new Xlsx();
+        };
+    }
+
+    static final class Csv extends ProductImportReader {
+
+        @Override
+        void read(InputStream inputStream, RowHandler handler) throws IOException {
+            Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            List<String> values = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            int rowNumber = 1;
+            boolean quoted = false;
+            boolean fieldStarted = false;
+            int c = reader.read();
+            if (c == '\uFEFF') {
+                c = reader.read();
+            }
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                    fieldStarted = true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                    fieldStarted = true;
+                } else if (c == '\r' || c == '\n') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    values.add(field.toString());
+                    handler.row(rowNumber++, values);
+                    values = new ArrayList<>();
+                    field.setLength(0);
+                    fieldStarted = false;
+                } else {
+                    field.append((char) c);
+                    fieldStarted = true;
+                }
+                c = reader.read();
+            }
+            if (quoted) {
+                throw new InvalidProductImportException("Unterminated quoted field in row " + rowNumber);
+            }
+            if (fieldStarted || !field.isEmpty() || !values.isEmpty()) {
+                values.add(field.toString());
+                handler.row(rowNumber, values);
+            }
+        }
+    }
+
+    /**
+     * Parses the first worksheet with POI's SAX event API; only the shared strings table is kept in memory.
+     */
+    static final class Xlsx extends ProductImportReader {
+
+        @Override
+        void read(InputStream inputStream, RowHandler handler) throws IOException {
+            // Opening from a file lets POI read zip entries on demand instead of inflating the whole package.
+            Path file = Files.createTempFile("product-import", ".xlsx");
+            try {
+                Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+                try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+                    XSSFReader xssfReader = new XSSFReader(pkg);
+                    Iterator<InputStream> sheets = xssfReader.getSheetsData();
+                    if (!sheets.hasNext()) {
+                        return;
+                    }
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(xssfReader.getStylesTable(),
+                        new ReadOnlySharedStringsTable(pkg), new RowCollector(handler), new DataFormatter(), false));
+                    try (InputStream sheet = sheets.next()) {
+                        parser.parse(new InputSource(sheet));
+                    }
+                } catch (OpenXML4JException | SAXException | ParserConfigurationException
+                         | UnsupportedFileFormatException ex) {
+                    throw new InvalidProductImportException("The file is not a readable XLSX workbook");
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private final List<String> values = new ArrayList<>();
+
+        private RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.row(rowNum + 1, List.copyOf(values));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // Empty cells are not reported, so pad up to this cell's column.
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : values.size();
+            while (values.size() < column) {
+                values.add("");
+            }
+            values.add(formattedValue != null ? formattedValue : "");
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.pumaprintables.platform.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.Cache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pumaprintables.platform.domain.model.Product;
+import com.pumaprintables.platform.service.exception.InvalidProductImportException;
+
+/**
+ * Creates or updates products in bulk from a CSV or XLSX file.
+ * <p>
+ * Rows are parsed as a stream and handled in chunks: each chunk is validated in parallel, then its valid rows are
+ * upserted by SKU in a single statement. Invalid rows are skipped and reported with their row number; the valid ones
+ * are imported in one transaction.
+ */
+@Service
+public class ProductImportService {
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_ROWS = 100_000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final int MAX_SKU_LENGTH = 50;
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_IMAGE_URL_LENGTH = 512;
+
+    private static final String SKU = "sku";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String IMAGE_URL = "imageurl";
+    private static final String SPECIFICATIONS = "specifications";
+    private static final String STOCK_QUANTITY = "stockquantity";
+    private static final String ACTIVE = "active";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(SKU, NAME, DESCRIPTION, STOCK_QUANTITY);
+
+    // Unchanged rows are left alone so they cost no dead tuples and do not fire the order search trigger.
+    private static final String UPSERT = """
+        INSERT INTO products (id, sku, name, description, image_url, specifications, stock_quantity, is_active)
+        SELECT gen_random_uuid(), r.sku, r.name, r.description, r.image_url, r.specifications::jsonb,
+               r.stock_quantity, r.is_active
+          FROM unnest(?::varchar[], ?::varchar[], ?::text[], ?::varchar[], ?::text[], ?::int[], ?::boolean[])
+               AS r(sku, name, description, image_url, specifications, stock_quantity, is_active)
+        ON CONFLICT (sku) DO UPDATE
+           SET name = EXCLUDED.name,
+               description = EXCLUDED.description,
+               image_url = EXCLUDED.image_url,
+               specifications = EXCLUDED.specifications,
+               stock_quantity = EXCLUDED.stock_quantity,
+               is_active = EXCLUDED.is_active
+         WHERE (products.name, products.description, products.image_url, products.specifications,
+                products.stock_quantity, products.is_active)
+               IS DISTINCT FROM
+               (EXCLUDED.name, EXCLUDED.description, EXCLUDED.image_url, EXCLUDED.specifications,
+                EXCLUDED.stock_quantity, EXCLUDED.is_active)
+        RETURNING (xmax = 0) AS inserted
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                EntityManagerFactory entityManagerFactory, ObjectMapper objectMapper,
+                                CacheInvalidationBus cacheInvalidationBus) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.objectMapper = objectMapper;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    public ImportReport importProducts(InputStream inputStream, ImportFormat format) throws IOException {
+        ImportRun run = new ImportRun();
+        ProductImportReader reader = ProductImportReader.create(format);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    reader.read(inputStream, run::accept);
+                } catch (IOException ex) {
+                    throw new ImportReadException(ex);
+                }
+                run.flush();
+            });
+        } catch (ImportReadException ex) {
+            throw ex.getCause();
+        } finally {
+            if (run.inserted + run.updated > 0) {
+                // Cached products and SKU lookups would otherwise keep serving the values from before the import.
+                Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+                cache.evictEntityData(Product.class);
+                cache.evictNaturalIdData(Product.class);
+                cacheInvalidationBus.publish(CacheInvalidation.products());
+            }
+        }
+        if (run.columns == null) {
+            throw new InvalidProductImportException("The file has no header row");
+        }
+        return new ImportReport(run.rows, run.inserted, run.updated, run.rows - run.inserted - run.updated
+            - run.rejected, run.rejected, List.copyOf(run.errors));
+    }
+
+    public static ImportFormat parseFormat(String format, String filename) {
+        String value = format;
+        if (value == null || value.isBlank()) {
+            int dot = filename != null ? filename.lastIndexOf('.') : -1;
+            value = dot >= 0 ? filename.substring(dot + 1) : "";
+        }
+        try {
+            return ImportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidProductImportException("Unsupported import format: " + value);
+        }
+    }
+
+    static Map<String, Integer> parseHeader(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String key = header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+            if (!key.isEmpty() && columns.putIfAbsent(key, i) != null) {
+                throw new InvalidProductImportException("Duplicate column: " + header.get(i));
+            }
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new InvalidProductImportException("Missing required columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    ValidatedRow validate(RawRow row, Map<String, Integer> columns) {
+        List<String> problems = new ArrayList<>();
+        String sku = row.value(columns, SKU);
+        String name = row.value(columns, NAME);
+        String description = row.value(columns, DESCRIPTION);
+        String imageUrl = row.value(columns, IMAGE_URL);
+
+        if (sku.isEmpty()) {
+            problems.add("SKU is required");
+        } else if (sku.length() > MAX_SKU_LENGTH) {
+            problems.add("SKU must be at most %d characters".formatted(MAX_SKU_LENGTH));
+        }
+        if (name.isEmpty()) {
+            problems.add("Name is required");
+        } else if (name.length() > MAX_NAME_LENGTH) {
+            problems.add("Name must be at most %d characters".formatted(MAX_NAME_LENGTH));
+        }
+        if (description.isEmpty()) {
+            problems.add("Description is required");
+        }
+        if (imageUrl.length() > MAX_IMAGE_URL_LENGTH) {
+            problems.add("Image URL must be at most %d characters".formatted(MAX_IMAGE_URL_LENGTH));
+        }
+
+        Integer stockQuantity = null;
+        String stock = row.value(columns, STOCK_QUANTITY);
+        if (stock.isEmpty()) {
+            problems.add("Stock quantity is required");
+        } else {
+            try {
+                stockQuantity = Integer.valueOf(stock);
+                if (stockQuantity < 0) {
+                    problems.add("Stock cannot be negative");
+                }
+            } catch (NumberFormatException ex) {
+                problems.add("Stock quantity must be a whole number");
+            }
+        }
+
+        Boolean active = parseActive(row.value(columns, ACTIVE));
+        if (active == null) {
+            problems.add("Active must be true or false");
+        }
+
+        String specifications = "{}";
+        String rawSpecifications = row.value(columns, SPECIFICATIONS);
+        if (!rawSpecifications.isEmpty()) {
+            try {
+                JsonNode node = objectMapper.readTree(rawSpecifications);
+                if (node == null || !node.isObject()) {
+                    problems.add("Specifications must be a JSON object");
+                } else {
+                    specifications = node.toString();
+                }
+            } catch (JsonProcessingException ex) {
+                problems.add("Specifications must be a JSON object");
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            return new ValidatedRow(row.rowNumber(), sku, null, String.join("; ", problems));
+        }
+        return new ValidatedRow(row.rowNumber(), sku, new ProductRow(sku, name, description,
+            imageUrl.isEmpty() ? null : imageUrl, specifications, stockQuantity, active), null);
+    }
+
+    private static Boolean parseActive(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "", "true", "yes", "y", "1" -> Boolean.TRUE;
+            case "false", "no", "n", "0" -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+
+    private List<Boolean> upsert(List<ProductRow> products) {
+        return jdbcTemplate.query(UPSERT, ps -> {
+            var connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("varchar", products.stream().map(ProductRow::sku).toArray()));
+            ps.setArray(2, connection.createArrayOf("varchar", products.stream().map(ProductRow::name).toArray()));
+            ps.setArray(3, connection.createArrayOf("text", products.stream().map(ProductRow::description).toArray()));
+            ps.setArray(4, connection.createArrayOf("varchar", products.stream().map(ProductRow::imageUrl).toArray()));
+            ps.setArray(5, connection.createArrayOf("text",
+                products.stream().map(ProductRow::specifications).toArray()));
+            ps.setArray(6, connection.createArrayOf("int4",
+                products.stream().map(ProductRow::stockQuantity).toArray()));
+            ps.setArray(7, connection.createArrayOf("bool", products.stream().map(ProductRow::active).toArray()));
+        }, (rs, rowNum) -> rs.getBoolean("inserted"));
+    }
+
+    private final class ImportRun {
+
+        private Map<String, Integer> columns;
+        private final List<RawRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final Set<String> seenSkus = new HashSet<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private int rows;
+        private int inserted;
+        private int updated;
+        private int rejected;
+
+        void accept(int rowNumber, List<String> values) {
+            if (values.stream().allMatch(String::isBlank)) {
+                return;
+            }
+            if (columns == null) {
+                columns = parseHeader(values);
+                return;
+            }
+            if (++rows > MAX_ROWS) {
+                throw new InvalidProductImportException("At most %d products can be imported at once".formatted(MAX_ROWS));
+            }
+            chunk.add(new RawRow(rowNumber, values));
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Map<String, Integer> header = columns;
+            List<ValidatedRow> validated = chunk.parallelStream().map(row -> validate(row, header)).toList();
+            chunk.clear();
+
+            List<ProductRow> products = new ArrayList<>(validated.size());
+            for (ValidatedRow row : validated) {
+                String error = row.error();
+                // A SKU listed twice would make the result depend on row order, so only its first row counts.
+                if (error == null && !seenSkus.add(row.sku())) {
+                    error = "Duplicate SKU in file";
+                }
+                if (error != null) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add(new RowError(row.rowNumber(), row.sku(), error));
+                    }
+                } else {
+                    products.add(row.product());
+                }
+            }
+            if (products.isEmpty()) {
+                return;
+            }
+            for (Boolean wasInserted : upsert(products)) {
+                if (Boolean.TRUE.equals(wasInserted)) {
+                    inserted++;
+                } else {
+                    updated++;
+                }
+            }
+        }
+    }
+
+    private static final class ImportReadException extends RuntimeException {
+
+        private ImportReadException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    record RawRow(int rowNumber, List<String> values) {
+
+        String value(Map<String, Integer> columns, String column) {
+            Integer index = columns.get(column);
+            return index != null && index < values.size() ? values.get(index).trim() : "";
+        }
+    }
+
+    record ProductRow(String sku, String name, String description, String imageUrl, String specifications,
+                      Integer stockQuantity, Boolean active) {
+
+    }
+
+    record ValidatedRow(int rowNumber, String sku, ProductRow product, String error) {
+
+    }
+
+    public enum ImportFormat {
+        CSV,
+        XLSX
+    }
+
+    public record RowError(int row, String sku, String message) {
+
+    }
+
+    public record ImportReport(int rows, int inserted, int updated, int unchanged, int rejected,
+                               List<RowError> errors) {
+
+    }
+}
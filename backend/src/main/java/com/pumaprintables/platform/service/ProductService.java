@@ -1,23 +1,40 @@
 package com.pumaprintables.platform.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pumaprintables.platform.domain.model.Product;
+import com.pumaprintables.platform.domain.repository.ProductFilter;
 import com.pumaprintables.platform.domain.repository.ProductRepository;
+import com.pumaprintables.platform.service.exception.InvalidProductFilterException;
 import com.pumaprintables.platform.service.exception.ProductNotFoundException;
 import com.pumaprintables.platform.service.exception.SkuAlreadyExistsException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
 public class ProductService {
 
+    static final int MAX_SPECIFICATION_CRITERIA = 10;
+    static final int MAX_KEY_LENGTH = 100;
+
     private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final OrderRefreshService orderRefreshService;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ObjectMapper objectMapper,
+                          CacheInvalidationBus cacheInvalidationBus, OrderRefreshService orderRefreshService) {
         this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.orderRefreshService = orderRefreshService;
     }
 
     @Transactional(readOnly = true)
@@ -25,6 +42,91 @@ public class ProductService {
         return productRepository.findAll();
     }
 
+    /**
+     * Returns one page of products matching the filter, ordered by name, together with the total match count.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage filterProducts(ProductFilter filter, int page, int size) {
+        List<Product> products = productRepository.filter(filter, (long) page * size, size);
+        long total = products.size() < size && (page == 0 || !products.isEmpty())
+            ? (long) page * size + products.size()
+            : productRepository.countMatching(filter);
+        return new ProductPage(products, total);
+    }
+
+    /**
+     * Parses the request form of a catalog filter.
+     *
+     * @param contains JSON object the specifications must contain, e.g. {@code {"material":"cotton"}}
+     * @param keys     specification keys that must be present
+     * @param ranges   numeric bounds as {@code key:min..max}; either bound may be omitted
+     */
+    public ProductFilter parseFilter(String contains, List<String> keys, List<String> ranges, Boolean active,
+                                     String namePrefix) {
+        List<String> safeKeys = keys != null ? keys : List.of();
+        List<String> safeRanges = ranges != null ? ranges : List.of();
+        if (safeKeys.size() + safeRanges.size() > MAX_SPECIFICATION_CRITERIA) {
+            throw new InvalidProductFilterException(
+                "At most %d key and range criteria are allowed".formatted(MAX_SPECIFICATION_CRITERIA));
+        }
+
+        JsonNode containsNode = null;
+        if (contains != null && !contains.isBlank()) {
+            try {
+                containsNode = objectMapper.readTree(contains);
+            } catch (JsonProcessingException ex) {
+                throw new InvalidProductFilterException("contains must be a JSON object");
+            }
+            if (containsNode == null || !containsNode.isObject()) {
+                throw new InvalidProductFilterException("contains must be a JSON object");
+            }
+        }
+
+        safeKeys.forEach(ProductService::validateKey);
+        List<ProductFilter.Range> parsedRanges = new ArrayList<>(safeRanges.size());
+        for (String range : safeRanges) {
+            parsedRanges.add(parseRange(range));
+        }
+        return new ProductFilter(containsNode, safeKeys, parsedRanges, active, namePrefix);
+    }
+
+    static ProductFilter.Range parseRange(String range) {
+        int separator = range.lastIndexOf(':');
+        int dots = range.indexOf("..", separator + 1);
+        if (separator <= 0 || dots < 0) {
+            throw new InvalidProductFilterException("Range '%s' must look like key:min..max".formatted(range));
+        }
+        String key = range.substring(0, separator);
+        validateKey(key);
+        BigDecimal min = parseBound(range, range.substring(separator + 1, dots));
+        BigDecimal max = parseBound(range, range.substring(dots + 2));
+        if (min == null && max == null) {
+            throw new InvalidProductFilterException("Range '%s' needs a lower or upper bound".formatted(range));
+        }
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new InvalidProductFilterException("Range '%s' has its lower bound above its upper bound".formatted(range));
+        }
+        return new ProductFilter.Range(key, min, max);
+    }
+
+    private static BigDecimal parseBound(String range, String bound) {
+        if (bound.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(bound.strip());
+        } catch (NumberFormatException ex) {
+            throw new InvalidProductFilterException("Range '%s' has a non-numeric bound".formatted(range));
+        }
+    }
+
+    private static void validateKey(String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidProductFilterException(
+                "Specification keys must be between 1 and %d characters".formatted(MAX_KEY_LENGTH));
+        }
+    }
+
     @Transactional(readOnly = true)
     public Product getProduct(UUID id) {
         return productRepository.findById(id)
@@ -66,6 +168,9 @@ public class ProductService {
                 });
         }
 
+        boolean shownOnOrders = !Objects.equals(existing.getName(), name)
+            || !Objects.equals(existing.getImageUrl(), imageUrl);
+
         existing.setSku(sku);
         existing.setName(name);
         existing.setDescription(description);
@@ -74,13 +179,26 @@ public class ProductService {
         existing.setStockQuantity(stockQuantity);
         existing.setActive(active != null ? active : existing.getActive());
 
-        return productRepository.save(existing);
+        Product saved = productRepository.save(existing);
+        if (shownOnOrders) {
+            // Flushed first, so the refresh request the rename records is there to be dropped.
+            productRepository.flush();
+            orderRefreshService.refreshRenamedProduct(id);
+        }
+        cacheInvalidationBus.publish(CacheInvalidation.product(id));
+        return saved;
     }
 
     @Transactional
     public Product deactivateProduct(UUID id) {
         Product existing = getProduct(id);
         existing.setActive(Boolean.FALSE);
-        return productRepository.save(existing);
+        Product saved = productRepository.save(existing);
+        cacheInvalidationBus.publish(CacheInvalidation.product(id));
+        return saved;
+    }
+
+    public record ProductPage(List<Product> products, long total) {
+
     }
 }
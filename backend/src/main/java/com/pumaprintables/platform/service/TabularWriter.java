@@ -0,0 +1,125 @@
+package com.pumaprintables.platform.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Writes a header and rows of cells to CSV or a streaming XLSX sheet as they arrive, keeping only a small window of
+ * rows in memory whatever the document size. Cells are strings or numbers; a {@code null} cell is written empty.
+ */
+abstract class TabularWriter implements AutoCloseable {
+
+    abstract void writeRow(List<?> values) throws IOException;
+
+    /**
+     * Completes the document on the output stream; the stream itself is left open.
+     */
+    abstract void finish() throws IOException;
+
+    @Override
+    public void close() {
+    }
+
+    static TabularWriter csv(OutputStream outputStream, List<String> headers) throws IOException {
+        return new Csv(outputStream, headers);
+    }
+
+    static TabularWriter xlsx(OutputStream outputStream, String sheetName, List<String> headers) {
+        return new Xlsx(outputStream, sheetName, headers);
+    }
+
+    static final class Csv extends TabularWriter {
+
+        private final Writer writer;
+
+        Csv(OutputStream outputStream, List<String> headers) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writeRow(headers);
+            // Sends the header right away so the client sees the download start before the first row is read.
+            writer.flush();
+        }
+
+        @Override
+        void writeRow(List<?> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values.get(i);
+                writer.write(value instanceof Number ? value.toString() : escape((String) value));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+
+        static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            // A leading formula character would be evaluated when the file is opened in a spreadsheet.
+            String safe = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+            if (safe.indexOf(',') < 0 && safe.indexOf('"') < 0 && safe.indexOf('\n') < 0 && safe.indexOf('\r') < 0) {
+                return safe;
+            }
+            return '"' + safe.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    static final class Xlsx extends TabularWriter {
+
+        private static final int ROW_WINDOW = 100;
+
+        private final OutputStream outputStream;
+        private final SXSSFWorkbook workbook;
+        private final Sheet sheet;
+        private int rowIndex;
+
+        Xlsx(OutputStream outputStream, String sheetName, List<String> headers) {
+            this.outputStream = outputStream;
+            this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+            this.workbook.setCompressTempFiles(true);
+            this.sheet = workbook.createSheet(sheetName);
+            writeRow(headers);
+        }
+
+        @Override
+        void writeRow(List<?> values) {
+            Row row = sheet.createRow(rowIndex++);
+            for (int i = 0; i < values.size(); i++) {
+                Object value = values.get(i);
+                Cell cell = row.createCell(i);
+                if (value instanceof Number number) {
+                    cell.setCellValue(number.doubleValue());
+                } else {
+                    cell.setCellValue(value == null ? "" : (String) value);
+                }
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            workbook.write(outputStream);
+            outputStream.flush();
+        }
+
+        @Override
+        public void close() {
+            // Deletes the temporary files holding rows that already left the window.
+            workbook.dispose();
+        }
+    }
+}
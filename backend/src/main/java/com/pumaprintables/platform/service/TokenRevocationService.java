@@ -0,0 +1,196 @@
+package com.pumaprintables.platform.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.pumaprintables.platform.domain.model.TokenRevocation;
+import com.pumaprintables.platform.domain.repository.TokenRevocationRepository;
+import com.pumaprintables.platform.security.JwtProperties;
+import com.pumaprintables.platform.security.TokenDenylist;
+
+/**
+ * Persists token revocations and keeps every instance's {@link TokenDenylist} in step with them. Revocations made
+ * here apply locally as soon as they commit and are pushed to the other instances over {@link CacheInvalidationBus};
+ * the periodic sync catches up on any that were lost on the way.
+ * <p>
+ * {@link AuthService} stamps {@code users.token_generation} into every token it issues, and revoking all of a user's
+ * tokens moves it to the next value of the {@code token_generations} sequence. A login racing the revocation reads
+ * either the old generation, and its token is revoked, or the new one; issue times and instance clocks play no part.
+ * Generations only ever grow, also across users, so a user re-created under a revoked name starts above the cutoff.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Rows are stamped with the writer's clock, so re-read a margin behind the watermark to tolerate skew and
+    // transactions that committed after a later row was already seen. Re-applying a revocation is harmless.
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    // A login that read the old generation can issue its token just after the revocation, on another instance's
+    // clock, so a cutoff outlives a fresh token by this much.
+    private static final Duration EXPIRY_MARGIN = Duration.ofMinutes(5);
+
+    private static final String CURRENT_GENERATION = "SELECT token_generation FROM users WHERE username = ?";
+
+    private static final String NEXT_GENERATION = """
+        UPDATE users
+           SET token_generation = nextval('token_generations')
+         WHERE username = ?
+        RETURNING token_generation
+        """;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final TokenDenylist tokenDenylist;
+    private final JwtProperties jwtProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private volatile OffsetDateTime syncedUpTo;
+
+    public TokenRevocationService(TokenRevocationRepository tokenRevocationRepository,
+                                  TokenDenylist tokenDenylist,
+                                  JwtProperties jwtProperties,
+                                  JdbcTemplate jdbcTemplate,
+                                  CacheInvalidationBus cacheInvalidationBus) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.tokenDenylist = tokenDenylist;
+        this.jwtProperties = jwtProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    @PostConstruct
+    void loadActiveRevocations() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<TokenRevocation> active = tokenRevocationRepository.findByExpiresAtAfter(now);
+        active.forEach(this::apply);
+        syncedUpTo = latestCreatedAt(active, now.minus(SYNC_OVERLAP));
+        log.info("Loaded {} active token revocations", active.size());
+    }
+
+    /**
+     * Revokes a single access token, e.g. on sign-out.
+     */
+    @Transactional
+    public void revokeToken(String tokenId, String subject, Instant expiresAt) {
+        save(TokenRevocation.builder()
+            .tokenId(tokenId)
+            .subject(subject)
+            .expiresAt(OffsetDateTime.ofInstant(expiresAt, ZoneOffset.UTC))
+            .build());
+    }
+
+    /**
+     * Revokes every token issued to the user so far; they must sign in again to get a token with current claims.
+     */
+    @Transactional
+    public void revokeAllTokens(String username) {
+        List<Long> generation = jdbcTemplate.query(NEXT_GENERATION, (rs, rowNum) -> rs.getLong(1), username);
+        save(TokenRevocation.builder()
+            .subject(username)
+            // Nobody can sign in under a name without a user row, so every token carrying it is revoked.
+            .tokenGeneration(generation.isEmpty() ? Long.MAX_VALUE : generation.get(0))
+            .expiresAt(OffsetDateTime.now().plusMinutes(jwtProperties.getExpiryMinutes()).plus(EXPIRY_MARGIN))
+            .build());
+    }
+
+    /**
+     * Returns the generation to stamp into a token issued to the user now. The caller's transaction must be
+     * read-write, so the read goes to the primary rather than a replica that may not have seen a revocation yet.
+     */
+    public long currentGeneration(String username) {
+        List<Long> generation = jdbcTemplate.query(CURRENT_GENERATION, (rs, rowNum) -> rs.getLong(1), username);
+        return generation.isEmpty() ? 0L : generation.get(0);
+    }
+
+    /**
+     * Applies a revocation pushed by another instance, or catches up when pushes may have been lost. The transaction
+     * is read-write so the just-committed row is read from the primary.
+     */
+    @EventListener
+    @Transactional
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (!invalidation.affects(CacheInvalidation.Target.TOKEN_REVOCATION)) {
+            return;
+        }
+        if (invalidation.key() != null) {
+            tokenRevocationRepository.findById(UUID.fromString(invalidation.key())).ifPresent(this::apply);
+        } else {
+            catchUp();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${puma.security.revocation.sync-interval:PT5S}")
+    @Transactional(readOnly = true)
+    public void sync() {
+        catchUp();
+    }
+
+    @Scheduled(fixedDelayString = "${puma.security.revocation.purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = tokenRevocationRepository.deleteExpired(OffsetDateTime.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired token revocations", deleted);
+        }
+    }
+
+    private void catchUp() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime since = syncedUpTo.minus(SYNC_OVERLAP);
+        List<TokenRevocation> recent = tokenRevocationRepository.findByCreatedAtAfterAndExpiresAtAfter(since, now);
+        recent.forEach(this::apply);
+        syncedUpTo = latestCreatedAt(recent, syncedUpTo);
+        tokenDenylist.purgeExpired(now.toInstant());
+    }
+
+    private void save(TokenRevocation revocation) {
+        TokenRevocation saved = tokenRevocationRepository.save(revocation);
+        cacheInvalidationBus.publish(CacheInvalidation.tokenRevocation(saved.getId()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(saved);
+                }
+            });
+        } else {
+            apply(saved);
+        }
+    }
+
+    private void apply(TokenRevocation revocation) {
+        Instant expiresAt = revocation.getExpiresAt().toInstant();
+        if (revocation.getTokenId() != null) {
+            tokenDenylist.revokeToken(revocation.getTokenId(), expiresAt);
+        }
+        if (revocation.getTokenGeneration() != null) {
+            tokenDenylist.revokeSubject(revocation.getSubject(), revocation.getTokenGeneration(), expiresAt);
+        }
+    }
+
+    private static OffsetDateTime latestCreatedAt(List<TokenRevocation> revocations, OffsetDateTime fallback) {
+        return revocations.stream()
+            .map(TokenRevocation::getCreatedAt)
+            .filter(createdAt -> createdAt.isAfter(fallback))
+            .max(OffsetDateTime::compareTo)
+            .orElse(fallback);
+    }
+}
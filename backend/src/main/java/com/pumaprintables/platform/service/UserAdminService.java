@@ -6,7 +6,9 @@ import java.util.UUID;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.pumaprintables.platform.domain.model.User;
 import com.pumaprintables.platform.domain.model.enums.UserRole;
@@ -19,21 +21,38 @@ public class UserAdminService {
     private static final int DEFAULT_ACTIVE_WINDOW_DAYS = 30;
 
     private final UserRepository userRepository;
+    private final ApproverDirectory approverDirectory;
+    private final LoginStatsRecorder loginStatsRecorder;
+    private final TokenRevocationService tokenRevocationService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final TransactionTemplate primaryReads;
 
-    public UserAdminService(UserRepository userRepository) {
+    public UserAdminService(UserRepository userRepository, ApproverDirectory approverDirectory,
+                            LoginStatsRecorder loginStatsRecorder, TokenRevocationService tokenRevocationService,
+                            CacheInvalidationBus cacheInvalidationBus, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.approverDirectory = approverDirectory;
+        this.loginStatsRecorder = loginStatsRecorder;
+        this.tokenRevocationService = tokenRevocationService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        // Login stats are flushed to the primary just before these reads; a read-only transaction could be routed to
+        // a replica that has not replayed the flush yet.
+        this.primaryReads = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
-        return userRepository.findAll(Sort.by(Sort.Direction.ASC, "username"));
+        loginStatsRecorder.flush();
+        return primaryReads.execute(status -> userRepository.findAll(Sort.by(Sort.Direction.ASC, "username")));
     }
 
-    @Transactional(readOnly = true)
     public UserMetrics getMetrics(int lookbackDays) {
         int sanitizedDays = lookbackDays > 0 ? lookbackDays : DEFAULT_ACTIVE_WINDOW_DAYS;
         OffsetDateTime cutoff = OffsetDateTime.now().minusDays(sanitizedDays);
+        loginStatsRecorder.flush();
+        return primaryReads.execute(status -> countUsers(cutoff, sanitizedDays));
+    }
 
+    private UserMetrics countUsers(OffsetDateTime cutoff, int sanitizedDays) {
         long totalUsers = userRepository.count();
         long activeUsers = userRepository.countByLastLoginAtGreaterThanEqual(cutoff);
         long storeUsers = userRepository.countByRole(UserRole.STORE_USER);
@@ -49,8 +68,25 @@ public class UserAdminService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new UserNotFoundException(userId.toString()));
 
+        UserRole previousRole = user.getRole();
         user.setRole(role);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (previousRole == UserRole.APPROVER || role == UserRole.APPROVER) {
+            approverDirectory.invalidate();
+        }
+        if (previousRole != role) {
+            cacheInvalidationBus.publish(CacheInvalidation.user(userId));
+            // Tokens carry the role claim, so outstanding ones must not keep the old role.
+            tokenRevocationService.revokeAllTokens(saved.getUsername());
+        }
+        return saved;
+    }
+
+    @Transactional
+    public void revokeTokens(UUID userId) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new UserNotFoundException(userId.toString()));
+        tokenRevocationService.revokeAllTokens(user.getUsername());
     }
 
     public record UserMetrics(
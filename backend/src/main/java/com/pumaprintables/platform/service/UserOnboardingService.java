@@ -27,12 +27,15 @@ public class UserOnboardingService {
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
 
     private final UserRepository userRepository;
+    private final LoginStatsRecorder loginStatsRecorder;
 
-    public UserOnboardingService(UserRepository userRepository) {
+    public UserOnboardingService(UserRepository userRepository, LoginStatsRecorder loginStatsRecorder) {
         this.userRepository = userRepository;
+        this.loginStatsRecorder = loginStatsRecorder;
     }
 
     public byte[] exportSince(OffsetDateTime since) {
+        loginStatsRecorder.flush();
         List<User> users = userRepository.findByFirstLoginAtGreaterThanEqual(since);
 
         try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
@@ -0,0 +1,8 @@
+package com.pumaprintables.platform.service.exception;
+
+public class GoogleOAuthUnavailableException extends RuntimeException {
+
+    public GoogleOAuthUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.pumaprintables.platform.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String key) {
+        super("Idempotency key '%s' was already used with a different request".formatted(key));
+    }
+}
@@ -0,0 +1,12 @@
+package com.pumaprintables.platform.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotentRequestInProgressException extends RuntimeException {
+
+    public IdempotentRequestInProgressException(String key) {
+        super("A request with idempotency key '%s' is still being processed".formatted(key));
+    }
+}
@@ -0,0 +1,12 @@
+package com.pumaprintables.platform.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidOrderTransitionException extends RuntimeException {
+
+    public InvalidOrderTransitionException(String message) {
+        super(message);
+    }
+}
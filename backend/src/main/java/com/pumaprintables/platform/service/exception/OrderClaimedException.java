@@ -0,0 +1,12 @@
+package com.pumaprintables.platform.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class OrderClaimedException extends RuntimeException {
+
+    public OrderClaimedException(String orderId) {
+        super("Order %s is claimed by another fulfillment agent".formatted(orderId));
+    }
+}
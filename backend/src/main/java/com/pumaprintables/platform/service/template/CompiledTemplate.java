@@ -0,0 +1,179 @@
+package com.pumaprintables.platform.service.template;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Immutable, pre-parsed template. Rendering walks a flat segment array and appends straight into the
+ * caller's buffer, so no intermediate strings are built for literals, numbers or dates.
+ */
+final class CompiledTemplate<T> {
+
+    private final String name;
+    private final Segment<T>[] segments;
+
+    CompiledTemplate(String name, List<Segment<T>> segments) {
+        this.name = name;
+        this.segments = toArray(segments);
+    }
+
+    String name() {
+        return name;
+    }
+
+    void render(T model, StringBuilder out) {
+        renderAll(segments, model, out);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Segment<T>[] toArray(List<Segment<T>> segments) {
+        return segments.toArray(new Segment[0]);
+    }
+
+    private static <T> void renderAll(Segment<T>[] segments, T model, StringBuilder out) {
+        for (Segment<T> segment : segments) {
+            segment.render(model, out);
+        }
+    }
+
+    static boolean isPresent(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean flag) {
+            return flag;
+        }
+        if (value instanceof CharSequence text) {
+            for (int i = 0; i < text.length(); i++) {
+                if (!Character.isWhitespace(text.charAt(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+        return true;
+    }
+
+    static void escapeHtml(CharSequence text, StringBuilder out) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    /**
+     * Writes a date value straight into the output buffer.
+     */
+    interface DateWriter {
+
+        void write(TemporalAccessor temporal, StringBuilder out);
+    }
+
+    interface Segment<T> {
+
+        void render(T model, StringBuilder out);
+    }
+
+    record Literal<T>(String text) implements Segment<T> {
+
+        Literal<T> append(Literal<T> next) {
+            return new Literal<>(text + next.text);
+        }
+
+
+        @Override
+        public void render(T model, StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    record Variable<T>(Function<T, ?> accessor, boolean escape, DateWriter dateWriter) implements Segment<T> {
+
+        @Override
+        public void render(T model, StringBuilder out) {
+            Object value = accessor.apply(model);
+            if (value == null) {
+                return;
+            }
+            if (value instanceof String text) {
+                if (escape) {
+                    escapeHtml(text, out);
+                } else {
+                    out.append(text);
+                }
+            } else if (value instanceof CharSequence text) {
+                if (escape) {
+                    escapeHtml(text, out);
+                } else {
+                    out.append(text);
+                }
+            } else if (value instanceof Integer number) {
+                out.append(number.intValue());
+            } else if (value instanceof Long number) {
+                out.append(number.longValue());
+            } else if (value instanceof TemporalAccessor temporal) {
+                dateWriter.write(temporal, out);
+            } else if (value instanceof Enum<?> constant) {
+                out.append(constant.name());
+            } else if (escape) {
+                escapeHtml(value.toString(), out);
+            } else {
+                out.append(value);
+            }
+        }
+    }
+
+    static final class Conditional<T> implements Segment<T> {
+
+        private final Function<T, ?> accessor;
+        private final boolean inverted;
+        private final Segment<T>[] body;
+
+        Conditional(Function<T, ?> accessor, boolean inverted, List<Segment<T>> body) {
+            this.accessor = accessor;
+            this.inverted = inverted;
+            this.body = toArray(body);
+        }
+
+        @Override
+        public void render(T model, StringBuilder out) {
+            if (isPresent(accessor.apply(model)) != inverted) {
+                renderAll(body, model, out);
+            }
+        }
+    }
+
+    static final class Loop<T, C> implements Segment<T> {
+
+        private final Function<T, ? extends Iterable<C>> accessor;
+        private final Segment<C>[] body;
+
+        Loop(Function<T, ? extends Iterable<C>> accessor, List<Segment<C>> body) {
+            this.accessor = accessor;
+            this.body = toArray(body);
+        }
+
+        @Override
+        public void render(T model, StringBuilder out) {
+            Iterable<C> elements = accessor.apply(model);
+            if (elements == null) {
+                return;
+            }
+            for (C element : elements) {
+                renderAll(body, element, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.pumaprintables.platform.service.template;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.pumaprintables.platform.domain.model.Order;
+import com.pumaprintables.platform.domain.model.OrderItem;
+import com.pumaprintables.platform.service.ApproverDigestBuffer;
+import com.pumaprintables.platform.service.NotificationProperties;
+import com.pumaprintables.platform.service.template.CompiledTemplate.DateWriter;
+
+/**
+ * Loads and compiles every notification template once at startup. Each event looks for
+ * {@code <name>.subject.txt}, {@code <name>.txt} and an optional {@code <name>.html}, first in the configured
+ * override location and then on the classpath under {@code notifications/templates/}.
+ */
+@Component
+public class NotificationTemplates {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationTemplates.class);
+
+    static final String CLASSPATH_LOCATION = "classpath:notifications/templates/";
+    static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm xxx", Locale.ENGLISH);
+    static final DateWriter DATE_WRITER = NotificationTemplates::writeDate;
+    static final String APPROVER_DIGEST = "approver-digest";
+
+    private static final String[] MONTHS = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+    private static final int INITIAL_BUFFER_CAPACITY = 2048;
+    private static final int MAX_RETAINED_BUFFER_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    private final ResourceLoader resourceLoader;
+    private final String overrideLocation;
+    private final Map<OrderNotificationType, EventTemplates<Order>> orderTemplates = new EnumMap<>(OrderNotificationType.class);
+    private final EventTemplates<List<ApproverDigestBuffer.Entry>> digestTemplates;
+
+    public NotificationTemplates(ResourceLoader resourceLoader, NotificationProperties properties) {
+        this.resourceLoader = resourceLoader;
+        this.overrideLocation = normalizeLocation(properties.getTemplates().getOverrideLocation());
+
+        TemplateSchema<Order> orderSchema = orderSchema();
+        for (OrderNotificationType type : OrderNotificationType.values()) {
+            orderTemplates.put(type, compileEvent(type.templateName(), orderSchema));
+        }
+        this.digestTemplates = compileEvent(APPROVER_DIGEST, digestSchema());
+        log.info("Compiled {} notification templates", orderTemplates.size() + 1);
+    }
+
+    public RenderedNotification renderOrder(OrderNotificationType type, Order order) {
+        return render(orderTemplates.get(type), order);
+    }
+
+    public RenderedNotification renderApproverDigest(List<ApproverDigestBuffer.Entry> entries) {
+        return render(digestTemplates, entries);
+    }
+
+    private <T> RenderedNotification render(EventTemplates<T> templates, T model) {
+        StringBuilder buffer = BUFFER.get();
+        try {
+            String subject = renderToString(templates.subject(), model, buffer);
+            String text = renderToString(templates.text(), model, buffer);
+            String html = templates.html() != null ? renderToString(templates.html(), model, buffer) : null;
+            return new RenderedNotification(subject, text, html);
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    private static <T> String renderToString(CompiledTemplate<T> template, T model, StringBuilder buffer) {
+        buffer.setLength(0);
+        template.render(model, buffer);
+        return buffer.toString();
+    }
+
+    private <T> EventTemplates<T> compileEvent(String name, TemplateSchema<T> schema) {
+        TemplateCompiler textCompiler = new TemplateCompiler(partial -> load("partials/" + partial + ".txt"));
+        TemplateCompiler htmlCompiler = new TemplateCompiler(partial -> load("partials/" + partial + ".html"));
+
+        CompiledTemplate<T> subject = textCompiler.compile(name + ".subject.txt", require(name + ".subject.txt").strip(), schema, false);
+        CompiledTemplate<T> text = textCompiler.compile(name + ".txt", require(name + ".txt"), schema, false);
+        String htmlSource = load(name + ".html");
+        CompiledTemplate<T> html = htmlSource != null ? htmlCompiler.compile(name + ".html", htmlSource, schema, true) : null;
+        return new EventTemplates<>(subject, text, html);
+    }
+
+    private String require(String path) {
+        String source = load(path);
+        if (source == null) {
+            throw new TemplateException(path, "template resource not found");
+        }
+        return source;
+    }
+
+    private String load(String path) {
+        if (overrideLocation != null) {
+            String override = read(resourceLoader.getResource(overrideLocation + path));
+            if (override != null) {
+                log.debug("Using override notification template {}{}", overrideLocation, path);
+                return override;
+            }
+        }
+        return read(resourceLoader.getResource(CLASSPATH_LOCATION + path));
+    }
+
+    private String read(Resource resource) {
+        if (!resource.exists()) {
+            return null;
+        }
+        try (InputStream inputStream = resource.getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to read notification template " + resource.getDescription(), ex);
+        }
+    }
+
+    private static String normalizeLocation(String location) {
+        if (!StringUtils.hasText(location)) {
+            return null;
+        }
+        String trimmed = location.trim();
+        return trimmed.endsWith("/") ? trimmed : trimmed + "/";
+    }
+
+    /**
+     * Hand-rolled equivalent of {@link #DATE_FORMATTER} for {@link OffsetDateTime}, which avoids the formatter's
+     * per-call parsing context. Anything it cannot represent exactly falls back to the formatter.
+     */
+    static void writeDate(TemporalAccessor temporal, StringBuilder out) {
+        if (!(temporal instanceof OffsetDateTime date) || date.getYear() < 1000 || date.getYear() > 9999
+            || date.getOffset().getTotalSeconds() % 60 != 0) {
+            DATE_FORMATTER.formatTo(temporal, out);
+            return;
+        }
+        appendTwoDigits(out, date.getDayOfMonth());
+        out.append(' ').append(MONTHS[date.getMonthValue() - 1]).append(' ').append(date.getYear()).append(' ');
+        appendTwoDigits(out, date.getHour());
+        out.append(':');
+        appendTwoDigits(out, date.getMinute());
+        int offsetMinutes = date.getOffset().getTotalSeconds() / 60;
+        out.append(offsetMinutes < 0 ? " -" : " +");
+        offsetMinutes = Math.abs(offsetMinutes);
+        appendTwoDigits(out, offsetMinutes / 60);
+        out.append(':');
+        appendTwoDigits(out, offsetMinutes % 60);
+    }
+
+    private static void appendTwoDigits(StringBuilder out, int value) {
+        out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    static TemplateSchema<Order> orderSchema() {
+        TemplateSchema<OrderItem> itemSchema = TemplateSchema.<OrderItem>builder(DATE_WRITER)
+            .value("productName", item -> item.getProduct().getName())
+            .value("quantity", OrderItem::getQuantity)
+            .build();
+
+        return TemplateSchema.<Order>builder(DATE_WRITER)
+            .value("orderId", Order::getId)
+            .value("status", Order::getStatus)
+            .value("approver", order -> order.getApproval() != null && order.getApproval().getApprover() != null
+                ? order.getApproval().getApprover().getUsername()
+                : null)
+            .value("approverComments", order -> order.getApproval() != null ? order.getApproval().getComments() : null)
+            .value("placedBy", order -> order.getUser() != null ? order.getUser().getUsername() : "Unknown")
+            .value("shippingAddress", order -> order.getShippingAddress() != null ? order.getShippingAddress() : "Not provided")
+            .value("deliveryAddress", Order::getDeliveryAddress)
+            .value("courier", Order::getCourierInfo)
+            .value("courierName", order -> order.getCourierInfo() != null ? order.getCourierInfo().getCourierName() : null)
+            .value("trackingNumber", order -> order.getCourierInfo() != null ? order.getCourierInfo().getTrackingNumber() : null)
+            .value("dispatchDate", order -> order.getCourierInfo() != null ? order.getCourierInfo().getDispatchDate() : null)
+            .list("items", Order::getItems, itemSchema)
+            .build();
+    }
+
+    static TemplateSchema<List<ApproverDigestBuffer.Entry>> digestSchema() {
+        TemplateSchema<ApproverDigestBuffer.Entry> entrySchema = TemplateSchema.<ApproverDigestBuffer.Entry>builder(DATE_WRITER)
+            .value("orderId", ApproverDigestBuffer.Entry::orderId)
+            .value("placedBy", ApproverDigestBuffer.Entry::placedBy)
+            .value("shippingAddress", ApproverDigestBuffer.Entry::shippingAddress)
+            .value("itemCount", ApproverDigestBuffer.Entry::itemCount)
+            .value("singleItem", entry -> entry.itemCount() == 1)
+            .value("totalQuantity", ApproverDigestBuffer.Entry::totalQuantity)
+            .value("createdAt", ApproverDigestBuffer.Entry::createdAt)
+            .build();
+
+        return TemplateSchema.<List<ApproverDigestBuffer.Entry>>builder(DATE_WRITER)
+            .value("orderCount", List::size)
+            .value("singleOrder", entries -> entries.size() == 1)
+            .list("orders", entries -> entries, entrySchema)
+            .build();
+    }
+
+    private record EventTemplates<T>(CompiledTemplate<T> subject, CompiledTemplate<T> text, CompiledTemplate<T> html) {
+    }
+}
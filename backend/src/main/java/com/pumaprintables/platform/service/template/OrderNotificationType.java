@@ -0,0 +1,21 @@
+package com.pumaprintables.platform.service.template;
+
+public enum OrderNotificationType {
+    CREATED("order-created"),
+    APPROVED("order-approved"),
+    ACCEPTED("order-accepted"),
+    REJECTED("order-rejected"),
+    DISPATCHED("order-dispatched"),
+    FULFILLED("order-fulfilled"),
+    OVERDUE("order-overdue");
+
+    private final String templateName;
+
+    OrderNotificationType(String templateName) {
+        this.templateName = templateName;
+    }
+
+    public String templateName() {
+        return templateName;
+    }
+}
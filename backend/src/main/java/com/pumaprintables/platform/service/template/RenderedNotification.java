@@ -0,0 +1,12 @@
+package com.pumaprintables.platform.service.template;
+
+/**
+ * Output of a rendered notification. {@code html} is {@code null} when the event has no HTML template,
+ * in which case the email is sent as plain text only.
+ */
+public record RenderedNotification(String subject, String text, String html) {
+
+    public boolean hasHtml() {
+        return html != null;
+    }
+}
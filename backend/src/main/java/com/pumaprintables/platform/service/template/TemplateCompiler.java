@@ -0,0 +1,221 @@
+package com.pumaprintables.platform.service.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.pumaprintables.platform.service.template.CompiledTemplate.Conditional;
+import com.pumaprintables.platform.service.template.CompiledTemplate.Literal;
+import com.pumaprintables.platform.service.template.CompiledTemplate.Loop;
+import com.pumaprintables.platform.service.template.CompiledTemplate.Segment;
+import com.pumaprintables.platform.service.template.CompiledTemplate.Variable;
+
+/**
+ * Parses a small mustache-style syntax into {@link CompiledTemplate}s:
+ * <ul>
+ *     <li>{@code {{name}}} writes a value (HTML-escaped for HTML templates)</li>
+ *     <li>{@code {{#name}}...{{/name}}} renders when a value is present, or once per element of a list</li>
+ *     <li>{@code {{^name}}...{{/name}}} renders when a value or list is absent</li>
+ *     <li>{@code {{> partial}}} inlines a shared partial at compile time</li>
+ *     <li>{@code {{! comment}}} is dropped</li>
+ * </ul>
+ * Section, partial and comment tags that sit alone on a line do not leave a blank line behind.
+ * Unknown names and unbalanced sections fail compilation so broken templates are caught at startup.
+ */
+final class TemplateCompiler {
+
+    private static final int MAX_PARTIAL_DEPTH = 8;
+
+    private final Function<String, String> partialLoader;
+
+    /**
+     * @param partialLoader resolves a partial name to its source, or returns {@code null} when it does not exist
+     */
+    TemplateCompiler(Function<String, String> partialLoader) {
+        this.partialLoader = partialLoader;
+    }
+
+    <T> CompiledTemplate<T> compile(String name, String source, TemplateSchema<T> schema, boolean html) {
+        List<Token> tokens = new ArrayList<>();
+        tokenize(name, source, tokens, 0);
+        Cursor cursor = new Cursor(name, tokens);
+        List<Segment<T>> segments = parse(cursor, schema, html, null);
+        return new CompiledTemplate<>(name, segments);
+    }
+
+    private void tokenize(String templateName, String source, List<Token> tokens, int depth) {
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                tokens.add(new Token(TokenType.TEXT, source.substring(position)));
+                return;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new TemplateException(templateName, "unclosed tag at offset " + open);
+            }
+
+            String inner = source.substring(open + 2, close).trim();
+            TokenType type = TokenType.fromTag(inner);
+            String tagName = type == TokenType.VARIABLE ? inner : inner.substring(1).trim();
+            if (tagName.isEmpty() && type != TokenType.COMMENT) {
+                throw new TemplateException(templateName, "empty tag at offset " + open);
+            }
+
+            int textEnd = open;
+            int next = close + 2;
+            if (type.isStandaloneCandidate()) {
+                int lineStart = source.lastIndexOf('\n', open - 1) + 1;
+                int lineEnd = source.indexOf('\n', next);
+                int effectiveLineEnd = lineEnd < 0 ? source.length() : lineEnd;
+                if (lineStart >= position && isBlank(source, lineStart, open) && isBlank(source, next, effectiveLineEnd)) {
+                    textEnd = lineStart;
+                    next = lineEnd < 0 ? source.length() : lineEnd + 1;
+                }
+            }
+
+            if (textEnd > position) {
+                tokens.add(new Token(TokenType.TEXT, source.substring(position, textEnd)));
+            }
+            if (type == TokenType.PARTIAL) {
+                inlinePartial(templateName, tagName, tokens, depth);
+            } else if (type != TokenType.COMMENT) {
+                tokens.add(new Token(type, tagName));
+            }
+            position = next;
+        }
+    }
+
+    private void inlinePartial(String templateName, String partialName, List<Token> tokens, int depth) {
+        if (depth >= MAX_PARTIAL_DEPTH) {
+            throw new TemplateException(templateName, "partials nested deeper than " + MAX_PARTIAL_DEPTH);
+        }
+        String partial = partialLoader.apply(partialName);
+        if (partial == null) {
+            throw new TemplateException(templateName, "unknown partial '" + partialName + "'");
+        }
+        tokenize(templateName, partial, tokens, depth + 1);
+    }
+
+    private <T> List<Segment<T>> parse(Cursor cursor, TemplateSchema<T> schema, boolean html, String closing) {
+        List<Segment<T>> segments = new ArrayList<>();
+        while (cursor.hasNext()) {
+            Token token = cursor.next();
+            switch (token.type()) {
+                case TEXT -> addLiteral(segments, new Literal<>(token.text()));
+                case VARIABLE -> segments.add(new Variable<>(requireValue(cursor, schema, token.text()), html, schema.dateWriter()));
+                case SECTION, INVERTED -> segments.add(parseSection(cursor, schema, html, token));
+                case CLOSE -> {
+                    if (!token.text().equals(closing)) {
+                        throw new TemplateException(cursor.templateName(), "unexpected {{/" + token.text() + "}}");
+                    }
+                    return segments;
+                }
+                default -> throw new TemplateException(cursor.templateName(), "unsupported token " + token.type());
+            }
+        }
+        if (closing != null) {
+            throw new TemplateException(cursor.templateName(), "section '" + closing + "' is never closed");
+        }
+        return segments;
+    }
+
+    private static <T> void addLiteral(List<Segment<T>> segments, Literal<T> literal) {
+        int last = segments.size() - 1;
+        if (last >= 0 && segments.get(last) instanceof Literal<T> previous) {
+            segments.set(last, previous.append(literal));
+        } else {
+            segments.add(literal);
+        }
+    }
+
+    private <T> Segment<T> parseSection(Cursor cursor, TemplateSchema<T> schema, boolean html, Token token) {
+        String name = token.text();
+        boolean inverted = token.type() == TokenType.INVERTED;
+        TemplateSchema.ListBinding<T, ?> list = schema.list(name);
+        if (list != null) {
+            if (inverted) {
+                return new Conditional<>(list.accessor(), true, parse(cursor, schema, html, name));
+            }
+            return loop(cursor, list, html, name);
+        }
+        return new Conditional<>(requireValue(cursor, schema, name), inverted, parse(cursor, schema, html, name));
+    }
+
+    private <T, C> Segment<T> loop(Cursor cursor, TemplateSchema.ListBinding<T, C> list, boolean html, String name) {
+        return new Loop<>(list.accessor(), parse(cursor, list.schema(), html, name));
+    }
+
+    private <T> Function<T, ?> requireValue(Cursor cursor, TemplateSchema<T> schema, String name) {
+        Function<T, ?> accessor = schema.value(name);
+        if (accessor == null) {
+            throw new TemplateException(cursor.templateName(), "unknown variable '" + name + "'");
+        }
+        return accessor;
+    }
+
+    private static boolean isBlank(String source, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(source.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private enum TokenType {
+        TEXT,
+        VARIABLE,
+        SECTION,
+        INVERTED,
+        CLOSE,
+        PARTIAL,
+        COMMENT;
+
+        static TokenType fromTag(String inner) {
+            if (inner.isEmpty()) {
+                return VARIABLE;
+            }
+            return switch (inner.charAt(0)) {
+                case '#' -> SECTION;
+                case '^' -> INVERTED;
+                case '/' -> CLOSE;
+                case '>' -> PARTIAL;
+                case '!' -> COMMENT;
+                default -> VARIABLE;
+            };
+        }
+
+        boolean isStandaloneCandidate() {
+            return this != TEXT && this != VARIABLE;
+        }
+    }
+
+    private record Token(TokenType type, String text) {
+    }
+
+    private static final class Cursor {
+
+        private final String templateName;
+        private final List<Token> tokens;
+        private int index;
+
+        Cursor(String templateName, List<Token> tokens) {
+            this.templateName = templateName;
+            this.tokens = tokens;
+        }
+
+        boolean hasNext() {
+            return index < tokens.size();
+        }
+
+        Token next() {
+            return tokens.get(index++);
+        }
+
+        String templateName() {
+            return templateName;
+        }
+    }
+}
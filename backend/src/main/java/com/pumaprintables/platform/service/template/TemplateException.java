@@ -0,0 +1,8 @@
+package com.pumaprintables.platform.service.template;
+
+public class TemplateException extends RuntimeException {
+
+    public TemplateException(String templateName, String message) {
+        super("Notification template '%s' is invalid: %s".formatted(templateName, message));
+    }
+}
@@ -0,0 +1,68 @@
+package com.pumaprintables.platform.service.template;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.pumaprintables.platform.service.template.CompiledTemplate.DateWriter;
+
+/**
+ * Declares the variables and list sections a template may reference for a model type. Names are resolved
+ * against the schema once at compile time, so rendering never performs lookups or reflection.
+ */
+final class TemplateSchema<T> {
+
+    private final Map<String, Function<T, ?>> values;
+    private final Map<String, ListBinding<T, ?>> lists;
+    private final DateWriter dateWriter;
+
+    private TemplateSchema(Builder<T> builder) {
+        this.values = Map.copyOf(builder.values);
+        this.lists = Map.copyOf(builder.lists);
+        this.dateWriter = builder.dateWriter;
+    }
+
+    static <T> Builder<T> builder(DateWriter dateWriter) {
+        return new Builder<>(dateWriter);
+    }
+
+    Function<T, ?> value(String name) {
+        return values.get(name);
+    }
+
+    ListBinding<T, ?> list(String name) {
+        return lists.get(name);
+    }
+
+    DateWriter dateWriter() {
+        return dateWriter;
+    }
+
+    record ListBinding<T, C>(Function<T, ? extends Iterable<C>> accessor, TemplateSchema<C> schema) {
+    }
+
+    static final class Builder<T> {
+
+        private final Map<String, Function<T, ?>> values = new HashMap<>();
+        private final Map<String, ListBinding<T, ?>> lists = new HashMap<>();
+        private final DateWriter dateWriter;
+
+        private Builder(DateWriter dateWriter) {
+            this.dateWriter = dateWriter;
+        }
+
+        Builder<T> value(String name, Function<T, ?> accessor) {
+            values.put(name, accessor);
+            return this;
+        }
+
+        <C> Builder<T> list(String name, Function<T, ? extends Iterable<C>> accessor, TemplateSchema<C> schema) {
+            lists.put(name, new ListBinding<>(accessor, schema));
+            return this;
+        }
+
+        TemplateSchema<T> build() {
+            return new TemplateSchema<>(this);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Notification templates compiled once at startup and rendered into reusable buffers.
+ */
+package com.pumaprintables.platform.service.template;
@@ -0,0 +1,103 @@
+package com.pumaprintables.platform.web.controller;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.pumaprintables.platform.service.OrderAnalyticsService;
+import com.pumaprintables.platform.web.dto.DailyApprovalStatsResponse;
+import com.pumaprintables.platform.web.dto.DailyOrderStatsResponse;
+import com.pumaprintables.platform.web.dto.ProductOrderStatsResponse;
+import com.pumaprintables.platform.web.dto.StoreOrderStatsResponse;
+
+@RestController
+@RequestMapping("/api/v1/admin/analytics")
+public class AdminAnalyticsController {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final OrderAnalyticsService orderAnalyticsService;
+
+    public AdminAnalyticsController(OrderAnalyticsService orderAnalyticsService) {
+        this.orderAnalyticsService = orderAnalyticsService;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/orders/daily")
+    public ResponseEntity<List<DailyOrderStatsResponse>> getDailyOrders(
+        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        DateRange range = resolveRange(from, to);
+        List<DailyOrderStatsResponse> response = orderAnalyticsService.getDailyOrders(range.from(), range.to()).stream()
+            .map(stats -> new DailyOrderStatsResponse(stats.day(), stats.total(), stats.byStatus()))
+            .toList();
+        return ResponseEntity.ok(response);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/stores")
+    public ResponseEntity<List<StoreOrderStatsResponse>> getStoreOrders(
+        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        DateRange range = resolveRange(from, to);
+        List<StoreOrderStatsResponse> response = orderAnalyticsService.getStoreOrders(range.from(), range.to()).stream()
+            .map(stats -> new StoreOrderStatsResponse(stats.userId(), stats.username(), stats.fullName(), stats.orders()))
+            .toList();
+        return ResponseEntity.ok(response);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/products")
+    public ResponseEntity<List<ProductOrderStatsResponse>> getProductOrders(
+        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        DateRange range = resolveRange(from, to);
+        List<ProductOrderStatsResponse> response = orderAnalyticsService.getProductOrders(range.from(), range.to()).stream()
+            .map(stats -> new ProductOrderStatsResponse(stats.productId(), stats.sku(), stats.productName(),
+                stats.orders(), stats.quantity()))
+            .toList();
+        return ResponseEntity.ok(response);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/approvals")
+    public ResponseEntity<List<DailyApprovalStatsResponse>> getDailyApprovals(
+        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        DateRange range = resolveRange(from, to);
+        List<DailyApprovalStatsResponse> response = orderAnalyticsService.getDailyApprovals(range.from(), range.to()).stream()
+            .map(stats -> new DailyApprovalStatsResponse(stats.day(), stats.approved(), stats.rejected(),
+                stats.averageTurnaroundSeconds(), stats.maxTurnaroundSeconds()))
+            .toList();
+        return ResponseEntity.ok(response);
+    }
+
+    private DateRange resolveRange(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1L);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "At most %d days can be requested".formatted(MAX_RANGE_DAYS));
+        }
+        return new DateRange(start, end);
+    }
+
+    private record DateRange(LocalDate from, LocalDate to) {
+    }
+}
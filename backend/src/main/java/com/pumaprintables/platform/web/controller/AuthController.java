@@ -4,6 +4,7 @@ import com.pumaprintables.platform.service.AuthService;
 import com.pumaprintables.platform.domain.model.enums.UserRole;
 import com.pumaprintables.platform.service.exception.GoogleOAuthDisabledException;
 import com.pumaprintables.platform.service.exception.GoogleOAuthTokenInvalidException;
+import com.pumaprintables.platform.service.exception.GoogleOAuthUnavailableException;
 import com.pumaprintables.platform.web.dto.AuthResponse;
 import com.pumaprintables.platform.web.dto.CurrentUserResponse;
 import com.pumaprintables.platform.web.dto.GoogleLoginRequest;
@@ -11,6 +12,7 @@ import com.pumaprintables.platform.web.dto.LoginRequest;
 import com.pumaprintables.platform.web.dto.RegisterUserRequest;
 import com.pumaprintables.platform.web.dto.UserResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
@@ -18,6 +20,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
@@ -43,7 +46,7 @@ public class AuthController {
         try {
             String token = authService.authenticateWithGoogle(request.credential());
             return ResponseEntity.ok(new AuthResponse(token));
-        } catch (GoogleOAuthDisabledException ex) {
+        } catch (GoogleOAuthDisabledException | GoogleOAuthUnavailableException ex) {
             throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), ex);
         } catch (GoogleOAuthTokenInvalidException ex) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, ex.getMessage(), ex);
@@ -87,6 +90,15 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        if (!authorization.startsWith("Bearer ")) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Not authenticated");
+        }
+        authService.logout(authorization.substring(7));
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/session")
     public ResponseEntity<CurrentUserResponse> getSession(Authentication authentication) {
         boolean isAuthenticated = authentication != null
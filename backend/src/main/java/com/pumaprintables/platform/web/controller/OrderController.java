@@ -1,17 +1,35 @@
 package com.pumaprintables.platform.web.controller;
 
 import com.pumaprintables.platform.domain.model.Order;
+import com.pumaprintables.platform.domain.model.enums.OrderEvent;
 import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+import com.pumaprintables.platform.domain.repository.OrderRepository;
+import com.pumaprintables.platform.service.FulfillmentQueueService;
+import com.pumaprintables.platform.service.IdempotencyService;
+import com.pumaprintables.platform.service.OrderExportService;
 import com.pumaprintables.platform.service.OrderService;
+import com.pumaprintables.platform.service.OrderStateMachine.TransitionDetails;
+import com.pumaprintables.platform.service.OrderTransitionService;
+import com.pumaprintables.platform.service.PickListService;
+import com.pumaprintables.platform.service.exception.InvalidOrderExportRequestException;
+import com.pumaprintables.platform.service.exception.InvalidPickListRequestException;
 import com.pumaprintables.platform.web.dto.AcceptOrderRequest;
 import com.pumaprintables.platform.web.dto.ApprovalActionRequest;
 import com.pumaprintables.platform.web.dto.CourierInfoRequest;
 import com.pumaprintables.platform.web.dto.CourierInfoResponse;
 import com.pumaprintables.platform.web.dto.CreateOrderRequest;
+import com.pumaprintables.platform.web.dto.FulfillmentQueueStatsResponse;
 import com.pumaprintables.platform.web.dto.OrderItemRequest;
 import com.pumaprintables.platform.web.dto.OrderItemResponse;
 import com.pumaprintables.platform.web.dto.OrderResponse;
+import com.pumaprintables.platform.web.dto.OrderSearchResponse;
+import com.pumaprintables.platform.web.dto.OrderTransitionRequest;
+import com.pumaprintables.platform.web.dto.PickListLineResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,20 +39,49 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.EnumSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/orders")
 public class OrderController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_SEARCH_PAGE_SIZE = 50;
+    static final int EXPORT_DEFAULT_DAYS = 30;
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    /** Responses are per user; clients may keep them but must revalidate, which the order ETags make cheap. */
+    private static final CacheControl ORDER_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final OrderService orderService;
+    private final OrderTransitionService orderTransitionService;
+    private final IdempotencyService idempotencyService;
+    private final FulfillmentQueueService fulfillmentQueueService;
+    private final PickListService pickListService;
+    private final OrderExportService orderExportService;
 
     private static final Set<OrderStatus> FULFILLMENT_VISIBLE_STATUSES = EnumSet.of(
         OrderStatus.APPROVED,
@@ -43,71 +90,113 @@ public class OrderController {
         OrderStatus.FULFILLED
     );
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderTransitionService orderTransitionService,
+                           IdempotencyService idempotencyService, FulfillmentQueueService fulfillmentQueueService,
+                           PickListService pickListService, OrderExportService orderExportService) {
         this.orderService = orderService;
+        this.orderTransitionService = orderTransitionService;
+        this.idempotencyService = idempotencyService;
+        this.fulfillmentQueueService = fulfillmentQueueService;
+        this.pickListService = pickListService;
+        this.orderExportService = orderExportService;
     }
 
     @GetMapping
     public ResponseEntity<List<OrderResponse>> getOrders(Authentication authentication,
-                                                         @RequestParam(value = "status", required = false) OrderStatus status) {
+                                                         @RequestParam(value = "status", required = false) OrderStatus status,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         boolean isAdminOrApprover = hasAnyRole(authentication, Set.of("ROLE_ADMIN", "ROLE_APPROVER"));
         boolean isFulfillment = hasAnyRole(authentication, Set.of("ROLE_FULFILLMENT_AGENT"));
 
-        List<Order> orders;
-        if (status != null) {
-            if (isAdminOrApprover) {
-                orders = orderService.getOrdersByStatus(status);
-            } else if (isFulfillment) {
-                if (!FULFILLMENT_VISIBLE_STATUSES.contains(status)) {
-                    orders = List.of();
-                } else {
-                    orders = orderService.getOrdersByStatus(status);
-                }
+        Set<OrderStatus> statuses = status != null ? EnumSet.of(status) : null;
+        String ownerUsername = null;
+        if (!isAdminOrApprover) {
+            if (isFulfillment) {
+                statuses = statuses != null ? statuses : EnumSet.copyOf(FULFILLMENT_VISIBLE_STATUSES);
+                statuses.retainAll(FULFILLMENT_VISIBLE_STATUSES);
             } else {
-                orders = orderService.getOrdersForUser(authentication.getName());
+                statuses = null;
+                ownerUsername = authentication.getName();
             }
-        } else {
-            if (isAdminOrApprover) {
-                orders = orderService.getAllOrders();
-            } else if (isFulfillment) {
-                orders = orderService.getAllOrders().stream()
-                    .filter(order -> FULFILLMENT_VISIBLE_STATUSES.contains(order.getStatus()))
-                    .toList();
+        }
+
+        return orderList(statuses, ownerUsername, ifNoneMatch);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<OrderSearchResponse> searchOrders(Authentication authentication,
+                                                            @RequestParam("q") String query,
+                                                            @RequestParam(value = "status", required = false) OrderStatus status,
+                                                            @RequestParam(value = "page", defaultValue = "0") int page,
+                                                            @RequestParam(value = "size", defaultValue = "20") int size) {
+        boolean isAdminOrApprover = hasAnyRole(authentication, Set.of("ROLE_ADMIN", "ROLE_APPROVER"));
+        boolean isFulfillment = hasAnyRole(authentication, Set.of("ROLE_FULFILLMENT_AGENT"));
+        int safePage = Math.max(page, 0);
+        int safeSize = Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
+
+        Set<OrderStatus> statuses = status != null ? EnumSet.of(status) : null;
+        String ownerUsername = null;
+        if (!isAdminOrApprover) {
+            if (isFulfillment) {
+                statuses = statuses != null ? statuses : EnumSet.copyOf(FULFILLMENT_VISIBLE_STATUSES);
+                statuses.retainAll(FULFILLMENT_VISIBLE_STATUSES);
             } else {
-                orders = orderService.getOrdersForUser(authentication.getName());
+                ownerUsername = authentication.getName();
             }
         }
 
-        return ResponseEntity.ok(orders.stream().map(this::toResponse).toList());
+        OrderService.SearchPage result = orderService.searchOrders(query, statuses, ownerUsername, safePage, safeSize);
+        return ResponseEntity.ok(new OrderSearchResponse(
+            result.orders().stream().map(this::toResponse).toList(),
+            safePage,
+            safeSize,
+            result.hasNext()
+        ));
     }
 
     @GetMapping("/{orderId}")
-    public ResponseEntity<OrderResponse> getOrder(@PathVariable UUID orderId) {
+    public ResponseEntity<OrderResponse> getOrder(@PathVariable UUID orderId,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String current = orderService.getOrderVersion(orderId).map(OrderController::orderETag).orElse(null);
+            if (current != null && eTagMatches(ifNoneMatch, current)) {
+                return notModified(current);
+            }
+        }
+
         Order order = orderService.getOrder(orderId);
-        return ResponseEntity.ok(toResponse(order));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .cacheControl(ORDER_CACHE_CONTROL)
+            .varyBy(HttpHeaders.AUTHORIZATION);
+        if (order.getVersion() != null) {
+            response.eTag(orderETag(order.getVersion()));
+        }
+        return response.body(toResponse(order));
     }
 
     @PreAuthorize("hasAnyRole('APPROVER','ADMIN')")
     @GetMapping("/pending")
-    public ResponseEntity<List<OrderResponse>> getPendingOrders() {
-        List<Order> orders = orderService.getOrdersByStatus(OrderStatus.PENDING_APPROVAL);
-        return ResponseEntity.ok(orders.stream().map(this::toResponse).toList());
+    public ResponseEntity<List<OrderResponse>> getPendingOrders(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return orderList(EnumSet.of(OrderStatus.PENDING_APPROVAL), null, ifNoneMatch);
     }
 
     @PreAuthorize("hasAnyRole('STORE_USER','ADMIN')")
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(Authentication authentication,
+                                                      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                                                       @Valid @RequestBody CreateOrderRequest request) {
-        List<OrderService.ItemPayload> items = request.items().stream()
-            .map(this::toItemPayload)
-            .toList();
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(placeOrder(authentication.getName(), request));
+        }
 
-        Order order = orderService.createOrder(authentication.getName(),
-            request.shippingAddress(),
-            request.customerGst(),
-            items);
+        IdempotencyService.Outcome<OrderResponse> outcome = idempotencyService.execute(authentication.getName(),
+            idempotencyKey, request, OrderResponse.class, () -> placeOrder(authentication.getName(), request));
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(order));
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (outcome.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(outcome.value());
     }
 
     @PreAuthorize("hasAnyRole('APPROVER','ADMIN')")
@@ -115,16 +204,121 @@ public class OrderController {
     public ResponseEntity<OrderResponse> approveOrder(Authentication authentication,
                                                        @PathVariable UUID orderId,
                                                        @Valid @RequestBody ApprovalActionRequest request) {
-        Order order = orderService.approveOrder(orderId, authentication.getName(), request.comments());
+        Order order = orderTransitionService.apply(orderId, OrderEvent.APPROVE, authentication.getName(),
+            new TransitionDetails(request.comments(), null, null, null, null));
         return ResponseEntity.ok(toResponse(order));
     }
 
+    @PreAuthorize("hasAnyRole('FULFILLMENT_AGENT','ADMIN')")
+    @PostMapping("/queue/claim")
+    public ResponseEntity<List<OrderResponse>> claimOrders(Authentication authentication,
+                                                           @RequestParam(value = "limit", defaultValue = "5") int limit) {
+        List<Order> orders = fulfillmentQueueService.claimNext(authentication.getName(), limit);
+        return ResponseEntity.ok(orders.stream().map(this::toResponse).toList());
+    }
+
+    @PreAuthorize("hasAnyRole('FULFILLMENT_AGENT','ADMIN')")
+    @PostMapping("/{orderId}/release")
+    public ResponseEntity<Void> releaseOrder(Authentication authentication, @PathVariable UUID orderId) {
+        fulfillmentQueueService.release(orderId, authentication.getName(),
+            hasAnyRole(authentication, Set.of("ROLE_ADMIN")));
+        return ResponseEntity.noContent().build();
+    }
+
+    @PreAuthorize("hasAnyRole('FULFILLMENT_AGENT','APPROVER','ADMIN')")
+    @GetMapping("/queue/stats")
+    public ResponseEntity<FulfillmentQueueStatsResponse> getQueueStats() {
+        FulfillmentQueueService.QueueStats stats = fulfillmentQueueService.getStats();
+        return ResponseEntity.ok(new FulfillmentQueueStatsResponse(
+            stats.depth(),
+            stats.claimed(),
+            stats.oldestApprovedAt(),
+            stats.oldestAge(OffsetDateTime.now()).toSeconds()
+        ));
+    }
+
+    @PreAuthorize("hasAnyRole('FULFILLMENT_AGENT','ADMIN')")
+    @GetMapping("/pick-list")
+    public ResponseEntity<List<PickListLineResponse>> getPickList(
+        @RequestParam(value = "orderId", required = false) List<UUID> orderIds) {
+        List<PickListLineResponse> lines = pickListService.getPickList(orderIds).stream()
+            .map(line -> new PickListLineResponse(
+                line.productId(),
+                line.sku(),
+                line.productName(),
+                line.imageUrl(),
+                line.totalQuantity(),
+                line.orderCount()
+            ))
+            .toList();
+        return ResponseEntity.ok(lines);
+    }
+
+    /**
+     * Written straight to the response so tens of thousands of manifest lines never sit in memory at once.
+     */
+    @PreAuthorize("hasAnyRole('FULFILLMENT_AGENT','ADMIN')")
+    @GetMapping("/pick-list/manifest")
+    public void downloadManifest(@RequestParam(value = "orderId", required = false) List<UUID> orderIds,
+                                 @RequestParam(value = "format", defaultValue = "csv") String format,
+                                 HttpServletResponse response) throws IOException {
+        PickListService.ManifestFormat manifestFormat = parseManifestFormat(format);
+        String extension = manifestFormat.name().toLowerCase(Locale.ROOT);
+        response.setContentType(manifestFormat == PickListService.ManifestFormat.CSV
+            ? "text/csv;charset=UTF-8"
+            : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pick-list-%s.%s\""
+            .formatted(FILE_DATE_FORMAT.format(LocalDate.now()), extension));
+        pickListService.writeManifest(orderIds, manifestFormat, response.getOutputStream());
+    }
+
+    /**
+     * Streams orders and their items from a database cursor; CSV is gzip-encoded when the client accepts it.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public void exportOrders(@RequestParam(value = "from", required = false)
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam(value = "to", required = false)
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             @RequestParam(value = "format", defaultValue = "csv") String format,
+                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                             HttpServletResponse response) throws IOException {
+        OrderExportService.ExportFormat exportFormat = parseExportFormat(format);
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(EXPORT_DEFAULT_DAYS - 1L);
+        // Rejected before the response is committed; once the gzip stream opens, an error can only truncate it.
+        if (start.isAfter(end)) {
+            throw new InvalidOrderExportRequestException("from must not be after to");
+        }
+        String extension = exportFormat.name().toLowerCase(Locale.ROOT);
+        response.setContentType(exportFormat == OrderExportService.ExportFormat.CSV
+            ? "text/csv;charset=UTF-8"
+            : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders-%s-%s.%s\""
+            .formatted(FILE_DATE_FORMAT.format(start), FILE_DATE_FORMAT.format(end), extension));
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        // XLSX is already a zip archive, so only CSV is worth compressing.
+        boolean gzip = exportFormat == OrderExportService.ExportFormat.CSV
+            && acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        if (!gzip) {
+            orderExportService.writeExport(start, end, exportFormat, response.getOutputStream());
+            return;
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        try (OutputStream out = new GZIPOutputStream(response.getOutputStream(), 8192, true)) {
+            orderExportService.writeExport(start, end, exportFormat, out);
+        }
+    }
+
     @PreAuthorize("hasAnyRole('FULFILLMENT_AGENT','ADMIN')")
     @PostMapping("/{orderId}/accept")
     public ResponseEntity<OrderResponse> acceptOrder(Authentication authentication,
                                                       @PathVariable UUID orderId,
                                                       @Valid @RequestBody AcceptOrderRequest request) {
-        Order order = orderService.acceptOrder(orderId, authentication.getName(), request.deliveryAddress());
+        Order order = orderTransitionService.apply(orderId, OrderEvent.ACCEPT, authentication.getName(),
+            new TransitionDetails(null, request.deliveryAddress(), null, null, null));
         return ResponseEntity.ok(toResponse(order));
     }
 
@@ -133,22 +327,119 @@ public class OrderController {
     public ResponseEntity<OrderResponse> rejectOrder(Authentication authentication,
                                                       @PathVariable UUID orderId,
                                                       @Valid @RequestBody ApprovalActionRequest request) {
-        Order order = orderService.rejectOrder(orderId, authentication.getName(), request.comments());
+        Order order = orderTransitionService.apply(orderId, OrderEvent.REJECT, authentication.getName(),
+            new TransitionDetails(request.comments(), null, null, null, null));
         return ResponseEntity.ok(toResponse(order));
     }
 
     @PreAuthorize("hasAnyRole('FULFILLMENT_AGENT','ADMIN')")
     @PostMapping("/{orderId}/courier")
-    public ResponseEntity<OrderResponse> addCourierInfo(@PathVariable UUID orderId,
+    public ResponseEntity<OrderResponse> addCourierInfo(Authentication authentication,
+                                                        @PathVariable UUID orderId,
                                                         @Valid @RequestBody CourierInfoRequest request) {
-        Order order = orderService.addCourierInfo(orderId,
-            request.courierName(),
-            request.trackingNumber(),
-            request.dispatchDate());
+        Order order = orderTransitionService.apply(orderId, OrderEvent.DISPATCH, authentication.getName(),
+            new TransitionDetails(null, null, request.courierName(), request.trackingNumber(), request.dispatchDate()));
 
         return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(order));
     }
 
+    /**
+     * Fires any lifecycle event, including {@code FULFILL} which has no dedicated endpoint. Which roles may fire an
+     * event and which request fields it needs come from {@link OrderTransitionService#stateMachine()}.
+     */
+    @PreAuthorize("hasAnyRole('APPROVER','FULFILLMENT_AGENT','ADMIN')")
+    @PostMapping("/{orderId}/transitions")
+    public ResponseEntity<OrderResponse> transitionOrder(Authentication authentication,
+                                                         @PathVariable UUID orderId,
+                                                         @Valid @RequestBody OrderTransitionRequest request) {
+        Order order = orderTransitionService.apply(orderId, request.event(), authentication.getName(),
+            new TransitionDetails(request.comments(), request.deliveryAddress(), request.courierName(),
+                request.trackingNumber(), request.dispatchDate()));
+        return ResponseEntity.ok(toResponse(order));
+    }
+
+    /**
+     * Answers a conditional request with 304 when the ids and versions of the matching orders, read without loading
+     * the orders, still hash to the client's ETag. Otherwise the ETag of the full response is derived from the orders
+     * it contains, so a change racing the version read costs the client one extra 200, never a stale 304.
+     */
+    private ResponseEntity<List<OrderResponse>> orderList(Set<OrderStatus> statuses, String ownerUsername,
+                                                          String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String current = listETag(orderService.getOrderVersions(statuses, ownerUsername).stream()
+                .collect(Collectors.toMap(OrderRepository.OrderVersion::getId, OrderRepository.OrderVersion::getVersion)));
+            if (eTagMatches(ifNoneMatch, current)) {
+                return notModified(current);
+            }
+        }
+
+        List<Order> orders = orderService.getOrders(statuses, ownerUsername);
+        return ResponseEntity.ok()
+            .cacheControl(ORDER_CACHE_CONTROL)
+            .varyBy(HttpHeaders.AUTHORIZATION)
+            .eTag(listETag(orders.stream().collect(Collectors.toMap(Order::getId, Order::getVersion))))
+            .body(orders.stream().map(this::toResponse).toList());
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .cacheControl(ORDER_CACHE_CONTROL)
+            .varyBy(HttpHeaders.AUTHORIZATION)
+            .eTag(eTag)
+            .build();
+    }
+
+    /*
+     * Versions move with every write to the order, and with renames of its store or product once the order is
+     * refreshed: in the renaming request when at most puma.orders.refresh.inline-limit orders are affected, otherwise
+     * by OrderRefreshService within about one puma.orders.refresh.interval, so until then If-None-Match can still
+     * answer 304 with the old names. Product imports and the startup image catalog always take the scheduled path.
+     */
+    private static String orderETag(long version) {
+        return "\"v" + version + "\"";
+    }
+
+    private static String listETag(Map<UUID, Long> versions) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+        new TreeMap<>(versions).forEach((id, version) ->
+            digest.update((id + ":" + version + ";").getBytes(StandardCharsets.US_ASCII)));
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match}, so ETags weakened by a compressing proxy still match.
+     */
+    private static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private OrderResponse placeOrder(String username, CreateOrderRequest request) {
+        List<OrderService.ItemPayload> items = request.items().stream()
+            .map(this::toItemPayload)
+            .toList();
+
+        Order order = orderService.createOrder(username,
+            request.shippingAddress(),
+            request.customerGst(),
+            items);
+
+        return toResponse(order);
+    }
+
     private OrderResponse toResponse(Order order) {
         List<OrderItemResponse> items = order.getItems().stream()
             .map(item -> new OrderItemResponse(
@@ -182,6 +473,22 @@ public class OrderController {
         );
     }
 
+    private PickListService.ManifestFormat parseManifestFormat(String format) {
+        try {
+            return PickListService.ManifestFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidPickListRequestException("Unsupported manifest format: " + format);
+        }
+    }
+
+    private OrderExportService.ExportFormat parseExportFormat(String format) {
+        try {
+            return OrderExportService.ExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidOrderExportRequestException("Unsupported export format: " + format);
+        }
+    }
+
     private OrderService.ItemPayload toItemPayload(OrderItemRequest item) {
         return new OrderService.ItemPayload(item.productId(), item.quantity());
     }
@@ -1,11 +1,17 @@
 package com.pumaprintables.platform.web.controller;
 
 import com.pumaprintables.platform.domain.model.Product;
+import com.pumaprintables.platform.domain.repository.ProductFilter;
+import com.pumaprintables.platform.service.ProductImportService;
 import com.pumaprintables.platform.service.ProductService;
+import com.pumaprintables.platform.web.dto.ProductImportErrorResponse;
+import com.pumaprintables.platform.web.dto.ProductImportResponse;
+import com.pumaprintables.platform.web.dto.ProductPageResponse;
 import com.pumaprintables.platform.web.dto.ProductRequest;
 import com.pumaprintables.platform.web.dto.ProductResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,8 +21,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,10 +35,13 @@ import java.util.UUID;
 @RequestMapping("/api/v1/products")
 public class ProductController {
 
+    private static final int MAX_PAGE_SIZE = 100;
     private final ProductService productService;
+    private final ProductImportService productImportService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductImportService productImportService) {
         this.productService = productService;
+        this.productImportService = productImportService;
     }
 
     @GetMapping
@@ -38,6 +52,28 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/filter")
+    public ResponseEntity<ProductPageResponse> filterProducts(
+        @RequestParam(value = "contains", required = false) String contains,
+        @RequestParam(value = "hasKey", required = false) List<String> keys,
+        @RequestParam(value = "range", required = false) List<String> ranges,
+        @RequestParam(value = "active", required = false) Boolean active,
+        @RequestParam(value = "namePrefix", required = false) String namePrefix,
+        @RequestParam(value = "page", defaultValue = "0") int page,
+        @RequestParam(value = "size", defaultValue = "20") int size) {
+        int safePage = Math.max(page, 0);
+        int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        ProductFilter filter = productService.parseFilter(contains, keys, ranges, active, namePrefix);
+        ProductService.ProductPage result = productService.filterProducts(filter, safePage, safeSize);
+        return ResponseEntity.ok(new ProductPageResponse(
+            result.products().stream().map(this::toResponse).toList(),
+            safePage,
+            safeSize,
+            result.total()
+        ));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponse> getProduct(@PathVariable UUID id) {
         Product product = productService.getProduct(id);
@@ -59,6 +95,31 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(product));
     }
 
+    /**
+     * Creates or updates products by SKU from a CSV or XLSX file; rows that fail validation are reported, not imported.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ProductImportResponse> importProducts(@RequestPart("file") MultipartFile file,
+                                                                @RequestParam(value = "format", required = false) String format)
+        throws IOException {
+        ProductImportService.ImportFormat importFormat = ProductImportService.parseFormat(format, file.getOriginalFilename());
+        ProductImportService.ImportReport report;
+        try (InputStream inputStream = file.getInputStream()) {
+            report = productImportService.importProducts(inputStream, importFormat);
+        }
+        return ResponseEntity.ok(new ProductImportResponse(
+            report.rows(),
+            report.inserted(),
+            report.updated(),
+            report.unchanged(),
+            report.rejected(),
+            report.errors().stream()
+                .map(error -> new ProductImportErrorResponse(error.row(), error.sku(), error.message()))
+                .toList()
+        ));
+    }
+
     @PreAuthorize("hasAnyRole('STORE_USER','ADMIN')")
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponse> updateProduct(@PathVariable UUID id,
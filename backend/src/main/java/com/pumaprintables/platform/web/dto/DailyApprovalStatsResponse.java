@@ -0,0 +1,12 @@
+package com.pumaprintables.platform.web.dto;
+
+import java.time.LocalDate;
+
+public record DailyApprovalStatsResponse(
+    LocalDate day,
+    long approved,
+    long rejected,
+    double averageTurnaroundSeconds,
+    double maxTurnaroundSeconds
+) {
+}
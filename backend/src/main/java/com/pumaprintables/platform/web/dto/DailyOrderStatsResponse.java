@@ -0,0 +1,13 @@
+package com.pumaprintables.platform.web.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+
+public record DailyOrderStatsResponse(
+    LocalDate day,
+    long total,
+    Map<OrderStatus, Long> byStatus
+) {
+}
@@ -0,0 +1,11 @@
+package com.pumaprintables.platform.web.dto;
+
+import java.time.OffsetDateTime;
+
+public record FulfillmentQueueStatsResponse(
+    long depth,
+    long claimed,
+    OffsetDateTime oldestApprovedAt,
+    long oldestAgeSeconds
+) {
+}
@@ -0,0 +1,11 @@
+package com.pumaprintables.platform.web.dto;
+
+import java.util.List;
+
+public record OrderSearchResponse(
+    List<OrderResponse> items,
+    int page,
+    int size,
+    boolean hasNext
+) {
+}
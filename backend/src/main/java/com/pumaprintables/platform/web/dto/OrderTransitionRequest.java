@@ -0,0 +1,18 @@
+package com.pumaprintables.platform.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.pumaprintables.platform.domain.model.enums.OrderEvent;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.OffsetDateTime;
+
+public record OrderTransitionRequest(
+    @NotNull(message = "Event is required") OrderEvent event,
+    String comments,
+    String deliveryAddress,
+    String courierName,
+    String trackingNumber,
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    OffsetDateTime dispatchDate
+) {
+}
@@ -0,0 +1,13 @@
+package com.pumaprintables.platform.web.dto;
+
+import java.util.UUID;
+
+public record PickListLineResponse(
+    UUID productId,
+    String sku,
+    String productName,
+    String imageUrl,
+    long totalQuantity,
+    long orderCount
+) {
+}
@@ -0,0 +1,8 @@
+package com.pumaprintables.platform.web.dto;
+
+public record ProductImportErrorResponse(
+    int row,
+    String sku,
+    String message
+) {
+}
@@ -0,0 +1,13 @@
+package com.pumaprintables.platform.web.dto;
+
+import java.util.List;
+
+public record ProductImportResponse(
+    int rows,
+    int inserted,
+    int updated,
+    int unchanged,
+    int rejected,
+    List<ProductImportErrorResponse> errors
+) {
+}
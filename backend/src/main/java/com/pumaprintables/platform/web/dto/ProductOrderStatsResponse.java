@@ -0,0 +1,12 @@
+package com.pumaprintables.platform.web.dto;
+
+import java.util.UUID;
+
+public record ProductOrderStatsResponse(
+    UUID productId,
+    String sku,
+    String productName,
+    long orders,
+    long quantity
+) {
+}
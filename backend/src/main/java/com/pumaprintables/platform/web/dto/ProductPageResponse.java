@@ -0,0 +1,11 @@
+package com.pumaprintables.platform.web.dto;
+
+import java.util.List;
+
+public record ProductPageResponse(
+    List<ProductResponse> items,
+    int page,
+    int size,
+    long totalElements
+) {
+}
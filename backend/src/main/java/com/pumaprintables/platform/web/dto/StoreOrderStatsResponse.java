@@ -0,0 +1,11 @@
+package com.pumaprintables.platform.web.dto;
+
+import java.util.UUID;
+
+public record StoreOrderStatsResponse(
+    UUID userId,
+    String username,
+    String fullName,
+    long orders
+) {
+}
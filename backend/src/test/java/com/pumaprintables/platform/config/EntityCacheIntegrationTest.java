@@ -0,0 +1,101 @@
+package com.pumaprintables.platform.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pumaprintables.platform.domain.model.Product;
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+import com.pumaprintables.platform.domain.repository.OrderRepository;
+import com.pumaprintables.platform.domain.repository.ProductRepository;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+import com.pumaprintables.platform.service.ProductService;
+import com.pumaprintables.platform.service.UserAdminService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Testcontainers(disabledWithoutDocker = true)
+class EntityCacheIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserAdminService userAdminService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void productReadsAreServedFromCacheAndUpdatesAreVisible() {
+        Product created = productService.createProduct("SKU-CACHE-1", "Register", "Bound register", null,
+            objectMapper.createObjectNode(), 10, true);
+
+        productService.getProduct(created.getId());
+        productRepository.findBySku("SKU-CACHE-1");
+        assertThat(statistics.getDomainDataRegionStatistics(Product.CACHE_REGION).getHitCount()).isPositive();
+        assertThat(statistics.getNaturalIdStatistics(Product.class.getName()).getCacheHitCount()).isPositive();
+
+        productService.updateProduct(created.getId(), "SKU-CACHE-2", "Register v2", "Bound register", null,
+            objectMapper.createObjectNode(), 10, true);
+
+        assertThat(productService.getProduct(created.getId()).getName()).isEqualTo("Register v2");
+        assertThat(productRepository.findBySku("SKU-CACHE-1")).isEmpty();
+        assertThat(productRepository.findBySku("SKU-CACHE-2")).map(Product::getId).contains(created.getId());
+    }
+
+    @Test
+    void usernameLookupsAreCachedAndRoleChangesAreVisible() {
+        User user = userRepository.save(User.builder()
+            .username("cached.user")
+            .password("hashed")
+            .email("cached.user@example.com")
+            .role(UserRole.STORE_USER)
+            .build());
+
+        userRepository.findByUsername("cached.user");
+        userRepository.findByUsername("cached.user");
+        assertThat(statistics.getNaturalIdStatistics(User.class.getName()).getCacheHitCount()).isPositive();
+
+        userAdminService.updateUserRole(user.getId(), UserRole.APPROVER);
+
+        assertThat(userRepository.findByUsername("cached.user")).map(User::getRole).contains(UserRole.APPROVER);
+    }
+}
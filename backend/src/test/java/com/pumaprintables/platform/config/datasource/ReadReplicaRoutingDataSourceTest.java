@@ -0,0 +1,125 @@
+package com.pumaprintables.platform.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReplicaDataSourceProperties properties = new ReplicaDataSourceProperties();
+    private final ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, replica, properties);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endTransaction();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() throws SQLException {
+        beginTransaction(true);
+
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void readWriteTransactionsAndNonTransactionalAccessUsePrimary() throws SQLException {
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+
+        beginTransaction(false);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimaryAndBacksOff() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        beginTransaction(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    void usersReadTheirOwnWritesFromPrimary() throws SQLException {
+        authenticate("store-user");
+        beginTransaction(false);
+        routing.getConnection();
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        endTransaction();
+
+        beginTransaction(true);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+
+        authenticate("another-user");
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void writeStickinessExpiresAfterWindow() throws SQLException {
+        properties.setReadYourWritesWindow(Duration.ZERO);
+        authenticate("store-user");
+        beginTransaction(false);
+        routing.getConnection();
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        endTransaction();
+
+        beginTransaction(true);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void laggingReplicaIsBypassed() throws SQLException {
+        routing.recordReplicaLag(Duration.ofSeconds(30).toNanos());
+        beginTransaction(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+
+        routing.recordReplicaLag(0);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList("ROLE_STORE_USER")));
+    }
+}
@@ -0,0 +1,66 @@
+package com.pumaprintables.platform.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs against two independent Postgres instances standing in for a primary and its replica. They are told apart
+ * by database name, which is enough to verify where each transaction was routed.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class ReadReplicaRoutingIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:16-alpine")
+        .withDatabaseName("puma_primary");
+
+    @Container
+    static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:16-alpine")
+        .withDatabaseName("puma_replica");
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("puma.datasource.replica.enabled", () -> "true");
+        registry.add("puma.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("puma.datasource.replica.username", replica::getUsername);
+        registry.add("puma.datasource.replica.password", replica::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readOnlyTransactionsRunOnReplicaAndWritesOnPrimary() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        String readOnlyDatabase = readOnly.execute(status -> currentDatabase());
+        String readWriteDatabase = readWrite.execute(status -> currentDatabase());
+
+        assertThat(readOnlyDatabase).isEqualTo("puma_replica");
+        assertThat(readWriteDatabase).isEqualTo("puma_primary");
+        assertThat(currentDatabase()).isEqualTo("puma_primary");
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT current_database()", String.class);
+    }
+}
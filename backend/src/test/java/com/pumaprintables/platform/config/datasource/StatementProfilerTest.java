@@ -0,0 +1,140 @@
+package com.pumaprintables.platform.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+class StatementProfilerTest {
+
+    private final StatementProfilerProperties properties = new StatementProfilerProperties();
+    private final StatementProfiler profiler = new StatementProfiler(properties);
+
+    @Test
+    void normalisesLiteralsParameterListsAndWhitespace() {
+        assertThat(profiler.normalise("select *\n  from orders where id in (?, ?, ?) and note = 'it''s' and qty > 10"))
+            .isEqualTo("select * from orders where id in (?...) and note = ? and qty > ?");
+        assertThat(profiler.normalise("select p1_0.id from products p1_0 where p1_0.sku=?"))
+            .isEqualTo("select p1_0.id from products p1_0 where p1_0.sku=?");
+    }
+
+    @Test
+    void attributesStatementsToTheRequestEndpoint() {
+        profiler.startRequest();
+        profiler.record("select * from orders where id = 1", 2_000_000);
+        profiler.record("select * from orders where id = 2", 3_000_000);
+        profiler.endRequest("GET /api/v1/orders/{orderId}");
+        profiler.startRequest();
+        profiler.endRequest("GET /api/v1/orders/{orderId}");
+        profiler.record("delete from analytics_changes", 1_000_000);
+
+        StatementProfiler.Snapshot snapshot = profiler.snapshot();
+
+        assertThat(snapshot.endpoints()).singleElement().satisfies(endpoint -> {
+            assertThat(endpoint.endpoint()).isEqualTo("GET /api/v1/orders/{orderId}");
+            assertThat(endpoint.requests()).isEqualTo(2);
+            assertThat(endpoint.statements()).isEqualTo(2);
+            assertThat(endpoint.maxStatements()).isEqualTo(2);
+            assertThat(endpoint.jdbcMillis()).isEqualTo(5.0);
+            assertThat(endpoint.statementsPerRequest()).isEqualTo(Map.of("0", 1L, "2-3", 1L));
+        });
+        assertThat(snapshot.topQueries()).extracting(StatementProfiler.QueryProfile::sql)
+            .containsExactly("select * from orders where id = ?", "delete from analytics_changes");
+        assertThat(snapshot.topQueries().get(0).executions()).isEqualTo(2);
+        assertThat(snapshot.topQueries().get(0).maxMillis()).isEqualTo(3.0);
+    }
+
+    @Test
+    void countsRequestsOverTheStatementBudget() {
+        properties.setStatementBudget(3);
+        for (int statements : new int[] {3, 4}) {
+            profiler.startRequest();
+            for (int i = 0; i < statements; i++) {
+                profiler.record("select * from products where id = ?", 1_000);
+            }
+            profiler.endRequest("GET /api/v1/orders");
+        }
+
+        assertThat(profiler.snapshot().endpoints().get(0).requestsOverBudget()).isEqualTo(1);
+    }
+
+    @Test
+    void limitsTrackedAndListedQueries() {
+        properties.setMaxTrackedQueries(3);
+        properties.setTopQueries(2);
+        for (String table : new String[] {"users", "orders", "products", "approvals"}) {
+            profiler.record("select * from " + table, 1_000);
+        }
+
+        assertThat(profiler.snapshot().topQueries()).hasSize(2);
+        assertThat(profiler.snapshot().slowestQueries()).hasSize(2);
+        profiler.reset();
+        assertThat(profiler.snapshot().topQueries()).isEmpty();
+        assertThat(profiler.snapshot().slowestQueries()).isEmpty();
+    }
+
+    @Test
+    void ranksRareSlowQueriesApartFromFrequentCheapOnes() {
+        properties.setTopQueries(1);
+        for (int i = 0; i < 100; i++) {
+            profiler.record("select * from users where id = " + i, 1_000_000);
+        }
+        profiler.record("select count(*) from orders", 40_000_000);
+
+        StatementProfiler.Snapshot snapshot = profiler.snapshot();
+
+        assertThat(snapshot.topQueries()).extracting(StatementProfiler.QueryProfile::sql)
+            .containsExactly("select * from users where id = ?");
+        assertThat(snapshot.slowestQueries()).extracting(StatementProfiler.QueryProfile::sql)
+            .containsExactly("select count(*) from orders");
+    }
+
+    @Test
+    void histogramBucketsDoubleInWidth() {
+        assertThat(StatementProfiler.bucket(0)).isZero();
+        assertThat(StatementProfiler.bucket(1)).isEqualTo(1);
+        assertThat(StatementProfiler.bucketLabel(StatementProfiler.bucket(5))).isEqualTo("4-7");
+        assertThat(StatementProfiler.bucketLabel(StatementProfiler.bucket(300))).isEqualTo("256-511");
+        assertThat(StatementProfiler.bucketLabel(StatementProfiler.bucket(100_000))).isEqualTo("512+");
+    }
+
+    @Test
+    void profilingDataSourceTimesPreparedAndPlainStatements() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement prepared = mock(PreparedStatement.class);
+        Statement plain = mock(Statement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(prepared);
+        when(connection.createStatement()).thenReturn(plain);
+        when(prepared.executeUpdate()).thenReturn(1);
+
+        profiler.startRequest();
+        Connection wrapped = new ProfilingDataSource(target, profiler).getConnection();
+        PreparedStatement statement = wrapped.prepareStatement("update products set stock_quantity = ? where id = ?");
+        statement.setInt(1, 5);
+        assertThat(statement.executeUpdate()).isEqualTo(1);
+        statement.addBatch();
+        statement.executeBatch();
+        wrapped.createStatement().execute("LISTEN puma_cache_invalidation");
+        profiler.endRequest("PUT /api/v1/products/{id}");
+
+        verify(prepared).setInt(1, 5);
+        verify(plain).execute("LISTEN puma_cache_invalidation");
+        StatementProfiler.Snapshot snapshot = profiler.snapshot();
+        assertThat(snapshot.endpoints().get(0).statements()).isEqualTo(3);
+        assertThat(snapshot.topQueries()).extracting(StatementProfiler.QueryProfile::sql).containsExactlyInAnyOrder(
+            "update products set stock_quantity = ? where id = ?", "LISTEN puma_cache_invalidation");
+    }
+}
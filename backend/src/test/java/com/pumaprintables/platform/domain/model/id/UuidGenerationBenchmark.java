@@ -0,0 +1,51 @@
+package com.pumaprintables.platform.domain.model.id;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generation cost of {@link UuidV7Generator} against {@link UUID#randomUUID()}, single-threaded and contended.
+ * Run like {@code NotificationRenderingBenchmark}:
+ * <pre>
+ * java -cp "target/test-classes:target/classes:$(cat target/bench-cp.txt)" org.openjdk.jmh.Main UuidGenerationBenchmark
+ * </pre>
+ * Insert throughput and index size are measured separately by {@link UuidInsertBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UuidGenerationBenchmark {
+
+    @Benchmark
+    public UUID randomV4() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID timeOrderedV7() {
+        return UuidV7Generator.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID randomV4Contended() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID timeOrderedV7Contended() {
+        return UuidV7Generator.next();
+    }
+}
@@ -0,0 +1,108 @@
+package com.pumaprintables.platform.domain.model.id;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares bulk inserts keyed by random v4 and time-ordered v7 UUIDs on a real Postgres instance. For each key type it
+ * fills a scratch table shaped like {@code notification_logs}, then reports insert throughput, primary key index size,
+ * WAL volume and index leaf density. Scratch tables are dropped afterwards.
+ * <pre>
+ * java -cp "target/test-classes:target/classes:$(cat target/bench-cp.txt)" \
+ *   com.pumaprintables.platform.domain.model.id.UuidInsertBenchmark \
+ *   jdbc:postgresql://localhost:5432/puma_printables postgres postgres 5000000
+ * </pre>
+ */
+public final class UuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int PROGRESS_INTERVAL = 1_000_000;
+
+    private UuidInsertBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 3) {
+            System.err.println("Usage: UuidInsertBenchmark <jdbc-url> <user> <password> [rows]");
+            System.exit(1);
+        }
+        long rows = args.length > 3 ? Long.parseLong(args[3]) : 2_000_000L;
+
+        try (Connection connection = DriverManager.getConnection(args[0], args[1], args[2])) {
+            connection.setAutoCommit(false);
+            run(connection, "uuid_bench_v4", rows, UUID::randomUUID);
+            run(connection, "uuid_bench_v7", rows, UuidV7Generator::next);
+        }
+    }
+
+    private static void run(Connection connection, String table, long rows, Supplier<UUID> ids) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, recipient varchar(255) NOT NULL, "
+                + "subject varchar(255) NOT NULL, sent_at timestamptz NOT NULL DEFAULT now())");
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pgstattuple");
+        }
+        connection.commit();
+
+        String walBefore = queryString(connection, "SELECT pg_current_wal_insert_lsn()::text");
+        long started = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+            "INSERT INTO " + table + " (id, recipient, subject) VALUES (?, ?, ?)")) {
+            for (long i = 1; i <= rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setString(2, "store-user@example.com");
+                insert.setString(3, "Order update");
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if (i % PROGRESS_INTERVAL == 0) {
+                    System.out.printf("%s: %,d rows%n", table, i);
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        long walBytes = queryLong(connection, "SELECT pg_wal_lsn_diff(pg_current_wal_insert_lsn(), '" + walBefore + "')::bigint");
+        long indexBytes = queryLong(connection, "SELECT pg_relation_size('" + table + "_pkey')");
+        double leafDensity = queryDouble(connection, "SELECT avg_leaf_density FROM pgstatindex('" + table + "_pkey')");
+
+        System.out.printf("%s: %,d rows in %.1f s (%,.0f rows/s), pk index %,d MB, leaf density %.1f%%, WAL %,d MB%n",
+            table, rows, seconds, rows / seconds, indexBytes >> 20, leafDensity, walBytes >> 20);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + table);
+        }
+        connection.commit();
+    }
+
+    private static String queryString(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static double queryDouble(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getDouble(1);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.pumaprintables.platform.domain.model.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void generatesVersion7RfcVariantWithCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UuidV7Generator.timestampMillis(uuid)).isBetween(before, after + 1);
+    }
+
+    @Test
+    void idsSortInGenerationOrderEvenWithinOneMillisecond() {
+        UUID previous = UuidV7Generator.next();
+        for (int i = 0; i < 50_000; i++) {
+            UUID current = UuidV7Generator.next();
+            // Postgres compares uuids as unsigned bytes; the timestamp/counter half alone must already be increasing.
+            assertThat(Long.compareUnsigned(current.getMostSignificantBits(), previous.getMostSignificantBits())).isPositive();
+            previous = current;
+        }
+    }
+
+    @Test
+    void clockStepsBackwardsDoNotBreakOrdering() {
+        UuidV7Generator.TickSource ticks = new UuidV7Generator.TickSource();
+        long first = ticks.next(10_000);
+        long second = ticks.next(5_000);
+
+        assertThat(second).isEqualTo(first + 1);
+    }
+
+    @Test
+    void counterOverflowCarriesIntoTheTimestamp() {
+        UuidV7Generator.TickSource ticks = new UuidV7Generator.TickSource();
+        long tick = ticks.next(1_000);
+        for (int i = 0; i < 4_096; i++) {
+            tick = ticks.next(1_000);
+        }
+
+        assertThat(tick >>> 12).isEqualTo(1_001);
+        assertThat(ticks.next(1_002)).isEqualTo(1_002L << 12);
+    }
+
+    @Test
+    void timestampMillisRejectsRandomUuids() {
+        assertThatThrownBy(() -> UuidV7Generator.timestampMillis(UUID.randomUUID()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
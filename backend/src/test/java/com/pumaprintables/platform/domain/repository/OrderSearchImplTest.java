@@ -0,0 +1,51 @@
+package com.pumaprintables.platform.domain.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderSearchImplTest {
+
+    @Test
+    void prefixQuery_requiresEveryWordAsPrefix() {
+        assertThat(OrderSearchImpl.prefixQuery("Baker  Street, London")).isEqualTo("baker:* & street:* & london:*");
+    }
+
+    @Test
+    void prefixQuery_dropsTsqueryOperatorsAndDuplicates() {
+        assertThat(OrderSearchImpl.prefixQuery("jacket | !jacket & (gst':*")).isEqualTo("jacket:* & gst:*");
+    }
+
+    @Test
+    void prefixQuery_capsNumberOfTerms() {
+        String query = "a b c d e f g h i j";
+
+        assertThat(OrderSearchImpl.prefixQuery(query).split(" & ")).hasSize(OrderSearchImpl.MAX_TERMS);
+    }
+
+    @Test
+    void containsPattern_escapesLikeWildcards() {
+        assertThat(OrderSearchImpl.containsPattern("50%_off\\")).isEqualTo("%50\\%\\_off\\\\%");
+    }
+
+    @Test
+    void searchIds_ranksOnlyABoundedNumberOfMatches() {
+        EntityManager entityManager = mock(EntityManager.class);
+        Query query = mock(Query.class, RETURNS_SELF);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+
+        new OrderSearchImpl(entityManager).searchIds("jacket", null, null, 0, 21);
+
+        verify(query).setParameter("candidates", OrderSearchImpl.MAX_CANDIDATES);
+    }
+}
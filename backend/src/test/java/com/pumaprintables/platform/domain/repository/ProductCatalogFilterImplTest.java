@@ -0,0 +1,54 @@
+package com.pumaprintables.platform.domain.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCatalogFilterImplTest {
+
+    @Test
+    void where_bindsEveryValueAsParameter() throws Exception {
+        ProductFilter filter = new ProductFilter(
+            new ObjectMapper().readTree("{\"material\":\"cotton\"}"),
+            List.of("size"),
+            List.of(new ProductFilter.Range("gsm", new BigDecimal("180"), null)),
+            true,
+            " Hood_");
+        Map<String, Object> parameters = new HashMap<>();
+
+        String where = ProductCatalogFilterImpl.where(filter, parameters);
+
+        assertThat(where)
+            .contains("p.specifications @> CAST(:contains AS jsonb)")
+            .contains("p.specifications -> :key0 IS NOT NULL")
+            .contains(">= :rangeMin0")
+            .doesNotContain(":rangeMax0")
+            .contains("p.is_active = :active")
+            .contains("lower(p.name) LIKE :namePrefix")
+            .doesNotContain("cotton")
+            .doesNotContain("gsm");
+        assertThat(parameters)
+            .containsEntry("contains", "{\"material\":\"cotton\"}")
+            .containsEntry("key0", "size")
+            .containsEntry("rangeKey0", "gsm")
+            .containsEntry("rangeMin0", new BigDecimal("180"))
+            .containsEntry("active", true)
+            .containsEntry("namePrefix", "hood\\_%");
+    }
+
+    @Test
+    void where_matchesEverythingWithoutCriteria() {
+        Map<String, Object> parameters = new HashMap<>();
+
+        String where = ProductCatalogFilterImpl.where(new ProductFilter(null, null, null, null, null), parameters);
+
+        assertThat(where).isEqualTo(" WHERE TRUE");
+        assertThat(parameters).isEmpty();
+    }
+}
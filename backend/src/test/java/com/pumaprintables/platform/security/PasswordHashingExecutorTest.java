@@ -0,0 +1,131 @@
+package com.pumaprintables.platform.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.pumaprintables.platform.service.exception.PasswordHashingBusyException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void execute_returnsResultAndRecordsTimers() {
+        executor = newExecutor(2, 4, Duration.ofSeconds(5));
+
+        assertThat(executor.execute(() -> "hashed")).isEqualTo("hashed");
+
+        assertThat(meterRegistry.get("puma.password.hash.queue.wait").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("puma.password.hash.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        executor = newExecutor(1, 1, Duration.ofSeconds(30));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> blocker = CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            running.countDown();
+            return await(release);
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> executor.execute(() -> "queued"));
+        waitForQueueSize(1);
+
+        assertThatThrownBy(() -> executor.execute(() -> "rejected"))
+            .isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(meterRegistry.get("puma.password.hash.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(blocker.get(5, TimeUnit.SECONDS)).isEqualTo(true);
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    void execute_rejectsRequestsThatWaitedTooLongForAThread() throws Exception {
+        executor = newExecutor(1, 4, Duration.ofMillis(50));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> blocker = CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            running.countDown();
+            return await(release);
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> stale = CompletableFuture.supplyAsync(() -> executor.execute(() -> "stale"));
+        waitForQueueSize(1);
+        Thread.sleep(100);
+
+        release.countDown();
+
+        assertThat(blocker.get(5, TimeUnit.SECONDS)).isEqualTo(true);
+        assertThat(stale).failsWithin(Duration.ofSeconds(5))
+            .withThrowableOfType(Exception.class)
+            .withCauseInstanceOf(PasswordHashingBusyException.class);
+    }
+
+    @Test
+    void execute_propagatesHashingFailures() {
+        executor = newExecutor(1, 1, Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new IllegalArgumentException("bad salt");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("bad salt");
+    }
+
+    @Test
+    void pooledEncoder_upgradesHashesWithALowerCost() {
+        executor = newExecutor(1, 1, Duration.ofSeconds(5));
+        PooledPasswordEncoder encoder = new PooledPasswordEncoder(new BCryptPasswordEncoder(5), executor);
+        String weak = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(encoder.matches("secret", weak)).isTrue();
+        assertThat(encoder.upgradeEncoding(weak)).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    private PasswordHashingExecutor newExecutor(int threads, int queueCapacity, Duration maxQueueWait) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setMaxQueueWait(maxQueueWait);
+        return new PasswordHashingExecutor(properties, meterRegistry);
+    }
+
+    private void waitForQueueSize(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("puma.password.hash.queue.size").gauge().value() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Queue never reached " + expected);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
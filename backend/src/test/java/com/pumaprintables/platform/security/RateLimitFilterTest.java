@@ -0,0 +1,170 @@
+package com.pumaprintables.platform.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsRequestsBeyondTheBurstWithRetryAfter() throws Exception {
+        RateLimitFilter filter = filter(new RateLimitProperties.Rule(
+            "login", "POST", "/api/v1/auth/login", RateLimitProperties.KeyType.IP, 3, Duration.ofSeconds(10)));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(perform(filter, "POST", "/api/v1/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse rejected = perform(filter, "POST", "/api/v1/auth/login", "10.0.0.1");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("10");
+        assertThat(rejected.getContentAsString()).contains("Too many requests");
+        assertThat(perform(filter, "POST", "/api/v1/auth/login", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("puma.rate.limit.requests").tag("outcome", "rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("puma.rate.limit.requests").tag("outcome", "allowed").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void ignoresOtherMethodsAndPaths() throws Exception {
+        RateLimitFilter filter = filter(new RateLimitProperties.Rule(
+            "create-order", "POST", "/api/v1/orders", RateLimitProperties.KeyType.IP, 1, Duration.ofMinutes(1)));
+
+        assertThat(perform(filter, "POST", "/api/v1/orders", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "GET", "/api/v1/orders", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "/api/v1/orders/search", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "/api/v1/orders", "10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void keysPerUserAndAppliesRoleOverrides() throws Exception {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule(
+            "create-order", "POST", "/api/v1/orders", RateLimitProperties.KeyType.USER, 1, Duration.ofMinutes(1));
+        rule.getRoles().put(UserRole.ADMIN, new RateLimitProperties.Limit(3, Duration.ofMinutes(1)));
+        RateLimitFilter filter = filter(rule);
+
+        authenticate("store-a", "ROLE_STORE_USER");
+        assertThat(perform(filter, "POST", "/api/v1/orders", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "/api/v1/orders", "10.0.0.1").getStatus()).isEqualTo(429);
+
+        authenticate("store-b", "ROLE_STORE_USER");
+        assertThat(perform(filter, "POST", "/api/v1/orders", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        authenticate("admin", "ROLE_ADMIN");
+        for (int i = 0; i < 3; i++) {
+            assertThat(perform(filter, "POST", "/api/v1/orders", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        assertThat(perform(filter, "POST", "/api/v1/orders", "10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void refillsOverTime() throws Exception {
+        RateLimitFilter filter = filter(new RateLimitProperties.Rule(
+            "login", "POST", "/api/v1/auth/login", RateLimitProperties.KeyType.IP, 1, Duration.ofMillis(50)));
+
+        assertThat(perform(filter, "POST", "/api/v1/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "/api/v1/auth/login", "10.0.0.1").getStatus()).isEqualTo(429);
+        Thread.sleep(80);
+        assertThat(perform(filter, "POST", "/api/v1/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void passesEverythingWhenDisabled() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(false);
+        RateLimitFilter filter = new RateLimitFilter(new RateLimiter(properties, meterRegistry));
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(perform(filter, "POST", "/api/v1/auth/register", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void keysByTheForwardedClientOnlyBehindTrustedProxies() throws Exception {
+        RateLimitProperties properties = properties(new RateLimitProperties.Rule(
+            "login", "POST", "/api/v1/auth/login", RateLimitProperties.KeyType.IP, 1, Duration.ofMinutes(1)));
+        properties.setTrustedProxies(List.of("10.1.0.0/16"));
+        RateLimitFilter filter = new RateLimitFilter(new RateLimiter(properties, meterRegistry));
+
+        assertThat(perform(filter, "POST", "/api/v1/auth/login", "10.1.0.5", "203.0.113.7").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "/api/v1/auth/login", "10.1.0.5", "198.51.100.9").getStatus()).isEqualTo(200);
+        // A forged entry left of the real client does not give it a fresh bucket.
+        assertThat(perform(filter, "POST", "/api/v1/auth/login", "10.1.0.6", "1.2.3.4, 203.0.113.7").getStatus())
+            .isEqualTo(429);
+        // Proxies chained in front are skipped.
+        assertThat(perform(filter, "POST", "/api/v1/auth/login", "10.1.0.6", "198.51.100.9, 10.1.2.3").getStatus())
+            .isEqualTo(429);
+        // Untrusted senders cannot choose their key at all.
+        assertThat(perform(filter, "POST", "/api/v1/auth/login", "192.0.2.1", "203.0.113.99").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "/api/v1/auth/login", "192.0.2.1", "203.0.113.100").getStatus())
+            .isEqualTo(429);
+    }
+
+    @Test
+    void splitsEachLimitBetweenInstances() throws Exception {
+        RateLimitProperties properties = properties(new RateLimitProperties.Rule(
+            "login", "POST", "/api/v1/auth/login", RateLimitProperties.KeyType.IP, 10, Duration.ofSeconds(6)));
+        properties.setInstances(4);
+        RateLimitFilter filter = new RateLimitFilter(new RateLimiter(properties, meterRegistry));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(perform(filter, "POST", "/api/v1/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse rejected = perform(filter, "POST", "/api/v1/auth/login", "10.0.0.1");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("24");
+    }
+
+    private RateLimitFilter filter(RateLimitProperties.Rule rule) {
+        return new RateLimitFilter(new RateLimiter(properties(rule), meterRegistry));
+    }
+
+    private static RateLimitProperties properties(RateLimitProperties.Rule rule) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setStripes(1024);
+        properties.setRules(List.of(rule));
+        return properties;
+    }
+
+    private static MockHttpServletResponse perform(RateLimitFilter filter, String method, String path, String address)
+        throws Exception {
+        return perform(filter, method, path, address, null);
+    }
+
+    private static MockHttpServletResponse perform(RateLimitFilter filter, String method, String path, String address,
+                                                   String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(address);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String username, String authority) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            username, null, List.of(new SimpleGrantedAuthority(authority))));
+    }
+}
@@ -0,0 +1,68 @@
+package com.pumaprintables.platform.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class TokenDenylistTest {
+
+    private final TokenDenylist denylist = new TokenDenylist();
+    private final Instant now = Instant.parse("2024-06-01T10:15:30Z");
+
+    @Test
+    void isRevoked_matchesRevokedTokenIdsOnly() {
+        denylist.revokeToken("revoked-id", now.plusSeconds(3600));
+
+        assertThat(denylist.isRevoked("revoked-id", "store", 0)).isTrue();
+        assertThat(denylist.isRevoked("other-id", "store", 0)).isFalse();
+        assertThat(denylist.isRevoked(null, "store", 0)).isFalse();
+    }
+
+    @Test
+    void isRevoked_rejectsTokensFromEarlierGenerationsOfTheSubject() {
+        denylist.revokeSubject("store", 2L, now.plusSeconds(3600));
+
+        assertThat(denylist.isRevoked("a", "store", 0)).isTrue();
+        assertThat(denylist.isRevoked("b", "store", 1)).isTrue();
+        assertThat(denylist.isRevoked("c", "store", 2)).isFalse();
+        assertThat(denylist.isRevoked("d", "approver", 0)).isFalse();
+    }
+
+    @Test
+    void revokeSubject_keepsTheHighestGeneration() {
+        denylist.revokeSubject("store", 3L, now.plusSeconds(3600));
+        denylist.revokeSubject("store", 1L, now.plusSeconds(3600));
+
+        assertThat(denylist.isRevoked("a", "store", 2)).isTrue();
+    }
+
+    @Test
+    void purgeExpired_dropsEntriesWhoseTokensHaveExpired() {
+        denylist.revokeToken("old", now.minusSeconds(1));
+        denylist.revokeToken("current", now.plusSeconds(60));
+        denylist.revokeSubject("store", 1L, now.minusSeconds(1));
+
+        denylist.purgeExpired(now);
+
+        assertThat(denylist.isRevoked("old", "store", 0)).isFalse();
+        assertThat(denylist.isRevoked("current", "store", 1)).isTrue();
+        assertThat(denylist.size()).isEqualTo(1);
+    }
+
+    @Test
+    void revokeToken_growsBeyondTheInitialFilterWithoutFalseNegatives() {
+        String[] ids = new String[5000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            denylist.revokeToken(ids[i], now.plusSeconds(3600));
+        }
+
+        for (String id : ids) {
+            assertThat(denylist.isRevoked(id, null, 0)).isTrue();
+        }
+        assertThat(denylist.isRevoked(UUID.randomUUID().toString(), null, 0)).isFalse();
+    }
+}
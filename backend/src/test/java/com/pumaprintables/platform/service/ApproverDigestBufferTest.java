@@ -0,0 +1,51 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class ApproverDigestBufferTest {
+
+    private final ApproverDigestBuffer buffer = new ApproverDigestBuffer();
+
+    @Test
+    void add_reportsHowManyEntriesAreWaiting() {
+        assertThat(buffer.add(entry("store-1"))).isEqualTo(1);
+        assertThat(buffer.add(entry("store-2"))).isEqualTo(2);
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+
+    @Test
+    void drain_returnsEntriesInArrivalOrderAndEmptiesTheBuffer() {
+        ApproverDigestBuffer.Entry first = entry("store-1");
+        ApproverDigestBuffer.Entry second = entry("store-2");
+        buffer.add(first);
+        buffer.add(second);
+
+        assertThat(buffer.drain()).containsExactly(first, second);
+        assertThat(buffer.drain()).isEmpty();
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void requeue_putsUnsentEntriesAheadOfNewerOnes() {
+        ApproverDigestBuffer.Entry unsent = entry("store-1");
+        ApproverDigestBuffer.Entry newer = entry("store-2");
+        buffer.add(unsent);
+        List<ApproverDigestBuffer.Entry> drained = buffer.drain();
+        buffer.add(newer);
+
+        buffer.requeue(drained);
+
+        assertThat(buffer.drain()).containsExactly(unsent, newer);
+    }
+
+    private static ApproverDigestBuffer.Entry entry(String placedBy) {
+        return new ApproverDigestBuffer.Entry(UUID.randomUUID(), placedBy, "1 Market Street", 1, 2,
+            OffsetDateTime.now());
+    }
+}
@@ -0,0 +1,77 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+
+class ApproverDirectoryTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+    private final NotificationProperties properties = new NotificationProperties();
+    private ApproverDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findByRole(UserRole.APPROVER)).thenReturn(List.of(
+            User.builder().email("approver@example.com").build(),
+            User.builder().email(" ").build(),
+            User.builder().build()));
+        directory = new ApproverDirectory(userRepository, properties, cacheInvalidationBus);
+    }
+
+    @Test
+    void approverEmails_areLoadedOnceWithinTheTtl() {
+        assertThat(directory.approverEmails()).containsExactly("approver@example.com");
+        assertThat(directory.approverEmails()).containsExactly("approver@example.com");
+
+        verify(userRepository, times(1)).findByRole(UserRole.APPROVER);
+    }
+
+    @Test
+    void approverEmails_areReloadedOnceTheTtlHasPassed() {
+        properties.setApproverCacheTtl(Duration.ZERO);
+
+        directory.approverEmails();
+        directory.approverEmails();
+
+        verify(userRepository, times(2)).findByRole(UserRole.APPROVER);
+    }
+
+    @Test
+    void invalidate_dropsTheListAndTellsOtherInstances() {
+        directory.approverEmails();
+
+        directory.invalidate();
+        directory.approverEmails();
+
+        verify(userRepository, times(2)).findByRole(UserRole.APPROVER);
+        verify(cacheInvalidationBus).publish(CacheInvalidation.approvers());
+    }
+
+    @Test
+    void onInvalidation_dropsTheListOnlyForApproverOrFullInvalidations() {
+        directory.approverEmails();
+
+        directory.onInvalidation(CacheInvalidation.user(UUID.randomUUID()));
+        directory.approverEmails();
+        verify(userRepository, times(1)).findByRole(UserRole.APPROVER);
+
+        directory.onInvalidation(CacheInvalidation.all());
+        directory.approverEmails();
+        verify(userRepository, times(2)).findByRole(UserRole.APPROVER);
+    }
+}
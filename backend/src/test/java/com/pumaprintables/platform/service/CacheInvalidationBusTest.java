@@ -0,0 +1,91 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class CacheInvalidationBusTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<Object> events = new ArrayList<>();
+    private final CacheInvalidationProperties properties = new CacheInvalidationProperties();
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        bus = new CacheInvalidationBus(jdbcTemplate, mock(PlatformTransactionManager.class), events::add,
+            mock(ObjectProvider.class), new DataSourceProperties(), properties);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publish_sendsNumberedNotifications() {
+        UUID productId = UUID.randomUUID();
+
+        bus.publish(CacheInvalidation.product(productId));
+        bus.publish(CacheInvalidation.approvers());
+
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(2)).query(anyString(), any(ResultSetExtractor.class),
+            eq(CacheInvalidationBus.CHANNEL), payloads.capture());
+        assertThat((String) payloads.getAllValues().get(0)).endsWith(":1:PRODUCT:" + productId);
+        assertThat((String) payloads.getAllValues().get(1)).endsWith(":2:APPROVERS:");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publish_doesNothingWhenDisabled() {
+        properties.setEnabled(false);
+
+        bus.publish(CacheInvalidation.approvers());
+
+        verify(jdbcTemplate, never()).query(anyString(), any(ResultSetExtractor.class), any(Object[].class));
+    }
+
+    @Test
+    void receive_republishesInvalidationsFromOtherInstances() {
+        UUID userId = UUID.randomUUID();
+
+        bus.receive("node-a:7:USER:" + userId);
+        bus.receive("node-a:8:APPROVERS:");
+
+        assertThat(events).containsExactly(CacheInvalidation.user(userId), CacheInvalidation.approvers());
+    }
+
+    @Test
+    void receive_clearsEverythingWhenASenderSkippedANotification() {
+        bus.receive("node-a:1:APPROVERS:");
+        bus.receive("node-a:3:PRODUCTS:");
+        bus.receive("node-b:9:PRODUCTS:");
+
+        assertThat(events).containsExactly(CacheInvalidation.approvers(), CacheInvalidation.all(),
+            CacheInvalidation.products());
+    }
+
+    @Test
+    void receive_ignoresMalformedPayloads() {
+        bus.receive("garbage");
+        bus.receive("node-a:x:USER:");
+
+        assertThat(events).isEmpty();
+    }
+}
@@ -0,0 +1,113 @@
+package com.pumaprintables.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pumaprintables.platform.BackendApplication;
+import com.pumaprintables.platform.domain.model.Product;
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two application instances against one database and checks that a change made through one is not served
+ * stale from the other's caches.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CacheInvalidationIntegrationTest {
+
+    private static final Duration PROPAGATION_TIMEOUT = Duration.ofSeconds(10);
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    @BeforeAll
+    static void startInstances() {
+        first = startInstance();
+        second = startInstance();
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (second != null) {
+            second.close();
+        }
+        if (first != null) {
+            first.close();
+        }
+    }
+
+    @Test
+    void productUpdatesReachTheOtherInstance() {
+        ObjectMapper objectMapper = first.getBean(ObjectMapper.class);
+        ProductService firstProducts = first.getBean(ProductService.class);
+        ProductService secondProducts = second.getBean(ProductService.class);
+        Product created = firstProducts.createProduct("SKU-BUS-1", "Register", "Bound register", null,
+            objectMapper.createObjectNode(), 10, true);
+        assertThat(secondProducts.getProduct(created.getId()).getName()).isEqualTo("Register");
+
+        firstProducts.updateProduct(created.getId(), "SKU-BUS-1", "Register v2", "Bound register", null,
+            objectMapper.createObjectNode(), 10, true);
+
+        assertEventually(() -> "Register v2".equals(secondProducts.getProduct(created.getId()).getName()));
+    }
+
+    @Test
+    void roleChangesReachTheOtherInstance() {
+        User user = first.getBean(UserRepository.class).save(User.builder()
+            .username("bus.user")
+            .password("hashed")
+            .email("bus.user@example.com")
+            .role(UserRole.STORE_USER)
+            .build());
+        UserRepository secondUsers = second.getBean(UserRepository.class);
+        ApproverDirectory secondApprovers = second.getBean(ApproverDirectory.class);
+        assertThat(secondUsers.findByUsername("bus.user")).map(User::getRole).contains(UserRole.STORE_USER);
+        assertThat(secondApprovers.approverEmails()).doesNotContain("bus.user@example.com");
+
+        first.getBean(UserAdminService.class).updateUserRole(user.getId(), UserRole.APPROVER);
+
+        assertEventually(() -> secondUsers.findByUsername("bus.user").map(User::getRole)
+            .filter(UserRole.APPROVER::equals).isPresent());
+        assertEventually(() -> secondApprovers.approverEmails().contains("bus.user@example.com"));
+    }
+
+    private static ConfigurableApplicationContext startInstance() {
+        return new SpringApplicationBuilder(BackendApplication.class)
+            .properties(
+                "spring.datasource.url=" + postgres.getJdbcUrl(),
+                "spring.datasource.username=" + postgres.getUsername(),
+                "spring.datasource.password=" + postgres.getPassword(),
+                "server.port=0",
+                "puma.notifications.approver-cache-ttl=PT1H")
+            .run();
+    }
+
+    private static void assertEventually(Supplier<Boolean> condition) {
+        Instant deadline = Instant.now().plus(PROPAGATION_TIMEOUT);
+        while (!condition.get()) {
+            assertThat(Instant.now()).as("change did not reach the other instance in time").isBefore(deadline);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
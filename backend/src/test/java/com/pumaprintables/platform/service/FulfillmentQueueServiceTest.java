@@ -0,0 +1,78 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.repository.OrderRepository;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FulfillmentQueueServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final FulfillmentQueueProperties properties = new FulfillmentQueueProperties();
+    private final UUID agentId = UUID.randomUUID();
+    private FulfillmentQueueService service;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findByUsername("agent")).thenReturn(Optional.of(User.builder().id(agentId).build()));
+        service = new FulfillmentQueueService(jdbcTemplate, orderRepository, userRepository, properties,
+            new SimpleMeterRegistry());
+    }
+
+    @Test
+    void claimNext_topsUpHeldLeasesToTheRequestedLimit() {
+        UUID held = UUID.randomUUID();
+        when(jdbcTemplate.queryForList(contains("WITH held"), eq(UUID.class), any(), any(), any()))
+            .thenReturn(List.of(held));
+        when(jdbcTemplate.queryForList(contains("WITH next"), eq(UUID.class), any(), any(), any()))
+            .thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        service.claimNext("agent", 3);
+
+        verify(jdbcTemplate).queryForList(contains("WITH held"), eq(UUID.class), eq(agentId), eq(3), eq(900.0));
+        verify(jdbcTemplate).queryForList(contains("WITH next"), eq(UUID.class), eq(2), eq(agentId), eq(900.0));
+    }
+
+    @Test
+    void claimNext_doesNotClaimMoreWhenTheAgentAlreadyHoldsEnough() {
+        properties.setMaxClaims(2);
+        when(jdbcTemplate.queryForList(contains("WITH held"), eq(UUID.class), any(), any(), any()))
+            .thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        service.claimNext("agent", 50);
+
+        verify(jdbcTemplate).queryForList(contains("WITH held"), eq(UUID.class), eq(agentId), eq(2), eq(900.0));
+        verify(jdbcTemplate, never()).queryForList(contains("WITH next"), eq(UUID.class), any(), any(), any());
+    }
+
+    @Test
+    void queueStats_reportsAgeOfTheOldestWaitingOrder() {
+        OffsetDateTime now = OffsetDateTime.parse("2024-05-01T12:00:00Z");
+        FulfillmentQueueService.QueueStats stats = new FulfillmentQueueService.QueueStats(3, 1, now.minusMinutes(90));
+
+        assertThat(stats.oldestAge(now)).isEqualTo(Duration.ofMinutes(90));
+        assertThat(new FulfillmentQueueService.QueueStats(0, 0, null).oldestAge(now)).isZero();
+    }
+}
@@ -0,0 +1,163 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.pumaprintables.platform.security.GoogleKeySetSource;
+import com.pumaprintables.platform.security.GoogleOAuthProperties;
+import com.pumaprintables.platform.security.GoogleSigningKeyCache;
+import com.pumaprintables.platform.service.GoogleOAuthService.GoogleProfile;
+import com.pumaprintables.platform.service.exception.GoogleOAuthTokenInvalidException;
+import com.pumaprintables.platform.service.exception.GoogleOAuthUnavailableException;
+
+class GoogleOAuthServiceTest {
+
+    private static final String CLIENT_ID = "puma-web.apps.googleusercontent.com";
+
+    private final GoogleOAuthProperties properties = new GoogleOAuthProperties();
+    private final AtomicReference<GoogleKeySetSource.KeySetDocument> published = new AtomicReference<>();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private RSAKey signingKey;
+    private GoogleSigningKeyCache keyCache;
+    private GoogleOAuthService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties.setEnabled(true);
+        properties.setClientIds(List.of(CLIENT_ID));
+        signingKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        publish(Duration.ofHours(1), signingKey);
+        GoogleKeySetSource source = () -> {
+            fetches.incrementAndGet();
+            GoogleKeySetSource.KeySetDocument document = published.get();
+            if (document == null) {
+                throw new IOException("certs endpoint unreachable");
+            }
+            return document;
+        };
+        keyCache = new GoogleSigningKeyCache(source, properties);
+        service = new GoogleOAuthService(properties, keyCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        keyCache.shutdown();
+    }
+
+    @Test
+    void verifyCredential_acceptsTokenSignedWithCachedKey() throws Exception {
+        keyCache.warmUp();
+        awaitFetches(1);
+
+        GoogleProfile profile = service.verifyCredential(token(signingKey, CLIENT_ID));
+
+        assertThat(profile.subject()).isEqualTo("1234567890");
+        assertThat(profile.email()).isEqualTo("store@example.com");
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void verifyCredential_failsFastBeforeKeysAreLoaded() throws Exception {
+        assertThatThrownBy(() -> service.verifyCredential(token(signingKey, CLIENT_ID)))
+            .isInstanceOf(GoogleOAuthUnavailableException.class);
+        awaitFetches(1);
+
+        assertThat(service.verifyCredential(token(signingKey, CLIENT_ID)).email()).isEqualTo("store@example.com");
+    }
+
+    @Test
+    void verifyCredential_rejectsWrongAudienceAndForeignKeys() throws Exception {
+        keyCache.warmUp();
+        awaitFetches(1);
+        RSAKey foreignKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+
+        assertThatThrownBy(() -> service.verifyCredential(token(signingKey, "someone-else")))
+            .isInstanceOf(GoogleOAuthTokenInvalidException.class);
+        assertThatThrownBy(() -> service.verifyCredential(token(foreignKey, CLIENT_ID)))
+            .isInstanceOf(GoogleOAuthTokenInvalidException.class);
+    }
+
+    @Test
+    void verifyCredential_keepsServingExpiredKeysWhileRefreshFails() throws Exception {
+        publish(Duration.ZERO, signingKey);
+        keyCache.warmUp();
+        awaitFetches(1);
+        published.set(null);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.verifyCredential(token(signingKey, CLIENT_ID)).email()).isEqualTo("store@example.com");
+        }
+        // Refreshes triggered by expired keys are spaced out rather than attempted on every login.
+        assertThat(fetches.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void verifyCredential_picksUpRotatedKeyInTheBackground() throws Exception {
+        keyCache.warmUp();
+        awaitFetches(1);
+        RSAKey rotated = new RSAKeyGenerator(2048).keyID("key-2").generate();
+        publish(Duration.ofHours(1), signingKey, rotated);
+        properties.setKeyRefreshAhead(Duration.ofHours(2));
+        keyCache.refreshIfDue();
+        awaitFetches(2);
+
+        assertThat(service.verifyCredential(token(rotated, CLIENT_ID)).email()).isEqualTo("store@example.com");
+    }
+
+    private void publish(Duration maxAge, RSAKey... keys) {
+        List<JWK> publicKeys = Arrays.stream(keys)
+            .map(key -> (JWK) key.toPublicJWK())
+            .toList();
+        published.set(new GoogleKeySetSource.KeySetDocument(new JWKSet(publicKeys).toString(), maxAge));
+    }
+
+    private void awaitFetches(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (fetches.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(fetches.get()).isGreaterThanOrEqualTo(expected);
+        // Let the refresh publish its snapshot before the assertions that depend on it.
+        Thread.sleep(50);
+    }
+
+    private static String token(RSAKey key, String audience) throws Exception {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+            .issuer("https://accounts.google.com")
+            .audience(audience)
+            .subject("1234567890")
+            .issueTime(Date.from(now))
+            .expirationTime(Date.from(now.plusSeconds(3600)))
+            .claim("email", "store@example.com")
+            .claim("email_verified", true)
+            .claim("name", "Store User")
+            .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
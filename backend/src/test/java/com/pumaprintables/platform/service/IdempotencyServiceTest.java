@@ -0,0 +1,135 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pumaprintables.platform.service.exception.IdempotencyKeyMismatchException;
+import com.pumaprintables.platform.service.exception.IdempotentRequestInProgressException;
+import com.pumaprintables.platform.service.exception.InvalidIdempotencyKeyException;
+
+class IdempotencyServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private final IdempotencyService service =
+        new IdempotencyService(jdbcTemplate, transactionManager, new ObjectMapper(), properties);
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void execute_runsActionAndStoresResultWhenKeyIsClaimed() {
+        when(jdbcTemplate.update(contains("INSERT INTO idempotency_keys"), any(), any(), any(), any())).thenReturn(1);
+
+        IdempotencyService.Outcome<Integer> outcome =
+            service.execute("store-user", "key-1", List.of("a"), Integer.class, () -> 7);
+
+        assertThat(outcome).isEqualTo(new IdempotencyService.Outcome<>(7, false));
+        verify(jdbcTemplate).update(contains("INSERT INTO idempotency_keys"), eq("store-user"), eq("key-1"),
+            eq(service.fingerprint(List.of("a"))), eq(properties.getTtl().toSeconds()));
+        verify(jdbcTemplate).update(contains("SET response"), eq("7"), eq("store-user"), eq("key-1"));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void execute_replaysStoredResultForSameKeyAndRequest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        when(jdbcTemplate.update(contains("INSERT INTO idempotency_keys"), any(), any(), any(), any())).thenReturn(0);
+        givenStoredResponse(service.fingerprint(List.of("a")), "1");
+
+        IdempotencyService.Outcome<Integer> retry =
+            service.execute("store-user", "key-1", List.of("a"), Integer.class, calls::incrementAndGet);
+
+        assertThat(retry).isEqualTo(new IdempotencyService.Outcome<>(1, true));
+        assertThat(calls).hasValue(0);
+        verify(jdbcTemplate).query(contains("SELECT fingerprint"), any(RowMapper.class), eq("store-user"), eq("key-1"));
+    }
+
+    @Test
+    void execute_rejectsKeyReusedWithDifferentRequest() throws Exception {
+        when(jdbcTemplate.update(contains("INSERT INTO idempotency_keys"), any(), any(), any(), any())).thenReturn(0);
+        givenStoredResponse(service.fingerprint(List.of("a")), "1");
+
+        assertThatThrownBy(() -> service.execute("store-user", "key-1", List.of("b"), Integer.class, () -> 2))
+            .isInstanceOf(IdempotencyKeyMismatchException.class);
+    }
+
+    @Test
+    void execute_rejectsMalformedKeys() {
+        assertThatThrownBy(() -> service.execute("store-user", " ", List.of(), Integer.class, () -> 1))
+            .isInstanceOf(InvalidIdempotencyKeyException.class);
+        assertThatThrownBy(() -> service.execute("store-user", "x".repeat(IdempotencyService.MAX_KEY_LENGTH + 1),
+            List.of(), Integer.class, () -> 1))
+            .isInstanceOf(InvalidIdempotencyKeyException.class);
+    }
+
+    @Test
+    void execute_rollsBackTheClaimOfFailedRequestsSoTheyCanBeRetried() {
+        when(jdbcTemplate.update(contains("INSERT INTO idempotency_keys"), any(), any(), any(), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> service.execute("store-user", "key-1", List.of("a"), Integer.class, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(transactionManager).rollback(any());
+        verify(jdbcTemplate, never()).update(contains("SET response"), any(), any(), any());
+    }
+
+    @Test
+    void execute_answersInProgressWhenTheOriginalHoldsTheKeyPastTheWaitTimeout() {
+        when(jdbcTemplate.update(contains("INSERT INTO idempotency_keys"), any(), any(), any(), any()))
+            .thenThrow(new CannotAcquireLockException("lock timeout"));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> service.execute("store-user", "key-1", List.of("a"), Integer.class,
+            calls::incrementAndGet))
+            .isInstanceOf(IdempotentRequestInProgressException.class);
+
+        verify(jdbcTemplate).queryForObject(contains("lock_timeout"), eq(String.class),
+            eq(properties.getWaitTimeout().toMillis() + "ms"));
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void purgeExpired_deletesInBatchesUntilNoneAreLeft() {
+        when(jdbcTemplate.update(contains("DELETE FROM idempotency_keys"), any(Integer.class)))
+            .thenReturn(1_000, 1_000, 3);
+
+        service.purgeExpired();
+
+        verify(jdbcTemplate, times(3)).update(contains("DELETE FROM idempotency_keys"), eq(1_000));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenStoredResponse(String fingerprint, String response) throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString("fingerprint")).thenReturn(fingerprint);
+        when(row.getString("response")).thenReturn(response);
+        when(jdbcTemplate.query(contains("SELECT fingerprint"), any(RowMapper.class), any(), any()))
+            .thenAnswer(invocation -> List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(row, 0)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.pumaprintables.platform.domain.model.User;
+
+class LoginStatsRecorderTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final Cache cache = mock(Cache.class);
+    private final LoginStatsProperties properties = new LoginStatsProperties();
+    private LoginStatsRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        recorder = new LoginStatsRecorder(jdbcTemplate, transactionManager, entityManagerFactory, properties);
+    }
+
+    @Test
+    void flush_mergesLoginsPerUserIntoOneRow() {
+        UUID userId = UUID.randomUUID();
+        OffsetDateTime first = OffsetDateTime.parse("2024-05-01T09:00:00Z");
+        OffsetDateTime last = first.plusMinutes(5);
+        recorder.recordLogin(userId, last);
+        recorder.recordLogin(userId, first);
+        recorder.recordLogin(userId, first.plusMinutes(2));
+
+        recorder.flush();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(anyString(), args.capture());
+        assertThat(args.getValue()).containsExactly(userId, 3, first, last);
+        verify(cache).evict(User.class, userId);
+        assertThat(recorder.pendingUsers()).isZero();
+    }
+
+    @Test
+    void flush_splitsUsersIntoBatches() {
+        properties.setBatchSize(2);
+        OffsetDateTime now = OffsetDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            recorder.recordLogin(UUID.randomUUID(), now);
+        }
+
+        recorder.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(3)).update(sql.capture(), any(Object[].class));
+        assertThat(sql.getAllValues().get(0)).contains("FROM (VALUES").contains("u.login_count + v.logins");
+    }
+
+    @Test
+    void flush_keepsLoginsWhenTheUpdateFails() {
+        UUID userId = UUID.randomUUID();
+        OffsetDateTime now = OffsetDateTime.now();
+        recorder.recordLogin(userId, now);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+            .thenThrow(new DataAccessResourceFailureException("down"))
+            .thenReturn(1);
+
+        recorder.flush();
+        recorder.recordLogin(userId, now.plusSeconds(1));
+
+        assertThat(recorder.pendingUsers()).isEqualTo(1);
+        verify(cache, never()).evict(User.class, userId);
+
+        recorder.flush();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).update(anyString(), args.capture());
+        assertThat(args.getValue()).containsExactly(userId, 2, now, now.plusSeconds(1));
+    }
+
+    @Test
+    void flush_withNothingPendingDoesNotTouchTheDatabase() {
+        recorder.flush();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,135 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.pumaprintables.platform.domain.model.Order;
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+import com.pumaprintables.platform.domain.repository.NotificationLogRepository;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+import com.pumaprintables.platform.service.template.NotificationTemplates;
+import com.pumaprintables.platform.service.template.RenderedNotification;
+
+class NotificationServiceTest {
+
+    private final JavaMailSender mailSender = mock(JavaMailSender.class);
+    private final NotificationLogRepository notificationLogRepository = mock(NotificationLogRepository.class);
+    private final ApproverDirectory approverDirectory = mock(ApproverDirectory.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final NotificationTemplates templates = mock(NotificationTemplates.class);
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+    private final ApproverDigestBuffer buffer = new ApproverDigestBuffer();
+    private final NotificationProperties properties = new NotificationProperties();
+    private NotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.getApproverDigest().setEnabled(true);
+        properties.getApproverDigest().setMaxOrders(2);
+        when(approverDirectory.approverEmails()).thenReturn(List.of("approver@example.com"));
+        when(templates.renderOrder(any(), any())).thenReturn(new RenderedNotification("Order placed", "text", null));
+        when(templates.renderApproverDigest(anyList()))
+            .thenReturn(new RenderedNotification("New orders", "digest", null));
+        service = new NotificationService(mailSender, properties, notificationLogRepository, approverDirectory,
+            userRepository, buffer, templates, taskScheduler);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void notifyOrderCreated_buffersTheDigestEntryOnlyOnceTheOrderCommits() {
+        service.notifyOrderCreated(order());
+        assertThat(buffer.size()).isZero();
+
+        commit();
+
+        assertThat(buffer.size()).isEqualTo(1);
+    }
+
+    @Test
+    void notifyOrderCreated_leavesRolledBackOrdersOutOfTheDigest() {
+        service.notifyOrderCreated(order());
+
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void fullDigest_isFlushedOnTheSchedulerRatherThanTheRequestThread() {
+        service.notifyOrderCreated(order());
+        service.notifyOrderCreated(order());
+        service.notifyOrderCreated(order());
+        commit();
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(1)).schedule(flush.capture(), any(Instant.class));
+        verify(templates, never()).renderApproverDigest(anyList());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        flush.getValue().run();
+
+        ArgumentCaptor<SimpleMailMessage> messages = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSender, times(4)).send(messages.capture());
+        assertThat(messages.getAllValues().get(3).getTo()).containsExactly("approver@example.com");
+        assertThat(messages.getAllValues().get(3).getSubject()).isEqualTo("New orders");
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void flushApproverDigest_keepsEntriesThatCouldNotBeSent() {
+        service.notifyOrderCreated(order());
+        commit();
+        TransactionSynchronizationManager.clearSynchronization();
+        when(notificationLogRepository.save(any())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatThrownBy(service::flushApproverDigest).isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(buffer.size()).isEqualTo(1);
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static Order order() {
+        return Order.builder()
+            .id(UUID.randomUUID())
+            .user(User.builder().username("store").email("store@example.com").build())
+            .status(OrderStatus.PENDING_APPROVAL)
+            .shippingAddress("1 Market Street")
+            .createdAt(OffsetDateTime.now())
+            .build();
+    }
+}
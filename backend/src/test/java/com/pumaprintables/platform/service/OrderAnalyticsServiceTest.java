@@ -0,0 +1,57 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class OrderAnalyticsServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final OrderAnalyticsProperties properties = new OrderAnalyticsProperties();
+    private OrderAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderAnalyticsService(jdbcTemplate, mock(PlatformTransactionManager.class), properties);
+    }
+
+    @Test
+    void refreshBatch_skipsWhenAnotherInstanceHoldsTheLock() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyLong())).thenReturn(false);
+
+        assertThat(service.refreshBatch(100)).isEqualTo(new OrderAnalyticsService.RefreshBatch(0, 0));
+
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(LocalDate.class), anyInt());
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    void refreshBatch_rebuildsEachChangedDayOnce() {
+        LocalDate day = LocalDate.parse("2025-03-01");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyLong())).thenReturn(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(LocalDate.class), anyInt()))
+            .thenReturn(List.of(day, day.plusDays(1), day, day));
+
+        assertThat(service.refreshBatch(100)).isEqualTo(new OrderAnalyticsService.RefreshBatch(4, 2));
+
+        // Each rollup table is cleared and refilled for the changed days in one statement apiece.
+        verify(jdbcTemplate, times(6)).update(anyString(), any(PreparedStatementSetter.class));
+    }
+}
@@ -0,0 +1,95 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.pumaprintables.platform.domain.repository.ProductRepository;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+
+class OrderArchiveServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final OrderArchiveProperties properties = new OrderArchiveProperties();
+    private OrderArchiveService service;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new OrderArchiveService(jdbcTemplate, transactionManager, mock(UserRepository.class),
+            mock(ProductRepository.class), properties);
+    }
+
+    @Test
+    void archiveIdleOrders_movesBatchesInSeparateTransactionsUntilAShortBatch() {
+        properties.setBatchSize(2);
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), any(), any(), anyInt()))
+            .thenReturn(ids(2), ids(2), ids(1));
+
+        int archived = service.archiveIdleOrders();
+
+        assertThat(archived).isEqualTo(5);
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void archiveBatch_copiesEveryTableBeforeDeletingTheLiveOrders() {
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), any(), any(), anyInt())).thenReturn(ids(3));
+
+        service.archiveBatch(OffsetDateTime.now(), 10);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(5)).update(sql.capture(), any(PreparedStatementSetter.class));
+        assertThat(sql.getAllValues())
+            .extracting(statement -> statement.strip().split("\\s+")[2])
+            .containsExactly("orders_archive", "order_items_archive", "approvals_archive", "courier_info_archive",
+                "orders");
+    }
+
+    @Test
+    void archiveBatch_claimsCandidatesWithoutBlockingOtherArchivers() {
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), any(), any(), anyInt())).thenReturn(List.of());
+
+        int archived = service.archiveBatch(OffsetDateTime.now(), 10);
+
+        assertThat(archived).isZero();
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).queryForList(sql.capture(), eq(UUID.class), any(), any(), eq(10));
+        assertThat(sql.getValue()).contains("FOR UPDATE OF o SKIP LOCKED");
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    void archiveOnSchedule_doesNothingWhenDisabled() {
+        properties.setEnabled(false);
+
+        service.archiveOnSchedule();
+
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    private static List<UUID> ids(int count) {
+        return Stream.generate(UUID::randomUUID).limit(count).toList();
+    }
+}
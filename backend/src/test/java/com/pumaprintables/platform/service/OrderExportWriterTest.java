@@ -0,0 +1,59 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+class OrderExportWriterTest {
+
+    private static final UUID ORDER_ID = UUID.fromString("5b0d7d8e-2f8b-4a57-9d0e-6a4f2f0f6c11");
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.parse("2025-03-01T09:30:00Z");
+
+    @Test
+    void csv_sendsTheHeaderBeforeAnyRowAndQuotesFields() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OrderExportWriter writer = OrderExportWriter.create(OrderExportService.ExportFormat.CSV, out)) {
+            assertThat(out.toString(StandardCharsets.UTF_8)).startsWith("Order ID,Created At,");
+
+            writer.write(line("221B Baker Street, London", null, 3));
+            writer.finish();
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith(
+            ORDER_ID + ",2025-03-01T09:30Z,APPROVED,store-user,,\"221B Baker Street, London\",,,,REG-01,Register,3\r\n");
+    }
+
+    @Test
+    void xlsx_writesEveryLineThroughTheRowWindow() throws IOException {
+        int lines = 5_000;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OrderExportWriter writer = OrderExportWriter.create(OrderExportService.ExportFormat.XLSX, out)) {
+            for (int i = 0; i < lines; i++) {
+                writer.write(line("Address " + i, "DL" + i, i));
+            }
+            writer.finish();
+        }
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Orders");
+            assertThat(sheet.getLastRowNum()).isEqualTo(lines);
+            assertThat(sheet.getRow(0).getCell(8).getStringCellValue()).isEqualTo("Tracking Number");
+            assertThat(sheet.getRow(lines).getCell(8).getStringCellValue()).isEqualTo("DL" + (lines - 1));
+            assertThat(sheet.getRow(lines).getCell(11).getNumericCellValue()).isEqualTo(lines - 1);
+        }
+    }
+
+    private static OrderExportService.ExportLine line(String shippingAddress, String trackingNumber, int quantity) {
+        return new OrderExportService.ExportLine(ORDER_ID, CREATED_AT, "APPROVED", "store-user", null,
+            shippingAddress, null, null, trackingNumber, "REG-01", "Register", quantity);
+    }
+}
@@ -0,0 +1,117 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class OrderRefreshServiceTest {
+
+    private static final UUID START = new UUID(0, 0);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final OrderRefreshService service = new OrderRefreshService(jdbcTemplate,
+        mock(PlatformTransactionManager.class), new OrderRefreshProperties());
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), any()))
+            .thenReturn(true);
+    }
+
+    @Test
+    void refreshBatch_advancesTheRequestWhenTheBatchIsFull() {
+        UUID productId = UUID.randomUUID();
+        UUID lastOrderId = UUID.randomUUID();
+        when(jdbcTemplate.queryForList(contains("FROM order_refresh_requests")))
+            .thenReturn(List.of(request(7L, null, productId)));
+        when(jdbcTemplate.queryForMap(anyString(), any(), any(), any()))
+            .thenReturn(Map.of("orders", 2L, "last_order_id", lastOrderId));
+
+        OrderRefreshService.Batch batch = service.refreshBatch(2);
+
+        assertThat(batch).isEqualTo(new OrderRefreshService.Batch(2, false));
+        verify(jdbcTemplate).queryForMap(contains("FROM order_items WHERE product_id = ?"), eq(productId),
+            eq(START), eq(2));
+        verify(jdbcTemplate).update(contains("SET last_order_id"), eq(lastOrderId), eq(7L));
+        verify(jdbcTemplate, never()).update(contains("DELETE FROM order_refresh_requests"), any(Object[].class));
+    }
+
+    @Test
+    void refreshBatch_removesTheRequestOnceItsLastOrdersAreDone() {
+        UUID userId = UUID.randomUUID();
+        when(jdbcTemplate.queryForList(contains("FROM order_refresh_requests")))
+            .thenReturn(List.of(request(3L, userId, null)));
+        Map<String, Object> result = new HashMap<>();
+        result.put("orders", 0L);
+        result.put("last_order_id", null);
+        when(jdbcTemplate.queryForMap(anyString(), any(), any(), any())).thenReturn(result);
+
+        assertThat(service.refreshBatch(500)).isEqualTo(new OrderRefreshService.Batch(0, false));
+
+        verify(jdbcTemplate).queryForMap(contains("FROM orders WHERE user_id = ?"), eq(userId), eq(START), eq(500));
+        verify(jdbcTemplate).update(contains("DELETE FROM order_refresh_requests"), eq(3L));
+    }
+
+    @Test
+    void refreshBatch_isIdleWithoutRequestsOrWhileAnotherInstanceHoldsTheLock() {
+        when(jdbcTemplate.queryForList(contains("FROM order_refresh_requests"))).thenReturn(List.of());
+        assertThat(service.refreshBatch(500)).isEqualTo(OrderRefreshService.Batch.IDLE);
+
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), any()))
+            .thenReturn(false);
+        assertThat(service.refreshBatch(500)).isEqualTo(OrderRefreshService.Batch.IDLE);
+
+        verify(jdbcTemplate, never()).queryForMap(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void refreshRenamedStore_refreshesASmallStoreInTheCallersTransactionAndDropsItsRequests() {
+        UUID userId = UUID.randomUUID();
+        when(jdbcTemplate.queryForObject(contains("FROM orders WHERE user_id = ?"), eq(Integer.class), any(), any()))
+            .thenReturn(3);
+
+        service.refreshRenamedStore(userId);
+
+        verify(jdbcTemplate).queryForObject(contains("FROM orders WHERE user_id = ?"), eq(Integer.class), eq(userId),
+            eq(201));
+        verify(jdbcTemplate).queryForMap(contains("FROM orders WHERE user_id = ?"), eq(userId), eq(START), eq(200));
+        verify(jdbcTemplate).update("DELETE FROM order_refresh_requests WHERE user_id = ?", userId);
+    }
+
+    @Test
+    void refreshRenamedProduct_leavesProductsOnManyOrdersToTheSchedule() {
+        UUID productId = UUID.randomUUID();
+        when(jdbcTemplate.queryForObject(contains("FROM order_items WHERE product_id = ?"), eq(Integer.class), any(),
+            any())).thenReturn(201);
+
+        service.refreshRenamedProduct(productId);
+
+        verify(jdbcTemplate, never()).queryForMap(anyString(), any(Object[].class));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    private static Map<String, Object> request(long id, UUID userId, UUID productId) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("id", id);
+        request.put("user_id", userId);
+        request.put("product_id", productId);
+        request.put("last_order_id", START);
+        return request;
+    }
+}
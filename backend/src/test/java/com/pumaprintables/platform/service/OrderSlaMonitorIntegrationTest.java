@@ -0,0 +1,208 @@
+package com.pumaprintables.platform.service;
+
+import com.pumaprintables.platform.domain.model.Order;
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+import com.pumaprintables.platform.domain.repository.NotificationLogRepository;
+import com.pumaprintables.platform.domain.repository.OrderRepository;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link OrderSlaMonitor#sweep()} against Postgres, where the advisory lock, the partial index and the
+ * re-checking {@code UPDATE} it relies on actually apply.
+ */
+@SpringBootTest(properties = "puma.notifications.enabled=false")
+@Testcontainers(disabledWithoutDocker = true)
+class OrderSlaMonitorIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private OrderSlaMonitor monitor;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationLogRepository notificationLogRepository;
+
+    @Autowired
+    private ApproverDirectory approverDirectory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User store;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        notificationLogRepository.deleteAll();
+        userRepository.deleteAll();
+        approverDirectory.invalidate();
+
+        store = userRepository.save(user("sla-store", "store@example.com", UserRole.STORE_USER));
+        userRepository.save(user("sla-approver", "approver@example.com", UserRole.APPROVER));
+        userRepository.save(user("sla-agent", "agent@example.com", UserRole.FULFILLMENT_AGENT));
+        userRepository.save(user("sla-admin", "admin@example.com", UserRole.ADMIN));
+    }
+
+    @Test
+    void sweep_escalatesEachOverdueOrderOnceToWhoeverActsNext() {
+        UUID awaitingApproval = order(OrderStatus.PENDING_APPROVAL, "2 days");
+        UUID awaitingAcceptance = order(OrderStatus.APPROVED, "2 days");
+        UUID inTransit = order(OrderStatus.IN_TRANSIT, "6 days");
+        UUID onTime = order(OrderStatus.PENDING_APPROVAL, "1 hour");
+
+        assertThat(monitor.sweep()).isEqualTo(3);
+
+        // No escalation recipients are configured, as by default.
+        assertThat(recipients(awaitingApproval)).isEqualTo("approver@example.com");
+        assertThat(recipients(awaitingAcceptance)).isEqualTo("agent@example.com");
+        assertThat(recipients(inTransit)).isEqualTo("admin@example.com, store@example.com");
+        assertThat(escalatedStatus(onTime)).isNull();
+
+        assertThat(monitor.sweep()).isZero();
+        assertThat(notificationLogRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void sweep_leavesOrdersUnmarkedWhileNobodyWouldBeTold() {
+        UUID awaitingAcceptance = order(OrderStatus.APPROVED, "2 days");
+        jdbcTemplate.update("DELETE FROM users WHERE role = 'FULFILLMENT_AGENT'");
+
+        assertThat(monitor.sweep()).isZero();
+        assertThat(escalatedStatus(awaitingAcceptance)).isNull();
+
+        userRepository.save(user("sla-agent-2", "agent-2@example.com", UserRole.FULFILLMENT_AGENT));
+
+        assertThat(monitor.sweep()).isEqualTo(1);
+        assertThat(recipients(awaitingAcceptance)).isEqualTo("agent-2@example.com");
+    }
+
+    @Test
+    void sweep_skipsWhileAnotherInstanceHoldsTheLock() throws Exception {
+        UUID awaitingApproval = order(OrderStatus.PENDING_APPROVAL, "2 days");
+
+        try (Connection other = dataSource.getConnection()) {
+            assertThat(advisoryLock(other, "SELECT pg_try_advisory_lock(?)")).isTrue();
+
+            assertThat(monitor.sweep()).isZero();
+            assertThat(escalatedStatus(awaitingApproval)).isNull();
+
+            advisoryLock(other, "SELECT pg_advisory_unlock(?)");
+        }
+
+        assertThat(monitor.sweep()).isEqualTo(1);
+    }
+
+    @Test
+    void sweep_leavesAnOrderThatMovesOnWhileTheBatchWaitsForIt() throws Exception {
+        UUID awaitingApproval = order(OrderStatus.PENDING_APPROVAL, "2 days");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection approving = dataSource.getConnection()) {
+            approving.setAutoCommit(false);
+            try (PreparedStatement approve = approving.prepareStatement(
+                "UPDATE orders SET status = 'APPROVED', sla_started_at = now(), sla_escalated_status = NULL "
+                    + "WHERE id = ?")) {
+                approve.setObject(1, awaitingApproval);
+                approve.executeUpdate();
+            }
+
+            // The sweep's scan still sees the order as overdue and its UPDATE queues behind the approval.
+            Future<Integer> sweep = executor.submit(monitor::sweep);
+            awaitBlockedStatement();
+            approving.commit();
+
+            assertThat(sweep.get(10, TimeUnit.SECONDS)).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(escalatedStatus(awaitingApproval)).isNull();
+        assertThat(notificationLogRepository.count()).isZero();
+    }
+
+    private UUID order(OrderStatus status, String idleFor) {
+        Order order = orderRepository.save(Order.builder()
+            .user(store)
+            .status(status)
+            .shippingAddress("1 Harbour Road")
+            .build());
+        jdbcTemplate.update("UPDATE orders SET sla_started_at = now() - CAST(? AS interval) WHERE id = ?", idleFor,
+            order.getId());
+        return order.getId();
+    }
+
+    private String recipients(UUID orderId) {
+        return jdbcTemplate.queryForObject("SELECT recipients FROM notification_logs WHERE subject LIKE ?",
+            String.class, "%" + orderId + "%");
+    }
+
+    private String escalatedStatus(UUID orderId) {
+        return jdbcTemplate.queryForObject("SELECT sla_escalated_status FROM orders WHERE id = ?", String.class,
+            orderId);
+    }
+
+    private void awaitBlockedStatement() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Integer waiting = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM pg_stat_activity
+                 WHERE datname = current_database() AND wait_event_type = 'Lock'""", Integer.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("The sweep never waited for the order being approved");
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, OrderSlaMonitor.SWEEP_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static User user(String username, String email, UserRole role) {
+        return User.builder()
+            .username(username)
+            .password("hashed")
+            .email(email)
+            .role(role)
+            .build();
+    }
+}
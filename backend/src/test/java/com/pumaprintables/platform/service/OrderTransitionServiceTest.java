@@ -0,0 +1,158 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+
+import com.pumaprintables.platform.domain.model.Order;
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.OrderEvent;
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+import com.pumaprintables.platform.domain.repository.OrderRepository;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+import com.pumaprintables.platform.service.OrderStateMachine.Transition;
+import com.pumaprintables.platform.service.OrderStateMachine.TransitionDetails;
+import com.pumaprintables.platform.service.exception.InvalidOrderStateException;
+import com.pumaprintables.platform.service.exception.InvalidOrderTransitionException;
+import com.pumaprintables.platform.service.exception.OrderClaimedException;
+
+class OrderTransitionServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final OrderArchiveService orderArchiveService = mock(OrderArchiveService.class);
+    private final OrderRefreshService orderRefreshService = mock(OrderRefreshService.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final UUID orderId = UUID.randomUUID();
+    private final UUID agentId = UUID.randomUUID();
+    private OrderTransitionService service;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findByUsername("agent"))
+            .thenReturn(Optional.of(User.builder().id(agentId).role(UserRole.FULFILLMENT_AGENT).build()));
+        service = new OrderTransitionService(jdbcTemplate, orderRepository, userRepository, orderArchiveService,
+            orderRefreshService, notificationService);
+    }
+
+    @Test
+    void stateMachine_reachesEveryStatusAndEndsOnlyInFulfilledOrRejected() {
+        OrderStateMachine machine = service.stateMachine();
+        Set<OrderStatus> reachable = EnumSet.of(OrderStatus.PENDING_APPROVAL);
+        machine.transitions().forEach(transition -> reachable.add(transition.to()));
+
+        assertThat(reachable).containsExactlyInAnyOrder(OrderStatus.values());
+        assertThat(EnumSet.allOf(OrderStatus.class).stream().filter(status -> machine.eventsFrom(status).isEmpty()))
+            .containsExactlyInAnyOrder(OrderStatus.FULFILLED, OrderStatus.REJECTED);
+        assertThat(machine.eventsFrom(OrderStatus.IN_TRANSIT))
+            .containsExactlyInAnyOrder(OrderEvent.DISPATCH, OrderEvent.FULFILL);
+    }
+
+    @Test
+    void stateMachine_needsExactlyOneTransitionPerEvent() {
+        List<Transition> transitions = List.copyOf(service.stateMachine().transitions());
+
+        assertThatThrownBy(() -> new OrderStateMachine(transitions.subList(1, transitions.size())))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OrderStateMachine(List.of(transitions.get(0), transitions.get(0))))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void apply_fulfilsWithOneConditionalUpdateThenAuditsAndNotifies() {
+        Order order = Order.builder().id(orderId).status(OrderStatus.FULFILLED).build();
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any()))
+            .thenReturn(List.of(OrderStatus.IN_TRANSIT.name()));
+        when(orderRepository.findWithDetailsByIdIn(List.of(orderId))).thenReturn(List.of(order));
+
+        Order result = service.apply(orderId, OrderEvent.FULFILL, "agent", TransitionDetails.NONE);
+
+        assertThat(result).isSameAs(order);
+        verify(jdbcTemplate).queryForList(contains("o.status IN ('IN_TRANSIT')"), eq(String.class), eq(orderId),
+            eq(OrderStatus.FULFILLED.name()));
+        verify(jdbcTemplate).queryForList(contains("sla_started_at = now(),\n       sla_escalated_status = NULL"),
+            eq(String.class), any(), any());
+        verify(jdbcTemplate).update(contains("INSERT INTO audit_log"), any(), eq(orderId),
+            eq("{\"status\":\"IN_TRANSIT\"}"), eq("{\"status\":\"FULFILLED\",\"event\":\"FULFILL\"}"), eq(agentId));
+        verify(notificationService).notifyOrderFulfilled(order);
+    }
+
+    @Test
+    void apply_dispatchStartsTheSlaClockAtTheDispatchDateThenRecordsCourierAndRefreshesTheOrderOnce() {
+        OffsetDateTime dispatchDate = OffsetDateTime.now().minusHours(3);
+        Order order = Order.builder().id(orderId).status(OrderStatus.IN_TRANSIT).build();
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any(), any()))
+            .thenReturn(List.of(OrderStatus.ACCEPTED.name()));
+        when(orderRepository.findWithDetailsByIdIn(List.of(orderId))).thenReturn(List.of(order));
+
+        service.apply(orderId, OrderEvent.DISPATCH, "agent",
+            new TransitionDetails(null, null, "Bluedart", "BD-1", dispatchDate));
+
+        InOrder inOrder = inOrder(jdbcTemplate, orderRefreshService);
+        inOrder.verify(jdbcTemplate).queryForList(contains("sla_started_at = ?,\n       sla_escalated_status = NULL"),
+            eq(String.class), eq(orderId), eq(OrderStatus.IN_TRANSIT.name()), eq(dispatchDate));
+        inOrder.verify(jdbcTemplate).update(contains("INSERT INTO courier_info"), eq(orderId), eq("Bluedart"),
+            eq("BD-1"), eq(dispatchDate));
+        inOrder.verify(orderRefreshService).refresh(orderId);
+        verify(notificationService).notifyCourierUpdated(order);
+    }
+
+    @Test
+    void apply_rejectsRolesAndDetailsBeforeWriting() {
+        assertThatThrownBy(() -> service.apply(orderId, OrderEvent.APPROVE, "agent",
+            new TransitionDetails("Looks good", null, null, null, null)))
+            .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> service.apply(orderId, OrderEvent.DISPATCH, "agent",
+            new TransitionDetails(null, null, "Bluedart", " ", OffsetDateTime.now())))
+            .isInstanceOf(InvalidOrderTransitionException.class)
+            .hasMessage("Tracking number is required");
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void apply_explainsWhyTheConditionalUpdateMatchedNothing() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any(), any(), any()))
+            .thenReturn(List.of());
+        Order leased = Order.builder()
+            .id(orderId)
+            .status(OrderStatus.APPROVED)
+            .claimedBy(UUID.randomUUID())
+            .claimExpiresAt(OffsetDateTime.now().plusMinutes(5))
+            .build();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(leased));
+
+        assertThatThrownBy(() -> service.apply(orderId, OrderEvent.ACCEPT, "agent", TransitionDetails.NONE))
+            .isInstanceOf(OrderClaimedException.class);
+
+        leased.setStatus(OrderStatus.ACCEPTED);
+        assertThatThrownBy(() -> service.apply(orderId, OrderEvent.ACCEPT, "agent", TransitionDetails.NONE))
+            .isInstanceOf(InvalidOrderStateException.class)
+            .hasMessage("Only approved orders can be accepted");
+        verify(notificationService, never()).notifyOrderAccepted(any());
+    }
+}
@@ -0,0 +1,50 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+class PickListManifestWriterTest {
+
+    @Test
+    void csv_quotesFieldsAndNeutralisesFormulas() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PickListManifestWriter writer = PickListManifestWriter.create(PickListService.ManifestFormat.CSV, out)) {
+            writer.write(new PickListService.ManifestLine("REG-01", "Register, A4", "12 \"Main\" Rd\nPune", 40, 3));
+            writer.write(new PickListService.ManifestLine("=CMD()", "Log book", "Depot", 5, 1));
+            writer.finish();
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "SKU,Product,Delivery Address,Quantity,Orders\r\n"
+                + "REG-01,\"Register, A4\",\"12 \"\"Main\"\" Rd\nPune\",40,3\r\n"
+                + "'=CMD(),Log book,Depot,5,1\r\n");
+    }
+
+    @Test
+    void xlsx_writesEveryLineThroughTheRowWindow() throws IOException {
+        int lines = 5_000;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PickListManifestWriter writer = PickListManifestWriter.create(PickListService.ManifestFormat.XLSX, out)) {
+            for (int i = 0; i < lines; i++) {
+                writer.write(new PickListService.ManifestLine("SKU-" + i, "Register", "Address " + i, i, 1));
+            }
+            writer.finish();
+        }
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Manifest");
+            assertThat(sheet.getLastRowNum()).isEqualTo(lines);
+            assertThat(sheet.getRow(0).getCell(2).getStringCellValue()).isEqualTo("Delivery Address");
+            assertThat(sheet.getRow(lines).getCell(0).getStringCellValue()).isEqualTo("SKU-" + (lines - 1));
+            assertThat(sheet.getRow(lines).getCell(3).getNumericCellValue()).isEqualTo(lines - 1);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+class ProductImportReaderTest {
+
+    @Test
+    void csv_handlesQuotedFieldsLineBreaksAndByteOrderMark() throws IOException {
+        String csv = "\uFEFFsku,name,specifications\r\n"
+            + "REG-01,\"Register, A4\",\"{\"\"pages\"\": 200}\"\r\n"
+            + "REG-02,\"Two\nlines\",\n";
+        List<List<String>> rows = new ArrayList<>();
+        List<Integer> rowNumbers = new ArrayList<>();
+
+        ProductImportReader.create(ProductImportService.ImportFormat.CSV)
+            .read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), (rowNumber, values) -> {
+                rowNumbers.add(rowNumber);
+                rows.add(values);
+            });
+
+        assertThat(rowNumbers).containsExactly(1, 2, 3);
+        assertThat(rows.get(0)).containsExactly("sku", "name", "specifications");
+        assertThat(rows.get(1)).containsExactly("REG-01", "Register, A4", "{\"pages\": 200}");
+        assertThat(rows.get(2)).containsExactly("REG-02", "Two\nlines", "");
+    }
+
+    @Test
+    void xlsx_reportsRowsWithTheirSheetNumbersAndPadsEmptyCells() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Products");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("sku");
+            header.createCell(1).setCellValue("name");
+            header.createCell(2).setCellValue("stockQuantity");
+            Row row = sheet.createRow(3);
+            row.createCell(0).setCellValue("REG-01");
+            row.createCell(2).setCellValue(40);
+            workbook.write(out);
+        }
+        List<List<String>> rows = new ArrayList<>();
+        List<Integer> rowNumbers = new ArrayList<>();
+
+        ProductImportReader.create(ProductImportService.ImportFormat.XLSX)
+            .read(new ByteArrayInputStream(out.toByteArray()), (rowNumber, values) -> {
+                rowNumbers.add(rowNumber);
+                rows.add(values);
+            });
+
+        assertThat(rowNumbers).containsExactly(1, 4);
+        assertThat(rows.get(1)).containsExactly("REG-01", "", "40");
+    }
+}
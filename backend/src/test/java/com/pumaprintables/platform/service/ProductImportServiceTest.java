@@ -0,0 +1,85 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pumaprintables.platform.domain.model.Product;
+import com.pumaprintables.platform.service.exception.InvalidProductImportException;
+
+class ProductImportServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final Cache cache = mock(Cache.class);
+    private ProductImportService service;
+
+    @BeforeEach
+    void setUp() {
+        jakarta.persistence.Cache jpaCache = mock(jakarta.persistence.Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(jpaCache);
+        when(jpaCache.unwrap(Cache.class)).thenReturn(cache);
+        service = new ProductImportService(jdbcTemplate, mock(PlatformTransactionManager.class), entityManagerFactory,
+            new ObjectMapper(), mock(CacheInvalidationBus.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importProducts_upsertsValidRowsAndReportsTheRest() throws IOException {
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+            .thenReturn(List.of(true, false));
+        String csv = """
+            SKU,Name,Description,Stock Quantity,Specifications,Active
+            REG-01,Register,Bound register,40,"{""pages"": 200}",
+            REG-02,Log book,Daily log,-1,,
+            REG-03,Form,Intake form,5,not json,maybe
+            REG-01,Register again,Bound register,41,,
+            REG-04,Envelope,Window envelope,100,,no
+            """;
+
+        ProductImportService.ImportReport report = service.importProducts(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ProductImportService.ImportFormat.CSV);
+
+        assertThat(report.rows()).isEqualTo(5);
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.updated()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(3);
+        assertThat(report.errors()).containsExactly(
+            new ProductImportService.RowError(3, "REG-02", "Stock cannot be negative"),
+            new ProductImportService.RowError(4, "REG-03",
+                "Active must be true or false; Specifications must be a JSON object"),
+            new ProductImportService.RowError(5, "REG-01", "Duplicate SKU in file"));
+        verify(cache).evictEntityData(Product.class);
+        verify(cache).evictNaturalIdData(Product.class);
+    }
+
+    @Test
+    void importProducts_rejectsFilesWithoutRequiredColumns() {
+        String csv = "sku,name\nREG-01,Register\n";
+
+        assertThatThrownBy(() -> service.importProducts(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ProductImportService.ImportFormat.CSV))
+            .isInstanceOf(InvalidProductImportException.class)
+            .hasMessageContaining("description");
+    }
+}
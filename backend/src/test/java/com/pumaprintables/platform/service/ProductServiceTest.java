@@ -0,0 +1,78 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pumaprintables.platform.domain.model.Product;
+import com.pumaprintables.platform.domain.repository.ProductFilter;
+import com.pumaprintables.platform.domain.repository.ProductRepository;
+import com.pumaprintables.platform.service.exception.InvalidProductFilterException;
+
+class ProductServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductService service = new ProductService(productRepository, new ObjectMapper(),
+        mock(CacheInvalidationBus.class), mock(OrderRefreshService.class));
+
+    @Test
+    void parseFilter_readsContainmentKeysAndRanges() {
+        ProductFilter filter = service.parseFilter("{\"material\":\"cotton\"}", List.of("size"),
+            List.of("gsm:180..220", "width:..40", "ratio:a:b:0.5.."), true, "Hood");
+
+        assertThat(filter.contains().get("material").asText()).isEqualTo("cotton");
+        assertThat(filter.keys()).containsExactly("size");
+        assertThat(filter.ranges()).containsExactly(
+            new ProductFilter.Range("gsm", new BigDecimal("180"), new BigDecimal("220")),
+            new ProductFilter.Range("width", null, new BigDecimal("40")),
+            new ProductFilter.Range("ratio:a:b", new BigDecimal("0.5"), null));
+        assertThat(filter.active()).isTrue();
+    }
+
+    @Test
+    void parseFilter_rejectsMalformedInput() {
+        assertThatThrownBy(() -> service.parseFilter("[1]", null, null, null, null))
+            .isInstanceOf(InvalidProductFilterException.class);
+        assertThatThrownBy(() -> service.parseFilter("{", null, null, null, null))
+            .isInstanceOf(InvalidProductFilterException.class);
+        assertThatThrownBy(() -> service.parseFilter(null, null, List.of("gsm:.."), null, null))
+            .isInstanceOf(InvalidProductFilterException.class);
+        assertThatThrownBy(() -> service.parseFilter(null, null, List.of("gsm:300..100"), null, null))
+            .isInstanceOf(InvalidProductFilterException.class);
+        assertThatThrownBy(() -> service.parseFilter(null, null, List.of("gsm:heavy.."), null, null))
+            .isInstanceOf(InvalidProductFilterException.class);
+        assertThatThrownBy(() -> service.parseFilter(null, Collections.nCopies(11, "size"), null, null, null))
+            .isInstanceOf(InvalidProductFilterException.class);
+    }
+
+    @Test
+    void filterProducts_skipsCountQueryOnLastPage() {
+        ProductFilter filter = new ProductFilter(null, null, null, true, null);
+        when(productRepository.filter(filter, 20, 10)).thenReturn(List.of(new Product(), new Product()));
+
+        ProductService.ProductPage page = service.filterProducts(filter, 2, 10);
+
+        assertThat(page.total()).isEqualTo(22);
+        verify(productRepository, never()).countMatching(any());
+    }
+
+    @Test
+    void filterProducts_countsWhenPageIsFull() {
+        ProductFilter filter = new ProductFilter(null, null, null, true, null);
+        when(productRepository.filter(filter, 0, 1)).thenReturn(List.of(new Product()));
+        when(productRepository.countMatching(filter)).thenReturn(7L);
+
+        assertThat(service.filterProducts(filter, 0, 1).total()).isEqualTo(7);
+    }
+}
@@ -0,0 +1,79 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.pumaprintables.platform.domain.model.TokenRevocation;
+import com.pumaprintables.platform.domain.repository.TokenRevocationRepository;
+import com.pumaprintables.platform.security.JwtProperties;
+import com.pumaprintables.platform.security.TokenDenylist;
+
+class TokenRevocationServiceTest {
+
+    private final TokenRevocationRepository repository = mock(TokenRevocationRepository.class);
+    private final TokenDenylist denylist = new TokenDenylist();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+    private final TokenRevocationService service =
+        new TokenRevocationService(repository, denylist, new JwtProperties(), jdbcTemplate, bus);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void revokeAllTokens_cutsOffBelowTheUsersNextGenerationAndPushesTheRevocation() {
+        UUID id = UUID.randomUUID();
+        when(jdbcTemplate.query(contains("nextval('token_generations')"), any(RowMapper.class), eq("store")))
+            .thenReturn(List.of(42L));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            TokenRevocation revocation = invocation.getArgument(0);
+            revocation.setId(id);
+            return revocation;
+        });
+
+        service.revokeAllTokens("store");
+
+        ArgumentCaptor<TokenRevocation> saved = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getTokenGeneration()).isEqualTo(42L);
+        verify(bus).publish(CacheInvalidation.tokenRevocation(id));
+        assertThat(denylist.isRevoked("a", "store", 41L)).isTrue();
+        assertThat(denylist.isRevoked("b", "store", 42L)).isFalse();
+    }
+
+    @Test
+    void onInvalidation_appliesTheRevocationPushedByAnotherInstance() {
+        UUID id = UUID.randomUUID();
+        when(repository.findById(id)).thenReturn(Optional.of(TokenRevocation.builder()
+            .id(id)
+            .tokenId("token-1")
+            .subject("store")
+            .expiresAt(OffsetDateTime.now().plusHours(1))
+            .build()));
+
+        service.onInvalidation(CacheInvalidation.tokenRevocation(id));
+
+        assertThat(denylist.isRevoked("token-1", "store", 0L)).isTrue();
+    }
+
+    @Test
+    void onInvalidation_ignoresOtherCaches() {
+        service.onInvalidation(CacheInvalidation.product(UUID.randomUUID()));
+
+        verifyNoInteractions(repository);
+    }
+}
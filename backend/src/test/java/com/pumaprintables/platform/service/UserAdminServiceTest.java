@@ -0,0 +1,63 @@
+package com.pumaprintables.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+
+class UserAdminServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final LoginStatsRecorder loginStatsRecorder = mock(LoginStatsRecorder.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final UserAdminService service = new UserAdminService(userRepository, mock(ApproverDirectory.class),
+        loginStatsRecorder, mock(TokenRevocationService.class), mock(CacheInvalidationBus.class), transactionManager);
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void getAllUsers_flushesLoginStatsBeforeReadingFromThePrimary() {
+        User user = User.builder().username("store-user").role(UserRole.STORE_USER).build();
+        when(userRepository.findAll(any(Sort.class))).thenReturn(List.of(user));
+
+        assertThat(service.getAllUsers()).containsExactly(user);
+
+        InOrder inOrder = inOrder(loginStatsRecorder, transactionManager, userRepository);
+        inOrder.verify(loginStatsRecorder).flush();
+        inOrder.verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+        inOrder.verify(userRepository).findAll(any(Sort.class));
+    }
+
+    @Test
+    void getMetrics_flushesLoginStatsBeforeCountingOnThePrimary() {
+        when(userRepository.count()).thenReturn(4L);
+        when(userRepository.countByRole(UserRole.STORE_USER)).thenReturn(2L);
+
+        UserAdminService.UserMetrics metrics = service.getMetrics(0);
+
+        assertThat(metrics.totalUsers()).isEqualTo(4);
+        assertThat(metrics.storeUsers()).isEqualTo(2);
+        InOrder inOrder = inOrder(loginStatsRecorder, transactionManager, userRepository);
+        inOrder.verify(loginStatsRecorder).flush();
+        inOrder.verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+        inOrder.verify(userRepository).count();
+    }
+}
@@ -0,0 +1,177 @@
+package com.pumaprintables.platform.service.template;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import com.pumaprintables.platform.domain.model.Approval;
+import com.pumaprintables.platform.domain.model.CourierInfo;
+import com.pumaprintables.platform.domain.model.Order;
+import com.pumaprintables.platform.domain.model.OrderItem;
+import com.pumaprintables.platform.domain.model.Product;
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.OrderStatus;
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+import com.pumaprintables.platform.service.NotificationProperties;
+
+/**
+ * Compares the compiled templates against the previous hand-built {@code StringBuilder} summary.
+ * JMH forks a JVM, so run it from a plain classpath rather than through Maven:
+ * <pre>
+ * ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/bench-cp.txt -Dmdep.includeScope=test
+ * java -cp "target/test-classes:target/classes:$(cat target/bench-cp.txt)" org.openjdk.jmh.Main NotificationRenderingBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationRenderingBenchmark {
+
+    private NotificationTemplates templates;
+    private CompiledTemplate<Order> plainText;
+    private StringBuilder buffer;
+    private Order order;
+
+    @Setup
+    public void setUp() throws IOException {
+        templates = new NotificationTemplates(new DefaultResourceLoader(), new NotificationProperties());
+        plainText = new TemplateCompiler(NotificationRenderingBenchmark::classpathPartial)
+            .compile("order-dispatched.txt", classpathTemplate("order-dispatched.txt"), NotificationTemplates.orderSchema(), false);
+        buffer = new StringBuilder(2048);
+        order = sampleOrder(8);
+    }
+
+    @Benchmark
+    public String legacyStringBuilder() {
+        return LegacyOrderSummary.build("Your order is on the move. Courier details are included below.", order);
+    }
+
+    @Benchmark
+    public String compiledPlainText() {
+        buffer.setLength(0);
+        plainText.render(order, buffer);
+        return buffer.toString();
+    }
+
+    @Benchmark
+    public RenderedNotification compiledMultipart() {
+        return templates.renderOrder(OrderNotificationType.DISPATCHED, order);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(NotificationRenderingBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    private static String classpathPartial(String name) {
+        try {
+            return classpathTemplate("partials/" + name + ".txt");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String classpathTemplate(String path) throws IOException {
+        try (InputStream inputStream = NotificationRenderingBenchmark.class.getResourceAsStream("/notifications/templates/" + path)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    static Order sampleOrder(int itemCount) {
+        User storeUser = User.builder().id(UUID.randomUUID()).username("store-user").role(UserRole.STORE_USER).build();
+        User approver = User.builder().id(UUID.randomUUID()).username("approver-user").role(UserRole.APPROVER).build();
+
+        Order order = Order.builder()
+            .id(UUID.randomUUID())
+            .user(storeUser)
+            .status(OrderStatus.IN_TRANSIT)
+            .shippingAddress("221B Baker Street, London")
+            .deliveryAddress("Warehouse 4, Dock Road")
+            .customerGst("GSTIN12345")
+            .createdAt(OffsetDateTime.of(2024, 11, 22, 9, 30, 0, 0, ZoneOffset.UTC))
+            .build();
+        for (int i = 0; i < itemCount; i++) {
+            Product product = Product.builder().id(UUID.randomUUID()).sku("SKU-" + i).name("Register Book " + i).build();
+            order.addItem(OrderItem.of(order, product, i + 1));
+        }
+        order.setApproval(Approval.builder().order(order).approver(approver).comments("Approved for dispatch").build());
+        order.setCourierInfo(CourierInfo.builder()
+            .order(order)
+            .courierName("Bluedart")
+            .trackingNumber("BD123456789")
+            .dispatchDate(OffsetDateTime.of(2024, 11, 23, 14, 0, 0, 0, ZoneOffset.UTC))
+            .build());
+        return order;
+    }
+
+    /**
+     * Verbatim copy of the summary builder that {@code NotificationService} used before templates were introduced.
+     */
+    static final class LegacyOrderSummary {
+
+        private LegacyOrderSummary() {
+        }
+
+        static String build(String intro, Order order) {
+            StringBuilder builder = new StringBuilder(intro)
+                .append("\n\nOrder ID: ").append(order.getId())
+                .append("\nStatus: ").append(order.getStatus());
+
+            if (order.getApproval() != null && order.getApproval().getApprover() != null) {
+                builder.append("\nApprover: ").append(order.getApproval().getApprover().getUsername());
+            }
+
+            builder.append("\nPlaced By: ").append(Optional.ofNullable(order.getUser()).map(User::getUsername).orElse("Unknown"))
+                .append("\nShipping Address: ").append(Optional.ofNullable(order.getShippingAddress()).orElse("Not provided"));
+
+            if (order.getDeliveryAddress() != null && !order.getDeliveryAddress().isBlank()) {
+                builder.append("\nDelivery Address: ").append(order.getDeliveryAddress());
+            }
+
+            if (order.getCourierInfo() != null) {
+                builder.append("\nCourier: ").append(order.getCourierInfo().getCourierName())
+                    .append("\nTracking #: ").append(order.getCourierInfo().getTrackingNumber());
+                if (order.getCourierInfo().getDispatchDate() != null) {
+                    builder.append("\nDispatch Date: ").append(NotificationTemplates.DATE_FORMATTER.format(order.getCourierInfo().getDispatchDate()));
+                }
+            }
+
+            builder.append("\n\nItems:\n")
+                .append(order.getItems().stream()
+                    .map(item -> "- " + item.getProduct().getName() + " x" + item.getQuantity())
+                    .collect(Collectors.joining("\n")));
+
+            if (order.getApproval() != null && order.getApproval().getComments() != null && !order.getApproval().getComments().isBlank()) {
+                builder.append("\nApprover Comments: ").append(order.getApproval().getComments());
+            }
+
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.pumaprintables.platform.service.template;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import com.pumaprintables.platform.domain.model.Order;
+import com.pumaprintables.platform.service.ApproverDigestBuffer;
+import com.pumaprintables.platform.service.NotificationProperties;
+
+class NotificationTemplatesTest {
+
+    private final NotificationTemplates templates = new NotificationTemplates(new DefaultResourceLoader(), new NotificationProperties());
+
+    @Test
+    void renderOrder_matchesLegacyPlainTextSummary() {
+        Order order = NotificationRenderingBenchmark.sampleOrder(3);
+
+        RenderedNotification rendered = templates.renderOrder(OrderNotificationType.DISPATCHED, order);
+
+        String legacy = NotificationRenderingBenchmark.LegacyOrderSummary.build(
+            "Your order is on the move. Courier details are included below.", order);
+        assertThat(rendered.subject()).isEqualTo("Order " + order.getId() + " dispatched");
+        assertThat(rendered.text().stripTrailing()).isEqualTo(legacy);
+        assertThat(rendered.html()).contains("<td>BD123456789</td>");
+    }
+
+    @Test
+    void renderOrder_escapesValuesInHtmlOnly() {
+        Order order = NotificationRenderingBenchmark.sampleOrder(1);
+        order.setShippingAddress("Unit <4> & Sons");
+
+        RenderedNotification rendered = templates.renderOrder(OrderNotificationType.CREATED, order);
+
+        assertThat(rendered.text()).contains("Shipping Address: Unit <4> & Sons");
+        assertThat(rendered.html()).contains("Unit &lt;4&gt; &amp; Sons");
+    }
+
+    @Test
+    void renderApproverDigest_listsEveryOrder() {
+        List<ApproverDigestBuffer.Entry> entries = List.of(
+            new ApproverDigestBuffer.Entry(UUID.randomUUID(), "store-a", "Addr A", 1, 2, OffsetDateTime.now()),
+            new ApproverDigestBuffer.Entry(UUID.randomUUID(), "store-b", "Addr B", 3, 9, OffsetDateTime.now()));
+
+        RenderedNotification rendered = templates.renderApproverDigest(entries);
+
+        assertThat(rendered.subject()).isEqualTo("2 orders are pending approval");
+        assertThat(rendered.text())
+            .contains("by store-a (1 item, 2 units)")
+            .contains("by store-b (3 items, 9 units)")
+            .contains("  Ship to: Addr B");
+    }
+
+    @Test
+    void overrideLocation_replacesSingleEventTemplate(@TempDir Path overrides) throws IOException {
+        Files.writeString(overrides.resolve("order-approved.subject.txt"), "Approved: {{orderId}}\n");
+        NotificationProperties properties = new NotificationProperties();
+        properties.getTemplates().setOverrideLocation(overrides.toUri().toString());
+        NotificationTemplates overridden = new NotificationTemplates(new DefaultResourceLoader(), properties);
+        Order order = NotificationRenderingBenchmark.sampleOrder(1);
+
+        assertThat(overridden.renderOrder(OrderNotificationType.APPROVED, order).subject())
+            .isEqualTo("Approved: " + order.getId());
+        assertThat(overridden.renderOrder(OrderNotificationType.REJECTED, order).subject())
+            .isEqualTo("Order " + order.getId() + " rejected");
+    }
+
+    @Test
+    void writeDate_matchesFormatterPattern() {
+        for (OffsetDateTime date : List.of(
+            OffsetDateTime.of(2024, 1, 5, 7, 3, 0, 0, ZoneOffset.UTC),
+            OffsetDateTime.of(2025, 12, 31, 23, 59, 59, 0, ZoneOffset.ofHoursMinutes(5, 30)),
+            OffsetDateTime.of(2023, 6, 15, 12, 0, 0, 0, ZoneOffset.ofHoursMinutes(-3, -30)))) {
+            StringBuilder out = new StringBuilder();
+            NotificationTemplates.writeDate(date, out);
+            assertThat(out.toString()).isEqualTo(NotificationTemplates.DATE_FORMATTER.format(date));
+        }
+    }
+
+    @Test
+    void compile_rejectsUnknownVariablesAndUnbalancedSections() {
+        TemplateCompiler compiler = new TemplateCompiler(name -> null);
+        TemplateSchema<Order> schema = NotificationTemplates.orderSchema();
+
+        assertThatThrownBy(() -> compiler.compile("broken", "{{missing}}", schema, false))
+            .isInstanceOf(TemplateException.class)
+            .hasMessageContaining("unknown variable 'missing'");
+        assertThatThrownBy(() -> compiler.compile("broken", "{{#items}}- {{productName}}", schema, false))
+            .isInstanceOf(TemplateException.class)
+            .hasMessageContaining("never closed");
+    }
+}
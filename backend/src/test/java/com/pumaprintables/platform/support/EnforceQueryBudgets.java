@@ -0,0 +1,24 @@
+package com.pumaprintables.platform.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Fails every MockMvc request of the annotated {@code @SpringBootTest} that runs more SQL statements than its
+ * endpoint's budget in {@code query-budgets.yml}, so N+1 regressions break the build like functional bugs do.
+ * Tighter, test-specific limits can be asserted with {@link QueryCountMatchers}. Every endpoint must be requested
+ * by at least one such test; see {@link QueryBudgetCoverageTest}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Import(QueryBudgetConfiguration.class)
+@ExtendWith(QueryBudgetLedger.class)
+public @interface EnforceQueryBudgets {
+}
@@ -0,0 +1,40 @@
+package com.pumaprintables.platform.support;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+import com.pumaprintables.platform.config.datasource.ProfilingDataSource;
+
+/**
+ * Wires the {@link QueryCounter} into the application's data source and the budget check in front of every request.
+ * Imported through {@link EnforceQueryBudgets}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class QueryBudgetConfiguration {
+
+    @Bean
+    static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new ProfilingDataSource(dataSource, new QueryCounter());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter() {
+        FilterRegistrationBean<QueryBudgetFilter> registration = new FilterRegistrationBean<>(new QueryBudgetFilter());
+        // Ahead of the security chain, so its lookups count towards the request.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,100 @@
+package com.pumaprintables.platform.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Runs after every other test class (see {@code junit-platform.properties}), so that once all
+ * {@link EnforceQueryBudgets} tests have run in the same JVM it can check that each endpoint was requested by one.
+ */
+@Order(Integer.MAX_VALUE)
+class QueryBudgetCoverageTest {
+
+    private static final String BASE_PACKAGE = "com.pumaprintables.platform";
+    private static final String CONTROLLER_PACKAGE = BASE_PACKAGE + ".web.controller";
+
+    @Test
+    void everyControllerEndpointHasExactlyOneBudget() throws ClassNotFoundException {
+        Set<String> endpoints = controllerEndpoints();
+
+        assertThat(endpoints).isNotEmpty();
+        assertThat(QueryBudgets.all().keySet())
+            .as("Endpoints in %s, compared with the controllers", QueryBudgets.RESOURCE)
+            .containsExactlyInAnyOrderElementsOf(endpoints);
+    }
+
+    @Test
+    void everyControllerEndpointIsRequestedByATestThatEnforcesBudgets() throws ClassNotFoundException {
+        Set<Class<?>> enforcing = enforcingTestClasses();
+        // Skipped on partial runs and without Docker, when the database suites do not run.
+        assumeTrue(!enforcing.isEmpty() && QueryBudgetLedger.completed(enforcing),
+            "every @EnforceQueryBudgets test class ran in this JVM");
+
+        Set<String> unrequested = controllerEndpoints();
+        unrequested.removeAll(QueryBudgetLedger.observed().keySet());
+        assertThat(unrequested)
+            .as("Endpoints no @EnforceQueryBudgets test requests, so their budgets are never checked")
+            .isEmpty();
+    }
+
+    @Test
+    void classifiesStatementsByTheirWrite() {
+        assertThat(QueryCount.NONE.plus(" select * from orders").selects()).isEqualTo(1);
+        assertThat(QueryCount.NONE.plus("(SELECT 1) UNION ALL (SELECT 2)").selects()).isEqualTo(1);
+        assertThat(QueryCount.NONE.plus("WITH next AS (SELECT id FROM orders) UPDATE orders SET x = 1").updates())
+            .isEqualTo(1);
+        assertThat(QueryCount.NONE.plus("with recent as (select 1) select * from recent").selects()).isEqualTo(1);
+        assertThat(QueryCount.NONE.plus("LISTEN puma_cache_invalidation").others()).isEqualTo(1);
+        assertThat(QueryCount.NONE.plus("insert into orders values (?)").exceeds(new QueryCount(5, 0, 0, 0, 0)))
+            .isTrue();
+    }
+
+    private static Set<Class<?>> enforcingTestClasses() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(EnforceQueryBudgets.class));
+        Set<Class<?>> testClasses = new HashSet<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(BASE_PACKAGE)) {
+            testClasses.add(ClassUtils.forName(candidate.getBeanClassName(), null));
+        }
+        return testClasses;
+    }
+
+    private static Set<String> controllerEndpoints() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
+        Set<String> endpoints = new TreeSet<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(CONTROLLER_PACKAGE)) {
+            Class<?> controller = ClassUtils.forName(candidate.getBeanClassName(), null);
+            RequestMapping base = AnnotatedElementUtils.findMergedAnnotation(controller, RequestMapping.class);
+            String prefix = base != null && base.path().length > 0 ? base.path()[0] : "";
+            for (Method method : controller.getDeclaredMethods()) {
+                RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+                if (mapping == null) {
+                    continue;
+                }
+                String[] paths = mapping.path().length > 0 ? mapping.path() : new String[] {""};
+                for (var httpMethod : mapping.method()) {
+                    for (String path : paths) {
+                        endpoints.add(httpMethod + " " + prefix + path);
+                    }
+                }
+            }
+        }
+        return endpoints;
+    }
+}
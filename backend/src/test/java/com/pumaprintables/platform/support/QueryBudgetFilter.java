@@ -0,0 +1,44 @@
+package com.pumaprintables.platform.support;
+
+import java.io.IOException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts each request's statements and fails the MockMvc call with an {@link AssertionError} when the endpoint has
+ * no declared budget or runs more than it. Requests rejected before reaching a controller are not checked.
+ */
+class QueryBudgetFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        QueryCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCounter.stop();
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;
+        }
+        String endpoint = request.getMethod() + " " + pattern;
+        QueryCount budget = QueryBudgets.budgetFor(endpoint);
+        QueryCount count = QueryCounter.lastRequest();
+        QueryBudgetLedger.record(endpoint, count);
+        if (budget == null) {
+            throw new AssertionError("No query budget declared for " + endpoint + " in " + QueryBudgets.RESOURCE
+                + "; this request ran " + count);
+        }
+        if (count.exceeds(budget)) {
+            throw new AssertionError(endpoint + " ran " + count + ", over its budget of " + budget);
+        }
+    }
+}
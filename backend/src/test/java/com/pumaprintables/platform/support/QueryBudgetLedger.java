@@ -0,0 +1,40 @@
+package com.pumaprintables.platform.support;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Remembers, for the whole test run, the most statements each endpoint ran under {@link EnforceQueryBudgets} and
+ * which of those test classes ran to the end. {@link QueryBudgetCoverageTest} uses it to find endpoints no request
+ * reached; the observed counts are what the budgets are measured against.
+ */
+public final class QueryBudgetLedger implements AfterAllCallback {
+
+    private static final Map<String, QueryCount> OBSERVED = new ConcurrentHashMap<>();
+    private static final Set<Class<?>> COMPLETED = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        COMPLETED.add(context.getRequiredTestClass());
+    }
+
+    static void record(String endpoint, QueryCount count) {
+        OBSERVED.merge(endpoint, count, QueryCount::max);
+    }
+
+    /**
+     * @return the most statements of each kind a single request ran, by endpoint
+     */
+    static Map<String, QueryCount> observed() {
+        return new TreeMap<>(OBSERVED);
+    }
+
+    static boolean completed(Set<Class<?>> testClasses) {
+        return COMPLETED.containsAll(testClasses);
+    }
+}
@@ -0,0 +1,65 @@
+package com.pumaprintables.platform.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Per-endpoint statement budgets declared in {@code query-budgets.yml} on the test classpath, keyed by
+ * {@code "<METHOD> <path pattern>"} exactly as the controllers map them. Kinds of statement an entry leaves out are
+ * not allowed at all.
+ */
+public final class QueryBudgets {
+
+    static final String RESOURCE = "query-budgets.yml";
+
+    private static final Set<String> KINDS = Set.of("select", "insert", "update", "delete", "other");
+
+    private static volatile Map<String, QueryCount> budgets;
+
+    private QueryBudgets() {
+    }
+
+    /**
+     * @return the budget for the endpoint, or {@code null} if none is declared
+     */
+    public static QueryCount budgetFor(String endpoint) {
+        return all().get(endpoint);
+    }
+
+    public static Map<String, QueryCount> all() {
+        Map<String, QueryCount> loaded = budgets;
+        if (loaded == null) {
+            loaded = load();
+            budgets = loaded;
+        }
+        return loaded;
+    }
+
+    private static Map<String, QueryCount> load() {
+        try (InputStream input = QueryBudgets.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException(RESOURCE + " not found on the test classpath");
+            }
+            Map<String, Map<String, Integer>> entries = new Yaml().load(input);
+            Map<String, QueryCount> result = new LinkedHashMap<>();
+            entries.forEach((endpoint, limits) -> {
+                if (!KINDS.containsAll(limits.keySet())) {
+                    throw new IllegalStateException("Unknown statement kind in budget of " + endpoint + ": "
+                        + limits.keySet() + "; use " + KINDS);
+                }
+                result.put(endpoint, new QueryCount(limits.getOrDefault("select", 0),
+                    limits.getOrDefault("insert", 0), limits.getOrDefault("update", 0),
+                    limits.getOrDefault("delete", 0), limits.getOrDefault("other", 0)));
+            });
+            return Map.copyOf(result);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.pumaprintables.platform.support;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Statements executed during one request, by kind. Used both for what a request ran and for what it may run.
+ */
+public record QueryCount(int selects, int inserts, int updates, int deletes, int others) {
+
+    private static final Pattern FIRST_WORD = Pattern.compile("^[\\s(]*([A-Za-z]+)");
+    private static final Pattern MODIFYING = Pattern.compile("\\b(INSERT|UPDATE|DELETE)\\b", Pattern.CASE_INSENSITIVE);
+
+    public static final QueryCount NONE = new QueryCount(0, 0, 0, 0, 0);
+
+    public int total() {
+        return selects + inserts + updates + deletes + others;
+    }
+
+    QueryCount plus(String sql) {
+        return switch (kind(sql)) {
+            case "SELECT" -> new QueryCount(selects + 1, inserts, updates, deletes, others);
+            case "INSERT" -> new QueryCount(selects, inserts + 1, updates, deletes, others);
+            case "UPDATE" -> new QueryCount(selects, inserts, updates + 1, deletes, others);
+            case "DELETE" -> new QueryCount(selects, inserts, updates, deletes + 1, others);
+            default -> new QueryCount(selects, inserts, updates, deletes, others + 1);
+        };
+    }
+
+    /**
+     * @return whether any kind of statement exceeds the same kind in {@code budget}
+     */
+    boolean exceeds(QueryCount budget) {
+        return selects > budget.selects || inserts > budget.inserts || updates > budget.updates
+            || deletes > budget.deletes || others > budget.others;
+    }
+
+    /**
+     * @return the larger of the two counts for each kind of statement
+     */
+    QueryCount max(QueryCount other) {
+        return new QueryCount(Math.max(selects, other.selects), Math.max(inserts, other.inserts),
+            Math.max(updates, other.updates), Math.max(deletes, other.deletes), Math.max(others, other.others));
+    }
+
+    @Override
+    public String toString() {
+        return "select=" + selects + ", insert=" + inserts + ", update=" + updates + ", delete=" + deletes
+            + ", other=" + others;
+    }
+
+    static String kind(String sql) {
+        if (sql == null) {
+            return "OTHER";
+        }
+        Matcher first = FIRST_WORD.matcher(sql);
+        if (!first.find()) {
+            return "OTHER";
+        }
+        String word = first.group(1).toUpperCase(Locale.ROOT);
+        if (word.equals("WITH")) {
+            // A CTE counts as the write it performs, if any.
+            Matcher modifying = MODIFYING.matcher(sql);
+            return modifying.find() ? modifying.group(1).toUpperCase(Locale.ROOT) : "SELECT";
+        }
+        return word;
+    }
+}
@@ -0,0 +1,49 @@
+package com.pumaprintables.platform.support;
+
+import java.util.function.ToIntFunction;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * MockMvc matchers on the statements of the request just performed, for tests that need a tighter limit than the
+ * endpoint budget. Only available in tests annotated with {@link EnforceQueryBudgets}.
+ * <pre>
+ * mockMvc.perform(get("/api/v1/orders/pending"))
+ *     .andExpect(QueryCountMatchers.selectsAtMost(4));
+ * </pre>
+ */
+public final class QueryCountMatchers {
+
+    private QueryCountMatchers() {
+    }
+
+    public static ResultMatcher selectsAtMost(int max) {
+        return atMost("SELECT", QueryCount::selects, max);
+    }
+
+    public static ResultMatcher insertsAtMost(int max) {
+        return atMost("INSERT", QueryCount::inserts, max);
+    }
+
+    public static ResultMatcher updatesAtMost(int max) {
+        return atMost("UPDATE", QueryCount::updates, max);
+    }
+
+    public static ResultMatcher deletesAtMost(int max) {
+        return atMost("DELETE", QueryCount::deletes, max);
+    }
+
+    public static ResultMatcher statementsAtMost(int max) {
+        return atMost("total", QueryCount::total, max);
+    }
+
+    private static ResultMatcher atMost(String kind, ToIntFunction<QueryCount> counter, int max) {
+        return result -> {
+            QueryCount count = QueryCounter.lastRequest();
+            if (counter.applyAsInt(count) > max) {
+                throw new AssertionError("Expected at most " + max + " " + kind + " statements but the request ran "
+                    + count);
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.pumaprintables.platform.support;
+
+import com.pumaprintables.platform.config.datasource.StatementRecorder;
+
+/**
+ * Counts the statements run on the current thread between {@link #start()} and {@link #stop()}. MockMvc serves
+ * requests on the calling test thread, so this sees exactly the statements of the request under test and none of
+ * the test's own setup.
+ */
+public final class QueryCounter implements StatementRecorder {
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<QueryCount> LAST = ThreadLocal.withInitial(() -> QueryCount.NONE);
+
+    @Override
+    public void record(String sql, long nanos) {
+        QueryCount count = CURRENT.get();
+        if (count != null) {
+            CURRENT.set(count.plus(sql));
+        }
+    }
+
+    static void start() {
+        CURRENT.set(QueryCount.NONE);
+    }
+
+    static QueryCount stop() {
+        QueryCount count = CURRENT.get();
+        CURRENT.remove();
+        QueryCount result = count != null ? count : QueryCount.NONE;
+        LAST.set(result);
+        return result;
+    }
+
+    /**
+     * @return the statements run by the last MockMvc request performed on this thread
+     */
+    public static QueryCount lastRequest() {
+        return LAST.get();
+    }
+}
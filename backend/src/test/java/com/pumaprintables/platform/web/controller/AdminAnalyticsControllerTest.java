@@ -0,0 +1,274 @@
+package com.pumaprintables.platform.web.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pumaprintables.platform.domain.model.Product;
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+import com.pumaprintables.platform.domain.repository.OrderRepository;
+import com.pumaprintables.platform.domain.repository.ProductRepository;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+import com.pumaprintables.platform.service.OrderAnalyticsService;
+import com.pumaprintables.platform.service.OrderArchiveService;
+import com.pumaprintables.platform.support.EnforceQueryBudgets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+@EnforceQueryBudgets
+class AdminAnalyticsControllerTest {
+
+    private static final String PASSWORD = "Analytics@123";
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderAnalyticsService orderAnalyticsService;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    private UUID storeUserId;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM orders_archive");
+        orderRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM analytics_changes");
+        jdbcTemplate.update("DELETE FROM order_daily_stats");
+        jdbcTemplate.update("DELETE FROM order_daily_product_stats");
+        jdbcTemplate.update("DELETE FROM approval_daily_stats");
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+
+        storeUserId = userRepository.save(user("analytics-store", UserRole.STORE_USER)).getId();
+        userRepository.save(user("analytics-approver", UserRole.APPROVER));
+        userRepository.save(user("analytics-admin", UserRole.ADMIN));
+        productId = productRepository.save(Product.builder()
+            .sku("SKU-7100")
+            .name("Puma Cap")
+            .description("Cotton cap")
+            .specifications(objectMapper.createObjectNode())
+            .stockQuantity(50)
+            .active(true)
+            .build()).getId();
+    }
+
+    @Test
+    void whenOrdersAreCreatedDecidedAndArchived_thenRollupsFollowAndArchivingKeepsThem() throws Exception {
+        String storeToken = obtainToken("analytics-store");
+        String approverToken = obtainToken("analytics-approver");
+        String adminToken = obtainToken("analytics-admin");
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        UUID approvedOrder = createOrder(storeToken, 2);
+        UUID rejectedOrder = createOrder(storeToken, 1);
+        orderAnalyticsService.refresh();
+
+        analytics(adminToken, "/orders/daily", today)
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].day").value(today.toString()))
+            .andExpect(jsonPath("$[0].total").value(2))
+            .andExpect(jsonPath("$[0].byStatus.PENDING_APPROVAL").value(2));
+        analytics(adminToken, "/stores", today)
+            .andExpect(jsonPath("$[0].userId").value(storeUserId.toString()))
+            .andExpect(jsonPath("$[0].username").value("analytics-store"))
+            .andExpect(jsonPath("$[0].orders").value(2));
+        analytics(adminToken, "/products", today)
+            .andExpect(jsonPath("$[0].productId").value(productId.toString()))
+            .andExpect(jsonPath("$[0].sku").value("SKU-7100"))
+            .andExpect(jsonPath("$[0].orders").value(2))
+            .andExpect(jsonPath("$[0].quantity").value(3));
+        analytics(adminToken, "/approvals", today)
+            .andExpect(jsonPath("$.length()").value(0));
+
+        decide(approverToken, approvedOrder, "approve");
+        decide(approverToken, rejectedOrder, "reject");
+        orderAnalyticsService.refresh();
+
+        analytics(adminToken, "/orders/daily", today)
+            .andExpect(jsonPath("$[0].total").value(2))
+            .andExpect(jsonPath("$[0].byStatus.APPROVED").value(1))
+            .andExpect(jsonPath("$[0].byStatus.REJECTED").value(1))
+            .andExpect(jsonPath("$[0].byStatus.PENDING_APPROVAL").doesNotExist());
+        analytics(adminToken, "/approvals", today)
+            .andExpect(jsonPath("$[0].day").value(today.toString()))
+            .andExpect(jsonPath("$[0].approved").value(1))
+            .andExpect(jsonPath("$[0].rejected").value(1));
+
+        // Move both orders past the archive's minimum age, decided an hour after they were placed.
+        LocalDate placedOn = today.minusDays(200);
+        OffsetDateTime placedAt = placedOn.atTime(9, 0).atOffset(ZoneOffset.UTC);
+        jdbcTemplate.update("UPDATE orders SET created_at = ?, sla_started_at = ? WHERE id IN (?, ?)", placedAt,
+            placedAt.plusHours(1), approvedOrder, rejectedOrder);
+        jdbcTemplate.update("UPDATE orders SET status = 'FULFILLED' WHERE id = ?", approvedOrder);
+        jdbcTemplate.update("UPDATE approvals SET approval_date = ? WHERE order_id IN (?, ?)", placedAt.plusHours(1),
+            approvedOrder, rejectedOrder);
+        orderAnalyticsService.refresh();
+
+        assertRollupsOf(adminToken, placedOn);
+        analytics(adminToken, "/orders/daily", today).andExpect(jsonPath("$.length()").value(0));
+
+        assertThat(orderArchiveService.archiveIdleOrders()).isEqualTo(2);
+        assertThat(orderRepository.count()).isZero();
+        // Rebuild the day from the archive tables alone.
+        jdbcTemplate.update("INSERT INTO analytics_changes (day) VALUES (?)", placedOn);
+        orderAnalyticsService.refresh();
+
+        assertRollupsOf(adminToken, placedOn);
+    }
+
+    @Test
+    void whenRangeIsInvalid_thenBadRequest() throws Exception {
+        String adminToken = obtainToken("analytics-admin");
+
+        mockMvc.perform(get("/api/v1/admin/analytics/orders/daily")
+                .param("from", "2024-03-02")
+                .param("to", "2024-03-01")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/admin/analytics/stores")
+                .param("from", "2023-01-01")
+                .param("to", "2024-01-02")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenCallerIsNotAdmin_thenForbidden() throws Exception {
+        String approverToken = obtainToken("analytics-approver");
+
+        for (String report : new String[] {"/orders/daily", "/stores", "/products", "/approvals"}) {
+            mockMvc.perform(get("/api/v1/admin/analytics" + report)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+                .andExpect(status().isForbidden());
+        }
+    }
+
+    private void assertRollupsOf(String adminToken, LocalDate day) throws Exception {
+        analytics(adminToken, "/orders/daily", day)
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].day").value(day.toString()))
+            .andExpect(jsonPath("$[0].total").value(2))
+            .andExpect(jsonPath("$[0].byStatus.FULFILLED").value(1))
+            .andExpect(jsonPath("$[0].byStatus.REJECTED").value(1));
+        analytics(adminToken, "/stores", day)
+            .andExpect(jsonPath("$[0].username").value("analytics-store"))
+            .andExpect(jsonPath("$[0].orders").value(2));
+        analytics(adminToken, "/products", day)
+            .andExpect(jsonPath("$[0].orders").value(2))
+            .andExpect(jsonPath("$[0].quantity").value(3));
+        analytics(adminToken, "/approvals", day)
+            .andExpect(jsonPath("$[0].approved").value(1))
+            .andExpect(jsonPath("$[0].rejected").value(1))
+            .andExpect(jsonPath("$[0].averageTurnaroundSeconds").value(3600.0))
+            .andExpect(jsonPath("$[0].maxTurnaroundSeconds").value(3600.0));
+    }
+
+    private ResultActions analytics(String token, String report, LocalDate day) throws Exception {
+        return mockMvc.perform(get("/api/v1/admin/analytics" + report)
+                .param("from", day.toString())
+                .param("to", day.toString())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isOk());
+    }
+
+    private UUID createOrder(String token, int quantity) throws Exception {
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("shippingAddress", "12 Analytics Road, Pune");
+        ArrayNode items = payload.putArray("items");
+        items.addObject().put("productId", productId.toString()).put("quantity", quantity);
+
+        var response = mockMvc.perform(post("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(payload)))
+            .andExpect(status().isCreated())
+            .andReturn();
+        return UUID.fromString(objectMapper.readTree(response.getResponse().getContentAsString()).get("id").asText());
+    }
+
+    private void decide(String token, UUID orderId, String decision) throws Exception {
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("comments", "Decided by analytics test");
+        mockMvc.perform(post("/api/v1/orders/" + orderId + "/" + decision)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk());
+    }
+
+    private String obtainToken(String username) throws Exception {
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("username", username);
+        payload.put("password", PASSWORD);
+
+        var response = mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(payload)))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        return objectMapper.readTree(response.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private User user(String username, UserRole role) {
+        return User.builder()
+            .username(username)
+            .password(passwordEncoder.encode(PASSWORD))
+            .email(username + "@example.com")
+            .role(role)
+            .build();
+    }
+}
@@ -0,0 +1,161 @@
+package com.pumaprintables.platform.web.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pumaprintables.platform.domain.model.User;
+import com.pumaprintables.platform.domain.model.enums.UserRole;
+import com.pumaprintables.platform.domain.repository.UserRepository;
+import com.pumaprintables.platform.support.EnforceQueryBudgets;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+@EnforceQueryBudgets
+class AdminUserControllerTest {
+
+    private static final String PASSWORD = "Users@123";
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private UUID storeUserId;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+
+        storeUserId = userRepository.save(user("users-store", UserRole.STORE_USER)).getId();
+        userRepository.save(user("users-admin", UserRole.ADMIN));
+    }
+
+    @Test
+    void whenAdminChangesARole_thenListingAndMetricsReflectIt() throws Exception {
+        String adminToken = obtainToken("users-admin");
+
+        mockMvc.perform(get("/api/v1/admin/users")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/api/v1/admin/users/metrics")
+                .param("days", "7")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalUsers").value(2))
+            .andExpect(jsonPath("$.activeUsers").value(1))
+            .andExpect(jsonPath("$.storeUsers").value(1))
+            .andExpect(jsonPath("$.approvers").value(0))
+            .andExpect(jsonPath("$.lookbackDays").value(7));
+
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("role", UserRole.APPROVER.name());
+        mockMvc.perform(patch("/api/v1/admin/users/" + storeUserId + "/role")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.username").value("users-store"))
+            .andExpect(jsonPath("$.role").value(UserRole.APPROVER.name()));
+        mockMvc.perform(patch("/api/v1/admin/users/" + UUID.randomUUID() + "/role")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/v1/admin/users/metrics")
+                .param("days", "7")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.storeUsers").value(0))
+            .andExpect(jsonPath("$.approvers").value(1));
+    }
+
+    @Test
+    void whenAdminExportsOnboarding_thenAWorkbookIsDownloaded() throws Exception {
+        String adminToken = obtainToken("users-admin");
+
+        var export = mockMvc.perform(get("/api/v1/admin/users/onboarding/export")
+                .param("days", "30")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("last-30-days.xlsx")))
+            .andReturn();
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(
+            new ByteArrayInputStream(export.getResponse().getContentAsByteArray()))) {
+            assertThat(workbook.getNumberOfSheets()).isPositive();
+        }
+    }
+
+    @Test
+    void whenCallerIsNotAdmin_thenForbidden() throws Exception {
+        String storeToken = obtainToken("users-store");
+
+        mockMvc.perform(get("/api/v1/admin/users")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/admin/users/metrics")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken))
+            .andExpect(status().isForbidden());
+    }
+
+    private String obtainToken(String username) throws Exception {
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("username", username);
+        payload.put("password", PASSWORD);
+
+        var response = mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(payload)))
+            .andExpect(status().isOk())
+            .andReturn();
+        return objectMapper.readTree(response.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private User user(String username, UserRole role) {
+        return User.builder()
+            .username(username)
+            .password(passwordEncoder.encode(PASSWORD))
+            .email(username + "@example.com")
+            .role(role)
+            .build();
+    }
+}
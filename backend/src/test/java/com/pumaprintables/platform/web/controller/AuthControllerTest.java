@@ -6,6 +6,7 @@ import com.pumaprintables.platform.domain.model.enums.AuthProvider;
 import com.pumaprintables.platform.domain.model.enums.UserRole;
 import com.pumaprintables.platform.domain.repository.UserRepository;
 import com.pumaprintables.platform.service.GoogleOAuthService;
+import com.pumaprintables.platform.support.EnforceQueryBudgets;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import java.time.OffsetDateTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -32,6 +34,7 @@ import static org.mockito.Mockito.when;
 @SpringBootTest
 @AutoConfigureMockMvc
 @Testcontainers(disabledWithoutDocker = true)
+@EnforceQueryBudgets
 class AuthControllerTest {
 
     private static final String USERNAME = "auth_test_user";
@@ -136,6 +139,46 @@ class AuthControllerTest {
         assertThat(userRepository.findByAuthProviderAndProviderSubject(AuthProvider.GOOGLE, profile.subject())).isPresent();
     }
 
+    @Test
+    void whenTokenIsLoggedOut_thenItIsNoLongerAccepted() throws Exception {
+        var token = obtainToken(USERNAME, RAW_PASSWORD);
+
+        mockMvc.perform(get("/api/v1/auth/session")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/auth/logout")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/auth/session")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void whenAllTokensOfUserAreRevoked_thenOnlyTokensIssuedAfterwardsAreAccepted() throws Exception {
+        var revokedToken = obtainToken(USERNAME, RAW_PASSWORD);
+        var adminToken = obtainToken(ADMIN_USERNAME, ADMIN_PASSWORD);
+        var userId = userRepository.findByUsername(USERNAME).orElseThrow().getId();
+
+        mockMvc.perform(post("/api/v1/admin/users/{userId}/revoke-tokens", userId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isNoContent());
+        // Issued within the same second as the revocation.
+        var freshToken = obtainToken(USERNAME, RAW_PASSWORD);
+
+        mockMvc.perform(get("/api/v1/auth/session")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + revokedToken))
+            .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/api/v1/auth/session")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + freshToken))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/auth/session")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk());
+    }
+
     private String obtainToken(String username, String password) throws Exception {
         var request = new LoginPayload(username, password);
 
@@ -12,6 +12,11 @@ import com.pumaprintables.platform.domain.model.enums.UserRole;
 import com.pumaprintables.platform.domain.repository.OrderRepository;
 import com.pumaprintables.platform.domain.repository.ProductRepository;
 import com.pumaprintables.platform.domain.repository.UserRepository;
+import com.pumaprintables.platform.service.OrderArchiveService;
+import com.pumaprintables.platform.service.OrderRefreshService;
+import com.pumaprintables.platform.support.EnforceQueryBudgets;
+import com.pumaprintables.platform.support.QueryCount;
+import com.pumaprintables.platform.support.QueryCounter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,29 +25,49 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static com.pumaprintables.platform.support.QueryCountMatchers.insertsAtMost;
+import static com.pumaprintables.platform.support.QueryCountMatchers.selectsAtMost;
+import static com.pumaprintables.platform.support.QueryCountMatchers.updatesAtMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @Testcontainers(disabledWithoutDocker = true)
+@EnforceQueryBudgets
 class OrderControllerTest {
 
     private static final String STORE_USERNAME = "store-user";
     private static final String STORE_PASSWORD = "Store@123";
     private static final String APPROVER_USERNAME = "approver-user";
     private static final String APPROVER_PASSWORD = "Approve@123";
+    private static final String AGENT_USERNAME = "agent-user";
+    private static final String AGENT_PASSWORD = "Agent@123";
     private static final String PRODUCT_IMAGE_URL = "https://images.example.com/products/jacket.png";
 
     @Container
@@ -67,8 +92,20 @@ class OrderControllerTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRefreshService orderRefreshService;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
     @BeforeEach
     void setUp() throws Exception {
+        jdbcTemplate.update("DELETE FROM idempotency_keys");
+        jdbcTemplate.update("DELETE FROM orders_archive");
+        jdbcTemplate.update("DELETE FROM order_refresh_requests");
         orderRepository.deleteAll();
         productRepository.deleteAll();
         userRepository.deleteAll();
@@ -87,8 +124,16 @@ class OrderControllerTest {
             .role(UserRole.APPROVER)
             .build();
 
+        User agent = User.builder()
+            .username(AGENT_USERNAME)
+            .password(passwordEncoder.encode(AGENT_PASSWORD))
+            .email("agent@example.com")
+            .role(UserRole.FULFILLMENT_AGENT)
+            .build();
+
         userRepository.save(storeUser);
         userRepository.save(approver);
+        userRepository.save(agent);
 
         JsonNode specifications = objectMapper.readTree("{\"material\":\"polyester\",\"size\":\"L\"}");
 
@@ -123,6 +168,67 @@ class OrderControllerTest {
         assertThat(orderRepository.count()).isEqualTo(1);
     }
 
+    @Test
+    void whenCreateOrderIsRetriedWithSameIdempotencyKey_thenOriginalOrderIsReturned() throws Exception {
+        String token = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String payload = objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 2));
+
+        var firstResponse = mockMvc.perform(post("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header("Idempotency-Key", "retry-123")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payload))
+            .andExpect(status().isCreated())
+            .andReturn();
+        String orderId = objectMapper.readTree(firstResponse.getResponse().getContentAsString()).get("id").asText();
+
+        mockMvc.perform(post("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header("Idempotency-Key", "retry-123")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payload))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andExpect(jsonPath("$.id").value(orderId));
+
+        mockMvc.perform(post("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header("Idempotency-Key", "retry-123")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 5))))
+            .andExpect(status().isUnprocessableEntity());
+
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenDuplicateCreateOrdersRace_thenOnlyOneOrderIsPlaced() throws Exception {
+        String token = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String payload = objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 2));
+        Callable<String> request = () -> {
+            var result = mockMvc.perform(post("/api/v1/orders")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .header("Idempotency-Key", "race-123")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(payload))
+                .andExpect(status().isCreated())
+                .andReturn();
+            return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<String>> responses = executor.invokeAll(List.of(request, request), 30, TimeUnit.SECONDS);
+
+            assertThat(responses.get(0).get()).isEqualTo(responses.get(1).get());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
     @Test
     void whenApproverApprovesOrder_thenStatusUpdated() throws Exception {
         Product product = productRepository.findBySku("SKU-5000").orElseThrow();
@@ -144,6 +250,12 @@ class OrderControllerTest {
         ObjectNode approvalRequest = objectMapper.createObjectNode();
         approvalRequest.put("comments", "Looks good");
 
+        mockMvc.perform(get("/api/v1/orders/pending")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(orderId));
+
         mockMvc.perform(post("/api/v1/orders/" + orderId + "/approve")
                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -153,10 +265,141 @@ class OrderControllerTest {
 
         Order order = orderRepository.findById(UUID.fromString(orderId)).orElseThrow();
         assertThat(order.getStatus()).isEqualTo(OrderStatus.APPROVED);
+
+        mockMvc.perform(get("/api/v1/orders/pending")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/v1/notifications")
+                .param("limit", "5")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isArray());
     }
 
     @Test
-    void whenApproverAddsCourierInfo_thenOrderTransitionsToInTransit() throws Exception {
+    void whenOrderIsPolledWithItsETag_thenNotModifiedUntilItChanges() throws Exception {
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String storeToken = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+
+        var orderResponse = mockMvc.perform(post("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 1))))
+            .andExpect(status().isCreated())
+            .andReturn();
+        String orderId = objectMapper.readTree(orderResponse.getResponse().getContentAsString()).get("id").asText();
+
+        String eTag = mockMvc.perform(get("/api/v1/orders/" + orderId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+
+        mockMvc.perform(get("/api/v1/orders/" + orderId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(selectsAtMost(4));
+
+        String listETag = mockMvc.perform(get("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                .header(HttpHeaders.IF_NONE_MATCH, listETag))
+            .andExpect(status().isNotModified());
+
+        String approverToken = obtainToken(APPROVER_USERNAME, APPROVER_PASSWORD);
+        ObjectNode approvalRequest = objectMapper.createObjectNode();
+        approvalRequest.put("comments", "Looks good");
+        mockMvc.perform(post("/api/v1/orders/" + orderId + "/approve")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(approvalRequest)))
+            .andExpect(status().isOk());
+
+        String approvedETag = mockMvc.perform(get("/api/v1/orders/" + orderId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(OrderStatus.APPROVED.name()))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(approvedETag).isNotEqualTo(eTag);
+
+        mockMvc.perform(get("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                .header(HttpHeaders.IF_NONE_MATCH, listETag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(listETag)));
+    }
+
+    @Test
+    void whenFulfilledOrderIsArchived_thenItIsStillServedWithItsItemsAndCourier() throws Exception {
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String storeToken = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+
+        var orderResponse = mockMvc.perform(post("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 3))))
+            .andExpect(status().isCreated())
+            .andReturn();
+        UUID orderId = UUID.fromString(
+            objectMapper.readTree(orderResponse.getResponse().getContentAsString()).get("id").asText());
+
+        String approverToken = obtainToken(APPROVER_USERNAME, APPROVER_PASSWORD);
+        ObjectNode approvalRequest = objectMapper.createObjectNode();
+        approvalRequest.put("comments", "Approved");
+        mockMvc.perform(post("/api/v1/orders/" + orderId + "/approve")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(approvalRequest)))
+            .andExpect(status().isOk());
+
+        // Backdate the order past the archive's minimum age, as if it had been dispatched long ago and got stuck.
+        OffsetDateTime longAgo = OffsetDateTime.now().minusDays(200);
+        jdbcTemplate.update("INSERT INTO courier_info (order_id, courier_name, tracking_number, dispatch_date) "
+            + "VALUES (?, ?, ?, ?)", orderId, "Bluedart", "BD-ARCHIVED-1", longAgo.plusDays(1));
+        jdbcTemplate.update("UPDATE orders SET status = 'IN_TRANSIT', created_at = ?, sla_started_at = ? WHERE id = ?",
+            longAgo, longAgo.plusDays(1), orderId);
+        jdbcTemplate.update("UPDATE approvals SET approval_date = ? WHERE order_id = ?", longAgo, orderId);
+
+        // Fulfilling it now makes it recent again, so it stays in the store's list until it has been idle as long.
+        ObjectNode fulfil = objectMapper.createObjectNode();
+        fulfil.put("event", "FULFILL");
+        mockMvc.perform(post("/api/v1/orders/" + orderId + "/transitions")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + obtainToken(AGENT_USERNAME, AGENT_PASSWORD))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(fulfil)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(OrderStatus.FULFILLED.name()));
+        assertThat(orderArchiveService.archiveIdleOrders()).isZero();
+
+        jdbcTemplate.update("UPDATE orders SET sla_started_at = ? WHERE id = ?", longAgo.plusDays(2), orderId);
+        assertThat(orderArchiveService.archiveIdleOrders()).isEqualTo(1);
+        assertThat(orderRepository.findById(orderId)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM orders_archive WHERE id = ?", Integer.class,
+            orderId)).isEqualTo(1);
+
+        mockMvc.perform(get("/api/v1/orders/" + orderId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.id").value(orderId.toString()))
+            .andExpect(jsonPath("$.status").value(OrderStatus.FULFILLED.name()))
+            .andExpect(jsonPath("$.items[0].productId").value(product.getId().toString()))
+            .andExpect(jsonPath("$.items[0].quantity").value(3))
+            .andExpect(jsonPath("$.items[0].imageUrl").value(PRODUCT_IMAGE_URL))
+            .andExpect(jsonPath("$.courierInfo.trackingNumber").value("BD-ARCHIVED-1"))
+            .andExpect(jsonPath("$.placedByUsername").value(STORE_USERNAME));
+    }
+
+    @Test
+    void whenAgentAcceptsAndAddsCourierInfo_thenOrderTransitionsToInTransit() throws Exception {
         Product product = productRepository.findBySku("SKU-5000").orElseThrow();
         String storeToken = obtainToken(STORE_USERNAME, STORE_PASSWORD);
 
@@ -183,6 +426,16 @@ class OrderControllerTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.status").value(OrderStatus.APPROVED.name()));
 
+        // Courier details are added by fulfilment, once the order has been accepted.
+        String agentToken = obtainToken(AGENT_USERNAME, AGENT_PASSWORD);
+        ObjectNode acceptRequest = objectMapper.createObjectNode();
+        acceptRequest.put("deliveryAddress", "Warehouse 7");
+        mockMvc.perform(post("/api/v1/orders/" + orderId + "/accept")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(acceptRequest)))
+            .andExpect(status().isOk());
+
         String dispatchDate = OffsetDateTime.now().plusHours(2).toString();
         ObjectNode courierRequest = objectMapper.createObjectNode();
         courierRequest.put("courierName", "Bluedart");
@@ -190,7 +443,7 @@ class OrderControllerTest {
         courierRequest.put("dispatchDate", dispatchDate);
 
         mockMvc.perform(post("/api/v1/orders/" + orderId + "/courier")
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentToken)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(courierRequest)))
             .andExpect(status().isCreated())
@@ -205,6 +458,483 @@ class OrderControllerTest {
         assertThat(order.getCourierInfo().getTrackingNumber()).isEqualTo("BD123456789");
     }
 
+    @Test
+    void whenAgentFiresTransitions_thenOrderIsFulfilledAndFurtherEventsAreRejected() throws Exception {
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String storeToken = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+        String approverToken = obtainToken(APPROVER_USERNAME, APPROVER_PASSWORD);
+        String agentToken = obtainToken(AGENT_USERNAME, AGENT_PASSWORD);
+
+        var orderResponse = mockMvc.perform(post("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 1))))
+            .andExpect(status().isCreated())
+            .andReturn();
+        String orderId = objectMapper.readTree(orderResponse.getResponse().getContentAsString()).get("id").asText();
+        String transitions = "/api/v1/orders/" + orderId + "/transitions";
+
+        ObjectNode approve = objectMapper.createObjectNode();
+        approve.put("event", "APPROVE");
+        mockMvc.perform(post(transitions)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(approve.put("comments", "Fine"))))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post(transitions)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(approve)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(OrderStatus.APPROVED.name()))
+            .andExpect(updatesAtMost(1));
+
+        ObjectNode accept = objectMapper.createObjectNode();
+        accept.put("event", "ACCEPT");
+        ObjectNode dispatch = objectMapper.createObjectNode();
+        dispatch.put("event", "DISPATCH");
+        dispatch.put("courierName", "Bluedart");
+        dispatch.put("trackingNumber", "BD555");
+        dispatch.put("dispatchDate", OffsetDateTime.now().toString());
+        ObjectNode fulfill = objectMapper.createObjectNode();
+        fulfill.put("event", "FULFILL");
+        for (ObjectNode event : new ObjectNode[] {accept, dispatch, fulfill}) {
+            mockMvc.perform(post(transitions)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(event)))
+                .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post(transitions)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(fulfill)))
+            .andExpect(status().isBadRequest());
+
+        Order order = orderRepository.findById(UUID.fromString(orderId)).orElseThrow();
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.FULFILLED);
+        assertThat(order.getDeliveryAddress()).isEqualTo(order.getShippingAddress());
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM audit_log WHERE entity_id = ?", Integer.class,
+            order.getId())).isEqualTo(4);
+    }
+
+    @Test
+    void whenSearchingOrders_thenMatchesAreRankedAndScopedToCaller() throws Exception {
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String storeToken = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+
+        var orderResponse = mockMvc.perform(post("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 1))))
+            .andExpect(status().isCreated())
+            .andReturn();
+        String orderId = objectMapper.readTree(orderResponse.getResponse().getContentAsString()).get("id").asText();
+
+        jdbcTemplate.update("INSERT INTO courier_info (order_id, courier_name, tracking_number) VALUES (?, ?, ?)",
+            UUID.fromString(orderId), "Bluedart", "BD123456789");
+        orderRefreshService.refresh(UUID.fromString(orderId));
+        String approverToken = obtainToken(APPROVER_USERNAME, APPROVER_PASSWORD);
+
+        for (String query : new String[] {"jacket", "baker str", "3456789", "GSTIN12345", "store-user"}) {
+            mockMvc.perform(get("/api/v1/orders/search")
+                    .param("q", query)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(orderId))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        }
+
+        mockMvc.perform(get("/api/v1/orders/search")
+                .param("q", "jacket")
+                .param("status", OrderStatus.FULFILLED.name())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(0));
+
+        mockMvc.perform(get("/api/v1/orders/search")
+                .param("q", "a")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+            .andExpect(status().isBadRequest());
+
+        User otherStore = User.builder()
+            .username("other-store")
+            .password(passwordEncoder.encode(STORE_PASSWORD))
+            .email("other@example.com")
+            .role(UserRole.STORE_USER)
+            .build();
+        userRepository.save(otherStore);
+        mockMvc.perform(get("/api/v1/orders/search")
+                .param("q", "jacket")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + obtainToken("other-store", STORE_PASSWORD)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void whenProductAndStoreAreRenamed_thenSearchFindsTheirOrdersOnceRefreshed() throws Exception {
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String storeToken = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+        String approverToken = obtainToken(APPROVER_USERNAME, APPROVER_PASSWORD);
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/v1/orders")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 1))))
+                .andExpect(status().isCreated());
+        }
+        String listETag = mockMvc.perform(get("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        jdbcTemplate.update("UPDATE products SET name = 'Puma Windbreaker' WHERE id = ?", product.getId());
+        jdbcTemplate.update("UPDATE users SET full_name = 'Harbourside Outlet' WHERE username = ?", STORE_USERNAME);
+        mockMvc.perform(get("/api/v1/orders/search")
+                .param("q", "windbreaker")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(0));
+
+        assertThat(orderRefreshService.refreshRenamed()).isEqualTo(6);
+
+        for (String query : new String[] {"windbreaker", "harbourside"}) {
+            mockMvc.perform(get("/api/v1/orders/search")
+                    .param("q", query)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3));
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM order_refresh_requests", Integer.class))
+            .isZero();
+        // Refreshing an order also moves its version, so clients polling with the old ETag see the new names.
+        mockMvc.perform(get("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                .header(HttpHeaders.IF_NONE_MATCH, listETag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenAdminRenamesAProductOnFewOrders_thenTheirETagsChangeAtOnce() throws Exception {
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String storeToken = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+        userRepository.save(User.builder()
+            .username("catalogue")
+            .password(passwordEncoder.encode(STORE_PASSWORD))
+            .email("catalogue@example.com")
+            .role(UserRole.ADMIN)
+            .build());
+        String adminToken = obtainToken("catalogue", STORE_PASSWORD);
+        var orderResponse = mockMvc.perform(post("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 1))))
+            .andExpect(status().isCreated())
+            .andReturn();
+        String orderId = objectMapper.readTree(orderResponse.getResponse().getContentAsString()).get("id").asText();
+        String eTag = mockMvc.perform(get("/api/v1/orders/" + orderId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        ObjectNode rename = objectMapper.createObjectNode();
+        rename.put("sku", product.getSku());
+        rename.put("name", "Puma Windbreaker");
+        rename.put("description", product.getDescription());
+        rename.put("imageUrl", PRODUCT_IMAGE_URL);
+        rename.set("specifications", product.getSpecifications());
+        rename.put("stockQuantity", product.getStockQuantity());
+        rename.put("active", true);
+        mockMvc.perform(put("/api/v1/products/" + product.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(rename)))
+            .andExpect(status().isOk());
+
+        // No scheduled refresh has run: the rename refreshed the product's few orders itself.
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM order_refresh_requests", Integer.class))
+            .isZero();
+        mockMvc.perform(get("/api/v1/orders/" + orderId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.items[0].productName").value("Puma Windbreaker"));
+    }
+
+    @Test
+    void whenAgentsClaimTheQueue_thenEachGetsDifferentOrdersAndOthersCannotAcceptThem() throws Exception {
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String storeToken = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+        String approverToken = obtainToken(APPROVER_USERNAME, APPROVER_PASSWORD);
+        ObjectNode approvalRequest = objectMapper.createObjectNode();
+        approvalRequest.put("comments", "Approved");
+        for (int i = 0; i < 3; i++) {
+            var orderResponse = mockMvc.perform(post("/api/v1/orders")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 1))))
+                .andExpect(status().isCreated())
+                .andReturn();
+            String orderId = objectMapper.readTree(orderResponse.getResponse().getContentAsString()).get("id").asText();
+            mockMvc.perform(post("/api/v1/orders/" + orderId + "/approve")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(approvalRequest)))
+                .andExpect(status().isOk());
+        }
+        for (String agent : new String[] {"agent-one", "agent-two"}) {
+            userRepository.save(User.builder()
+                .username(agent)
+                .password(passwordEncoder.encode(STORE_PASSWORD))
+                .email(agent + "@example.com")
+                .role(UserRole.FULFILLMENT_AGENT)
+                .build());
+        }
+        String agentOneToken = obtainToken("agent-one", STORE_PASSWORD);
+        String agentTwoToken = obtainToken("agent-two", STORE_PASSWORD);
+
+        var firstClaim = mockMvc.perform(post("/api/v1/orders/queue/claim")
+                .param("limit", "2")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentOneToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andReturn();
+        JsonNode claimedByOne = objectMapper.readTree(firstClaim.getResponse().getContentAsString());
+
+        var secondClaim = mockMvc.perform(post("/api/v1/orders/queue/claim")
+                .param("limit", "2")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentTwoToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andReturn();
+        String claimedByTwo = objectMapper.readTree(secondClaim.getResponse().getContentAsString()).get(0).get("id").asText();
+        assertThat(claimedByOne.findValuesAsText("id")).doesNotContain(claimedByTwo);
+
+        ObjectNode acceptRequest = objectMapper.createObjectNode();
+        acceptRequest.put("deliveryAddress", "Warehouse 7");
+        mockMvc.perform(post("/api/v1/orders/" + claimedByTwo + "/accept")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentOneToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(acceptRequest)))
+            .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/v1/orders/" + claimedByTwo + "/accept")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentTwoToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(acceptRequest)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(OrderStatus.ACCEPTED.name()));
+
+        mockMvc.perform(get("/api/v1/orders/queue/stats")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.depth").value(2))
+            .andExpect(jsonPath("$.claimed").value(2));
+
+        String released = claimedByOne.get(0).get("id").asText();
+        mockMvc.perform(post("/api/v1/orders/" + released + "/release")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentOneToken))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/v1/orders/queue/claim")
+                .param("limit", "2")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentTwoToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(released));
+    }
+
+    @Test
+    void whenAgentClaimsFewerOrdersThanItHolds_thenTheNewestLeasesGoBackToTheQueue() throws Exception {
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String storeToken = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+        String approverToken = obtainToken(APPROVER_USERNAME, APPROVER_PASSWORD);
+        String agentToken = obtainToken(AGENT_USERNAME, AGENT_PASSWORD);
+        ObjectNode approvalRequest = objectMapper.createObjectNode();
+        approvalRequest.put("comments", "Approved");
+        for (int i = 0; i < 3; i++) {
+            var orderResponse = mockMvc.perform(post("/api/v1/orders")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 1))))
+                .andExpect(status().isCreated())
+                .andReturn();
+            String orderId = objectMapper.readTree(orderResponse.getResponse().getContentAsString()).get("id").asText();
+            mockMvc.perform(post("/api/v1/orders/" + orderId + "/approve")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(approvalRequest)))
+                .andExpect(status().isOk());
+        }
+
+        var fullClaim = mockMvc.perform(post("/api/v1/orders/queue/claim")
+                .param("limit", "3")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andReturn();
+        String oldest = objectMapper.readTree(fullClaim.getResponse().getContentAsString()).get(0).get("id").asText();
+
+        mockMvc.perform(post("/api/v1/orders/queue/claim")
+                .param("limit", "1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(oldest));
+        mockMvc.perform(get("/api/v1/orders/queue/stats")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.depth").value(3))
+            .andExpect(jsonPath("$.claimed").value(1));
+    }
+
+    @Test
+    void whenAgentRequestsPickList_thenQuantitiesAreTotalledPerProduct() throws Exception {
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String storeToken = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+        String approverToken = obtainToken(APPROVER_USERNAME, APPROVER_PASSWORD);
+        String agentToken = obtainToken(AGENT_USERNAME, AGENT_PASSWORD);
+        ObjectNode approvalRequest = objectMapper.createObjectNode();
+        approvalRequest.put("comments", "Approved");
+        ObjectNode acceptRequest = objectMapper.createObjectNode();
+        acceptRequest.put("deliveryAddress", "Warehouse 7");
+
+        for (int quantity : new int[] {2, 3}) {
+            var orderResponse = mockMvc.perform(post("/api/v1/orders")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(buildOrderPayload(product.getId(), quantity))))
+                .andExpect(status().isCreated())
+                .andReturn();
+            String orderId = objectMapper.readTree(orderResponse.getResponse().getContentAsString()).get("id").asText();
+            mockMvc.perform(post("/api/v1/orders/" + orderId + "/approve")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(approvalRequest)))
+                .andExpect(status().isOk());
+            mockMvc.perform(post("/api/v1/orders/" + orderId + "/accept")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(acceptRequest)))
+                .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/v1/orders/pick-list")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].sku").value("SKU-5000"))
+            .andExpect(jsonPath("$[0].totalQuantity").value(5))
+            .andExpect(jsonPath("$[0].orderCount").value(2));
+
+        var manifest = mockMvc.perform(get("/api/v1/orders/pick-list/manifest")
+                .param("format", "csv")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + agentToken))
+            .andExpect(status().isOk())
+            .andReturn();
+        assertThat(manifest.getResponse().getContentAsString())
+            .contains("SKU-5000,Puma Jacket,Warehouse 7,5,2");
+
+        mockMvc.perform(get("/api/v1/orders/pick-list")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void whenAdminExportsOrders_thenEveryItemIsStreamedAsCsv() throws Exception {
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String storeToken = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+        userRepository.save(User.builder()
+            .username("finance")
+            .password(passwordEncoder.encode(STORE_PASSWORD))
+            .email("finance@example.com")
+            .role(UserRole.ADMIN)
+            .build());
+        String adminToken = obtainToken("finance", STORE_PASSWORD);
+
+        var orderResponse = mockMvc.perform(post("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 4))))
+            .andExpect(status().isCreated())
+            .andReturn();
+        String orderId = objectMapper.readTree(orderResponse.getResponse().getContentAsString()).get("id").asText();
+
+        var export = mockMvc.perform(get("/api/v1/orders/export")
+                .param("format", "csv")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andReturn();
+        assertThat(export.getResponse().getContentAsString())
+            .startsWith("Order ID,Created At,Status,Store,")
+            .contains(orderId)
+            .contains("PENDING_APPROVAL,store-user,GSTIN12345,\"221B Baker Street, London\","
+                + "\"221B Baker Street, London\",,,SKU-5000,Puma Jacket,4");
+
+        var gzipped = mockMvc.perform(get("/api/v1/orders/export")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn();
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                .isEqualTo(export.getResponse().getContentAsString());
+        }
+
+        mockMvc.perform(get("/api/v1/orders/export")
+                .param("from", "2025-02-01")
+                .param("to", "2025-01-01")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andExpect(status().isBadRequest())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+
+        mockMvc.perform(get("/api/v1/orders/export")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void whenListingOrSearchingMoreOrders_thenStatementCountStaysTheSame() throws Exception {
+        Product product = productRepository.findBySku("SKU-5000").orElseThrow();
+        String storeToken = obtainToken(STORE_USERNAME, STORE_PASSWORD);
+        String approverToken = obtainToken(APPROVER_USERNAME, APPROVER_PASSWORD);
+
+        QueryCount[] counts = new QueryCount[2];
+        QueryCount[] listCounts = new QueryCount[2];
+        QueryCount[] pendingCounts = new QueryCount[2];
+        for (int round = 0; round < counts.length; round++) {
+            for (int i = 0; i < (round == 0 ? 1 : 4); i++) {
+                mockMvc.perform(post("/api/v1/orders")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(buildOrderPayload(product.getId(), 1))))
+                    .andExpect(status().isCreated());
+            }
+            mockMvc.perform(get("/api/v1/orders/search")
+                    .param("q", "jacket")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+                .andExpect(status().isOk())
+                .andExpect(insertsAtMost(0))
+                .andExpect(updatesAtMost(0));
+            counts[round] = QueryCounter.lastRequest();
+            mockMvc.perform(get("/api/v1/orders")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + storeToken))
+                .andExpect(status().isOk());
+            listCounts[round] = QueryCounter.lastRequest();
+            mockMvc.perform(get("/api/v1/orders/pending")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + approverToken))
+                .andExpect(status().isOk());
+            pendingCounts[round] = QueryCounter.lastRequest();
+        }
+
+        assertThat(counts[1].selects()).isEqualTo(counts[0].selects());
+        assertThat(listCounts[1].selects()).isEqualTo(listCounts[0].selects());
+        assertThat(pendingCounts[1].selects()).isEqualTo(pendingCounts[0].selects());
+    }
+
     private String obtainToken(String username, String password) throws Exception {
         ObjectNode payload = objectMapper.createObjectNode();
         payload.put("username", username);
@@ -12,6 +12,7 @@ import com.pumaprintables.platform.domain.repository.OrderRepository;
 import com.pumaprintables.platform.domain.repository.ProductRepository;
 import com.pumaprintables.platform.domain.repository.UserRepository;
 import com.pumaprintables.platform.service.OrderService;
+import com.pumaprintables.platform.support.EnforceQueryBudgets;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +39,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest
 @AutoConfigureMockMvc
 @Testcontainers(disabledWithoutDocker = true)
+@EnforceQueryBudgets
 class OrderLifecycleIntegrationTest {
 
     private static final String ADMIN_USERNAME = "flow-admin";
@@ -46,6 +48,8 @@ class OrderLifecycleIntegrationTest {
     private static final String STORE_PASSWORD = "Store@123";
     private static final String APPROVER_USERNAME = "flow-approver";
     private static final String APPROVER_PASSWORD = "Approve@123";
+    private static final String AGENT_USERNAME = "flow-agent";
+    private static final String AGENT_PASSWORD = "Agent@123";
 
     @Container
     @ServiceConnection
@@ -99,9 +103,17 @@ class OrderLifecycleIntegrationTest {
             .role(UserRole.APPROVER)
             .build();
 
+        User agent = User.builder()
+            .username(AGENT_USERNAME)
+            .password(passwordEncoder.encode(AGENT_PASSWORD))
+            .email("flow-agent@example.com")
+            .role(UserRole.FULFILLMENT_AGENT)
+            .build();
+
         userRepository.save(admin);
         userRepository.save(store);
         userRepository.save(approver);
+        userRepository.save(agent);
     }
 
     @Test
@@ -167,12 +179,22 @@ class OrderLifecycleIntegrationTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.status").value(OrderStatus.APPROVED.name()));
 
+        // Courier details are added by fulfilment, once the order has been accepted.
+        String agentToken = obtainToken(AGENT_USERNAME, AGENT_PASSWORD);
+
+        ObjectNode acceptPayload = objectMapper.createObjectNode();
+        acceptPayload.put("deliveryAddress", "Dock 3, Springfield");
+
+        perform(post("/api/v1/orders/" + orderId + "/accept"), acceptPayload, agentToken)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(OrderStatus.ACCEPTED.name()));
+
         ObjectNode courierPayload = objectMapper.createObjectNode();
         courierPayload.put("courierName", "Delhivery");
         courierPayload.put("trackingNumber", "DL1234567890");
         courierPayload.put("dispatchDate", "2025-10-20T05:30:00Z");
 
-        perform(post("/api/v1/orders/" + orderId + "/courier"), courierPayload, approverToken)
+        perform(post("/api/v1/orders/" + orderId + "/courier"), courierPayload, agentToken)
             .andExpect(status().isCreated())
             .andExpect(jsonPath("$.status").value(OrderStatus.IN_TRANSIT.name()))
             .andExpect(jsonPath("$.courierInfo.courierName").value("Delhivery"))
@@ -7,6 +7,7 @@ import com.pumaprintables.platform.domain.model.User;
 import com.pumaprintables.platform.domain.model.enums.UserRole;
 import com.pumaprintables.platform.domain.repository.ProductRepository;
 import com.pumaprintables.platform.domain.repository.UserRepository;
+import com.pumaprintables.platform.support.EnforceQueryBudgets;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,22 +16,28 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.nio.charset.StandardCharsets;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @Testcontainers(disabledWithoutDocker = true)
+@EnforceQueryBudgets
 class ProductControllerTest {
 
     private static final String ADMIN_USERNAME = "product-admin";
@@ -122,6 +129,117 @@ class ProductControllerTest {
             .andExpect(jsonPath("$[0].imageUrl").value(PRODUCT_IMAGE_URL));
     }
 
+    @Test
+    void whenFilteringProducts_thenSpecificationCriteriaAreApplied() throws Exception {
+        String adminToken = obtainToken();
+        saveProduct("SKU-3001", "Hoodie Classic", "{\"material\":\"cotton\",\"gsm\":320,\"size\":\"L\"}", true);
+        saveProduct("SKU-3002", "Hoodie Lite", "{\"material\":\"cotton\",\"gsm\":180}", true);
+        saveProduct("SKU-3003", "Hoodie Retired", "{\"material\":\"cotton\",\"gsm\":300}", false);
+        saveProduct("SKU-3004", "Track Jacket", "{\"material\":\"polyester\",\"gsm\":\"heavy\"}", true);
+
+        mockMvc.perform(get("/api/v1/products/filter")
+                .param("contains", "{\"material\":\"cotton\"}")
+                .param("range", "gsm:200..")
+                .param("active", "true")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(1))
+            .andExpect(jsonPath("$.items[0].sku").value("SKU-3001"));
+
+        mockMvc.perform(get("/api/v1/products/filter")
+                .param("hasKey", "size")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(1))
+            .andExpect(jsonPath("$.items[0].sku").value("SKU-3001"));
+
+        mockMvc.perform(get("/api/v1/products/filter")
+                .param("namePrefix", "hoodie")
+                .param("size", "2")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3))
+            .andExpect(jsonPath("$.items[0].sku").value("SKU-3001"))
+            .andExpect(jsonPath("$.items[1].sku").value("SKU-3002"));
+
+        mockMvc.perform(get("/api/v1/products/filter")
+                .param("range", "gsm:..")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenProductIsUpdatedAndDeactivated_thenReadsReturnTheLatestState() throws Exception {
+        String adminToken = obtainToken();
+        saveProduct("SKU-4000", "Puma Cap", "{\"material\":\"cotton\"}", true);
+        Product product = productRepository.findBySku("SKU-4000").orElseThrow();
+
+        mockMvc.perform(get("/api/v1/products/" + product.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Puma Cap"));
+
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("sku", "SKU-4000");
+        payload.put("name", "Puma Cap Pro");
+        payload.put("description", "Structured cotton cap");
+        payload.set("specifications", objectMapper.createObjectNode().put("material", "cotton"));
+        payload.put("stockQuantity", 25);
+        payload.put("active", true);
+        mockMvc.perform(put("/api/v1/products/" + product.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(payload)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Puma Cap Pro"))
+            .andExpect(jsonPath("$.stockQuantity").value(25));
+
+        mockMvc.perform(delete("/api/v1/products/" + product.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.active").value(false));
+
+        mockMvc.perform(get("/api/v1/products/" + product.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Puma Cap Pro"))
+            .andExpect(jsonPath("$.active").value(false));
+    }
+
+    @Test
+    void whenAdminImportsCsv_thenProductsAreUpsertedBySku() throws Exception {
+        String adminToken = obtainToken();
+        saveProduct("SKU-5001", "Register", "{}", true);
+        String csv = "SKU,Name,Description,Stock Quantity,Active\n"
+            + "SKU-5001,Register A4,Bound register,40,true\n"
+            + "SKU-5002,Log book,Daily log,15,true\n"
+            + "SKU-5003,Form,Intake form,-1,true\n";
+
+        mockMvc.perform(multipart("/api/v1/products/import")
+                .file(new MockMultipartFile("file", "products.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows").value(3))
+            .andExpect(jsonPath("$.inserted").value(1))
+            .andExpect(jsonPath("$.updated").value(1))
+            .andExpect(jsonPath("$.rejected").value(1))
+            .andExpect(jsonPath("$.errors[0].sku").value("SKU-5003"));
+
+        assertThat(productRepository.findBySku("SKU-5001").orElseThrow().getName()).isEqualTo("Register A4");
+        assertThat(productRepository.findBySku("SKU-5002")).isPresent();
+    }
+
+    private void saveProduct(String sku, String name, String specifications, boolean active) throws Exception {
+        productRepository.save(Product.builder()
+            .sku(sku)
+            .name(name)
+            .description(name)
+            .specifications(objectMapper.readTree(specifications))
+            .stockQuantity(10)
+            .active(active)
+            .build());
+    }
+
     private String obtainToken() throws Exception {
         ObjectNode loginPayload = objectMapper.createObjectNode();
         loginPayload.put("username", ADMIN_USERNAME);
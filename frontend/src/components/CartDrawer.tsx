@@ -2,6 +2,7 @@ import { useEffect, useMemo, useRef, useState } from "react";
 import { createPortal } from "react-dom";
 import { useLocation, useNavigate } from "react-router-dom";
 import { api } from "../services/api";
+import { createIdempotencyKeyTracker } from "../services/idempotency";
 import { useCart } from "../hooks/useCart";
 
 export function CartDrawer() {
@@ -26,6 +27,7 @@ export function CartDrawer() {
   const location = useLocation();
   const drawerRef = useRef<HTMLDivElement | null>(null);
   const lastPathRef = useRef(location.pathname);
+  const idempotencyRef = useRef(createIdempotencyKeyTracker());
 
   useEffect(() => {
     setError(null);
@@ -122,14 +124,20 @@ export function CartDrawer() {
     setError(null);
 
     try {
-      await api.createOrder(authToken, {
+      const payload = {
         shippingAddress: address,
         customerGst: customerGst.trim() || null,
         items: items.map((item) => ({
           productId: item.product.id,
           quantity: item.quantity,
         })),
-      });
+      };
+      await api.createOrder(
+        authToken,
+        payload,
+        idempotencyRef.current.keyFor(payload)
+      );
+      idempotencyRef.current.reset();
       setSuccess("Order placed successfully.");
       clearCart();
       closeCart();
@@ -105,8 +105,12 @@ export function useAuth() {
   }, []);
 
   const logout = useCallback(() => {
+    if (state.token) {
+      // Revoke the token server side; the local session is cleared either way.
+      api.logout(state.token).catch(() => undefined);
+    }
     setState({ token: null, user: null, expiresAt: null });
-  }, []);
+  }, [state.token]);
 
   const guard = useCallback(() => {
     if (!state.token || !state.user) {
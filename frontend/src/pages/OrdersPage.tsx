@@ -1,7 +1,8 @@
 import type { ChangeEvent, CSSProperties, FormEvent } from "react";
-import { useCallback, useEffect, useMemo, useState } from "react";
+import { useCallback, useEffect, useMemo, useRef, useState } from "react";
 import { AppLayout } from "../components/AppLayout";
 import { api, API_BASE_URL } from "../services/api";
+import { createIdempotencyKeyTracker } from "../services/idempotency";
 import type { Order, OrderStatus } from "../types/order";
 import type { Product } from "../types/product";
 
@@ -45,6 +46,11 @@ const MAX_ORDER_ITEMS = 5;
 const COURIER_OPTIONS = ["Blue Dart", "DTDC"];
 const AUTO_REFRESH_INTERVAL_MS = 60_000;
 const SKELETON_PLACEHOLDERS = 3;
+const MIN_SEARCH_CHARACTERS = 3;
+const SEARCH_DEBOUNCE_MS = 300;
+
+const isSearchable = (query: string) =>
+  (query.match(/[\p{L}\p{N}]/gu)?.length ?? 0) >= MIN_SEARCH_CHARACTERS;
 
 const generateTrackingNumber = () => {
   const base = Math.random().toString(36).slice(2, 10).toUpperCase();
@@ -119,6 +125,8 @@ export function OrdersPage({ token, user, onLogout }: OrdersPageProps) {
 
   const [orders, setOrders] = useState<Order[]>([]);
   const [filter, setFilter] = useState<FilterValue>("ALL");
+  const [searchTerm, setSearchTerm] = useState("");
+  const [searchQuery, setSearchQuery] = useState("");
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
   const [successMessage, setSuccessMessage] = useState<string | null>(null);
@@ -135,6 +143,9 @@ export function OrdersPage({ token, user, onLogout }: OrdersPageProps) {
   const [createForm, setCreateForm] = useState(emptyCreateForm);
   const [createError, setCreateError] = useState<string | null>(null);
   const [createSubmitting, setCreateSubmitting] = useState(false);
+  const createIdempotencyRef = useRef(createIdempotencyKeyTracker());
+  const createFormRef = useRef(createForm);
+  createFormRef.current = createForm;
 
   const [actionModal, setActionModal] = useState<ActionModalState | null>(null);
   const [actionError, setActionError] = useState<string | null>(null);
@@ -148,11 +159,29 @@ export function OrdersPage({ token, user, onLogout }: OrdersPageProps) {
   const fetchOrders = useCallback(
     async (signal?: AbortSignal) => {
       const statusParam = filter === "ALL" ? undefined : filter;
+      if (searchQuery) {
+        const page = await api.searchOrders(
+          token,
+          searchQuery,
+          statusParam,
+          signal
+        );
+        return page.items;
+      }
       return api.getOrders(token, statusParam, signal);
     },
-    [token, filter]
+    [token, filter, searchQuery]
   );
 
+  useEffect(() => {
+    const trimmed = searchTerm.trim();
+    const timeoutId = window.setTimeout(
+      () => setSearchQuery(isSearchable(trimmed) ? trimmed : ""),
+      SEARCH_DEBOUNCE_MS
+    );
+    return () => window.clearTimeout(timeoutId);
+  }, [searchTerm]);
+
   const refreshOrders = useCallback(async () => {
     try {
       const data = await fetchOrders();
@@ -245,37 +274,65 @@ export function OrdersPage({ token, user, onLogout }: OrdersPageProps) {
     }
 
     const controller = new AbortController();
+    const namePrefix = productFilter.trim();
     setProductsError(null);
-    setIsProductsLoading(true);
 
-    api
-      .getProducts(token, controller.signal)
-      .then((data) => {
-        const activeProducts = data.filter((product) => product.active);
-        setProducts(activeProducts);
-      })
-      .catch((err: unknown) => {
-        if (controller.signal.aborted) {
-          return;
-        }
-        setProductsError(
-          err instanceof Error
-            ? err.message
-            : "Unable to load catalog data right now"
-        );
-      })
-      .finally(() => {
-        if (!controller.signal.aborted) {
-          setIsProductsLoading(false);
-        }
-      });
+    const timeoutId = window.setTimeout(() => {
+      setIsProductsLoading(true);
+      api
+        .filterProducts(
+          token,
+          {
+            active: true,
+            namePrefix: namePrefix || undefined,
+            size: PRODUCT_PICKER_PAGE_SIZE,
+          },
+          controller.signal
+        )
+        .then((page) => {
+          setProductTotal(page.totalElements);
+          setProducts((previous) => {
+            // Products already picked stay selectable when the filter no longer matches them.
+            const pickedIds = new Set(
+              createFormRef.current.items.map((item) => item.productId)
+            );
+            const matchedIds = new Set(page.items.map((product) => product.id));
+            const picked = previous.filter(
+              (product) =>
+                pickedIds.has(product.id) && !matchedIds.has(product.id)
+            );
+            return [...picked, ...page.items];
+          });
+        })
+        .catch((err: unknown) => {
+          if (controller.signal.aborted) {
+            return;
+          }
+          setProductsError(
+            err instanceof Error
+              ? err.message
+              : "Unable to load catalog data right now"
+          );
+        })
+        .finally(() => {
+          if (!controller.signal.aborted) {
+            setIsProductsLoading(false);
+          }
+        });
+    }, namePrefix ? SEARCH_DEBOUNCE_MS : 0);
 
-    return () => controller.abort();
-  }, [showCreateModal, canCreateOrders, token]);
+    return () => {
+      window.clearTimeout(timeoutId);
+      controller.abort();
+    };
+  }, [showCreateModal, canCreateOrders, token, productFilter]);
 
   const pageTitle = useMemo(() => {
+    if (searchQuery) {
+      return `Orders matching "${searchQuery}"`;
+    }
     return filter === "ALL" ? "All orders" : `${statusLabels[filter]} orders`;
-  }, [filter]);
+  }, [filter, searchQuery]);
 
   const heroCopy =
     user.role === "STORE_USER"
@@ -346,6 +403,7 @@ export function OrdersPage({ token, user, onLogout }: OrdersPageProps) {
     setCreateError(null);
     setCreateSubmitting(false);
     setCreateForm(emptyCreateForm);
+    setProductFilter("");
   };
 
   const handleCreateOrder = async (event: FormEvent<HTMLFormElement>) => {
@@ -373,11 +431,17 @@ export function OrdersPage({ token, user, onLogout }: OrdersPageProps) {
     setCreateSubmitting(true);
 
     try {
-      await api.createOrder(token, {
+      const payload = {
         shippingAddress,
         customerGst: createForm.customerGst.trim() || null,
         items: preparedItems,
-      });
+      };
+      await api.createOrder(
+        token,
+        payload,
+        createIdempotencyRef.current.keyFor(payload)
+      );
+      createIdempotencyRef.current.reset();
       closeCreateModal();
       setSuccessMessage("Order created successfully");
       await refreshOrders();
@@ -601,6 +665,14 @@ export function OrdersPage({ token, user, onLogout }: OrdersPageProps) {
             </button>
           ))}
         </div>
+        <input
+          type="search"
+          className="toolbar-search"
+          value={searchTerm}
+          onChange={(event) => setSearchTerm(event.target.value)}
+          placeholder="Search by store, address, GST, tracking number or product"
+          aria-label="Search orders"
+        />
       </div>
 
       {!isLoading && !error && orders.length > 0 ? (
@@ -894,13 +966,32 @@ export function OrdersPage({ token, user, onLogout }: OrdersPageProps) {
                   Select up to {MAX_ORDER_ITEMS} SKUs. Quantities default to 1.
                 </p>
 
-                {isProductsLoading ? (
+                <label className="form-field" htmlFor="order-product-filter">
+                  <span className="meta-label">Filter catalog by name</span>
+                  <input
+                    id="order-product-filter"
+                    type="search"
+                    value={productFilter}
+                    onChange={(event) => setProductFilter(event.target.value)}
+                    placeholder="Start typing a product name"
+                  />
+                </label>
+                {productTotal > PRODUCT_PICKER_PAGE_SIZE ? (
+                  <p className="small-muted">
+                    Showing the first {PRODUCT_PICKER_PAGE_SIZE} of{" "}
+                    {productTotal} matches. Narrow the filter to find more.
+                  </p>
+                ) : null}
+
+                {isProductsLoading && products.length === 0 ? (
                   <div className="centered">
                     <div className="spinner" aria-label="Loading products" />
                   </div>
                 ) : products.length === 0 ? (
                   <p className="small-muted">
-                    No active products available. Add catalog entries first.
+                    {productFilter.trim()
+                      ? "No active products match this filter."
+                      : "No active products available. Add catalog entries first."}
                   </p>
                 ) : (
                   <div className="item-grid">
@@ -1,5 +1,9 @@
-import type { Order } from "../types/order";
-import type { Product } from "../types/product";
+import type { Order, OrderSearchPage } from "../types/order";
+import type {
+  Product,
+  ProductFilterParams,
+  ProductPage,
+} from "../types/product";
 import type { NotificationEntry } from "../types/notification";
 import type {
   CurrentUser,
@@ -21,6 +25,7 @@ type RequestOptions = {
   body?: unknown;
   token?: string | null;
   signal?: AbortSignal;
+  headers?: Record<string, string>;
 };
 
 const defaultHeaders = {
@@ -32,7 +37,10 @@ async function request<T>(
   options: RequestOptions = {}
 ): Promise<T> {
   const { method = "GET", body, token, signal } = options;
-  const headers: Record<string, string> = { ...defaultHeaders };
+  const headers: Record<string, string> = {
+    ...defaultHeaders,
+    ...options.headers,
+  };
 
   if (token) {
     headers[AUTH_HEADER] = `Bearer ${token}`;
@@ -147,6 +155,13 @@ export const api = {
     });
   },
 
+  logout(token: string) {
+    return request<void>("/api/v1/auth/logout", {
+      method: "POST",
+      token,
+    });
+  },
+
   register(payload: RegisterPayload, token?: string, signal?: AbortSignal) {
     return request<UserAccount>("/api/v1/auth/register", {
       method: "POST",
@@ -171,6 +186,22 @@ export const api = {
     });
   },
 
+  searchOrders(
+    token: string,
+    query: string,
+    status?: string,
+    signal?: AbortSignal
+  ) {
+    const searchParams = new URLSearchParams({ q: query, size: "50" });
+    if (status) {
+      searchParams.set("status", status);
+    }
+    return request<OrderSearchPage>(`/api/v1/orders/search?${searchParams}`, {
+      token,
+      signal,
+    });
+  },
+
   getProducts(token: string, signal?: AbortSignal) {
     return request<Product[]>("/api/v1/products", {
       token,
@@ -178,6 +209,35 @@ export const api = {
     });
   },
 
+  filterProducts(
+    token: string,
+    filter: ProductFilterParams,
+    signal?: AbortSignal
+  ) {
+    const searchParams = new URLSearchParams();
+    if (filter.contains) {
+      searchParams.set("contains", JSON.stringify(filter.contains));
+    }
+    filter.hasKeys?.forEach((key) => searchParams.append("hasKey", key));
+    filter.ranges?.forEach((range) => searchParams.append("range", range));
+    if (filter.active !== undefined) {
+      searchParams.set("active", String(filter.active));
+    }
+    if (filter.namePrefix) {
+      searchParams.set("namePrefix", filter.namePrefix);
+    }
+    if (filter.page !== undefined) {
+      searchParams.set("page", String(filter.page));
+    }
+    if (filter.size !== undefined) {
+      searchParams.set("size", String(filter.size));
+    }
+    return request<ProductPage>(`/api/v1/products/filter?${searchParams}`, {
+      token,
+      signal,
+    });
+  },
+
   createProduct(
     token: string,
     payload: CreateProductPayload,
@@ -208,6 +268,7 @@ export const api = {
   createOrder(
     token: string,
     payload: CreateOrderPayload,
+    idempotencyKey?: string,
     signal?: AbortSignal
   ) {
     return request<Order>("/api/v1/orders", {
@@ -215,6 +276,9 @@ export const api = {
       body: payload,
       token,
       signal,
+      headers: idempotencyKey
+        ? { "Idempotency-Key": idempotencyKey }
+        : undefined,
     });
   },
 
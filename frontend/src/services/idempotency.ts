@@ -0,0 +1,21 @@
+/**
+ * Hands out one Idempotency-Key per distinct payload so retries of the same
+ * submission (e.g. after a dropped connection) reuse the key, while an edited
+ * payload gets a fresh one.
+ */
+export function createIdempotencyKeyTracker() {
+  let current: { fingerprint: string; key: string } | null = null;
+
+  return {
+    keyFor(payload: unknown) {
+      const fingerprint = JSON.stringify(payload);
+      if (!current || current.fingerprint !== fingerprint) {
+        current = { fingerprint, key: crypto.randomUUID() };
+      }
+      return current.key;
+    },
+    reset() {
+      current = null;
+    },
+  };
+}
@@ -34,6 +34,13 @@ export type Order = {
 
 export type OrdersResponse = Order[];
 
+export type OrderSearchPage = {
+  items: Order[];
+  page: number;
+  size: number;
+  hasNext: boolean;
+};
+
 export type UserRole =
   | "ADMIN"
   | "APPROVER"
@@ -9,3 +9,20 @@ export type Product = {
   active: boolean;
   createdAt: string;
 };
+
+export type ProductPage = {
+  items: Product[];
+  page: number;
+  size: number;
+  totalElements: number;
+};
+
+export type ProductFilterParams = {
+  contains?: Record<string, string | number | boolean | null>;
+  hasKeys?: string[];
+  ranges?: string[];
+  active?: boolean;
+  namePrefix?: string;
+  page?: number;
+  size?: number;
+};